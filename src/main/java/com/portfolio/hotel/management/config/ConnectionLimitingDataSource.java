@@ -0,0 +1,144 @@
+package com.portfolio.hotel.management.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.pool.HikariPool;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * 同時に使う接続の数を接続プールの大きさまでに制限するDataSource。
+ * 仮想スレッドでは同時に処理するリクエストの数がスレッド数で制限されないため、接続の空きを待つスレッドを
+ * 到着順に並べて待たせ、接続プールに一度に取得に来るスレッドの数を抑える。
+ * 待ち時間が上限を超えた場合は接続プールと同じく SQLTransientConnectionException を投げる。
+ * 接続プールがHikariCPの場合、接続プールで待つのは空きを待った残りの時間だけにする（合計で上限を超えない）。
+ * 閉じると包んでいる接続プールも閉じる（アプリケーションの終了時に接続を残さない）。
+ */
+public class ConnectionLimitingDataSource extends DelegatingDataSource implements AutoCloseable {
+
+  private final Semaphore permits;
+  private final long timeoutMillis;
+
+  public ConnectionLimitingDataSource(DataSource target, int maxConnections,
+      long timeoutMillis) {
+    super(target);
+    this.permits = new Semaphore(maxConnections, true);
+    this.timeoutMillis = timeoutMillis;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    long remainingMillis = acquire();
+    try {
+      return limited(getTargetConnection(remainingMillis));
+    } catch (SQLException | RuntimeException | Error e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    acquire();
+    try {
+      return limited(obtainTargetDataSource().getConnection(username, password));
+    } catch (SQLException | RuntimeException | Error e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  // 包んでいる接続プールを閉じる
+  @Override
+  public void close() throws Exception {
+    if (obtainTargetDataSource() instanceof AutoCloseable target) {
+      target.close();
+    }
+  }
+
+  // 空いている接続の数
+  public int getAvailableConnections() {
+    return permits.availablePermits();
+  }
+
+  // 接続の空きを待っているスレッドの数（目安）
+  public int getWaitingThreads() {
+    return permits.getQueueLength();
+  }
+
+  // 空きを取得し、待ち時間の上限までの残りの時間（ミリ秒）を返す
+  private long acquire() throws SQLException {
+    long start = System.nanoTime();
+    try {
+      if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+        throw timeout();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLTransientConnectionException("DBの接続の空きを待つ間に中断されました", e);
+    }
+    long remainingMillis =
+        timeoutMillis - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    if (remainingMillis <= 0) {
+      permits.release();
+      throw timeout();
+    }
+    return remainingMillis;
+  }
+
+  private SQLTransientConnectionException timeout() {
+    return new SQLTransientConnectionException(
+        "DBの接続の空きを" + timeoutMillis + "ミリ秒待ちましたが取得できませんでした");
+  }
+
+  // HikariCPの接続プールが作成済みの場合は、接続プールで待つ時間を残りの時間に縮める
+  // （作成前の最初の取得と閉じた後は、接続プールの通常の取得に任せる）
+  private Connection getTargetConnection(long remainingMillis) throws SQLException {
+    if (obtainTargetDataSource() instanceof HikariDataSource dataSource
+        && !dataSource.isClosed()
+        && dataSource.getHikariPoolMXBean() instanceof HikariPool pool) {
+      return pool.getConnection(remainingMillis);
+    }
+    return obtainTargetDataSource().getConnection();
+  }
+
+  // 接続を閉じたとき（接続プールに返したとき）に1回だけ空きを戻す
+  private Connection limited(Connection connection) {
+    AtomicBoolean released = new AtomicBoolean();
+    return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+        new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "equals" -> {
+              return proxy == args[0];
+            }
+            case "hashCode" -> {
+              return System.identityHashCode(proxy);
+            }
+            case "close" -> {
+              try {
+                connection.close();
+              } finally {
+                if (released.compareAndSet(false, true)) {
+                  permits.release();
+                }
+              }
+              return null;
+            }
+            default -> {
+              try {
+                return method.invoke(connection, args);
+              } catch (InvocationTargetException e) {
+                throw e.getCause();
+              }
+            }
+          }
+        });
+  }
+}
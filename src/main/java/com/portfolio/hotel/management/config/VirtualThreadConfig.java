@@ -0,0 +1,35 @@
+package com.portfolio.hotel.management.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 仮想スレッドでリクエストを処理する場合の設定（spring.threads.virtual.enabled=true のときだけ有効）。
+ * 接続プールをConnectionLimitingDataSourceで包み、接続プールの大きさを超えて同時にDBを使わないようにする。
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+  // 接続プールの大きさを設定していない場合のHikariCPの既定値（起動前は未設定の-1が返る）
+  private static final int DEFAULT_POOL_SIZE = 10;
+
+  @Bean
+  static BeanPostProcessor connectionLimitingDataSourcePostProcessor() {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource dataSource) {
+          int poolSize = dataSource.getMaximumPoolSize() > 0
+              ? dataSource.getMaximumPoolSize() : DEFAULT_POOL_SIZE;
+          return new ConnectionLimitingDataSource(dataSource, poolSize,
+              dataSource.getConnectionTimeout());
+        }
+        return bean;
+      }
+    };
+  }
+}
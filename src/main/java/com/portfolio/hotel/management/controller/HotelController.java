@@ -1,20 +1,45 @@
 package com.portfolio.hotel.management.controller;
 
+import com.portfolio.hotel.management.data.board.FrontDeskBoard;
 import com.portfolio.hotel.management.data.booking.Booking;
+import com.portfolio.hotel.management.data.booking.BookingAvailability;
+import com.portfolio.hotel.management.data.cache.CacheStats;
 import com.portfolio.hotel.management.data.guest.Guest;
+import com.portfolio.hotel.management.data.guest.GuestBulkRegistration;
 import com.portfolio.hotel.management.data.guest.GuestDetail;
+import com.portfolio.hotel.management.data.guest.GuestImportResult;
 import com.portfolio.hotel.management.data.guest.GuestMatch;
+import com.portfolio.hotel.management.data.guest.GuestPage;
+import com.portfolio.hotel.management.data.guest.GuestPageCursor;
 import com.portfolio.hotel.management.data.guest.GuestRegistration;
 import com.portfolio.hotel.management.data.guest.GuestSearchCondition;
+import com.portfolio.hotel.management.data.guest.GuestSuggestion;
+import com.portfolio.hotel.management.data.guest.GuestSummary;
+import com.portfolio.hotel.management.data.report.DailyReport;
+import com.portfolio.hotel.management.data.report.DemographicsCell;
 import com.portfolio.hotel.management.data.reservation.Reservation;
+import com.portfolio.hotel.management.data.reservation.ReservationBulkStatusChange;
+import com.portfolio.hotel.management.data.reservation.ReservationBulkStatusResult;
+import com.portfolio.hotel.management.data.reservation.ReservationStatusChange;
+import com.portfolio.hotel.management.data.reservation.ReservationTransitionResult;
+import com.portfolio.hotel.management.data.room.Room;
+import com.portfolio.hotel.management.data.room.RoomAssignmentResult;
 import com.portfolio.hotel.management.data.user.User;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 import org.springframework.security.core.Authentication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.web.authentication.logout.SecurityContextLogoutHandler;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -22,17 +47,28 @@ import org.springframework.web.bind.annotation.Mapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import com.portfolio.hotel.management.service.HotelService;
+import com.portfolio.hotel.management.service.exporter.GuestExportFormat;
+import com.portfolio.hotel.management.service.exporter.GuestExporter;
+import com.portfolio.hotel.management.service.importer.GuestImportFormat;
+import com.portfolio.hotel.management.service.importer.GuestImporter;
+import com.portfolio.hotel.management.service.index.GuestKanaTrie;
 
 @RestController
 public class HotelController {
 
   private final HotelService service;
+  private final GuestImporter importer;
+  private final GuestExporter exporter;
 
-  public HotelController(HotelService service) {
+  public HotelController(HotelService service, GuestImporter importer, GuestExporter exporter) {
     this.service = service;
+    this.importer = importer;
+    this.exporter = exporter;
   }
 
   @Operation(summary = "全件検索", description = "宿泊者情報の全件検索を行います。")
@@ -47,6 +83,49 @@ public class HotelController {
     return service.getAllBooking(authentication);
   }
 
+  @Operation(summary = "キャッシュの統計",
+      description = "ログイン中のユーザーの、キャッシュごとのヒット・ミス・追い出しの回数を取得します。")
+  @GetMapping("/cache/stats")
+  public List<CacheStats> getCacheStats(Authentication authentication) {
+    return service.getCacheStats(authentication);
+  }
+
+  @Operation(summary = "部屋一覧取得", description = "すべての部屋を取得します。")
+  @GetMapping("/rooms")
+  public List<Room> getAllRoom(Authentication authentication) {
+    return service.getAllRoom(authentication);
+  }
+
+  @Operation(summary = "宿泊プランの空き状況", description = "宿泊プランの指定期間の1泊ごとの予約数と残り数を取得します。")
+  @GetMapping("/booking/availability")
+  public ResponseEntity<BookingAvailability> getAvailability(Authentication authentication,
+      @RequestParam String bookingId,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+    BookingAvailability availability = service.getAvailability(authentication, bookingId, from,
+        to);
+    if (availability == null) {
+      return ResponseEntity.notFound().build();
+    }
+    return ResponseEntity.ok(availability);
+  }
+
+  @Operation(summary = "日別の稼働率・売上", description = "指定期間の日ごと・宿泊プランごとの販売泊数・稼働率・ADR・売上を取得します。")
+  @GetMapping("/report/daily")
+  public List<DailyReport> getDailyReport(Authentication authentication,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+    return service.getDailyReport(authentication, from, to);
+  }
+
+  @Operation(summary = "宿泊者の属性別の集計", description = "指定期間のチェックイン月ごとに、地域・年代・性別ごとの宿泊予約数と泊数を取得します。宿泊プランIDを指定した場合はその宿泊プランだけを集計します。")
+  @GetMapping("/report/demographics")
+  public List<DemographicsCell> getDemographics(Authentication authentication,
+      @RequestParam YearMonth from, @RequestParam YearMonth to,
+      @RequestParam(required = false) String bookingId) {
+    return service.getDemographics(authentication, from, to, bookingId);
+  }
+
   @Operation(summary = "本日宿泊の宿泊者を全件検索", description = "本日宿泊予定の宿泊予約を全件検索します")
   @GetMapping("/guests/check-in-today")
   public List<GuestDetail> getChackInToday(Authentication authentication) {
@@ -54,6 +133,13 @@ public class HotelController {
     return service.getCheckInToday(authentication, today);
   }
 
+  @Operation(summary = "ホーム画面の一覧取得", description = "現在宿泊中・本日チェックイン・本日退館の宿泊者と宿泊プランの一覧と件数をまとめて取得します。")
+  @GetMapping("/board")
+  public FrontDeskBoard getFrontDeskBoard(Authentication authentication) {
+    LocalDate today = LocalDate.now();
+    return service.getFrontDeskBoard(authentication, today);
+  }
+
   @Operation(summary = "現在宿泊中の宿泊者を全件検索", description = "現在宿泊中の宿泊者を全件検索します")
   @GetMapping("/guests/stay")
   public List<GuestDetail> getStay(Authentication authentication) {
@@ -67,6 +153,33 @@ public class HotelController {
     return service.getCheckOutToday(authentication, today);
   }
 
+  @Operation(summary = "一覧取得", description = "一覧画面用に宿泊者と本日にかかる宿泊予約の状況・宿泊プラン名を取得します。")
+  @GetMapping("/guests/summary")
+  public List<GuestSummary> getGuestSummary(Authentication authentication) {
+    LocalDate today = LocalDate.now();
+    return service.getAllGuestSummary(authentication, today);
+  }
+
+  @Operation(summary = "本日宿泊の一覧取得", description = "一覧画面用に本日宿泊予定の宿泊予約を取得します。")
+  @GetMapping("/guests/check-in-today/summary")
+  public List<GuestSummary> getCheckInTodaySummary(Authentication authentication) {
+    LocalDate today = LocalDate.now();
+    return service.getCheckInTodaySummary(authentication, today);
+  }
+
+  @Operation(summary = "現在宿泊中の一覧取得", description = "一覧画面用に現在宿泊中の宿泊予約を取得します。")
+  @GetMapping("/guests/stay/summary")
+  public List<GuestSummary> getStaySummary(Authentication authentication) {
+    return service.getStayNowSummary(authentication);
+  }
+
+  @Operation(summary = "本日退館の一覧取得", description = "一覧画面用に本日退館予定の宿泊予約を取得します。")
+  @GetMapping("/guests/check-out-today/summary")
+  public List<GuestSummary> getCheckOutTodaySummary(Authentication authentication) {
+    LocalDate today = LocalDate.now();
+    return service.getCheckOutTodaySummary(authentication, today);
+  }
+
   @Operation(summary = "単一検索", description = "ID、名前、ふりがな、電話番号、宿泊日から宿泊者情報を検索します。")
   @PostMapping("/guest/search")
   public List<GuestDetail> searchGuest(Authentication authentication,
@@ -74,6 +187,60 @@ public class HotelController {
     return service.searchGuest(authentication, guestSearchCondition);
   }
 
+  @Operation(summary = "全件検索（ページ単位）", description = "宿泊者情報をかな名順にページ単位で取得します。")
+  @GetMapping("/guests/page")
+  public GuestPage getGuestPage(Authentication authentication,
+      @RequestParam(required = false) String pageToken,
+      @RequestParam(defaultValue = "" + GuestPageCursor.DEFAULT_LIMIT) int limit) {
+    return service.getGuestPage(authentication, GuestPageCursor.of(pageToken, limit));
+  }
+
+  @Operation(summary = "本日宿泊の宿泊者を検索（ページ単位）", description = "本日宿泊予定の宿泊者をかな名順にページ単位で取得します。")
+  @GetMapping("/guests/check-in-today/page")
+  public GuestPage getCheckInTodayPage(Authentication authentication,
+      @RequestParam(required = false) String pageToken,
+      @RequestParam(defaultValue = "" + GuestPageCursor.DEFAULT_LIMIT) int limit) {
+    LocalDate today = LocalDate.now();
+    return service.getCheckInTodayPage(authentication, today,
+        GuestPageCursor.of(pageToken, limit));
+  }
+
+  @Operation(summary = "現在宿泊中の宿泊者を検索（ページ単位）", description = "現在宿泊中の宿泊者をかな名順にページ単位で取得します。")
+  @GetMapping("/guests/stay/page")
+  public GuestPage getStayPage(Authentication authentication,
+      @RequestParam(required = false) String pageToken,
+      @RequestParam(defaultValue = "" + GuestPageCursor.DEFAULT_LIMIT) int limit) {
+    return service.getStayNowPage(authentication, GuestPageCursor.of(pageToken, limit));
+  }
+
+  @Operation(summary = "本日退館の宿泊者を検索（ページ単位）", description = "本日退館予定の宿泊者をかな名順にページ単位で取得します。")
+  @GetMapping("/guests/check-out-today/page")
+  public GuestPage getCheckOutTodayPage(Authentication authentication,
+      @RequestParam(required = false) String pageToken,
+      @RequestParam(defaultValue = "" + GuestPageCursor.DEFAULT_LIMIT) int limit) {
+    LocalDate today = LocalDate.now();
+    return service.getCheckOutTodayPage(authentication, today,
+        GuestPageCursor.of(pageToken, limit));
+  }
+
+  @Operation(summary = "単一検索（ページ単位）", description = "検索条件に一致する宿泊者情報をかな名順にページ単位で取得します。")
+  @PostMapping("/guest/search/page")
+  public GuestPage searchGuestPage(Authentication authentication,
+      @RequestBody GuestSearchCondition guestSearchCondition,
+      @RequestParam(required = false) String pageToken,
+      @RequestParam(defaultValue = "" + GuestPageCursor.DEFAULT_LIMIT) int limit) {
+    return service.searchGuestPage(authentication, guestSearchCondition,
+        GuestPageCursor.of(pageToken, limit));
+  }
+
+  @Operation(summary = "入力補完", description = "かな名・名前の前方一致で宿泊者の候補を取得します。")
+  @GetMapping("/guest/suggest")
+  public List<GuestSuggestion> suggestGuest(Authentication authentication,
+      @RequestParam String prefix,
+      @RequestParam(defaultValue = "" + GuestKanaTrie.DEFAULT_LIMIT) int limit) {
+    return service.suggestGuest(authentication, prefix, limit);
+  }
+
   @Operation(summary = "完全一致検索", description = "名前、ふりがな、電話番号から宿泊者情報を完全一致検索し、宿泊者登録のためのデータを返します")
   @PostMapping("/guest/match")
   public GuestRegistration matchGuestForInsert(Authentication authentication,
@@ -89,7 +256,44 @@ public class HotelController {
     return ResponseEntity.ok("宿泊者情報の登録が完了しました。");
   }
 
-  @Operation(summary = "宿泊プラン登録", description = "宿泊プランを入力し、登録します。")
+  @Operation(summary = "宿泊者情報の一括登録", description = "団体予約などの複数の宿泊者情報をまとめて登録します。")
+  @PutMapping("/guest/register/bulk")
+  public ResponseEntity<String> registerGuests(Authentication authentication,
+      @RequestBody @Valid GuestBulkRegistration guestBulkRegistration) {
+    int count = service.registerGuests(authentication,
+        guestBulkRegistration.getRegistrations());
+    return ResponseEntity.ok(count + "件の宿泊者情報の登録が完了しました。");
+  }
+
+  @Operation(summary = "宿泊者情報の取り込み", description = "CSVまたはNDJSONの宿泊者情報・宿泊予約を1件ずつ読み込んで登録します。"
+      + "チェックアウト日が過ぎた宿泊予約は、ステータスの指定がなければチェックアウト済みとして登録します。")
+  @PostMapping(value = "/guest/import", consumes = {"text/csv", "application/x-ndjson"})
+  public GuestImportResult importGuests(Authentication authentication,
+      @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+      InputStream body) throws IOException {
+    LocalDate today = LocalDate.now();
+    return importer.importGuests(authentication, GuestImportFormat.fromContentType(contentType),
+        body, today);
+  }
+
+  @Operation(summary = "宿泊者の出力", description = "宿泊者をCSVまたはNDJSONで1件ずつ書き出します。")
+  @GetMapping("/export/guests")
+  public ResponseEntity<StreamingResponseBody> exportGuests(Authentication authentication,
+      @RequestParam(defaultValue = "CSV") GuestExportFormat format) {
+    return export("guests", format,
+        out -> exporter.exportGuests(authentication, format, out));
+  }
+
+  @Operation(summary = "宿泊予約の出力", description = "宿泊予約をCSVまたはNDJSONで1件ずつ書き出します。")
+  @GetMapping("/export/reservations")
+  public ResponseEntity<StreamingResponseBody> exportReservations(Authentication authentication,
+      @RequestParam(defaultValue = "CSV") GuestExportFormat format) {
+    return export("reservations", format,
+        out -> exporter.exportReservations(authentication, format, out));
+  }
+
+  @Operation(summary = "宿泊プラン登録", description = "宿泊プランを入力し、登録します。"
+      + "1泊あたりの受け入れ可能数（capacity）は必須です。")
   @PutMapping("/booking/register")
   public ResponseEntity<String> registerBooking(
       Authentication authentication,
@@ -98,6 +302,21 @@ public class HotelController {
     return ResponseEntity.ok("宿泊プランの登録が完了しました。");
   }
 
+  @Operation(summary = "部屋登録", description = "宿泊プランの部屋を登録します。")
+  @PutMapping("/room/register")
+  public ResponseEntity<String> registerRoom(Authentication authentication,
+      @RequestBody @Valid Room room) {
+    service.registerRoom(authentication, room);
+    return ResponseEntity.ok("部屋の登録が完了しました。");
+  }
+
+  @Operation(summary = "部屋の自動割り当て", description = "本日チェックイン予定で部屋が未割り当ての宿泊予約に、宿泊期間の最後まで空いている部屋を割り当てます。")
+  @PutMapping("/room/assign")
+  public RoomAssignmentResult assignRooms(Authentication authentication) {
+    LocalDate today = LocalDate.now();
+    return service.assignRooms(authentication, today);
+  }
+
   @Operation(summary = "宿泊者の更新", description = "宿泊者を更新します。")
   @PutMapping("/guest/update")
   public ResponseEntity<String> updateGuest(Authentication authentication,
@@ -115,7 +334,8 @@ public class HotelController {
   }
 
 
-  @Operation(summary = "宿泊情報の更新", description = "宿泊予約情報を更新します。")
+  @Operation(summary = "宿泊情報の更新",
+      description = "宿泊予約情報を更新します。ステータスは更新せず、ステータスの変更で更新します。")
   @PutMapping("/reservation/update")
   public ResponseEntity<String> updateReservation(Authentication authentication,
       @RequestBody Reservation reservation) {
@@ -147,7 +367,10 @@ public class HotelController {
       Authentication authentication,
       @RequestParam String id,
       @RequestParam String name) {
-    service.checkIn(authentication, id);
+    ReservationTransitionResult result = service.checkIn(authentication, id);
+    if (!result.isSuccess()) {
+      return ResponseEntity.status(HttpStatus.CONFLICT).body(result.getMessage());
+    }
     return ResponseEntity.ok(name + "様のチェックインが完了しました。");
   }
 
@@ -157,10 +380,36 @@ public class HotelController {
       Authentication authentication,
       @RequestParam String id,
       @RequestParam String name) {
-    service.checkOut(authentication, id);
+    ReservationTransitionResult result = service.checkOut(authentication, id);
+    if (!result.isSuccess()) {
+      return ResponseEntity.status(HttpStatus.CONFLICT).body(result.getMessage());
+    }
     return ResponseEntity.ok(name + "様のチェックアウトが完了しました。");
   }
 
+  @Operation(summary = "一括チェックイン", description = "団体客などの複数の宿泊予約をまとめてチェックインします。")
+  @PutMapping("/guest/checkIn/bulk")
+  public ReservationBulkStatusResult checkInAll(Authentication authentication,
+      @RequestBody @Valid ReservationBulkStatusChange statusChange) {
+    return service.checkInAll(authentication, statusChange.getReservationIds());
+  }
+
+  @Operation(summary = "一括チェックアウト", description = "複数の宿泊予約をまとめてチェックアウトします。")
+  @PutMapping("/guest/checkOut/bulk")
+  public ReservationBulkStatusResult checkOutAll(Authentication authentication,
+      @RequestBody @Valid ReservationBulkStatusChange statusChange) {
+    return service.checkOutAll(authentication, statusChange.getReservationIds());
+  }
+
+  @Operation(summary = "宿泊予約のステータス変更", description = "キャンセル・ノーショー・取り消しなどの操作で複数の宿泊予約のステータスをまとめて変更し、予約ごとの結果を返します。")
+  @PutMapping("/reservation/status")
+  public List<ReservationTransitionResult> changeReservationStatus(
+      Authentication authentication,
+      @RequestBody @Valid ReservationStatusChange statusChange) {
+    return service.changeStatusAll(authentication, statusChange.getReservationIds(),
+        statusChange.getAction());
+  }
+
   @Operation(summary = "新規ユーザーの登録", description = "IDとパスワードを取得して、新規ユーザの登録を行います。")
   @PutMapping("/user/register")
   public ResponseEntity<String> registerUser(@RequestBody User user) {
@@ -179,4 +428,16 @@ public class HotelController {
     }
     return ResponseEntity.ok().build();
   }
-}
\ No newline at end of file
+
+  // レスポンスの書き込みは非同期のスレッドで行われるため、出力のトランザクションもその中で開始する
+  private ResponseEntity<StreamingResponseBody> export(String name, GuestExportFormat format,
+      StreamingResponseBody body) {
+    return ResponseEntity.ok()
+        .contentType(MediaType.parseMediaType(format.getMediaType() + ";charset=UTF-8"))
+        .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+            .filename(name + "." + format.getExtension())
+            .build()
+            .toString())
+        .body(body);
+  }
+}
@@ -0,0 +1,29 @@
+package com.portfolio.hotel.management.data.board;
+
+import com.portfolio.hotel.management.data.booking.Booking;
+import com.portfolio.hotel.management.data.guest.GuestDetail;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+
+// フロントのホーム画面に表示する宿泊者と宿泊プランの一覧と件数
+@Getter
+@Setter
+public class FrontDeskBoard {
+
+  private List<GuestDetail> stayNow;
+
+  private List<GuestDetail> checkInToday;
+
+  private List<GuestDetail> checkOutToday;
+
+  private List<Booking> bookings;
+
+  private int stayNowCount;
+
+  private int checkInTodayCount;
+
+  private int checkOutTodayCount;
+
+  private int bookingCount;
+}
@@ -1,5 +1,6 @@
 package com.portfolio.hotel.management.data.booking;
 
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
@@ -27,5 +28,10 @@ public class Booking {
 
   private Boolean isAvailable = true;
 
+  // 1泊あたりに受け入れ可能な予約数（登録時は必須、編集時に未指定の場合は変更しない）
+  @NotNull(message = "受け入れ可能数は必須です")
+  @Min(value = 1, message = "受け入れ可能数は1以上である必要があります")
+  private Integer capacity;
+
   String userId;
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.portfolio.hotel.management.data.booking;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+
+// 宿泊プランの指定期間の空き状況
+@Getter
+@Setter
+public class BookingAvailability {
+
+  // 1回で取得できる最大日数
+  public static final int MAX_DAYS = 366;
+
+  private String bookingId;
+
+  private String name;
+
+  private Integer capacity;
+
+  private List<DailyAvailability> days = new ArrayList<>();
+}
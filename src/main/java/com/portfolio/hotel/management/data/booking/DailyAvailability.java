@@ -0,0 +1,18 @@
+package com.portfolio.hotel.management.data.booking;
+
+import java.time.LocalDate;
+import lombok.Getter;
+import lombok.Setter;
+
+// 1泊分の予約数と残り数
+@Getter
+@Setter
+public class DailyAvailability {
+
+  private LocalDate date;
+
+  private int reserved;
+
+  // 予約数が受け入れ可能数を超えている場合は0
+  private int remaining;
+}
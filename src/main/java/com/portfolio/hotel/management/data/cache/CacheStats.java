@@ -0,0 +1,30 @@
+package com.portfolio.hotel.management.data.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+
+// ユーザーごとのキャッシュのヒット・ミス・追い出しの回数（起動時からの累計）
+@Getter
+@Setter
+public class CacheStats {
+
+  private String name;
+
+  // ユーザーの分としてキャッシュしているエントリー数
+  private int size;
+
+  // ユーザーの分としてキャッシュしている値の推定メモリ使用量（バイト。見積もらないキャッシュは0）
+  private long estimatedBytes;
+
+  private long hits;
+
+  private long misses;
+
+  // 件数の上限・有効期限による追い出し（更新による無効化は含まない）
+  private long evictions;
+
+  private long invalidations;
+
+  // ヒット数 / (ヒット数 + ミス数)
+  private double hitRate;
+}
@@ -1,5 +1,6 @@
 package com.portfolio.hotel.management.data.guest;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -48,5 +49,9 @@ public class Guest {
   @NotNull(message = "削除フラグは必須です")
   private Boolean deleted = false;
 
+  // 完全一致検索用のキー（登録・更新時に算出）
+  @JsonIgnore
+  private String matchKey;
+
 
 }
\ No newline at end of file
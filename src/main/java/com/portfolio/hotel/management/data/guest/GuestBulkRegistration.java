@@ -0,0 +1,19 @@
+package com.portfolio.hotel.management.data.guest;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class GuestBulkRegistration {
+
+  public static final int MAX_SIZE = 500;
+
+  @NotEmpty(message = "登録する宿泊者は1件以上必要です")
+  @Size(max = MAX_SIZE, message = "一度に登録できる宿泊者は{max}件までです")
+  private List<@Valid GuestRegistration> registrations;
+}
@@ -0,0 +1,23 @@
+package com.portfolio.hotel.management.data.guest;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class GuestImportResult {
+
+  // 読み込んだ件数
+  private int totalRows;
+
+  // 登録した宿泊予約の件数
+  private int importedRows;
+
+  // 入力内容に誤りがあり登録しなかった件数
+  private int skippedRows;
+
+  // 登録しなかった行の理由（先頭から一定件数まで）
+  private List<String> errors = new ArrayList<>();
+}
@@ -1,5 +1,6 @@
 package com.portfolio.hotel.management.data.guest;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import lombok.Getter;
@@ -21,4 +22,8 @@ public class GuestMatch {
 
   private String userId;
 
+  // 名前・かな名・電話番号から算出した完全一致検索用のキー
+  @JsonIgnore
+  private String matchKey;
+
 }
@@ -0,0 +1,15 @@
+package com.portfolio.hotel.management.data.guest;
+
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class GuestPage {
+
+  private List<GuestDetail> guests;
+
+  // 次のページを取得するためのトークン（最終ページの場合はnull）
+  private String nextPageToken;
+}
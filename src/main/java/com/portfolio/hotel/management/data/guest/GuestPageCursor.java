@@ -0,0 +1,59 @@
+package com.portfolio.hotel.management.data.guest;
+
+import com.portfolio.hotel.management.exception.InvalidPageTokenException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import lombok.Getter;
+
+/** かな名と宿泊者IDの組で並べた宿泊者一覧のキーセットページング位置 */
+@Getter
+public class GuestPageCursor {
+
+  public static final int DEFAULT_LIMIT = 50;
+  public static final int MAX_LIMIT = 200;
+
+  private static final String SEPARATOR = "\n";
+
+  // 直前のページの最後の宿泊者（先頭ページの場合はnull）
+  private final String kanaName;
+  private final String id;
+
+  private final int limit;
+
+  private GuestPageCursor(String kanaName, String id, int limit) {
+    this.kanaName = kanaName;
+    this.id = id;
+    this.limit = Math.min(Math.max(limit, 1), MAX_LIMIT);
+  }
+
+  // ページトークンから取得位置を復元
+  public static GuestPageCursor of(String pageToken, int limit) {
+    if (pageToken == null || pageToken.isBlank()) {
+      return new GuestPageCursor(null, null, limit);
+    }
+    String decoded;
+    try {
+      decoded = new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.UTF_8);
+    } catch (IllegalArgumentException e) {
+      throw new InvalidPageTokenException("ページトークンが不正です");
+    }
+    int separator = decoded.lastIndexOf(SEPARATOR);
+    if (separator < 0) {
+      throw new InvalidPageTokenException("ページトークンが不正です");
+    }
+    return new GuestPageCursor(decoded.substring(0, separator),
+        decoded.substring(separator + 1), limit);
+  }
+
+  // 宿泊者の位置をページトークンに変換
+  public static String toPageToken(Guest guest) {
+    String raw = guest.getKanaName() + SEPARATOR + guest.getId();
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  // 次ページの有無を判定するため1件多く取得する
+  public int getFetchSize() {
+    return limit + 1;
+  }
+}
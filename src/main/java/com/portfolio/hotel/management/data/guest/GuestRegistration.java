@@ -1,5 +1,7 @@
 package com.portfolio.hotel.management.data.guest;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.portfolio.hotel.management.data.reservation.ReservationStatus;
 import jakarta.validation.constraints.FutureOrPresent;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
@@ -29,4 +31,8 @@ public class GuestRegistration {
 
   private String memo;
 
+  // 取り込んだ過去の宿泊予約のステータス（未指定の場合は未チェックイン。画面からは指定できない）
+  @JsonIgnore
+  private ReservationStatus status;
+
 }
@@ -1,6 +1,8 @@
 package com.portfolio.hotel.management.data.guest;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.time.LocalDate;
+import java.util.List;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -19,4 +21,8 @@ public class GuestSearchCondition {
  private LocalDate checkOutDate;
 
  private String userId;
+
+ // 名前・かな名の索引で絞り込んだ宿泊者ID（IN句の上限ごとに分割。設定時は部分一致検索の代わりに使用）
+ @JsonIgnore
+ private List<List<String>> guestIdChunks;
 }
\ No newline at end of file
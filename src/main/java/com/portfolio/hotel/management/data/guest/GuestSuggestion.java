@@ -0,0 +1,18 @@
+package com.portfolio.hotel.management.data.guest;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class GuestSuggestion {
+
+  private String id;
+
+  private String name;
+
+  private String kanaName;
+
+  // 電話番号の下4桁
+  private String phoneTail;
+}
@@ -0,0 +1,31 @@
+package com.portfolio.hotel.management.data.guest;
+
+import com.portfolio.hotel.management.data.reservation.ReservationStatus;
+import java.time.LocalDate;
+import lombok.Getter;
+import lombok.Setter;
+
+// 一覧画面の1行分（宿泊者と対象の宿泊予約の状況・宿泊プラン名だけを持つ）
+@Getter
+@Setter
+public class GuestSummary {
+
+  private String guestId;
+
+  private String name;
+
+  private String kanaName;
+
+  private String phone;
+
+  // 対象の宿泊予約がない場合は以下の項目がnull
+  private String reservationId;
+
+  private LocalDate checkInDate;
+
+  private LocalDate checkOutDate;
+
+  private ReservationStatus status;
+
+  private String bookingName;
+}
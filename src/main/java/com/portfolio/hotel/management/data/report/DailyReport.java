@@ -0,0 +1,31 @@
+package com.portfolio.hotel.management.data.report;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+
+// 1日分の全宿泊プランの稼働率・ADR・売上
+@Getter
+@Setter
+public class DailyReport {
+
+  // 一度に取得できる最大の日数
+  public static final int MAX_DAYS = 366;
+
+  private LocalDate date;
+
+  private int roomsSold;
+
+  private int capacity;
+
+  private BigDecimal occupancyRate = BigDecimal.ZERO;
+
+  private BigDecimal adr = BigDecimal.ZERO;
+
+  private BigDecimal revenue = BigDecimal.ZERO;
+
+  private List<PlanDailyReport> plans = new ArrayList<>();
+}
@@ -0,0 +1,20 @@
+package com.portfolio.hotel.management.data.report;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import lombok.Getter;
+import lombok.Setter;
+
+// 1日・1宿泊プラン分の販売泊数と売上（集計表の1行、または集計表に加える差分）
+@Getter
+@Setter
+public class DailyStats {
+
+  private LocalDate stayDate;
+
+  private String bookingId;
+
+  private int roomsSold;
+
+  private BigDecimal revenue = BigDecimal.ZERO;
+}
@@ -0,0 +1,28 @@
+package com.portfolio.hotel.management.data.report;
+
+import java.time.YearMonth;
+import lombok.Getter;
+import lombok.Setter;
+
+// チェックイン月・地域・年代・性別ごとの宿泊予約数と泊数
+@Getter
+@Setter
+public class DemographicsCell {
+
+  // 一度に取得できる最大の月数
+  public static final int MAX_MONTHS = 36;
+
+  private YearMonth month;
+
+  private String region;
+
+  // 年代（20は20〜29歳）
+  private Integer ageBand;
+
+  private String gender;
+
+  // キャンセル・ノーショーを除いた宿泊予約数
+  private int reservations;
+
+  private int nights;
+}
@@ -0,0 +1,28 @@
+package com.portfolio.hotel.management.data.report;
+
+import java.math.BigDecimal;
+import lombok.Getter;
+import lombok.Setter;
+
+// 1日分の宿泊プランごとの稼働率・ADR・売上
+@Getter
+@Setter
+public class PlanDailyReport {
+
+  private String bookingId;
+
+  private String name;
+
+  private int roomsSold;
+
+  // 1泊あたりに受け入れ可能な予約数
+  private int capacity;
+
+  // 販売泊数 / 受け入れ可能数
+  private BigDecimal occupancyRate = BigDecimal.ZERO;
+
+  // 販売した1泊あたりの平均単価（売上 / 販売泊数）
+  private BigDecimal adr = BigDecimal.ZERO;
+
+  private BigDecimal revenue = BigDecimal.ZERO;
+}
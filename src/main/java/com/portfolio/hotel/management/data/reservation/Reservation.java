@@ -52,6 +52,9 @@ public class Reservation {
 
   private String memo;
 
+  // 割り当てた部屋ID（未割り当てはnull）
+  private String roomId;
+
   @NotNull
   private LocalDateTime createdAt = LocalDateTime.now();
 
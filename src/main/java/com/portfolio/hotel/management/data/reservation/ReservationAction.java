@@ -0,0 +1,21 @@
+package com.portfolio.hotel.management.data.reservation;
+
+// 宿泊予約のステータスを変更する操作
+public enum ReservationAction {
+  CONFIRM("予約確定"),
+  CHECK_IN("チェックイン"),
+  CHECK_OUT("チェックアウト"),
+  CANCEL("キャンセル"),
+  NO_SHOW("ノーショー"),
+  REVERT("取り消し");
+
+  private final String label;
+
+  ReservationAction(String label) {
+    this.label = label;
+  }
+
+  public String getLabel() {
+    return label;
+  }
+}
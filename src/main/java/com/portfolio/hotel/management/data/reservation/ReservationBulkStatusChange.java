@@ -0,0 +1,19 @@
+package com.portfolio.hotel.management.data.reservation;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ReservationBulkStatusChange {
+
+  // 1回のUPDATEで更新できるようIN句の件数以内にする
+  public static final int MAX_SIZE = 500;
+
+  @NotEmpty(message = "宿泊予約IDは1件以上必要です")
+  @Size(max = MAX_SIZE, message = "一度に更新できる宿泊予約は{max}件までです")
+  private List<String> reservationIds;
+}
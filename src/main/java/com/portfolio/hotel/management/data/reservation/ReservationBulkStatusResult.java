@@ -0,0 +1,17 @@
+package com.portfolio.hotel.management.data.reservation;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ReservationBulkStatusResult {
+
+  // ステータスを更新した宿泊予約ID
+  private List<String> movedIds = new ArrayList<>();
+
+  // ステータスが更新の対象外だった（または存在しない）ため更新しなかった宿泊予約ID
+  private List<String> skippedIds = new ArrayList<>();
+}
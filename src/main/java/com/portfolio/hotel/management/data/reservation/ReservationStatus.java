@@ -5,7 +5,8 @@ public enum ReservationStatus {
   NOT_CHECKED_IN("未チェックイン"),
   CHECKED_IN("チェックイン"),
   CHECKED_OUT("チェックアウト"),
-  CANCELLED("キャンセル");
+  CANCELLED("キャンセル"),
+  NO_SHOW("ノーショー");
 
   private final String label;
 
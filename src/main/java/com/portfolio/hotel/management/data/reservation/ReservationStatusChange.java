@@ -0,0 +1,20 @@
+package com.portfolio.hotel.management.data.reservation;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ReservationStatusChange {
+
+  @NotNull(message = "操作は必須です")
+  private ReservationAction action;
+
+  @NotEmpty(message = "宿泊予約IDは1件以上必要です")
+  @Size(max = ReservationBulkStatusChange.MAX_SIZE, message = "一度に更新できる宿泊予約は{max}件までです")
+  private List<String> reservationIds;
+}
@@ -0,0 +1,25 @@
+package com.portfolio.hotel.management.data.reservation;
+
+import lombok.Getter;
+import lombok.Setter;
+
+// 宿泊予約1件分のステータス変更の結果
+@Getter
+@Setter
+public class ReservationTransitionResult {
+
+  private String reservationId;
+
+  private ReservationAction action;
+
+  // 変更前のステータス（予約が見つからない場合など、確認できなかった場合はnull）
+  private ReservationStatus from;
+
+  // 変更後のステータス（変更できなかった場合はnull）
+  private ReservationStatus to;
+
+  private boolean success;
+
+  // 変更できなかった理由（変更できた場合はnull）
+  private String message;
+}
@@ -0,0 +1,31 @@
+package com.portfolio.hotel.management.data.room;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import lombok.Getter;
+import lombok.Setter;
+
+// 部屋（宿泊プランごとに用意し、その宿泊プランの宿泊予約だけを割り当てる）
+@Getter
+@Setter
+public class Room {
+
+  @Pattern(
+      regexp = "^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[1-5][0-9a-fA-F]{3}-[89abAB][0-9a-fA-F]{3}-[0-9a-fA-F]{12}$",
+      message = "IDはUUID形式である必要があります"
+  )
+  private String id;
+
+  @NotBlank(message = "宿泊プランIDは必須です")
+  @Pattern(
+      regexp = "^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[1-5][0-9a-fA-F]{3}-[89abAB][0-9a-fA-F]{3}-[0-9a-fA-F]{12}$",
+      message = "IDはUUID形式である必要があります"
+  )
+  private String bookingId;
+
+  // 部屋番号などの表示名
+  @NotBlank(message = "部屋名は必須です")
+  private String name;
+
+  String userId;
+}
@@ -0,0 +1,16 @@
+package com.portfolio.hotel.management.data.room;
+
+import lombok.Getter;
+import lombok.Setter;
+
+// 宿泊予約1件分の部屋の割り当て
+@Getter
+@Setter
+public class RoomAssignment {
+
+  private String reservationId;
+
+  private String roomId;
+
+  private String roomName;
+}
@@ -0,0 +1,21 @@
+package com.portfolio.hotel.management.data.room;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class RoomAssignmentResult {
+
+  // 割り当てを行ったチェックイン日
+  private LocalDate date;
+
+  // 部屋を割り当てた宿泊予約
+  private List<RoomAssignment> assigned = new ArrayList<>();
+
+  // 宿泊期間の最後まで空いている部屋がないため割り当てなかった宿泊予約ID
+  private List<String> unassignedIds = new ArrayList<>();
+}
@@ -0,0 +1,8 @@
+package com.portfolio.hotel.management.exception;
+
+public class BookingFullException extends RuntimeException {
+
+  public BookingFullException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,8 @@
+package com.portfolio.hotel.management.exception;
+
+public class BookingNotFoundException extends RuntimeException {
+
+  public BookingNotFoundException(String message) {
+    super(message);
+  }
+}
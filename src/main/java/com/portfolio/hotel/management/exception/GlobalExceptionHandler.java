@@ -2,6 +2,7 @@ package com.portfolio.hotel.management.exception;
 
 import java.util.HashMap;
 import java.util.Map;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -20,4 +21,28 @@ public class GlobalExceptionHandler {
 
     return ResponseEntity.badRequest().body(errors);
   }
+
+  @ExceptionHandler(InvalidPageTokenException.class)
+  public ResponseEntity<Map<String, String>> handleInvalidPageTokenException(
+      InvalidPageTokenException ex) {
+    return ResponseEntity.badRequest().body(Map.of("pageToken", ex.getMessage()));
+  }
+
+  @ExceptionHandler(InvalidDateRangeException.class)
+  public ResponseEntity<Map<String, String>> handleInvalidDateRangeException(
+      InvalidDateRangeException ex) {
+    return ResponseEntity.badRequest().body(Map.of("period", ex.getMessage()));
+  }
+
+  @ExceptionHandler(BookingFullException.class)
+  public ResponseEntity<Map<String, String>> handleBookingFullException(
+      BookingFullException ex) {
+    return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("bookingId", ex.getMessage()));
+  }
+
+  @ExceptionHandler(BookingNotFoundException.class)
+  public ResponseEntity<Map<String, String>> handleBookingNotFoundException(
+      BookingNotFoundException ex) {
+    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("bookingId", ex.getMessage()));
+  }
 }
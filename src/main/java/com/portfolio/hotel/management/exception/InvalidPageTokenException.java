@@ -0,0 +1,8 @@
+package com.portfolio.hotel.management.exception;
+
+public class InvalidPageTokenException extends RuntimeException {
+
+  public InvalidPageTokenException(String message) {
+    super(message);
+  }
+}
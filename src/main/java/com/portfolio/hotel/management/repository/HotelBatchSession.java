@@ -0,0 +1,30 @@
+package com.portfolio.hotel.management.repository;
+
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * ExecutorType.BATCH で実行するリポジトリ。
+ * 同じトランザクション内で通常のリポジトリと混在させることはできないため、
+ * 一括処理の中の検索もこのリポジトリから行う。
+ */
+@Component
+public class HotelBatchSession {
+
+  private final SqlSessionTemplate sqlSessionTemplate;
+
+  public HotelBatchSession(SqlSessionFactory sqlSessionFactory) {
+    this.sqlSessionTemplate = new SqlSessionTemplate(sqlSessionFactory, ExecutorType.BATCH);
+  }
+
+  public HotelRepository getRepository() {
+    return sqlSessionTemplate.getMapper(HotelRepository.class);
+  }
+
+  // 溜めている登録・更新をまとめて実行する
+  public void flush() {
+    sqlSessionTemplate.flushStatements();
+  }
+}
@@ -2,16 +2,22 @@ package com.portfolio.hotel.management.repository;
 
 import com.portfolio.hotel.management.data.booking.Booking;
 import com.portfolio.hotel.management.data.guest.Guest;
+import com.portfolio.hotel.management.data.guest.GuestDetail;
 import com.portfolio.hotel.management.data.guest.GuestMatch;
+import com.portfolio.hotel.management.data.guest.GuestPageCursor;
 import com.portfolio.hotel.management.data.guest.GuestSearchCondition;
+import com.portfolio.hotel.management.data.guest.GuestSummary;
+import com.portfolio.hotel.management.data.report.DailyStats;
 import com.portfolio.hotel.management.data.reservation.Reservation;
 import com.portfolio.hotel.management.data.reservation.ReservationStatus;
+import com.portfolio.hotel.management.data.room.Room;
 import com.portfolio.hotel.management.data.user.User;
-import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 import org.springframework.security.core.parameters.P;
 
 @Mapper
@@ -20,12 +26,37 @@ public interface HotelRepository {
   // 宿泊者の全件検索
   List<Guest> findAllGuest(@Param("id") String id);
 
+  // 全ユーザーの宿泊者名・電話番号・完全一致検索用のキーを検索（索引の作成用）
+  List<Guest> findAllGuestName();
+
+  // ユーザーの宿泊者名を検索（索引の作成前に検索されたユーザーの分だけ索引に読み込む用）
+  List<Guest> findGuestName(@Param("userId") String userId);
+
+  // 全ユーザーの全ステータスの宿泊予約の宿泊期間と総額を検索（空き状況の索引の作成用）
+  List<Reservation> findAllReservationStay();
+
+  // 全ユーザーの宿泊者の性別・年齢・地域を検索（宿泊者の属性別の集計の作成用）
+  List<Guest> findAllGuestProfile();
+
+  // 全ユーザーの全ステータスの宿泊予約を検索（宿泊者の属性別の集計の作成用）
+  List<Reservation> findAllReservationGuest();
+
+  // 期間の日別・宿泊プラン別の集計を日付・宿泊プランID順に検索
+  List<DailyStats> findDailyStats(@Param("userId") String userId,
+      @Param("from") LocalDate from, @Param("to") LocalDate to);
+
   // 宿泊プランの全件検索
   List<Booking> findAllBooking(@Param("id") String id);
 
   // 宿泊予約の全件検索
   List<Reservation> findAllReservation(@Param("id") String id);
 
+  // 宿泊者を1件ずつ読み込む（出力用）
+  Cursor<Guest> exportGuest(@Param("userId") String userId);
+
+  // 宿泊予約を1件ずつ読み込む（出力用）
+  Cursor<Reservation> exportReservation(@Param("userId") String userId);
+
   // 本日チェックイン予定の宿泊者を検索
   List<Guest> findGuestsTodayCheckIn(@Param("id") String id,
       @Param("today") LocalDate today);
@@ -48,26 +79,102 @@ public interface HotelRepository {
   List<Reservation> findReservationTodayCheckOut(@Param("id") String id,
       @Param("today") LocalDate today);
 
-  // 宿泊者ID、名前、かな名、電話番号、チェックイン日、チェックアウト日から宿泊者を検索
-  List<Guest> searchGuest(GuestSearchCondition guestSearchCondition);
+  // 宿泊者情報（宿泊予約・宿泊プランを含む）の全件検索
+  List<GuestDetail> findAllGuestDetail(@Param("userId") String userId);
+
+  // 本日チェックイン予定の宿泊者情報を検索
+  List<GuestDetail> findGuestDetailTodayCheckIn(@Param("userId") String userId,
+      @Param("today") LocalDate today);
+
+  // 現在宿泊中の宿泊者情報を検索
+  List<GuestDetail> findGuestDetailStayNow(@Param("userId") String userId);
+
+  // 本日チェックアウト予定の宿泊者情報を検索
+  List<GuestDetail> findGuestDetailTodayCheckOut(@Param("userId") String userId,
+      @Param("today") LocalDate today);
+
+  // 一覧画面用に宿泊者と本日にかかる宿泊予約の状況を検索
+  List<GuestSummary> findAllGuestSummary(@Param("userId") String userId,
+      @Param("today") LocalDate today);
+
+  // 一覧画面用に本日チェックイン予定の宿泊予約を検索
+  List<GuestSummary> findGuestSummaryTodayCheckIn(@Param("userId") String userId,
+      @Param("today") LocalDate today);
+
+  // 一覧画面用に現在宿泊中の宿泊予約を検索
+  List<GuestSummary> findGuestSummaryStayNow(@Param("userId") String userId);
+
+  // 一覧画面用に本日チェックアウト予定の宿泊予約を検索
+  List<GuestSummary> findGuestSummaryTodayCheckOut(@Param("userId") String userId,
+      @Param("today") LocalDate today);
 
-  // 宿泊者IDから宿泊者を完全一致検索
+  // 宿泊者をかな名・宿泊者ID順にページ単位で検索
+  List<Guest> findGuestPage(@Param("userId") String userId,
+      @Param("cursor") GuestPageCursor cursor);
+
+  // 本日チェックイン予定の宿泊者情報をページ単位で検索
+  List<GuestDetail> findGuestDetailPageTodayCheckIn(@Param("userId") String userId,
+      @Param("today") LocalDate today, @Param("cursor") GuestPageCursor cursor);
+
+  // 現在宿泊中の宿泊者情報をページ単位で検索
+  List<GuestDetail> findGuestDetailPageStayNow(@Param("userId") String userId,
+      @Param("cursor") GuestPageCursor cursor);
+
+  // 本日チェックアウト予定の宿泊者情報をページ単位で検索
+  List<GuestDetail> findGuestDetailPageTodayCheckOut(@Param("userId") String userId,
+      @Param("today") LocalDate today, @Param("cursor") GuestPageCursor cursor);
+
+  // 宿泊者ID、名前、かな名、電話番号、チェックイン日、チェックアウト日から宿泊者情報を検索
+  List<GuestDetail> searchGuestDetail(GuestSearchCondition guestSearchCondition);
+
+  // 宿泊者の検索結果をかな名・宿泊者ID順にページ単位で取得
+  List<Guest> searchGuestPage(@Param("condition") GuestSearchCondition guestSearchCondition,
+      @Param("cursor") GuestPageCursor cursor);
+
+  // 宿泊者IDの一覧に紐づく宿泊予約を検索
+  List<Reservation> findReservationByGuestIds(@Param("userId") String userId,
+      @Param("guestIds") Collection<String> guestIds);
+
+  // 宿泊者IDから宿泊者を完全一致検索（削除済みの宿泊者を除く）
   Guest matchGuest(GuestMatch guestMatch);
 
+  // 完全一致検索用のキーの一覧から宿泊者をキー・ID順に検索（削除済みの宿泊者を除く）
+  List<Guest> matchGuestByKeys(@Param("userId") String userId,
+      @Param("matchKeys") Collection<String> matchKeys);
+
   // 宿泊者IDから宿泊者を検索
   Guest findGuestById(@Param("id") String id, @Param("userId") String userId);
 
   // 宿泊プランIDから宿泊プランを検索
   Booking findBookingById(@Param("id") String id, @P("userId") String userId);
 
+  // 宿泊プランを行ロック付きで検索（宿泊予約の登録時に受け入れ可能数を確認するため）
+  Booking lockBookingById(@Param("id") String id, @Param("userId") String userId);
+
+  // 宿泊プランIDの一覧から宿泊プランを行ロック付きで検索（一括登録用）
+  List<Booking> lockBookingByIds(@Param("userId") String userId,
+      @Param("bookingIds") Collection<String> bookingIds);
+
   // 宿泊予約IDから宿泊予約を検索
   Reservation findReservationById(@Param("id") String id, @Param("userId") String userId);
 
-  // 宿泊プランIDから金額を検索
-  BigDecimal findTotalPriceById(@Param("id") String id, @Param("userId") String userId);
+  // 宿泊予約IDから宿泊予約を行ロック付きで検索（宿泊予約の変更用）
+  Reservation lockReservationById(@Param("id") String id, @Param("userId") String userId);
 
-  // 宿泊予約IDから宿泊予約状況を検索
-  ReservationStatus findStatusById(@Param("id") String id, @Param("userId") String userId);
+  // 宿泊プランの期間にかかる宿泊予約の宿泊期間を検索（キャンセル・ノーショーを除く）
+  List<Reservation> findReservationStayByBooking(@Param("userId") String userId,
+      @Param("bookingId") String bookingId, @Param("from") LocalDate from,
+      @Param("to") LocalDate to);
+
+  // 部屋の全件検索
+  List<Room> findAllRoom(@Param("userId") String userId);
+
+  // 部屋を行ロック付きで全件検索（部屋の割り当て用）
+  List<Room> lockAllRoom(@Param("userId") String userId);
+
+  // 指定日より後にチェックアウトする、部屋を割り当て済みの宿泊予約を検索
+  List<Reservation> findRoomOccupancy(@Param("userId") String userId,
+      @Param("today") LocalDate today);
 
   //　ユーザーIDからユーザーを検索
   User findUserById(@Param("id") String id);
@@ -81,8 +188,19 @@ public interface HotelRepository {
   // 宿泊予約の登録
   void insertReservation(Reservation reservation);
 
-  // 宿泊者情報の変更
-  void updateGuest(@Param("guest") Guest guest,
+  // 部屋の登録
+  void insertRoom(Room room);
+
+  // 日別・宿泊プラン別の集計に差分を加える
+  void addDailyStats(@Param("userId") String userId,
+      @Param("deltas") List<DailyStats> deltas);
+
+  // 完全一致検索用のキーがない宿泊者にキーを設定し、更新件数を返す
+  int updateGuestMatchKey(@Param("id") String id, @Param("userId") String userId,
+      @Param("matchKey") String matchKey);
+
+  // 宿泊者情報の変更（更新件数を返す）
+  int updateGuest(@Param("guest") Guest guest,
       @Param("userId") String userId);
 
   // 宿泊プランの変更
@@ -101,11 +219,22 @@ public interface HotelRepository {
   void toggleBookingDeleteFlag(
       @Param("id") String id, @Param("userId") String userId);
 
-  // チェックイン処理
-  void checkIn(@Param("id") String id, @Param("userId") String userId);
+  // 宿泊予約IDの一覧の現在のステータスと宿泊期間・総額を検索し、行をロックする（一括更新用）
+  List<Reservation> lockReservationStatusByIds(@Param("userId") String userId,
+      @Param("reservationIds") Collection<String> reservationIds);
+
+  // 宿泊予約のステータスを更新前のステータスが一致する場合だけ更新し、更新件数を返す
+  int updateReservationStatus(@Param("id") String id, @Param("userId") String userId,
+      @Param("from") ReservationStatus from, @Param("to") ReservationStatus to);
+
+  // 宿泊予約IDの一覧のステータスをまとめて更新し、更新件数を返す
+  int updateReservationStatusByIds(@Param("userId") String userId,
+      @Param("reservationIds") Collection<String> reservationIds,
+      @Param("from") ReservationStatus from, @Param("to") ReservationStatus to);
 
-  // チェックアウト処理
-  void checkOut(@Param("id") String id, @Param("userId") String userId);
+  // 宿泊予約への部屋の割り当て
+  void updateReservationRoom(@Param("id") String id, @Param("userId") String userId,
+      @Param("roomId") String roomId);
 
   // ユーザーの登録処理
   void insertUser(User user);
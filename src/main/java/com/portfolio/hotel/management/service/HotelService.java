@@ -1,97 +1,547 @@
 package com.portfolio.hotel.management.service;
 
+import com.portfolio.hotel.management.data.board.FrontDeskBoard;
 import com.portfolio.hotel.management.data.booking.Booking;
+import com.portfolio.hotel.management.data.booking.BookingAvailability;
+import com.portfolio.hotel.management.data.booking.DailyAvailability;
+import com.portfolio.hotel.management.data.cache.CacheStats;
 import com.portfolio.hotel.management.data.guest.Guest;
 import com.portfolio.hotel.management.data.guest.GuestDetail;
 import com.portfolio.hotel.management.data.guest.GuestMatch;
+import com.portfolio.hotel.management.data.guest.GuestPage;
+import com.portfolio.hotel.management.data.guest.GuestPageCursor;
 import com.portfolio.hotel.management.data.guest.GuestRegistration;
 import com.portfolio.hotel.management.data.guest.GuestSearchCondition;
+import com.portfolio.hotel.management.data.guest.GuestSuggestion;
+import com.portfolio.hotel.management.data.guest.GuestSummary;
+import com.portfolio.hotel.management.data.report.DailyReport;
+import com.portfolio.hotel.management.data.report.DailyStats;
+import com.portfolio.hotel.management.data.report.DemographicsCell;
+import com.portfolio.hotel.management.data.report.PlanDailyReport;
 import com.portfolio.hotel.management.data.reservation.Reservation;
+import com.portfolio.hotel.management.data.reservation.ReservationAction;
+import com.portfolio.hotel.management.data.reservation.ReservationBulkStatusResult;
 import com.portfolio.hotel.management.data.reservation.ReservationStatus;
+import com.portfolio.hotel.management.data.reservation.ReservationTransitionResult;
+import com.portfolio.hotel.management.data.room.Room;
+import com.portfolio.hotel.management.data.room.RoomAssignment;
+import com.portfolio.hotel.management.data.room.RoomAssignmentResult;
 import com.portfolio.hotel.management.data.user.User;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import com.portfolio.hotel.management.exception.BookingFullException;
+import com.portfolio.hotel.management.exception.BookingNotFoundException;
+import com.portfolio.hotel.management.exception.InvalidDateRangeException;
+import com.portfolio.hotel.management.repository.HotelBatchSession;
 import com.portfolio.hotel.management.repository.HotelRepository;
+import com.portfolio.hotel.management.service.converter.GuestMatchKey;
+import com.portfolio.hotel.management.service.cache.BookingPlanCache;
+import com.portfolio.hotel.management.service.cache.GuestSearchCache;
+import com.portfolio.hotel.management.service.cache.SingleFlight;
 import com.portfolio.hotel.management.service.converter.HotelConverter;
+import com.portfolio.hotel.management.service.index.BookingOccupancyIndex;
+import com.portfolio.hotel.management.service.index.GuestKanaTrie;
+import com.portfolio.hotel.management.service.index.GuestNameIndex;
+import com.portfolio.hotel.management.service.report.DailyStatsRollup;
+import com.portfolio.hotel.management.service.report.GuestDemographicsCube;
+import com.portfolio.hotel.management.service.reservation.ReservationTransitions;
+import com.portfolio.hotel.management.service.room.RoomAssigner;
 
 @Service
 public class HotelService implements UserDetailsService {
 
+  // IN句に渡すIDの最大件数
+  static final int IN_CLAUSE_CHUNK_SIZE = 500;
+
   private final HotelRepository repository;
   private final HotelConverter converter;
+  private final GuestNameIndex guestNameIndex;
+  private final GuestKanaTrie guestKanaTrie;
+  private final HotelBatchSession batchSession;
+  private final BookingOccupancyIndex bookingOccupancyIndex;
+  private final GuestDemographicsCube guestDemographicsCube;
+  private final BookingPlanCache bookingPlanCache;
+  private final GuestSearchCache guestSearchCache;
+  private final SingleFlight singleFlight;
 
-  public HotelService(HotelRepository repository, HotelConverter converter) {
+  public HotelService(HotelRepository repository, HotelConverter converter,
+      GuestNameIndex guestNameIndex, GuestKanaTrie guestKanaTrie,
+      HotelBatchSession batchSession, BookingOccupancyIndex bookingOccupancyIndex,
+      GuestDemographicsCube guestDemographicsCube, BookingPlanCache bookingPlanCache,
+      GuestSearchCache guestSearchCache, SingleFlight singleFlight) {
     this.repository = repository;
     this.converter = converter;
+    this.guestNameIndex = guestNameIndex;
+    this.guestKanaTrie = guestKanaTrie;
+    this.batchSession = batchSession;
+    this.bookingOccupancyIndex = bookingOccupancyIndex;
+    this.guestDemographicsCube = guestDemographicsCube;
+    this.bookingPlanCache = bookingPlanCache;
+    this.guestSearchCache = guestSearchCache;
+    this.singleFlight = singleFlight;
+  }
+
+  // 起動時に宿泊者名の索引と入力補完用のトライを作成
+  @EventListener(ApplicationReadyEvent.class)
+  public void buildGuestNameIndex() {
+    List<Guest> guests = repository.findAllGuestName();
+    fillMissingMatchKeys(guests);
+    guestNameIndex.load(guests);
+    guestKanaTrie.load(guests);
+  }
+
+  // 完全一致検索用のキーを追加する前に登録された宿泊者にキーを設定する
+  // キーがない行だけを更新するため、複数の起動で同時に設定しても、設定中に編集されても正しいキーが残る
+  private void fillMissingMatchKeys(List<Guest> guests) {
+    for (Guest guest : guests) {
+      if (guest.getMatchKey() == null) {
+        setMatchKey(guest);
+        repository.updateGuestMatchKey(guest.getId(), guest.getUserId(), guest.getMatchKey());
+      }
+    }
+  }
+
+  // 起動時に宿泊プランの空き状況の索引を作成
+  // （日別の集計表は登録済みの宿泊予約の分をマイグレーションで作成済みのため、ここでは作成しない）
+  @EventListener(ApplicationReadyEvent.class)
+  public void buildBookingOccupancyIndex() {
+    bookingOccupancyIndex.load(repository.findAllReservationStay());
+  }
+
+  // 起動時に宿泊者の属性別の集計を作成
+  @EventListener(ApplicationReadyEvent.class)
+  public void buildGuestDemographicsCube() {
+    guestDemographicsCube.load(repository.findAllGuestProfile(),
+        repository.findAllReservationGuest());
   }
 
   // 宿泊者情報の全件取得
   public List<GuestDetail> getAllGuest(Authentication authentication) {
     String userId = extractLoginId(authentication);
-    return converter.convertGuestDetail(
-        repository.findAllGuest(userId),
-        repository.findAllBooking(userId),
-        repository.findAllReservation(userId));
+    return repository.findAllGuestDetail(userId);
   }
 
   // 宿泊コースの全件取得
   public List<Booking> getAllBooking(Authentication authentication) {
     String userId = extractLoginId(authentication);
-    return repository.findAllBooking(userId);
+    return bookingPlanCache.getAll(userId, repository::findAllBooking);
+  }
+
+  // キャッシュのヒット・ミスの回数（ログイン中のユーザーの分だけ）
+  public List<CacheStats> getCacheStats(Authentication authentication) {
+    String userId = extractLoginId(authentication);
+    return List.of(bookingPlanCache.stats(userId), guestSearchCache.stats(userId));
+  }
+
+  // 部屋の全件取得
+  public List<Room> getAllRoom(Authentication authentication) {
+    return repository.findAllRoom(extractLoginId(authentication));
+  }
+
+  // 宿泊プランのfromからtoまでの空き状況を取得（宿泊プランがない場合はnull）
+  public BookingAvailability getAvailability(Authentication authentication, String bookingId,
+      LocalDate from, LocalDate to) {
+    checkPeriod(from, to, BookingAvailability.MAX_DAYS);
+    String userId = extractLoginId(authentication);
+    Booking booking = bookingPlanCache.get(userId, bookingId, repository::findAllBooking);
+    if (booking == null) {
+      return null;
+    }
+    // 索引の作成前は期間にかかる宿泊予約から数える
+    int[] reserved = bookingOccupancyIndex.occupancy(userId, bookingId, from, to)
+        .orElseGet(() -> BookingOccupancyIndex.count(
+            repository.findReservationStayByBooking(userId, bookingId, from, to), from, to));
+
+    BookingAvailability availability = new BookingAvailability();
+    availability.setBookingId(booking.getId());
+    availability.setName(booking.getName());
+    availability.setCapacity(booking.getCapacity());
+    for (int i = 0; i < reserved.length; i++) {
+      DailyAvailability day = new DailyAvailability();
+      day.setDate(from.plusDays(i));
+      day.setReserved(reserved[i]);
+      day.setRemaining(Math.max(0, booking.getCapacity() - reserved[i]));
+      availability.getDays().add(day);
+    }
+    return availability;
+  }
+
+  // 期間の日別・宿泊プラン別の稼働率・ADR・売上を取得
+  // 宿泊予約から集計し直さず、集計表の期間の範囲を1回読み込むだけで求める
+  public List<DailyReport> getDailyReport(Authentication authentication, LocalDate from,
+      LocalDate to) {
+    checkPeriod(from, to, DailyReport.MAX_DAYS);
+    String userId = extractLoginId(authentication);
+    List<Booking> bookings = bookingPlanCache.getAll(userId, repository::findAllBooking);
+    Map<LocalDate, Map<String, DailyStats>> statsByDate = new HashMap<>();
+    for (DailyStats stats : repository.findDailyStats(userId, from, to)) {
+      statsByDate.computeIfAbsent(stats.getStayDate(), key -> new HashMap<>())
+          .put(stats.getBookingId(), stats);
+    }
+
+    List<DailyReport> reports = new ArrayList<>();
+    for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+      Map<String, DailyStats> dailyStats = statsByDate.getOrDefault(date, Map.of());
+      DailyReport report = new DailyReport();
+      report.setDate(date);
+      for (Booking booking : bookings) {
+        PlanDailyReport plan = new PlanDailyReport();
+        plan.setBookingId(booking.getId());
+        plan.setName(booking.getName());
+        plan.setCapacity(booking.getCapacity());
+        DailyStats stats = dailyStats.get(booking.getId());
+        if (stats != null) {
+          plan.setRoomsSold(stats.getRoomsSold());
+          plan.setRevenue(stats.getRevenue());
+        }
+        plan.setOccupancyRate(occupancyRate(plan.getRoomsSold(), plan.getCapacity()));
+        plan.setAdr(adr(plan.getRevenue(), plan.getRoomsSold()));
+        report.getPlans().add(plan);
+        report.setRoomsSold(report.getRoomsSold() + plan.getRoomsSold());
+        report.setCapacity(report.getCapacity() + plan.getCapacity());
+        report.setRevenue(report.getRevenue().add(plan.getRevenue()));
+      }
+      report.setOccupancyRate(occupancyRate(report.getRoomsSold(), report.getCapacity()));
+      report.setAdr(adr(report.getRevenue(), report.getRoomsSold()));
+      reports.add(report);
+    }
+    return reports;
+  }
+
+  // チェックイン月・地域・年代・性別ごとの宿泊予約数と泊数を取得（bookingIdを指定した場合はその宿泊プランだけ）
+  // 宿泊者・宿泊予約を検索せず、更新のたびに差分を反映した集計から求める
+  public List<DemographicsCell> getDemographics(Authentication authentication, YearMonth from,
+      YearMonth to, String bookingId) {
+    if (to.isBefore(from)) {
+      throw new InvalidDateRangeException("終了月は開始月以降の月を指定してください");
+    }
+    if (ChronoUnit.MONTHS.between(from, to) >= DemographicsCell.MAX_MONTHS) {
+      throw new InvalidDateRangeException(
+          "一度に取得できる期間は" + DemographicsCell.MAX_MONTHS + "か月までです");
+    }
+    return guestDemographicsCube.query(extractLoginId(authentication), from, to, bookingId);
+  }
+
+  private static BigDecimal occupancyRate(int roomsSold, int capacity) {
+    if (capacity <= 0) {
+      return BigDecimal.ZERO;
+    }
+    return BigDecimal.valueOf(roomsSold)
+        .divide(BigDecimal.valueOf(capacity), 4, RoundingMode.HALF_UP);
+  }
+
+  private static BigDecimal adr(BigDecimal revenue, int roomsSold) {
+    if (roomsSold <= 0) {
+      return BigDecimal.ZERO;
+    }
+    return revenue.divide(BigDecimal.valueOf(roomsSold), 2, RoundingMode.HALF_UP);
+  }
+
+  // 期間の開始日・終了日を確認する（終了日を含めてmaxDays日まで）
+  private static void checkPeriod(LocalDate from, LocalDate to, int maxDays) {
+    if (to.isBefore(from)) {
+      throw new InvalidDateRangeException("終了日は開始日以降の日付を指定してください");
+    }
+    if (ChronoUnit.DAYS.between(from, to) >= maxDays) {
+      throw new InvalidDateRangeException("一度に取得できる期間は" + maxDays + "日までです");
+    }
   }
 
   // 本日チェックインの宿泊者を取得
   public List<GuestDetail> getCheckInToday(Authentication authentication, LocalDate today) {
-    String userId = extractLoginId(authentication);
-    return converter.convertGuestDetail(
-        repository.findGuestsTodayCheckIn(userId, today),
-        repository.findAllBooking(userId),
-        repository.findReservationTodayCheckIn(userId, today));
+    return findCheckInToday(extractLoginId(authentication), today);
   }
 
   // 現在宿泊中の宿泊者情報を作成
   public List<GuestDetail> getStayNow(Authentication authentication) {
-    String userId = extractLoginId(authentication);
-    return converter.convertGuestDetail(
-        repository.findGuestStayNow(userId),
-        repository.findAllBooking(userId),
-        repository.findReservationStayNow(userId));
+    return findStayNow(extractLoginId(authentication));
   }
 
   // 本日チェックアウトの宿泊者を取得
   public List<GuestDetail> getCheckOutToday(Authentication authentication, LocalDate today) {
+    return findCheckOutToday(extractLoginId(authentication), today);
+  }
+
+  // ホーム画面の宿泊中・本日チェックイン・本日チェックアウトの宿泊者と宿泊プランをまとめて取得
+  // 4つの検索を仮想スレッドで同時に実行し、すべて終わるまで待つ（1つが失敗した場合は残りを中断する）
+  public FrontDeskBoard getFrontDeskBoard(Authentication authentication, LocalDate today) {
+    String userId = extractLoginId(authentication);
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      Future<List<GuestDetail>> stayNow = executor.submit(() -> findStayNow(userId));
+      Future<List<GuestDetail>> checkInToday =
+          executor.submit(() -> findCheckInToday(userId, today));
+      Future<List<GuestDetail>> checkOutToday =
+          executor.submit(() -> findCheckOutToday(userId, today));
+      Future<List<Booking>> bookings =
+          executor.submit(() -> bookingPlanCache.getAll(userId, repository::findAllBooking));
+
+      FrontDeskBoard board = new FrontDeskBoard();
+      board.setStayNow(await(executor, stayNow));
+      board.setCheckInToday(await(executor, checkInToday));
+      board.setCheckOutToday(await(executor, checkOutToday));
+      board.setBookings(await(executor, bookings));
+      board.setStayNowCount(board.getStayNow().size());
+      board.setCheckInTodayCount(board.getCheckInToday().size());
+      board.setCheckOutTodayCount(board.getCheckOutToday().size());
+      board.setBookingCount(board.getBookings().size());
+      return board;
+    }
+  }
+
+  // 検索の結果を待つ（失敗した場合は他の検索を中断し、検索で発生した例外を投げ直す）
+  private static <T> T await(ExecutorService executor, Future<T> future) {
+    try {
+      return future.get();
+    } catch (ExecutionException e) {
+      executor.shutdownNow();
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      if (e.getCause() instanceof Error cause) {
+        throw cause;
+      }
+      throw new IllegalStateException(e.getCause());
+    } catch (InterruptedException e) {
+      executor.shutdownNow();
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+
+  // 始業時に各端末から同時に読み込まれるため、実行中の同じユーザー・日付の検索は1回にまとめる
+  private List<GuestDetail> findCheckInToday(String userId, LocalDate today) {
+    return singleFlight.execute(new DashboardRead("checkInToday", userId, today),
+        () -> repository.findGuestDetailTodayCheckIn(userId, today));
+  }
+
+  private List<GuestDetail> findStayNow(String userId) {
+    return singleFlight.execute(new DashboardRead("stayNow", userId, null),
+        () -> repository.findGuestDetailStayNow(userId));
+  }
+
+  private List<GuestDetail> findCheckOutToday(String userId, LocalDate today) {
+    return singleFlight.execute(new DashboardRead("checkOutToday", userId, today),
+        () -> repository.findGuestDetailTodayCheckOut(userId, today));
+  }
+
+  // まとめる読み込みのキー（現在宿泊中は日付を指定しない）
+  private record DashboardRead(String query, String userId, LocalDate day) {
+
+  }
+
+
+  // 一覧画面用の宿泊者と本日にかかる宿泊予約の状況を取得
+  public List<GuestSummary> getAllGuestSummary(Authentication authentication, LocalDate today) {
+    String userId = extractLoginId(authentication);
+    return repository.findAllGuestSummary(userId, today);
+  }
+
+  // 一覧画面用の本日チェックイン予定の宿泊予約を取得
+  public List<GuestSummary> getCheckInTodaySummary(Authentication authentication,
+      LocalDate today) {
+    String userId = extractLoginId(authentication);
+    return repository.findGuestSummaryTodayCheckIn(userId, today);
+  }
+
+  // 一覧画面用の現在宿泊中の宿泊予約を取得
+  public List<GuestSummary> getStayNowSummary(Authentication authentication) {
+    String userId = extractLoginId(authentication);
+    return repository.findGuestSummaryStayNow(userId);
+  }
+
+  // 一覧画面用の本日チェックアウト予定の宿泊予約を取得
+  public List<GuestSummary> getCheckOutTodaySummary(Authentication authentication,
+      LocalDate today) {
     String userId = extractLoginId(authentication);
-    return converter.convertGuestDetail(
-        repository.findGuestsTodayCheckOut(userId, today),
-        repository.findAllBooking(userId),
-        repository.findReservationTodayCheckOut(userId, today));
+    return repository.findGuestSummaryTodayCheckOut(userId, today);
   }
 
 
   // 宿泊者情報の単一検索
+  // 同じ条件の検索は、宿泊者・宿泊予約が更新されるまでキャッシュした結果を返す
   public List<GuestDetail> searchGuest(
       Authentication authentication,
       GuestSearchCondition guestSearchCondition) {
     String userId = extractLoginId(authentication);
     guestSearchCondition.setUserId(userId);
+    return guestSearchCache.get(userId, guestSearchCondition, () -> {
+      if (!applyGuestNameIndex(userId, guestSearchCondition)) {
+        return List.of();
+      }
+      return repository.searchGuestDetail(guestSearchCondition);
+    });
+  }
+
+  // 名前・かな名の部分一致を索引で宿泊者IDに置き換える（一致する宿泊者がいない場合はfalse）
+  // 候補が多い場合もIN句の上限ごとに分けて渡し、表記揺れを吸収する索引の一致のまま検索する
+  private boolean applyGuestNameIndex(String userId, GuestSearchCondition guestSearchCondition) {
+    guestSearchCondition.setGuestIdChunks(null);
+    if (isBlank(guestSearchCondition.getName()) && isBlank(guestSearchCondition.getKanaName())) {
+      return true;
+    }
+    List<String> candidates = new ArrayList<>(searchGuestNameIndex(userId,
+        guestSearchCondition.getName(), guestSearchCondition.getKanaName()));
+    if (candidates.isEmpty()) {
+      return false;
+    }
+    Collections.sort(candidates);
+    List<List<String>> chunks = new ArrayList<>();
+    for (int from = 0; from < candidates.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+      chunks.add(candidates.subList(from,
+          Math.min(from + IN_CLAUSE_CHUNK_SIZE, candidates.size())));
+    }
+    guestSearchCondition.setGuestIdChunks(chunks);
+    return true;
+  }
+
+  // 索引の作成前は、検索したユーザーの宿泊者だけを先に索引に読み込んでから検索する
+  private Set<String> searchGuestNameIndex(String userId, String name, String kanaName) {
+    Optional<Set<String>> candidates = guestNameIndex.search(userId, name, kanaName);
+    if (candidates.isPresent()) {
+      return candidates.get();
+    }
+    guestNameIndex.loadTenant(userId, repository.findGuestName(userId));
+    return guestNameIndex.search(userId, name, kanaName).orElseThrow();
+  }
+
+  private static boolean isBlank(String value) {
+    return value == null || value.isBlank();
+  }
+
+  // かな名・名前の前方一致による宿泊者の入力補完
+  public List<GuestSuggestion> suggestGuest(Authentication authentication, String prefix,
+      int limit) {
+    return guestKanaTrie.suggest(extractLoginId(authentication), prefix, limit);
+  }
+
+  // 宿泊者情報のページ取得
+  public GuestPage getGuestPage(Authentication authentication, GuestPageCursor cursor) {
+    String userId = extractLoginId(authentication);
+    List<Guest> guests = repository.findGuestPage(userId, cursor);
+    return toGuestPage(userId, guests, cursor);
+  }
+
+  // 本日チェックインの宿泊者情報のページ取得
+  public GuestPage getCheckInTodayPage(Authentication authentication, LocalDate today,
+      GuestPageCursor cursor) {
+    String userId = extractLoginId(authentication);
+    return toGuestPage(
+        repository.findGuestDetailPageTodayCheckIn(userId, today, cursor), cursor);
+  }
+
+  // 現在宿泊中の宿泊者情報のページ取得
+  public GuestPage getStayNowPage(Authentication authentication, GuestPageCursor cursor) {
+    String userId = extractLoginId(authentication);
+    return toGuestPage(repository.findGuestDetailPageStayNow(userId, cursor), cursor);
+  }
+
+  // 本日チェックアウトの宿泊者情報のページ取得
+  public GuestPage getCheckOutTodayPage(Authentication authentication, LocalDate today,
+      GuestPageCursor cursor) {
+    String userId = extractLoginId(authentication);
+    return toGuestPage(
+        repository.findGuestDetailPageTodayCheckOut(userId, today, cursor), cursor);
+  }
+
+  // 宿泊者情報の単一検索のページ取得
+  public GuestPage searchGuestPage(Authentication authentication,
+      GuestSearchCondition guestSearchCondition, GuestPageCursor cursor) {
+    String userId = extractLoginId(authentication);
+    guestSearchCondition.setUserId(userId);
+    if (!applyGuestNameIndex(userId, guestSearchCondition)) {
+      return toGuestPage(userId, List.of(), cursor);
+    }
+    List<Guest> guests = repository.searchGuestPage(guestSearchCondition, cursor);
+    return toGuestPage(userId, guests, cursor);
+  }
+
+  // 取得した宿泊者のうち1ページ分だけ宿泊者情報に変換
+  private GuestPage toGuestPage(String userId, List<Guest> guests, GuestPageCursor cursor) {
+    boolean hasNext = guests.size() > cursor.getLimit();
+    List<Guest> pageGuests = hasNext ? guests.subList(0, cursor.getLimit()) : guests;
 
-    return converter.convertGuestDetail(
-        repository.searchGuest(guestSearchCondition),
-        repository.findAllBooking(userId),
-        repository.findAllReservation(userId));
+    GuestPage guestPage = new GuestPage();
+    guestPage.setGuests(toGuestDetails(userId, pageGuests));
+    guestPage.setNextPageToken(
+        hasNext ? GuestPageCursor.toPageToken(pageGuests.getLast()) : null);
+    return guestPage;
   }
 
-  // 宿泊者の完全一致検索
+  // 取得した宿泊者情報のうち1ページ分だけを返す
+  private GuestPage toGuestPage(List<GuestDetail> guestDetails, GuestPageCursor cursor) {
+    boolean hasNext = guestDetails.size() > cursor.getLimit();
+    List<GuestDetail> pageDetails =
+        hasNext ? guestDetails.subList(0, cursor.getLimit()) : guestDetails;
+
+    GuestPage guestPage = new GuestPage();
+    guestPage.setGuests(pageDetails);
+    guestPage.setNextPageToken(
+        hasNext ? GuestPageCursor.toPageToken(pageDetails.getLast().getGuest()) : null);
+    return guestPage;
+  }
+
+  // 宿泊者に紐づく宿泊予約・宿泊プランだけを取得して宿泊者情報に変換
+  private List<GuestDetail> toGuestDetails(String userId, List<Guest> guests) {
+    if (guests.isEmpty()) {
+      return List.of();
+    }
+    List<String> guestIds = guests.stream()
+        .map(Guest::getId)
+        .distinct()
+        .toList();
+
+    // 1ページ分（最大GuestPageCursor.MAX_LIMIT件）の宿泊者なので、IN句は1回で済む
+    List<Reservation> reservations = repository.findReservationByGuestIds(userId, guestIds);
+    // 宿泊プランは宿泊予約に紐づくものだけをキャッシュから取り出す
+    Map<String, Booking> bookings = new LinkedHashMap<>();
+    for (Reservation reservation : reservations) {
+      String bookingId = reservation.getBookingId();
+      if (bookingId != null && !bookings.containsKey(bookingId)) {
+        Booking booking = bookingPlanCache.get(userId, bookingId, repository::findAllBooking);
+        if (booking != null) {
+          bookings.put(bookingId, booking);
+        }
+      }
+    }
+    return converter.convertGuestDetail(guests, List.copyOf(bookings.values()), reservations);
+  }
+
+  // 宿泊者の完全一致検索（表記ゆれをそろえたキーで検索）
   public GuestRegistration matchGuest(Authentication authentication, GuestMatch guestMatch) {
     guestMatch.setUserId(extractLoginId(authentication));
+    guestMatch.setMatchKey(GuestMatchKey.of(
+        guestMatch.getName(), guestMatch.getKanaName(), guestMatch.getPhone()));
     Guest guest = repository.matchGuest(guestMatch);
 
     GuestRegistration guestRegistration = new GuestRegistration();
@@ -104,18 +554,207 @@ public class HotelService implements UserDetailsService {
   }
 
   // 宿泊者の登録
+  // 宿泊プランの空きを確認してから宿泊者と宿泊予約を登録する（空きがない場合はどちらも登録しない）
+  @Transactional
   public void registerGuest(Authentication authentication, GuestRegistration guestRegistration) {
-    guestRegistration.getGuest().setUserId(extractLoginId(authentication));
+    Guest guest = guestRegistration.getGuest();
+    guest.setUserId(extractLoginId(authentication));
     // 直前の検索で一致する宿泊者がなかった場合新規登録
-    if (guestRegistration.getGuest().getId() == null) {
-      guestRegistration.getGuest().setId(UUID.randomUUID().toString());
-      repository.insertGuest(guestRegistration.getGuest());
+    boolean newGuest = guest.getId() == null;
+    if (newGuest) {
+      guest.setId(UUID.randomUUID().toString());
+      setMatchKey(guest);
+    }
+    Reservation reservation = initReservation(guestRegistration);
+
+    if (newGuest) {
+      repository.insertGuest(guest);
+    }
+    repository.insertReservation(reservation);
+    addDailyStats(repository, reservation.getUserId(), new DailyStatsRollup().add(reservation));
+    guestSearchCache.invalidate(reservation.getUserId());
+    afterCommit(() -> {
+      if (newGuest) {
+        guestNameIndex.put(guest.getUserId(), guest);
+        guestKanaTrie.put(guest.getUserId(), guest);
+        guestDemographicsCube.putGuest(guest.getUserId(), guest);
+      }
+      bookingOccupancyIndex.put(reservation.getUserId(), reservation);
+      guestDemographicsCube.putReservation(reservation.getUserId(), reservation);
+    });
+  }
+
+  // メモリ上の索引・集計への反映はコミット後に行い、ロールバックされた変更を残さない
+  // （トランザクションの外から呼ばれた場合はすぐに反映する）
+  private static void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        action.run();
+      }
+    });
+  }
+
+  private static void setMatchKey(Guest guest) {
+    guest.setMatchKey(GuestMatchKey.of(guest.getName(), guest.getKanaName(), guest.getPhone()));
+  }
+
+  // 宿泊予約の作成
+  // 宿泊プランの行ロックで同じ宿泊プランへの登録だけを直列にし、コミットまで他の登録を待たせる
+  // （トランザクションの最初の検索として呼び出す）
+  private Reservation initReservation(GuestRegistration guestRegistration) {
+    String userId = guestRegistration.getGuest().getUserId();
+    Booking booking = repository.lockBookingById(guestRegistration.getBookingId(), userId);
+    if (booking == null) {
+      throw new BookingNotFoundException("宿泊プランが見つかりません");
+    }
+    Reservation reservation = createReservation(guestRegistration, booking.getPrice());
+    checkCapacity(repository, userId, booking, List.of(reservation));
+    return reservation;
+  }
+
+  // 登録済みの宿泊予約に登録する宿泊予約を加えて、各泊の予約数が受け入れ可能数を超えないか確認する
+  // （空きがない場合はBookingFullException）
+  private static void checkCapacity(HotelRepository repository, String userId, Booking booking,
+      List<Reservation> reservations) {
+    LocalDate fullNight = firstFullNight(repository, userId, booking, reservations);
+    if (fullNight != null) {
+      throw new BookingFullException(fullMessage(booking, fullNight));
+    }
+  }
+
+  private static String fullMessage(Booking booking, LocalDate night) {
+    return booking.getName() + "の" + night + "の宿泊は満室です";
+  }
+
+  // 登録済みの宿泊予約に宿泊予約を加えて、予約数が受け入れ可能数を超える最初の泊を返す（超えない場合はnull）
+  // 変更する宿泊予約は、登録済みの変更前の行を除いて変更後の宿泊期間で数える
+  // （宿泊プランの行ロックを取得した後に呼び出す）
+  private static LocalDate firstFullNight(HotelRepository repository, String userId,
+      Booking booking, List<Reservation> reservations) {
+    LocalDate from = reservations.getFirst().getCheckInDate();
+    LocalDate to = reservations.getFirst().getCheckOutDate();
+    for (Reservation reservation : reservations) {
+      from = from.isAfter(reservation.getCheckInDate()) ? reservation.getCheckInDate() : from;
+      to = to.isBefore(reservation.getCheckOutDate()) ? reservation.getCheckOutDate() : to;
     }
-    initReservation(guestRegistration);
+    LocalDate lastNight = to.minusDays(1);
+    Set<String> reservationIds = new HashSet<>();
+    reservations.forEach(reservation -> reservationIds.add(reservation.getId()));
+    List<Reservation> stays = new ArrayList<>();
+    for (Reservation stay
+        : repository.findReservationStayByBooking(userId, booking.getId(), from, lastNight)) {
+      if (!reservationIds.contains(stay.getId())) {
+        stays.add(stay);
+      }
+    }
+    stays.addAll(reservations);
+
+    int[] reserved = BookingOccupancyIndex.count(stays, from, lastNight);
+    for (int i = 0; i < reserved.length; i++) {
+      if (reserved[i] > booking.getCapacity()) {
+        return from.plusDays(i);
+      }
+    }
+    return null;
+  }
+
+  // 宿泊者の一括登録（団体予約用）
+  // 完全一致検索と宿泊プランの検索を1回ずつにまとめ、登録はバッチ実行で1つのトランザクションにまとめる
+  @Transactional
+  public int registerGuests(Authentication authentication,
+      List<GuestRegistration> guestRegistrations) {
+    String userId = extractLoginId(authentication);
+    HotelRepository batchRepository = batchSession.getRepository();
+
+    // MySQLのREPEATABLE READでは最初の検索の時点の内容が読まれるため、
+    // 登録済みの宿泊予約を読む前に宿泊プランの行ロックを取得する
+    Set<String> bookingIds = new LinkedHashSet<>();
+    for (GuestRegistration guestRegistration : guestRegistrations) {
+      bookingIds.add(guestRegistration.getBookingId());
+    }
+    Map<String, Booking> bookings = new HashMap<>();
+    batchRepository.lockBookingByIds(userId, bookingIds)
+        .forEach(booking -> bookings.put(booking.getId(), booking));
+    if (!bookings.keySet().containsAll(bookingIds)) {
+      throw new BookingNotFoundException("宿泊プランが見つかりません");
+    }
+
+    List<Guest> unidentifiedGuests = new ArrayList<>();
+    for (GuestRegistration guestRegistration : guestRegistrations) {
+      guestRegistration.getGuest().setUserId(userId);
+      if (guestRegistration.getGuest().getId() == null) {
+        setMatchKey(guestRegistration.getGuest());
+        unidentifiedGuests.add(guestRegistration.getGuest());
+      }
+    }
+
+    // 登録済みの宿泊者、または一括登録内で先に出てきた同じ宿泊者の宿泊者IDを使う
+    Map<String, Guest> matchedGuests = new HashMap<>();
+    if (!unidentifiedGuests.isEmpty()) {
+      Set<String> matchKeys = new LinkedHashSet<>();
+      unidentifiedGuests.forEach(guest -> matchKeys.add(guest.getMatchKey()));
+      batchRepository.matchGuestByKeys(userId, matchKeys)
+          .forEach(guest -> matchedGuests.putIfAbsent(guest.getMatchKey(), guest));
+    }
+    List<Guest> newGuests = new ArrayList<>();
+    for (Guest guest : unidentifiedGuests) {
+      Guest matched = matchedGuests.get(guest.getMatchKey());
+      if (matched != null) {
+        guest.setId(matched.getId());
+        continue;
+      }
+      guest.setId(UUID.randomUUID().toString());
+      matchedGuests.put(guest.getMatchKey(), guest);
+      newGuests.add(guest);
+    }
+
+    // 宿泊プランごとに空きを確認し、1件でも空きがない場合は一括登録全体を登録しない
+    // （取り込んだ過去の宿泊予約は実際の宿泊の記録のため、空きを確認しない）
+    List<Reservation> reservations = new ArrayList<>(guestRegistrations.size());
+    Map<String, List<Reservation>> reservationsByBooking = new LinkedHashMap<>();
+    for (GuestRegistration guestRegistration : guestRegistrations) {
+      Reservation reservation = createReservation(guestRegistration,
+          bookings.get(guestRegistration.getBookingId()).getPrice());
+      reservations.add(reservation);
+      if (isHistorical(reservation.getStatus())) {
+        continue;
+      }
+      reservationsByBooking.computeIfAbsent(reservation.getBookingId(), key -> new ArrayList<>())
+          .add(reservation);
+    }
+    reservationsByBooking.forEach((bookingId, bookingReservations) ->
+        checkCapacity(batchRepository, userId, bookings.get(bookingId), bookingReservations));
+
+    newGuests.forEach(batchRepository::insertGuest);
+    reservations.forEach(batchRepository::insertReservation);
+    DailyStatsRollup rollup = new DailyStatsRollup();
+    reservations.forEach(rollup::add);
+    addDailyStats(batchRepository, userId, rollup);
+    batchSession.flush();
+
+    guestSearchCache.invalidate(userId);
+    afterCommit(() -> {
+      for (Guest guest : newGuests) {
+        guestNameIndex.put(userId, guest);
+        guestKanaTrie.put(userId, guest);
+        guestDemographicsCube.putGuest(userId, guest);
+      }
+      for (Reservation reservation : reservations) {
+        bookingOccupancyIndex.put(userId, reservation);
+        guestDemographicsCube.putReservation(userId, reservation);
+      }
+    });
+    return guestRegistrations.size();
   }
 
-  // 宿泊予約の登録
-  private void initReservation(GuestRegistration guestRegistration) {
+  // 宿泊予約の作成
+  private static Reservation createReservation(GuestRegistration guestRegistration,
+      BigDecimal price) {
     Reservation reservation = new Reservation();
 
     reservation.setId(UUID.randomUUID().toString());
@@ -126,13 +765,17 @@ public class HotelService implements UserDetailsService {
     reservation.setStayDays(guestRegistration.getStayDays());
     reservation.setCheckOutDate(
         reservation.getCheckInDate().plusDays(guestRegistration.getStayDays()));
-    BigDecimal price = repository.findTotalPriceById(reservation.getBookingId(),
-        guestRegistration.getGuest().getUserId());
     BigDecimal total = price.multiply(BigDecimal.valueOf(reservation.getStayDays()));
     reservation.setTotalPrice(total);
     reservation.setMemo(guestRegistration.getMemo());
-    reservation.setStatus(ReservationStatus.NOT_CHECKED_IN);
-    repository.insertReservation(reservation);
+    reservation.setStatus(guestRegistration.getStatus() == null
+        ? ReservationStatus.NOT_CHECKED_IN : guestRegistration.getStatus());
+    return reservation;
+  }
+
+  // チェックアウト済み・キャンセル・ノーショーの宿泊予約（過去の宿泊の取り込み用）
+  private static boolean isHistorical(ReservationStatus status) {
+    return status == ReservationStatus.CHECKED_OUT || !BookingOccupancyIndex.occupies(status);
   }
 
   // 宿泊プランの登録
@@ -142,50 +785,314 @@ public class HotelService implements UserDetailsService {
     booking.setId(UUID.randomUUID().toString());
     booking.setUserId(extractLoginId(authentication));
     repository.insertBooking(booking);
+    bookingPlanCache.invalidate(booking.getUserId());
+  }
+
+  // 部屋の登録
+  public void registerRoom(Authentication authentication, Room room) {
+    String userId = extractLoginId(authentication);
+    if (bookingPlanCache.get(userId, room.getBookingId(), repository::findAllBooking) == null) {
+      throw new BookingNotFoundException("宿泊プランが見つかりません");
+    }
+    room.setId(UUID.randomUUID().toString());
+    room.setUserId(userId);
+    repository.insertRoom(room);
   }
 
   // 宿泊者の編集
   public void updateGuest(Authentication authentication, Guest guest) {
-    repository.updateGuest(guest, extractLoginId(authentication));
+    String userId = extractLoginId(authentication);
+    setMatchKey(guest);
+    // 他のユーザーの宿泊者や存在しない宿泊者IDの場合は、索引に加えない
+    if (repository.updateGuest(guest, userId) != 1) {
+      return;
+    }
+    guestNameIndex.put(userId, guest);
+    guestKanaTrie.put(userId, guest);
+    guestDemographicsCube.putGuest(userId, guest);
+    guestSearchCache.invalidate(userId);
   }
 
   // 宿泊プランの編集
   public void updateBooking(Authentication authentication, Booking booking) {
-    repository.updateBooking(booking, extractLoginId(authentication));
+    String userId = extractLoginId(authentication);
+    repository.updateBooking(booking, userId);
+    bookingPlanCache.invalidate(userId);
+    guestSearchCache.invalidate(userId);
   }
 
   // 宿泊予約の編集
+  // 変更前の宿泊予約と宿泊プランを行ロック付きで読み、変更後の宿泊期間に空きがある場合だけ更新する
+  // 日別の集計からは変更前の分を差し引いて変更後の分を加える
+  @Transactional
   public void updateReservation(Authentication authentication, Reservation reservation) {
-    repository.updateReservation(reservation, extractLoginId(authentication));
+    String userId = extractLoginId(authentication);
+    Reservation current = repository.lockReservationById(reservation.getId(), userId);
+    if (current != null && BookingOccupancyIndex.occupies(current.getStatus())) {
+      Booking booking = repository.lockBookingById(current.getBookingId(), userId);
+      if (booking == null) {
+        throw new BookingNotFoundException("宿泊プランが見つかりません");
+      }
+      checkCapacity(repository, userId, booking, List.of(editedStay(current, reservation)));
+    }
+    repository.updateReservation(reservation, userId);
+    guestSearchCache.invalidate(userId);
+    // 宿泊プランは画面から変更されないため、変更後の宿泊予約を読み直して空き状況に反映する
+    Reservation updated = repository.findReservationById(reservation.getId(), userId);
+    if (current != null && updated != null) {
+      addDailyStats(repository, userId, new DailyStatsRollup().subtract(current).add(updated));
+      afterCommit(() -> {
+        bookingOccupancyIndex.put(userId, updated);
+        guestDemographicsCube.putReservation(userId, updated);
+      });
+    }
+  }
+
+  // 編集後の宿泊期間（宿泊プランとステータスは編集で変わらない）
+  private static Reservation editedStay(Reservation current, Reservation reservation) {
+    LocalDate checkIn = reservation.getCheckInDate();
+    LocalDate checkOut = reservation.getCheckOutDate();
+    if (checkOut == null && checkIn != null && reservation.getStayDays() != null) {
+      checkOut = checkIn.plusDays(reservation.getStayDays());
+    }
+    if (checkIn == null || checkOut == null || !checkOut.isAfter(checkIn)) {
+      throw new InvalidDateRangeException("チェックアウト日はチェックイン日より後の日付を指定してください");
+    }
+    Reservation stay = new Reservation();
+    stay.setId(current.getId());
+    stay.setBookingId(current.getBookingId());
+    stay.setStatus(current.getStatus());
+    stay.setCheckInDate(checkIn);
+    stay.setCheckOutDate(checkOut);
+    return stay;
+  }
+
+  // 日別の集計に差分を加える（1回のINSERTで加える行数はIN句と同じ件数まで）
+  private static void addDailyStats(HotelRepository repository, String userId,
+      DailyStatsRollup rollup) {
+    List<DailyStats> deltas = rollup.toList();
+    for (int from = 0; from < deltas.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+      repository.addDailyStats(userId,
+          deltas.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, deltas.size())));
+    }
   }
 
   // 宿泊者の削除
   public void logicalDeleteGuest(Authentication authentication, String id) {
-    repository.toggleGuestDeletedFlag(id, extractLoginId(authentication));
+    String userId = extractLoginId(authentication);
+    repository.toggleGuestDeletedFlag(id, userId);
+    guestSearchCache.invalidate(userId);
+    // 削除フラグの切り替え後の状態を入力補完に反映する
+    Guest guest = repository.findGuestById(id, userId);
+    if (guest != null) {
+      guestKanaTrie.put(userId, guest);
+    }
   }
 
   public void logicalDeleteBooking(Authentication authentication, String id) {
-    repository.toggleBookingDeleteFlag(id, extractLoginId(authentication));
+    String userId = extractLoginId(authentication);
+    repository.toggleBookingDeleteFlag(id, userId);
+    bookingPlanCache.invalidate(userId);
+    guestSearchCache.invalidate(userId);
   }
 
   // チェックイン処理
-  public void checkIn(Authentication authentication, String id) {
-    ReservationStatus status = repository.findStatusById(id, extractLoginId(authentication));
-    if (status == ReservationStatus.NOT_CHECKED_IN) {
-      repository.checkIn(id, extractLoginId(authentication));
-    } else {
-      throw new IllegalStateException("未チェックインの予約のみチェックイン可能です");
-    }
+  // changeStatusの呼び出しはプロキシを通らないため、ここでトランザクションを開始する
+  @Transactional
+  public ReservationTransitionResult checkIn(Authentication authentication, String id) {
+    return changeStatus(authentication, id, ReservationAction.CHECK_IN);
   }
 
   // チェックアウト処理
-  public void checkOut(Authentication authentication, String id) {
-    ReservationStatus status = repository.findStatusById(id, extractLoginId(authentication));
-    if (status == ReservationStatus.CHECKED_IN) {
-      repository.checkOut(id, extractLoginId(authentication));
-    } else {
-      throw new IllegalStateException("チェックイン済みの予約のみチェックアウト可能です");
+  @Transactional
+  public ReservationTransitionResult checkOut(Authentication authentication, String id) {
+    return changeStatus(authentication, id, ReservationAction.CHECK_OUT);
+  }
+
+  // 一括チェックイン処理（未チェックインの予約だけをまとめて更新）
+  @Transactional
+  public ReservationBulkStatusResult checkInAll(Authentication authentication,
+      List<String> reservationIds) {
+    return toBulkStatusResult(changeStatusAll(extractLoginId(authentication), reservationIds,
+        ReservationAction.CHECK_IN));
+  }
+
+  // 一括チェックアウト処理（チェックイン中の予約だけをまとめて更新）
+  @Transactional
+  public ReservationBulkStatusResult checkOutAll(Authentication authentication,
+      List<String> reservationIds) {
+    return toBulkStatusResult(changeStatusAll(extractLoginId(authentication), reservationIds,
+        ReservationAction.CHECK_OUT));
+  }
+
+  // 本日チェックイン予定の宿泊予約への部屋の自動割り当て
+  // 部屋の行ロックを最初に取得し、同時に割り当てられた場合も同じ部屋を重ねて割り当てない
+  @Transactional
+  public RoomAssignmentResult assignRooms(Authentication authentication, LocalDate today) {
+    String userId = extractLoginId(authentication);
+    HotelRepository batchRepository = batchSession.getRepository();
+    List<Room> rooms = batchRepository.lockAllRoom(userId);
+    RoomAssignmentResult result = RoomAssigner.assign(today, rooms,
+        batchRepository.findRoomOccupancy(userId, today),
+        batchRepository.findReservationTodayCheckIn(userId, today));
+    for (RoomAssignment assignment : result.getAssigned()) {
+      batchRepository.updateReservationRoom(assignment.getReservationId(), userId,
+          assignment.getRoomId());
+    }
+    batchSession.flush();
+    if (!result.getAssigned().isEmpty()) {
+      guestSearchCache.invalidate(userId);
+    }
+    return result;
+  }
+
+  // 宿泊予約1件のステータス変更
+  // 変更前のステータスが1つに決まる操作は、状態の確認と更新を1回のUPDATEで行い、
+  // 同時に操作された場合も1件だけが成功する
+  @Transactional
+  public ReservationTransitionResult changeStatus(Authentication authentication, String id,
+      ReservationAction action) {
+    String userId = extractLoginId(authentication);
+    Map<ReservationStatus, ReservationStatus> transitions = ReservationTransitions.of(action);
+    if (transitions.size() > 1) {
+      return changeStatusAll(userId, List.of(id), action).getFirst();
+    }
+    Map.Entry<ReservationStatus, ReservationStatus> transition =
+        transitions.entrySet().iterator().next();
+    if (repository.updateReservationStatus(id, userId, transition.getKey(),
+        transition.getValue()) == 0) {
+      return ReservationTransitions.rejected(id, action);
+    }
+    // 販売泊数に数えるかどうかが変わる操作（ノーショーなど）だけ、宿泊予約を読んで日別の集計に反映する
+    if (BookingOccupancyIndex.occupies(transition.getKey())
+        != BookingOccupancyIndex.occupies(transition.getValue())) {
+      Reservation reservation = repository.findReservationById(id, userId);
+      if (reservation != null) {
+        addDailyStats(repository, userId, new DailyStatsRollup()
+            .changeStatus(reservation, transition.getKey(), transition.getValue()));
+      }
+    }
+    guestSearchCache.invalidate(userId);
+    afterCommit(() -> {
+      bookingOccupancyIndex.changeStatus(userId, id, transition.getValue());
+      guestDemographicsCube.changeStatus(userId, id, transition.getValue());
+    });
+    return ReservationTransitions.succeeded(id, action, transition.getKey(),
+        transition.getValue());
+  }
+
+  // 複数の宿泊予約のステータス変更（変更できない予約があっても他の予約は変更する）
+  @Transactional
+  public List<ReservationTransitionResult> changeStatusAll(Authentication authentication,
+      List<String> reservationIds, ReservationAction action) {
+    return changeStatusAll(extractLoginId(authentication), reservationIds, action);
+  }
+
+  // 現在のステータスを行ロック付きで1回で検索して遷移表で判定し、
+  // 変更前のステータスごとに1回のUPDATEでまとめて更新する
+  private List<ReservationTransitionResult> changeStatusAll(String userId,
+      List<String> reservationIds, ReservationAction action) {
+    Set<String> requested = new LinkedHashSet<>(reservationIds);
+    Map<String, Reservation> reservations = new HashMap<>();
+    Map<String, ReservationStatus> current = new HashMap<>();
+    for (Reservation reservation : repository.lockReservationStatusByIds(userId, requested)) {
+      reservations.put(reservation.getId(), reservation);
+      current.put(reservation.getId(), reservation.getStatus());
+    }
+
+    List<ReservationTransitionResult> results =
+        ReservationTransitions.plan(action, requested, current);
+    rejectOverCapacity(userId, action, results, reservations);
+    Map<ReservationStatus, List<String>> idsByFrom = new EnumMap<>(ReservationStatus.class);
+    for (ReservationTransitionResult result : results) {
+      if (result.isSuccess()) {
+        idsByFrom.computeIfAbsent(result.getFrom(), key -> new ArrayList<>())
+            .add(result.getReservationId());
+      }
+    }
+    Map<ReservationStatus, ReservationStatus> transitions = ReservationTransitions.of(action);
+    idsByFrom.forEach((from, ids) ->
+        repository.updateReservationStatusByIds(userId, ids, from, transitions.get(from)));
+    if (!idsByFrom.isEmpty()) {
+      guestSearchCache.invalidate(userId);
+    }
+    DailyStatsRollup rollup = new DailyStatsRollup();
+    List<ReservationTransitionResult> succeeded = new ArrayList<>();
+    for (ReservationTransitionResult result : results) {
+      if (result.isSuccess()) {
+        rollup.changeStatus(reservations.get(result.getReservationId()), result.getFrom(),
+            result.getTo());
+        succeeded.add(result);
+      }
+    }
+    addDailyStats(repository, userId, rollup);
+    afterCommit(() -> {
+      for (ReservationTransitionResult result : succeeded) {
+        bookingOccupancyIndex.changeStatus(userId, result.getReservationId(), result.getTo());
+        guestDemographicsCube.changeStatus(userId, result.getReservationId(), result.getTo());
+      }
+    });
+    return results;
+  }
+
+  // キャンセル・ノーショーの取り消しなど、販売泊数に数えない状態から数える状態に戻す宿泊予約は、
+  // 宿泊プランの行ロックを取得して空きを確認し、空きがない場合は変更できない結果にする
+  private void rejectOverCapacity(String userId, ReservationAction action,
+      List<ReservationTransitionResult> results, Map<String, Reservation> reservations) {
+    Map<String, List<Integer>> restoredByBooking = new TreeMap<>();
+    for (int i = 0; i < results.size(); i++) {
+      ReservationTransitionResult result = results.get(i);
+      if (result.isSuccess() && !BookingOccupancyIndex.occupies(result.getFrom())
+          && BookingOccupancyIndex.occupies(result.getTo())) {
+        restoredByBooking.computeIfAbsent(
+            reservations.get(result.getReservationId()).getBookingId(),
+            key -> new ArrayList<>()).add(i);
+      }
+    }
+    if (restoredByBooking.isEmpty()) {
+      return;
+    }
+    Map<String, Booking> bookings = new HashMap<>();
+    repository.lockBookingByIds(userId, restoredByBooking.keySet())
+        .forEach(booking -> bookings.put(booking.getId(), booking));
+
+    // 同じ宿泊プランに戻す宿泊予約は、先に戻せた宿泊予約を加えて1件ずつ確認する
+    for (Map.Entry<String, List<Integer>> entry : restoredByBooking.entrySet()) {
+      Booking booking = bookings.get(entry.getKey());
+      List<Reservation> restored = new ArrayList<>();
+      for (int index : entry.getValue()) {
+        ReservationTransitionResult result = results.get(index);
+        Reservation reservation = reservations.get(result.getReservationId());
+        Reservation stay = new Reservation();
+        stay.setId(reservation.getId());
+        stay.setBookingId(reservation.getBookingId());
+        stay.setCheckInDate(reservation.getCheckInDate());
+        stay.setCheckOutDate(reservation.getCheckOutDate() != null
+            ? reservation.getCheckOutDate()
+            : reservation.getCheckInDate().plusDays(reservation.getStayDays()));
+        stay.setStatus(result.getTo());
+        restored.add(stay);
+        LocalDate fullNight = firstFullNight(repository, userId, booking, restored);
+        if (fullNight != null) {
+          restored.removeLast();
+          results.set(index, ReservationTransitions.rejected(result.getReservationId(), action,
+              result.getFrom(), fullMessage(booking, fullNight)));
+        }
+      }
+    }
+  }
+
+  private static ReservationBulkStatusResult toBulkStatusResult(
+      List<ReservationTransitionResult> results) {
+    ReservationBulkStatusResult bulkStatusResult = new ReservationBulkStatusResult();
+    for (ReservationTransitionResult result : results) {
+      if (result.isSuccess()) {
+        bulkStatusResult.getMovedIds().add(result.getReservationId());
+      } else {
+        bulkStatusResult.getSkippedIds().add(result.getReservationId());
+      }
     }
+    return bulkStatusResult;
   }
 
   // 新規ユーザの登録
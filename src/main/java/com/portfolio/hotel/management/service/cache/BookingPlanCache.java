@@ -0,0 +1,154 @@
+package com.portfolio.hotel.management.service.cache;
+
+import com.portfolio.hotel.management.data.booking.Booking;
+import com.portfolio.hotel.management.data.cache.CacheStats;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import org.springframework.stereotype.Component;
+
+/**
+ * ユーザーごとの宿泊プランの一覧のキャッシュ。
+ * 宿泊プランはほとんど変更されないため、ユーザーの宿泊プランをまとめて読み込んで保持し、
+ * 一覧・ID指定の取得をDBを検索せずに返す。宿泊プランの登録・変更・削除のたびにそのユーザーの分を捨てる。
+ * ユーザー数の上限を超えた場合は最も長く使われていないユーザーの分から追い出し、有効期限を過ぎた分は読み込み直す。
+ * ヒット・ミスなどの回数はユーザーごとに数え、統計はそのユーザーの分だけを返す。
+ * 返す宿泊プランは他のリクエストと共有するため、変更しないこと。
+ */
+@Component
+public class BookingPlanCache {
+
+  // キャッシュするユーザー数の上限
+  static final int MAX_TENANTS = 1000;
+
+  // DBを直接更新した場合にも反映されるまでの最大の時間
+  static final Duration TTL = Duration.ofMinutes(10);
+
+  private final int maxTenants;
+  private final long ttlNanos;
+  private final LongSupplier clock;
+
+  // ユーザーID -> 宿泊プラン（アクセス順。読み込み・無効化・統計はentriesで同期する）
+  private final LinkedHashMap<String, Entry> entries;
+
+  // 無効化の回数。読み込み中に無効化された場合は、読み込んだ古い宿泊プランをキャッシュしない
+  private long generation;
+
+  // ユーザーID -> ヒット・ミスなどの回数
+  private final Map<String, Counters> counters = new HashMap<>();
+
+  public BookingPlanCache() {
+    this(MAX_TENANTS, TTL, System::nanoTime);
+  }
+
+  BookingPlanCache(int maxTenants, Duration ttl, LongSupplier clock) {
+    this.maxTenants = maxTenants;
+    this.ttlNanos = ttl.toNanos();
+    this.clock = clock;
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+        if (size() <= BookingPlanCache.this.maxTenants) {
+          return false;
+        }
+        counters(eldest.getKey()).evictions++;
+        return true;
+      }
+    };
+  }
+
+  // ユーザーの宿泊プランの一覧（キャッシュにない場合はloaderで読み込む）
+  public List<Booking> getAll(String userId, Function<String, List<Booking>> loader) {
+    return plans(userId, loader).list();
+  }
+
+  // ユーザーの宿泊プラン（ない場合はnull）
+  public Booking get(String userId, String bookingId, Function<String, List<Booking>> loader) {
+    return plans(userId, loader).byId().get(bookingId);
+  }
+
+  // 宿泊プランの登録・変更・削除後に呼び、ユーザーの宿泊プランを次回の取得で読み込み直させる
+  public void invalidate(String userId) {
+    synchronized (entries) {
+      generation++;
+      if (entries.remove(userId) != null) {
+        counters(userId).invalidations++;
+      }
+    }
+  }
+
+  // ユーザーの分だけの統計（他のユーザーの利用状況は含めない）
+  public CacheStats stats(String userId) {
+    synchronized (entries) {
+      Counters tenant = counters.getOrDefault(userId, new Counters());
+      CacheStats stats = new CacheStats();
+      stats.setName("bookingPlans");
+      stats.setSize(entries.containsKey(userId) ? 1 : 0);
+      stats.setHits(tenant.hits);
+      stats.setMisses(tenant.misses);
+      stats.setEvictions(tenant.evictions);
+      stats.setInvalidations(tenant.invalidations);
+      long requests = tenant.hits + tenant.misses;
+      stats.setHitRate(requests == 0 ? 0 : (double) tenant.hits / requests);
+      return stats;
+    }
+  }
+
+  private Counters counters(String userId) {
+    return counters.computeIfAbsent(userId, key -> new Counters());
+  }
+
+  // DBの読み込みはロックの外で行い、読み込み中も他のユーザーの取得を止めない
+  private TenantPlans plans(String userId, Function<String, List<Booking>> loader) {
+    long loadingGeneration;
+    synchronized (entries) {
+      Entry entry = entries.get(userId);
+      if (entry != null) {
+        if (clock.getAsLong() - entry.loadedAt() < ttlNanos) {
+          counters(userId).hits++;
+          return entry.plans();
+        }
+        entries.remove(userId);
+        counters(userId).evictions++;
+      }
+      counters(userId).misses++;
+      loadingGeneration = generation;
+    }
+
+    TenantPlans plans = TenantPlans.of(loader.apply(userId));
+    synchronized (entries) {
+      if (loadingGeneration == generation) {
+        entries.put(userId, new Entry(plans, clock.getAsLong()));
+      }
+    }
+    return plans;
+  }
+
+  private record Entry(TenantPlans plans, long loadedAt) {
+
+  }
+
+  private static final class Counters {
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+  }
+
+  // 読み込んだ順の一覧と、ID指定の取得用のMap
+  private record TenantPlans(List<Booking> list, Map<String, Booking> byId) {
+
+    static TenantPlans of(List<Booking> bookings) {
+      Map<String, Booking> byId = new HashMap<>();
+      for (Booking booking : bookings) {
+        byId.put(booking.getId(), booking);
+      }
+      return new TenantPlans(List.copyOf(bookings), Map.copyOf(byId));
+    }
+  }
+}
@@ -0,0 +1,228 @@
+package com.portfolio.hotel.management.service.cache;
+
+import com.portfolio.hotel.management.data.booking.Booking;
+import com.portfolio.hotel.management.data.cache.CacheStats;
+import com.portfolio.hotel.management.data.guest.Guest;
+import com.portfolio.hotel.management.data.guest.GuestDetail;
+import com.portfolio.hotel.management.data.guest.GuestSearchCondition;
+import com.portfolio.hotel.management.data.reservation.Reservation;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 宿泊者情報の単一検索の結果のキャッシュ。
+ * 複数の端末から数秒の間に同じ条件で検索されることが多いため、ユーザーと検索条件ごとに結果を短時間だけ保持する。
+ * 結果にはユーザーの版数を付けておき、宿泊者・宿泊予約を更新するたびに版数を上げて古い結果を返さないようにする。
+ * 推定メモリ使用量の上限を超えた場合は最も長く使われていない結果から追い出す。
+ * ヒット・ミスなどの回数はユーザーごとに数え、統計はそのユーザーの分だけを返す。
+ * 返す宿泊者情報は他のリクエストと共有するため、変更しないこと。
+ */
+@Component
+public class GuestSearchCache {
+
+  // 検索結果を保持する時間
+  static final Duration TTL = Duration.ofSeconds(30);
+
+  // 検索結果の推定メモリ使用量の上限（バイト）
+  static final long MAX_BYTES = 32L * 1024 * 1024;
+
+  private final long maxBytes;
+  private final long ttlNanos;
+  private final LongSupplier clock;
+
+  // ユーザーID -> 版数
+  private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+  // 検索条件 -> 検索結果（アクセス順。取得・追い出し・統計はentriesで同期する）
+  private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+  private long bytes;
+
+  // ユーザーID -> ヒット・ミスなどの回数（entriesで同期する）
+  private final Map<String, Counters> counters = new HashMap<>();
+
+  public GuestSearchCache() {
+    this(MAX_BYTES, TTL, System::nanoTime);
+  }
+
+  GuestSearchCache(long maxBytes, Duration ttl, LongSupplier clock) {
+    this.maxBytes = maxBytes;
+    this.ttlNanos = ttl.toNanos();
+    this.clock = clock;
+  }
+
+  // 検索結果（キャッシュにないか古い場合はloaderで検索する）
+  // 検索はロックの外で行い、検索中に版数が上がった場合は結果をキャッシュしない
+  public List<GuestDetail> get(String userId, GuestSearchCondition condition,
+      Supplier<List<GuestDetail>> loader) {
+    Key key = Key.of(userId, condition);
+    long version = version(userId);
+    synchronized (entries) {
+      Entry entry = entries.get(key);
+      if (entry != null) {
+        if (entry.version() == version && clock.getAsLong() - entry.loadedAt() < ttlNanos) {
+          counters(userId).hits++;
+          return entry.guestDetails();
+        }
+        entries.remove(key);
+        bytes -= entry.bytes();
+        if (entry.version() == version) {
+          counters(userId).evictions++;
+        }
+      }
+      counters(userId).misses++;
+    }
+
+    List<GuestDetail> guestDetails = List.copyOf(loader.get());
+    long size = estimateBytes(guestDetails);
+    synchronized (entries) {
+      if (version == version(userId) && size <= maxBytes) {
+        Entry previous = entries.put(key,
+            new Entry(guestDetails, version, clock.getAsLong(), size));
+        bytes += size - (previous == null ? 0 : previous.bytes());
+        evictOverflow();
+      }
+    }
+    return guestDetails;
+  }
+
+  // 宿泊者・宿泊予約の更新時に呼び、ユーザーのキャッシュ済みの検索結果を返さないようにする
+  // トランザクション中はコミット前の検索でキャッシュされた結果も返さないよう、完了時にも版数を上げる
+  public void invalidate(String userId) {
+    synchronized (entries) {
+      counters(userId).invalidations++;
+    }
+    bump(userId);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          bump(userId);
+        }
+      });
+    }
+  }
+
+  // ユーザーの分だけの統計（他のユーザーの利用状況は含めない）
+  public CacheStats stats(String userId) {
+    synchronized (entries) {
+      int size = 0;
+      long tenantBytes = 0;
+      for (Map.Entry<Key, Entry> entry : entries.entrySet()) {
+        if (entry.getKey().userId().equals(userId)) {
+          size++;
+          tenantBytes += entry.getValue().bytes();
+        }
+      }
+      Counters tenant = counters.getOrDefault(userId, new Counters());
+      CacheStats stats = new CacheStats();
+      stats.setName("guestSearch");
+      stats.setSize(size);
+      stats.setEstimatedBytes(tenantBytes);
+      stats.setHits(tenant.hits);
+      stats.setMisses(tenant.misses);
+      stats.setEvictions(tenant.evictions);
+      stats.setInvalidations(tenant.invalidations);
+      long requests = tenant.hits + tenant.misses;
+      stats.setHitRate(requests == 0 ? 0 : (double) tenant.hits / requests);
+      return stats;
+    }
+  }
+
+  private Counters counters(String userId) {
+    return counters.computeIfAbsent(userId, key -> new Counters());
+  }
+
+  private long version(String userId) {
+    AtomicLong version = versions.get(userId);
+    return version == null ? 0 : version.get();
+  }
+
+  private void bump(String userId) {
+    versions.computeIfAbsent(userId, key -> new AtomicLong()).incrementAndGet();
+  }
+
+  private void evictOverflow() {
+    Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+    while (bytes > maxBytes && iterator.hasNext()) {
+      Map.Entry<Key, Entry> eldest = iterator.next();
+      bytes -= eldest.getValue().bytes();
+      iterator.remove();
+      counters(eldest.getKey().userId()).evictions++;
+    }
+  }
+
+  // 検索結果の推定メモリ使用量
+  // 宿泊プランは宿泊プランのキャッシュと共有するため参照分だけを数える
+  static long estimateBytes(List<GuestDetail> guestDetails) {
+    long size = 16 + 8L * guestDetails.size();
+    for (GuestDetail guestDetail : guestDetails) {
+      size += 64;
+      Guest guest = guestDetail.getGuest();
+      if (guest != null) {
+        size += 64 + estimateBytes(guest.getId()) + estimateBytes(guest.getName())
+            + estimateBytes(guest.getKanaName()) + estimateBytes(guest.getGender())
+            + estimateBytes(guest.getRegion()) + estimateBytes(guest.getEmail())
+            + estimateBytes(guest.getPhone()) + estimateBytes(guest.getMatchKey());
+      }
+      List<Booking> bookings = guestDetail.getBookings();
+      size += bookings == null ? 0 : 16 + 8L * bookings.size();
+      List<Reservation> reservations = guestDetail.getReservations();
+      if (reservations != null) {
+        size += 16 + 8L * reservations.size();
+        for (Reservation reservation : reservations) {
+          // 日付・日時・金額・ステータスの分を含む
+          size += 200 + estimateBytes(reservation.getId())
+              + estimateBytes(reservation.getGuestId())
+              + estimateBytes(reservation.getBookingId())
+              + estimateBytes(reservation.getMemo()) + estimateBytes(reservation.getRoomId());
+        }
+      }
+    }
+    return size;
+  }
+
+  private static long estimateBytes(String value) {
+    return value == null ? 0 : 40 + 2L * value.length();
+  }
+
+  private record Entry(List<GuestDetail> guestDetails, long version, long loadedAt,
+                       long bytes) {
+
+  }
+
+  private static final class Counters {
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+  }
+
+  // 正規化した検索条件（空文字は未指定と同じ。ユーザーIDは認証情報のものを使う）
+  private record Key(String userId, String name, String kanaName, String phone,
+                     LocalDate checkInDate, LocalDate checkOutDate) {
+
+    static Key of(String userId, GuestSearchCondition condition) {
+      return new Key(userId, emptyToNull(condition.getName()),
+          emptyToNull(condition.getKanaName()), emptyToNull(condition.getPhone()),
+          condition.getCheckInDate(), condition.getCheckOutDate());
+    }
+
+    private static String emptyToNull(String value) {
+      return value == null || value.isEmpty() ? null : value;
+    }
+  }
+}
@@ -0,0 +1,55 @@
+package com.portfolio.hotel.management.service.cache;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+
+/**
+ * 同時に実行中の同じ読み込みをまとめる。
+ * 最初の呼び出しだけが読み込み、読み込み中に同じキーで呼び出されたスレッドはその結果（例外を含む）を待って受け取る。
+ * 結果は保持せず、読み込みが終わった後の呼び出しは新しく読み込む。
+ * 返す結果は他のリクエストと共有するため、変更しないこと。
+ */
+@Component
+public class SingleFlight {
+
+  // キー -> 実行中の読み込み
+  private final Map<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+  @SuppressWarnings("unchecked")
+  public <T> T execute(Object key, Supplier<T> loader) {
+    CompletableFuture<Object> flight = new CompletableFuture<>();
+    CompletableFuture<Object> running = inFlight.putIfAbsent(key, flight);
+    if (running != null) {
+      return (T) await(running);
+    }
+    try {
+      T result = loader.get();
+      flight.complete(result);
+      return result;
+    } catch (RuntimeException | Error e) {
+      flight.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, flight);
+    }
+  }
+
+  // 読み込んだスレッドで発生した例外はそのまま投げ直す
+  private static Object await(CompletableFuture<Object> running) {
+    try {
+      return running.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      if (e.getCause() instanceof Error cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+}
@@ -0,0 +1,41 @@
+package com.portfolio.hotel.management.service.converter;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+// 名前・かな名・電話番号の表記ゆれをそろえた完全一致検索用のキー（SHA-256の16進文字列）
+public final class GuestMatchKey {
+
+  // 正規化後の文字列には空白が含まれないため、区切り文字にタブを使う
+  private static final char SEPARATOR = '\t';
+
+  private GuestMatchKey() {
+  }
+
+  public static String of(String name, String kanaName, String phone) {
+    String source = TextNormalizer.normalize(name) + SEPARATOR
+        + TextNormalizer.normalize(kanaName) + SEPARATOR
+        + normalizePhone(phone);
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(source.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  // 電話番号は数字だけを残す（全角数字・ハイフン・括弧の違いを吸収）
+  static String normalizePhone(String phone) {
+    String normalized = TextNormalizer.normalize(phone);
+    StringBuilder digits = new StringBuilder(normalized.length());
+    for (int i = 0; i < normalized.length(); i++) {
+      char c = normalized.charAt(i);
+      if (c >= '0' && c <= '9') {
+        digits.append(c);
+      }
+    }
+    return digits.toString();
+  }
+}
@@ -6,7 +6,10 @@ import com.portfolio.hotel.management.data.guest.GuestDetail;
 import com.portfolio.hotel.management.data.guest.GuestMatch;
 import com.portfolio.hotel.management.data.reservation.Reservation;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -16,24 +19,41 @@ public class HotelConverter {
   public List<GuestDetail> convertGuestDetail(List<Guest> guests,
       List<Booking> bookings, List<Reservation> reservations) {
 
-    List<GuestDetail> guestDetails = new ArrayList<>();
+    // 宿泊予約は宿泊者IDごと、宿泊プランはIDごとに一度だけまとめておく
+    Map<String, List<Reservation>> reservationsByGuestId = new HashMap<>();
+    for (Reservation reservation : reservations) {
+      reservationsByGuestId
+          .computeIfAbsent(reservation.getGuestId(), key -> new ArrayList<>())
+          .add(reservation);
+    }
+
+    // 宿泊プランは元の並び順で返すため、IDごとに一覧上の位置を保持する
+    Booking[] bookingArray = bookings.toArray(new Booking[0]);
+    Map<String, List<Integer>> bookingIndexesById = new HashMap<>();
+    for (int i = 0; i < bookingArray.length; i++) {
+      bookingIndexesById
+          .computeIfAbsent(bookingArray[i].getId(), key -> new ArrayList<>())
+          .add(i);
+    }
+
+    List<GuestDetail> guestDetails = new ArrayList<>(guests.size());
 
     for (Guest guest : guests) {
       GuestDetail guestDetail = new GuestDetail();
       guestDetail.setGuest(guest);
 
-      List<Reservation> matchedReservations = reservations.stream()
-          .filter(s -> s.getGuestId().equals(guestDetail.getGuest().getId()))
-          .toList();
+      List<Reservation> matchedReservations = guest.getId() == null
+          ? List.of()
+          : Collections.unmodifiableList(
+              reservationsByGuestId.getOrDefault(guest.getId(), List.of()));
       guestDetail.setReservations(matchedReservations);
 
-      List<String> bookingIds = guestDetail.getReservations().stream()
+      List<Booking> matchBookings = matchedReservations.stream()
           .map(Reservation::getBookingId)
           .distinct()
-          .toList();
-
-      List<Booking> matchBookings = bookings.stream()
-          .filter(s -> bookingIds.contains(s.getId()))
+          .flatMap(bookingId -> bookingIndexesById.getOrDefault(bookingId, List.of()).stream())
+          .sorted()
+          .map(index -> bookingArray[index])
           .toList();
 
       guestDetail.setBookings(matchBookings);
@@ -51,4 +71,4 @@ public class HotelConverter {
     guest.setPhone(guestMatch.getPhone());
     return guest;
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,34 @@
+package com.portfolio.hotel.management.service.converter;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+// 名前・かな名の表記ゆれ（全角半角、ひらがなカタカナ、空白、大文字小文字）をそろえる
+public final class TextNormalizer {
+
+  private static final char HIRAGANA_FIRST = 'ぁ';
+  private static final char HIRAGANA_LAST = 'ゖ';
+  private static final int KATAKANA_OFFSET = 'ァ' - 'ぁ';
+
+  private TextNormalizer() {
+  }
+
+  public static String normalize(String value) {
+    if (value == null) {
+      return "";
+    }
+    String nfkc = Normalizer.normalize(value, Normalizer.Form.NFKC);
+    StringBuilder builder = new StringBuilder(nfkc.length());
+    for (int i = 0; i < nfkc.length(); i++) {
+      char c = nfkc.charAt(i);
+      if (Character.isWhitespace(c)) {
+        continue;
+      }
+      if (c >= HIRAGANA_FIRST && c <= HIRAGANA_LAST) {
+        c = (char) (c + KATAKANA_OFFSET);
+      }
+      builder.append(c);
+    }
+    return builder.toString().toLowerCase(Locale.ROOT);
+  }
+}
@@ -0,0 +1,23 @@
+package com.portfolio.hotel.management.service.exporter;
+
+// 宿泊者情報・宿泊予約の出力ファイルの形式
+public enum GuestExportFormat {
+  CSV("text/csv", "csv"),
+  NDJSON("application/x-ndjson", "ndjson");
+
+  private final String mediaType;
+  private final String extension;
+
+  GuestExportFormat(String mediaType, String extension) {
+    this.mediaType = mediaType;
+    this.extension = extension;
+  }
+
+  public String getMediaType() {
+    return mediaType;
+  }
+
+  public String getExtension() {
+    return extension;
+  }
+}
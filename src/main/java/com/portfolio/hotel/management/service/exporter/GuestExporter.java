@@ -0,0 +1,132 @@
+package com.portfolio.hotel.management.service.exporter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.hotel.management.data.guest.Guest;
+import com.portfolio.hotel.management.data.reservation.Reservation;
+import com.portfolio.hotel.management.repository.HotelRepository;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Function;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 宿泊者情報・宿泊予約の出力。
+ * MyBatisのCursorで1件ずつ読み込みながら書き出し、一定件数ごとにレスポンスへ送り出すため、
+ * 件数が多くても保持するのは書き込み中のバッファ分だけ。
+ */
+@Component
+public class GuestExporter {
+
+  // レスポンスへ送り出す件数の単位
+  static final int FLUSH_SIZE = 1000;
+
+  // ExcelでUTF-8のCSVとして開けるように先頭に付けるBOM
+  private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+  private static final List<Column<Guest>> GUEST_COLUMNS = List.of(
+      new Column<>("id", Guest::getId),
+      new Column<>("name", Guest::getName),
+      new Column<>("kanaName", Guest::getKanaName),
+      new Column<>("gender", Guest::getGender),
+      new Column<>("age", Guest::getAge),
+      new Column<>("region", Guest::getRegion),
+      new Column<>("email", Guest::getEmail),
+      new Column<>("phone", Guest::getPhone),
+      new Column<>("deleted", Guest::getDeleted));
+
+  private static final List<Column<Reservation>> RESERVATION_COLUMNS = List.of(
+      new Column<>("id", Reservation::getId),
+      new Column<>("guestId", Reservation::getGuestId),
+      new Column<>("bookingId", Reservation::getBookingId),
+      new Column<>("checkInDate", Reservation::getCheckInDate),
+      new Column<>("checkOutDate", Reservation::getCheckOutDate),
+      new Column<>("stayDays", Reservation::getStayDays),
+      new Column<>("totalPrice", Reservation::getTotalPrice),
+      new Column<>("status", Reservation::getStatus),
+      new Column<>("memo", Reservation::getMemo),
+      new Column<>("createdAt", Reservation::getCreatedAt));
+
+  private final HotelRepository repository;
+  private final ObjectMapper objectMapper;
+
+  public GuestExporter(HotelRepository repository, ObjectMapper objectMapper) {
+    this.repository = repository;
+    this.objectMapper = objectMapper;
+  }
+
+  // Cursorは読み込み中にセッションを開いておく必要があるため、出力全体を1つのトランザクションで行う
+  @Transactional(readOnly = true)
+  public void exportGuests(Authentication authentication, GuestExportFormat format,
+      OutputStream out) throws IOException {
+    try (Cursor<Guest> cursor = repository.exportGuest(authentication.getName())) {
+      write(cursor, GUEST_COLUMNS, format, out);
+    }
+  }
+
+  @Transactional(readOnly = true)
+  public void exportReservations(Authentication authentication, GuestExportFormat format,
+      OutputStream out) throws IOException {
+    try (Cursor<Reservation> cursor = repository.exportReservation(authentication.getName())) {
+      write(cursor, RESERVATION_COLUMNS, format, out);
+    }
+  }
+
+  private <T> void write(Iterable<T> rows, List<Column<T>> columns, GuestExportFormat format,
+      OutputStream out) throws IOException {
+    // レスポンスのストリームは呼び出し元が閉じるため、ここではflushだけを行う
+    Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    if (format == GuestExportFormat.CSV) {
+      writer.write(BYTE_ORDER_MARK);
+      writeCsvRecord(writer, columns.stream().map(Column::name).toList());
+    }
+    int count = 0;
+    for (T row : rows) {
+      if (format == GuestExportFormat.CSV) {
+        writeCsvRecord(writer, columns.stream().map(column -> toText(column.value().apply(row)))
+            .toList());
+      } else {
+        writer.write(objectMapper.writeValueAsString(row));
+        writer.write('\n');
+      }
+      if (++count % FLUSH_SIZE == 0) {
+        writer.flush();
+      }
+    }
+    writer.flush();
+  }
+
+  private static void writeCsvRecord(Writer writer, List<String> values) throws IOException {
+    for (int i = 0; i < values.size(); i++) {
+      if (i > 0) {
+        writer.write(',');
+      }
+      writer.write(escapeCsv(values.get(i)));
+    }
+    writer.write("\r\n");
+  }
+
+  // カンマ・引用符・改行を含む値は引用符で囲む（RFC 4180）
+  static String escapeCsv(String value) {
+    if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+        && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+      return value;
+    }
+    return '"' + value.replace("\"", "\"\"") + '"';
+  }
+
+  private static String toText(Object value) {
+    return value == null ? "" : value.toString();
+  }
+
+  private record Column<T>(String name, Function<T, Object> value) {
+
+  }
+}
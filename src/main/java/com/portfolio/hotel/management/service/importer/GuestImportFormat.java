@@ -0,0 +1,31 @@
+package com.portfolio.hotel.management.service.importer;
+
+import java.util.Locale;
+
+// 宿泊者情報の取り込みファイルの形式
+public enum GuestImportFormat {
+  CSV("text/csv"),
+  NDJSON("application/x-ndjson");
+
+  private final String mediaType;
+
+  GuestImportFormat(String mediaType) {
+    this.mediaType = mediaType;
+  }
+
+  public String getMediaType() {
+    return mediaType;
+  }
+
+  // Content-Typeから形式を判定する（charsetなどのパラメータは無視）
+  public static GuestImportFormat fromContentType(String contentType) {
+    if (contentType != null) {
+      for (GuestImportFormat format : values()) {
+        if (contentType.toLowerCase(Locale.ROOT).startsWith(format.mediaType)) {
+          return format;
+        }
+      }
+    }
+    throw new IllegalArgumentException("CSVまたはNDJSONのみ取り込みできます");
+  }
+}
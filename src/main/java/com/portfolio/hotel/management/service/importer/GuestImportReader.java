@@ -0,0 +1,253 @@
+package com.portfolio.hotel.management.service.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 取り込みファイルを1件ずつ読み込む。ファイル全体をメモリに読み込まず、
+ * 保持するのは読み込み中の1件分だけ。
+ * 上限を超える長さの値・1件は残りを読み飛ばし、その件を登録しない。
+ */
+abstract class GuestImportReader implements Closeable {
+
+  // 1項目の最大文字数
+  static final int MAX_FIELD_LENGTH = 10_000;
+
+  // 1件（CSVの1レコード・NDJSONの1行）の最大文字数
+  static final int MAX_RECORD_LENGTH = 100_000;
+
+  private static final int BYTE_ORDER_MARK = '\uFEFF';
+
+  // 空行（件数に含めない）
+  private static final Row BLANK = new Row(0, null, null);
+
+  protected final BufferedReader reader;
+  private int rowNumber = 0;
+
+  // 読み込んだ1件（読み込めなかった場合はerrorに理由を設定）
+  record Row(int number, Map<String, String> values, String error) {
+
+  }
+
+  protected GuestImportReader(InputStream in) throws IOException {
+    this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    // Excelなどが付けるBOMを読み飛ばす
+    reader.mark(1);
+    if (reader.read() != BYTE_ORDER_MARK) {
+      reader.reset();
+    }
+  }
+
+  static GuestImportReader of(GuestImportFormat format, InputStream in,
+      ObjectMapper objectMapper) throws IOException {
+    return switch (format) {
+      case CSV -> new Csv(in);
+      case NDJSON -> new Ndjson(in, objectMapper);
+    };
+  }
+
+  // 次の1件を返す（終端ではnull）
+  Row next() throws IOException {
+    while (true) {
+      Row row = read(rowNumber + 1);
+      if (row == null) {
+        return null;
+      }
+      if (row == BLANK) {
+        continue;
+      }
+      rowNumber++;
+      return row;
+    }
+  }
+
+  protected abstract Row read(int number) throws IOException;
+
+  protected static String fieldTooLong() {
+    return "項目が長すぎます（" + MAX_FIELD_LENGTH + "文字まで）";
+  }
+
+  protected static String recordTooLong() {
+    return "1件の長さが上限を超えています（" + MAX_RECORD_LENGTH + "文字まで）";
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+
+  // 1行目を項目名とするCSV（RFC 4180の引用符・改行を含む値に対応）
+  private static final class Csv extends GuestImportReader {
+
+    private final List<String> header;
+
+    // 直前に読み込んだレコードが上限を超えていた場合の理由
+    private String overflow;
+
+    Csv(InputStream in) throws IOException {
+      super(in);
+      List<String> names = readRecord();
+      if (overflow != null) {
+        throw new IOException("見出し行の" + overflow);
+      }
+      this.header = names == null ? List.of() : names.stream().map(String::trim).toList();
+    }
+
+    @Override
+    protected Row read(int number) throws IOException {
+      List<String> fields = readRecord();
+      if (fields == null) {
+        return null;
+      }
+      if (overflow != null) {
+        return new Row(number, null, overflow);
+      }
+      if (fields.size() == 1 && fields.getFirst().isBlank()) {
+        return BLANK;
+      }
+      if (fields.size() != header.size()) {
+        return new Row(number, null,
+            "項目数が見出し行と一致しません（" + fields.size() + "/" + header.size() + "）");
+      }
+      Map<String, String> values = new HashMap<>();
+      for (int i = 0; i < header.size(); i++) {
+        values.put(header.get(i), fields.get(i));
+      }
+      return new Row(number, values, null);
+    }
+
+    // 上限を超えた場合もレコードの終わりまで読み進め、以降の値は保持しない
+    private List<String> readRecord() throws IOException {
+      List<String> fields = new ArrayList<>();
+      StringBuilder field = new StringBuilder();
+      boolean quoted = false;
+      boolean empty = true;
+      int length = 0;
+      overflow = null;
+      int c;
+      while ((c = reader.read()) != -1) {
+        empty = false;
+        if (overflow == null && ++length > MAX_RECORD_LENGTH) {
+          overflow = recordTooLong();
+        }
+        if (quoted) {
+          if (c != '"') {
+            append(field, (char) c);
+            continue;
+          }
+          reader.mark(1);
+          if (reader.read() == '"') {
+            append(field, '"');
+          } else {
+            quoted = false;
+            reader.reset();
+          }
+        } else if (c == '"') {
+          quoted = true;
+        } else if (c == ',') {
+          addField(fields, field);
+        } else if (c == '\n') {
+          addField(fields, field);
+          return fields;
+        } else if (c != '\r') {
+          append(field, (char) c);
+        }
+      }
+      if (empty) {
+        return null;
+      }
+      addField(fields, field);
+      return fields;
+    }
+
+    private void append(StringBuilder field, char c) {
+      if (overflow == null && field.length() == MAX_FIELD_LENGTH) {
+        overflow = fieldTooLong();
+      }
+      if (overflow == null) {
+        field.append(c);
+      }
+    }
+
+    private void addField(List<String> fields, StringBuilder field) {
+      if (overflow == null) {
+        fields.add(field.toString());
+      }
+      field.setLength(0);
+    }
+  }
+
+  // 1行に1つのJSONオブジェクトを書いたNDJSON
+  private static final class Ndjson extends GuestImportReader {
+
+    private final ObjectMapper objectMapper;
+
+    Ndjson(InputStream in, ObjectMapper objectMapper) throws IOException {
+      super(in);
+      this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected Row read(int number) throws IOException {
+      StringBuilder line = new StringBuilder();
+      boolean tooLong = false;
+      int c = reader.read();
+      if (c == -1) {
+        return null;
+      }
+      // 上限を超えた行も改行まで読み進め、以降の文字は保持しない
+      for (; c != -1 && c != '\n'; c = reader.read()) {
+        if (tooLong || c == '\r') {
+          continue;
+        }
+        if (line.length() == MAX_RECORD_LENGTH) {
+          tooLong = true;
+          line.setLength(0);
+        } else {
+          line.append((char) c);
+        }
+      }
+      if (tooLong) {
+        return new Row(number, null, recordTooLong());
+      }
+      String text = line.toString();
+      if (text.isBlank()) {
+        return BLANK;
+      }
+      JsonNode node;
+      try {
+        node = objectMapper.readTree(text);
+      } catch (JsonProcessingException e) {
+        return new Row(number, null, "JSONの形式が正しくありません");
+      }
+      if (!node.isObject()) {
+        return new Row(number, null, "JSONの形式が正しくありません");
+      }
+      Map<String, String> values = new HashMap<>();
+      for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext(); ) {
+        Map.Entry<String, JsonNode> field = it.next();
+        if (field.getValue().isNull()) {
+          continue;
+        }
+        String value = field.getValue().asText();
+        if (value.length() > MAX_FIELD_LENGTH) {
+          return new Row(number, null, fieldTooLong());
+        }
+        values.put(field.getKey(), value);
+      }
+      return new Row(number, values, null);
+    }
+  }
+}
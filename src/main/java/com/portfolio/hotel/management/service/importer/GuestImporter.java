@@ -0,0 +1,210 @@
+package com.portfolio.hotel.management.service.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.hotel.management.data.booking.Booking;
+import com.portfolio.hotel.management.data.guest.Guest;
+import com.portfolio.hotel.management.data.guest.GuestBulkRegistration;
+import com.portfolio.hotel.management.data.guest.GuestImportResult;
+import com.portfolio.hotel.management.data.guest.GuestRegistration;
+import com.portfolio.hotel.management.data.reservation.ReservationStatus;
+import com.portfolio.hotel.management.exception.BookingFullException;
+import com.portfolio.hotel.management.service.HotelService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+/**
+ * 過去の宿泊者情報・宿泊予約の取り込み。
+ * ファイルを1件ずつ読み込み、一定件数ごとに一括登録する（1回の一括登録ごとにコミット）。
+ * 宿泊者は一括登録と同じく完全一致検索用のキーで既存の宿泊者にまとめる。
+ * 宿泊予約のステータスはstatus列で指定でき、指定がない場合はチェックアウト日が過ぎた宿泊予約をチェックアウト済みにする。
+ */
+@Slf4j
+@Component
+public class GuestImporter {
+
+  // 1回の一括登録で登録する件数
+  static final int CHUNK_SIZE = GuestBulkRegistration.MAX_SIZE;
+
+  // 結果に含める登録しなかった行の理由の最大件数
+  static final int MAX_ERRORS = 100;
+
+  private final HotelService service;
+  private final Validator validator;
+  private final ObjectMapper objectMapper;
+
+  public GuestImporter(HotelService service, Validator validator, ObjectMapper objectMapper) {
+    this.service = service;
+    this.validator = validator;
+    this.objectMapper = objectMapper;
+  }
+
+  public GuestImportResult importGuests(Authentication authentication, GuestImportFormat format,
+      InputStream in, LocalDate today) throws IOException {
+    String userId = authentication.getName();
+    Set<String> bookingIds = service.getAllBooking(authentication).stream()
+        .map(Booking::getId)
+        .collect(Collectors.toSet());
+
+    GuestImportResult result = new GuestImportResult();
+    List<GuestRegistration> chunk = new ArrayList<>(CHUNK_SIZE);
+    List<Integer> rowNumbers = new ArrayList<>(CHUNK_SIZE);
+    try (GuestImportReader reader = GuestImportReader.of(format, in, objectMapper)) {
+      GuestImportReader.Row row;
+      while ((row = reader.next()) != null) {
+        result.setTotalRows(result.getTotalRows() + 1);
+        try {
+          if (row.error() != null) {
+            throw new IllegalArgumentException(row.error());
+          }
+          chunk.add(toRegistration(row.values(), userId, bookingIds, today));
+          rowNumbers.add(row.number());
+        } catch (IllegalArgumentException e) {
+          skip(result, row.number(), e.getMessage());
+        }
+        if (chunk.size() == CHUNK_SIZE) {
+          register(authentication, chunk, rowNumbers, result);
+        }
+      }
+    }
+    if (!chunk.isEmpty()) {
+      register(authentication, chunk, rowNumbers, result);
+    }
+    log.info("宿泊者情報の取り込みが完了しました: user={}, total={}, imported={}, skipped={}",
+        userId, result.getTotalRows(), result.getImportedRows(), result.getSkippedRows());
+    return result;
+  }
+
+  private void register(Authentication authentication, List<GuestRegistration> chunk,
+      List<Integer> rowNumbers, GuestImportResult result) {
+    int imported;
+    try {
+      imported = service.registerGuests(authentication, chunk);
+    } catch (BookingFullException e) {
+      imported = registerEach(authentication, chunk, rowNumbers, result);
+    }
+    result.setImportedRows(result.getImportedRows() + imported);
+    chunk.clear();
+    rowNumbers.clear();
+    log.info("宿泊者情報の取り込み中: user={}, processed={}, imported={}",
+        authentication.getName(), result.getTotalRows(), result.getImportedRows());
+  }
+
+  // 満室の泊を含む場合は1件ずつ登録し直し、空きのない行だけを登録しない
+  private int registerEach(Authentication authentication, List<GuestRegistration> chunk,
+      List<Integer> rowNumbers, GuestImportResult result) {
+    int imported = 0;
+    for (int i = 0; i < chunk.size(); i++) {
+      GuestRegistration registration = chunk.get(i);
+      // 取り込む宿泊者は常に新規のため、失敗した一括登録で設定された宿泊者IDを戻す
+      registration.getGuest().setId(null);
+      try {
+        imported += service.registerGuests(authentication, List.of(registration));
+      } catch (BookingFullException e) {
+        skip(result, rowNumbers.get(i), e.getMessage());
+      }
+    }
+    return imported;
+  }
+
+  private static void skip(GuestImportResult result, int rowNumber, String message) {
+    result.setSkippedRows(result.getSkippedRows() + 1);
+    if (result.getErrors().size() < MAX_ERRORS) {
+      result.getErrors().add(rowNumber + "件目: " + message);
+    }
+  }
+
+  // 1件分の項目を宿泊者登録に変換する（入力内容に誤りがある場合はIllegalArgumentException）
+  private GuestRegistration toRegistration(Map<String, String> values, String userId,
+      Set<String> bookingIds, LocalDate today) {
+    Guest guest = new Guest();
+    guest.setName(values.get("name"));
+    guest.setKanaName(values.get("kanaName"));
+    guest.setGender(values.get("gender"));
+    guest.setAge(parseInteger(values.get("age"), "年齢"));
+    guest.setRegion(values.get("region"));
+    guest.setEmail(values.get("email"));
+    guest.setPhone(values.get("phone"));
+    guest.setUserId(userId);
+
+    // 過去の宿泊予約を取り込むため、チェックイン日以外は画面からの登録と同じ検証を行う
+    Set<ConstraintViolation<Guest>> violations = validator.validate(guest);
+    if (!violations.isEmpty()) {
+      throw new IllegalArgumentException(violations.stream()
+          .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+          .map(ConstraintViolation::getMessage)
+          .collect(Collectors.joining("、")));
+    }
+
+    GuestRegistration guestRegistration = new GuestRegistration();
+    guestRegistration.setGuest(guest);
+    guestRegistration.setBookingId(values.get("bookingId"));
+    if (!bookingIds.contains(guestRegistration.getBookingId())) {
+      throw new IllegalArgumentException("宿泊プランが見つかりません");
+    }
+    Integer stayDays = parseInteger(values.get("stayDays"), "滞在日数");
+    if (stayDays == null || stayDays < 1) {
+      throw new IllegalArgumentException("滞在日数は1以上である必要があります");
+    }
+    guestRegistration.setStayDays(stayDays);
+    guestRegistration.setCheckInDate(parseDate(values.get("checkInDate")));
+    guestRegistration.setMemo(values.get("memo"));
+    guestRegistration.setStatus(parseStatus(values.get("status"),
+        guestRegistration.getCheckInDate().plusDays(stayDays), today));
+    return guestRegistration;
+  }
+
+  // チェックアウト済みにできるのはチェックアウト日が過ぎた宿泊予約だけ
+  // （チェックアウト済みの宿泊予約は空きを確認せずに登録されるため）
+  private static ReservationStatus parseStatus(String value, LocalDate checkOutDate,
+      LocalDate today) {
+    if (value == null || value.isBlank()) {
+      return checkOutDate.isBefore(today)
+          ? ReservationStatus.CHECKED_OUT : ReservationStatus.NOT_CHECKED_IN;
+    }
+    ReservationStatus status;
+    try {
+      status = ReservationStatus.valueOf(value.trim());
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("ステータスが正しくありません");
+    }
+    if (status == ReservationStatus.CHECKED_OUT && !checkOutDate.isBefore(today)) {
+      throw new IllegalArgumentException("チェックアウト日が過ぎていない宿泊予約はチェックアウト済みにできません");
+    }
+    return status;
+  }
+
+  private static Integer parseInteger(String value, String label) {
+    if (value == null || value.isBlank()) {
+      return null;
+    }
+    try {
+      return Integer.valueOf(value.trim());
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(label + "は数値で入力してください");
+    }
+  }
+
+  private static LocalDate parseDate(String value) {
+    if (value == null || value.isBlank()) {
+      throw new IllegalArgumentException("チェックイン日は必須です");
+    }
+    try {
+      return LocalDate.parse(value.trim());
+    } catch (DateTimeParseException e) {
+      throw new IllegalArgumentException("チェックイン日はyyyy-MM-dd形式で入力してください");
+    }
+  }
+}
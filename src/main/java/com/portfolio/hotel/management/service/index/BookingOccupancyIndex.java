@@ -0,0 +1,227 @@
+package com.portfolio.hotel.management.service.index;
+
+import com.portfolio.hotel.management.data.reservation.Reservation;
+import com.portfolio.hotel.management.data.reservation.ReservationStatus;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.springframework.stereotype.Component;
+
+/**
+ * 宿泊プランごとの1泊ごとの予約数の索引（ユーザーごと）。
+ * 宿泊プランごとにエポック日を添字にした予約数の配列を持ち、宿泊予約の登録・変更のたびに宿泊期間の分だけ加減する。
+ * 期間の予約数は配列の該当範囲をコピーするだけで求まる。
+ */
+@Component
+public class BookingOccupancyIndex {
+
+  private final Map<String, TenantOccupancy> tenants = new ConcurrentHashMap<>();
+  private volatile boolean ready = false;
+
+  // DBから読み込んだ宿泊予約で索引を作成する
+  // 読み込み中に登録・変更された宿泊予約の方が新しいため、既にある宿泊予約は上書きしない
+  public void load(List<Reservation> reservations) {
+    for (Reservation reservation : reservations) {
+      tenant(reservation.getUserId()).put(reservation, false);
+    }
+    ready = true;
+  }
+
+  // 宿泊予約の登録・変更を索引に反映する
+  public void put(String userId, Reservation reservation) {
+    if (userId == null || reservation.getId() == null) {
+      return;
+    }
+    tenant(userId).put(reservation, true);
+  }
+
+  // 宿泊予約のステータスの変更を索引に反映する（索引にない宿泊予約は何もしない）
+  public void changeStatus(String userId, String reservationId, ReservationStatus status) {
+    TenantOccupancy tenant = tenants.get(userId);
+    if (tenant != null) {
+      tenant.changeStatus(reservationId, status);
+    }
+  }
+
+  // 宿泊プランのfromからtoまでの各泊の予約数を返す（索引の作成前は空）
+  public Optional<int[]> occupancy(String userId, String bookingId, LocalDate from,
+      LocalDate to) {
+    if (!ready) {
+      return Optional.empty();
+    }
+    int days = (int) (to.toEpochDay() - from.toEpochDay() + 1);
+    TenantOccupancy tenant = tenants.get(userId);
+    if (tenant == null) {
+      return Optional.of(new int[days]);
+    }
+    return Optional.of(tenant.occupancy(bookingId, from.toEpochDay(), days));
+  }
+
+  public boolean isReady() {
+    return ready;
+  }
+
+  // 宿泊予約の一覧からfromからtoまでの各泊の予約数を数える（索引を使えない場合用）
+  public static int[] count(List<Reservation> reservations, LocalDate from, LocalDate to) {
+    long first = from.toEpochDay();
+    int[] counts = new int[(int) (to.toEpochDay() - first + 1)];
+    for (Reservation reservation : reservations) {
+      Stay stay = Stay.of(reservation);
+      if (stay == null || !occupies(stay.status())) {
+        continue;
+      }
+      long start = Math.max(stay.checkIn(), first);
+      long end = Math.min(stay.checkOut(), first + counts.length);
+      for (long day = start; day < end; day++) {
+        counts[(int) (day - first)]++;
+      }
+    }
+    return counts;
+  }
+
+  // キャンセル・ノーショーの宿泊予約は予約数に数えない
+  public static boolean occupies(ReservationStatus status) {
+    return status != ReservationStatus.CANCELLED && status != ReservationStatus.NO_SHOW;
+  }
+
+  private TenantOccupancy tenant(String userId) {
+    return tenants.computeIfAbsent(userId, key -> new TenantOccupancy());
+  }
+
+  // チェックイン日からチェックアウト日の前日までの泊（エポック日）
+  private record Stay(String bookingId, long checkIn, long checkOut, ReservationStatus status) {
+
+    // 宿泊期間が分からない宿泊予約はnull
+    static Stay of(Reservation reservation) {
+      if (reservation.getBookingId() == null || reservation.getCheckInDate() == null) {
+        return null;
+      }
+      LocalDate checkOut = reservation.getCheckOutDate();
+      if (checkOut == null && reservation.getStayDays() != null) {
+        checkOut = reservation.getCheckInDate().plusDays(reservation.getStayDays());
+      }
+      if (checkOut == null || !checkOut.isAfter(reservation.getCheckInDate())) {
+        return null;
+      }
+      return new Stay(reservation.getBookingId(), reservation.getCheckInDate().toEpochDay(),
+          checkOut.toEpochDay(), reservation.getStatus());
+    }
+
+    Stay withStatus(ReservationStatus status) {
+      return new Stay(bookingId, checkIn, checkOut, status);
+    }
+  }
+
+  // 宿泊プラン1つ分の予約数（counts[i]はエポック日base+iの泊の予約数）
+  private static final class PlanOccupancy {
+
+    private long base;
+    private int[] counts = new int[0];
+
+    void add(long from, long to, int delta) {
+      ensure(from, to);
+      for (long day = from; day < to; day++) {
+        counts[(int) (day - base)] += delta;
+      }
+    }
+
+    int[] copy(long from, int days) {
+      int[] result = new int[days];
+      long start = Math.max(from, base);
+      long end = Math.min(from + days, base + counts.length);
+      if (start < end) {
+        System.arraycopy(counts, (int) (start - base), result, (int) (start - from),
+            (int) (end - start));
+      }
+      return result;
+    }
+
+    // 範囲外の泊を追加する場合は、追加のたびにコピーしないよう倍の長さに広げる
+    private void ensure(long from, long to) {
+      if (counts.length == 0) {
+        base = from;
+        counts = new int[(int) (to - from)];
+        return;
+      }
+      long end = base + counts.length;
+      if (from >= base && to <= end) {
+        return;
+      }
+      long newBase = Math.min(base, from);
+      long newEnd = Math.max(end, to);
+      long length = Math.max(newEnd - newBase, (long) counts.length * 2);
+      if (from < base) {
+        newBase = newEnd - length;
+      } else {
+        newEnd = newBase + length;
+      }
+      int[] grown = new int[(int) (newEnd - newBase)];
+      System.arraycopy(counts, 0, grown, (int) (base - newBase), counts.length);
+      base = newBase;
+      counts = grown;
+    }
+  }
+
+  private static final class TenantOccupancy {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // 宿泊予約ID -> 索引に反映した宿泊期間
+    private final Map<String, Stay> stays = new HashMap<>();
+
+    // 宿泊プランID -> 予約数
+    private final Map<String, PlanOccupancy> plans = new HashMap<>();
+
+    void put(Reservation reservation, boolean overwrite) {
+      Stay stay = Stay.of(reservation);
+      lock.writeLock().lock();
+      try {
+        if (stays.containsKey(reservation.getId()) && !overwrite) {
+          return;
+        }
+        replace(reservation.getId(), stay);
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+
+    void changeStatus(String reservationId, ReservationStatus status) {
+      lock.writeLock().lock();
+      try {
+        Stay current = stays.get(reservationId);
+        if (current != null) {
+          replace(reservationId, current.withStatus(status));
+        }
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+
+    int[] occupancy(String bookingId, long from, int days) {
+      lock.readLock().lock();
+      try {
+        PlanOccupancy plan = plans.get(bookingId);
+        return plan == null ? new int[days] : plan.copy(from, days);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+
+    // 変更前の宿泊期間を差し引いてから変更後の宿泊期間を加える
+    private void replace(String reservationId, Stay stay) {
+      Stay current = stay == null ? stays.remove(reservationId) : stays.put(reservationId, stay);
+      if (current != null && occupies(current.status())) {
+        plans.get(current.bookingId()).add(current.checkIn(), current.checkOut(), -1);
+      }
+      if (stay != null && occupies(stay.status())) {
+        plans.computeIfAbsent(stay.bookingId(), key -> new PlanOccupancy())
+            .add(stay.checkIn(), stay.checkOut(), 1);
+      }
+    }
+  }
+}
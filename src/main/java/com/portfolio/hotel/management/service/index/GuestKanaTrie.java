@@ -0,0 +1,245 @@
+package com.portfolio.hotel.management.service.index;
+
+import com.portfolio.hotel.management.data.guest.Guest;
+import com.portfolio.hotel.management.data.guest.GuestSuggestion;
+import com.portfolio.hotel.management.service.converter.TextNormalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.springframework.stereotype.Component;
+
+/**
+ * 宿泊者の入力補完用のかな名・名前の前方一致トライ（ユーザーごと）。
+ * 子が1つだけの節点をまとめた圧縮トライで、前方一致した部分木を辞書順にたどって上位N件を返す。
+ */
+@Component
+public class GuestKanaTrie {
+
+  public static final int DEFAULT_LIMIT = 10;
+  public static final int MAX_LIMIT = 50;
+
+  private static final int PHONE_TAIL_LENGTH = 4;
+
+  private final Map<String, TenantTrie> tenants = new ConcurrentHashMap<>();
+
+  // DBから読み込んだ宿泊者でトライを作成する
+  // 読み込み中に登録・更新された宿泊者の方が新しいため、既にある宿泊者は上書きしない
+  public void load(List<Guest> guests) {
+    for (Guest guest : guests) {
+      tenant(guest.getUserId()).put(guest, false);
+    }
+  }
+
+  // 宿泊者の登録・更新・削除をトライに反映する
+  public void put(String userId, Guest guest) {
+    if (userId == null || guest.getId() == null) {
+      return;
+    }
+    tenant(userId).put(guest, true);
+  }
+
+  // かな名・名前が前方一致する宿泊者を辞書順に最大limit件返す
+  public List<GuestSuggestion> suggest(String userId, String prefix, int limit) {
+    String key = TextNormalizer.normalize(prefix);
+    TenantTrie tenant = tenants.get(userId);
+    if (key.isEmpty() || tenant == null) {
+      return List.of();
+    }
+    return tenant.suggest(key, Math.max(1, Math.min(limit, MAX_LIMIT)));
+  }
+
+  private TenantTrie tenant(String userId) {
+    return tenants.computeIfAbsent(userId, key -> new TenantTrie());
+  }
+
+  private static String phoneTail(String phone) {
+    if (phone == null || phone.length() <= PHONE_TAIL_LENGTH) {
+      return phone;
+    }
+    return phone.substring(phone.length() - PHONE_TAIL_LENGTH);
+  }
+
+  private record Entry(String name, String kanaName, String phoneTail, Set<String> keys) {
+
+  }
+
+  private static final class Node {
+
+    private String label;
+    private final TreeMap<Character, Node> children = new TreeMap<>();
+    private final Set<String> guestIds = new TreeSet<>();
+
+    Node(String label) {
+      this.label = label;
+    }
+  }
+
+  private static final class TenantTrie {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // 宿泊者ID -> 補完候補として返す項目とトライに登録したキー
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    private final Node root = new Node("");
+
+    void put(Guest guest, boolean overwrite) {
+      Set<String> keys = new LinkedHashSet<>();
+      keys.add(TextNormalizer.normalize(guest.getKanaName()));
+      keys.add(TextNormalizer.normalize(guest.getName()));
+      keys.remove("");
+      lock.writeLock().lock();
+      try {
+        Entry current = entries.get(guest.getId());
+        if (current != null) {
+          if (!overwrite) {
+            return;
+          }
+          entries.remove(guest.getId());
+          current.keys().forEach(key -> remove(root, key, 0, guest.getId()));
+        }
+        // 削除済みの宿泊者は補完候補に出さない
+        if (Boolean.TRUE.equals(guest.getDeleted())) {
+          return;
+        }
+        entries.put(guest.getId(), new Entry(guest.getName(), guest.getKanaName(),
+            phoneTail(guest.getPhone()), keys));
+        keys.forEach(key -> insert(key, guest.getId()));
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+
+    List<GuestSuggestion> suggest(String prefix, int limit) {
+      lock.readLock().lock();
+      try {
+        Node node = find(prefix);
+        if (node == null) {
+          return List.of();
+        }
+        Set<String> guestIds = new LinkedHashSet<>();
+        collect(node, guestIds, limit);
+
+        List<GuestSuggestion> suggestions = new ArrayList<>(guestIds.size());
+        for (String guestId : guestIds) {
+          Entry entry = entries.get(guestId);
+          GuestSuggestion suggestion = new GuestSuggestion();
+          suggestion.setId(guestId);
+          suggestion.setName(entry.name());
+          suggestion.setKanaName(entry.kanaName());
+          suggestion.setPhoneTail(entry.phoneTail());
+          suggestions.add(suggestion);
+        }
+        return suggestions;
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+
+    // 前方一致する部分木の根を返す（途中の枝で終わる場合はその枝の先の節点）
+    private Node find(String prefix) {
+      Node node = root;
+      int i = 0;
+      while (i < prefix.length()) {
+        Node child = node.children.get(prefix.charAt(i));
+        if (child == null) {
+          return null;
+        }
+        int common = commonPrefixLength(child.label, prefix, i);
+        if (i + common == prefix.length()) {
+          return child;
+        }
+        if (common < child.label.length()) {
+          return null;
+        }
+        i += common;
+        node = child;
+      }
+      return node;
+    }
+
+    // 辞書順に宿泊者IDを集め、limit件に達したら打ち切る
+    private static void collect(Node node, Set<String> guestIds, int limit) {
+      for (String guestId : node.guestIds) {
+        if (guestIds.size() >= limit) {
+          return;
+        }
+        guestIds.add(guestId);
+      }
+      for (Node child : node.children.values()) {
+        if (guestIds.size() >= limit) {
+          return;
+        }
+        collect(child, guestIds, limit);
+      }
+    }
+
+    private void insert(String key, String guestId) {
+      Node node = root;
+      int i = 0;
+      while (i < key.length()) {
+        Node child = node.children.get(key.charAt(i));
+        if (child == null) {
+          Node leaf = new Node(key.substring(i));
+          leaf.guestIds.add(guestId);
+          node.children.put(key.charAt(i), leaf);
+          return;
+        }
+        int common = commonPrefixLength(child.label, key, i);
+        if (common < child.label.length()) {
+          // 枝の途中で分かれる場合は共通部分の節点を挟む
+          Node middle = new Node(child.label.substring(0, common));
+          child.label = child.label.substring(common);
+          middle.children.put(child.label.charAt(0), child);
+          node.children.put(middle.label.charAt(0), middle);
+          child = middle;
+        }
+        i += common;
+        node = child;
+      }
+      node.guestIds.add(guestId);
+    }
+
+    // 宿泊者IDを外し、空になった節点の削除と子が1つだけの節点の結合を行う
+    private static void remove(Node parent, String key, int i, String guestId) {
+      char first = key.charAt(i);
+      Node child = parent.children.get(first);
+      if (child == null || !key.startsWith(child.label, i)) {
+        return;
+      }
+      int next = i + child.label.length();
+      if (next == key.length()) {
+        child.guestIds.remove(guestId);
+      } else {
+        remove(child, key, next, guestId);
+      }
+      if (!child.guestIds.isEmpty()) {
+        return;
+      }
+      if (child.children.isEmpty()) {
+        parent.children.remove(first);
+      } else if (child.children.size() == 1) {
+        Node only = child.children.firstEntry().getValue();
+        only.label = child.label + only.label;
+        parent.children.put(first, only);
+      }
+    }
+
+    private static int commonPrefixLength(String label, String key, int from) {
+      int max = Math.min(label.length(), key.length() - from);
+      int length = 0;
+      while (length < max && label.charAt(length) == key.charAt(from + length)) {
+        length++;
+      }
+      return length;
+    }
+  }
+}
@@ -0,0 +1,197 @@
+package com.portfolio.hotel.management.service.index;
+
+import com.portfolio.hotel.management.data.guest.Guest;
+import com.portfolio.hotel.management.service.converter.TextNormalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.springframework.stereotype.Component;
+
+/**
+ * 宿泊者の名前・かな名の部分一致検索用のN-gram転置索引（ユーザーごと）。
+ * 転置リストで候補を絞り込んだ後、正規化済みの文字列で部分一致を確認する。
+ */
+@Component
+public class GuestNameIndex {
+
+  private static final int NAME = 0;
+  private static final int KANA_NAME = 1;
+
+  private final Map<String, TenantIndex> tenants = new ConcurrentHashMap<>();
+  private volatile boolean ready = false;
+
+  // DBから読み込んだ宿泊者で索引を作成する
+  // 読み込み中に登録・更新された宿泊者の方が新しいため、既にある宿泊者は上書きしない
+  public void load(List<Guest> guests) {
+    for (Guest guest : guests) {
+      tenant(guest.getUserId()).put(guest.getId(), guest.getName(), guest.getKanaName(), false);
+    }
+    ready = true;
+  }
+
+  // 索引の作成前に検索されたユーザーの宿泊者だけを先に読み込む（以降はそのユーザーの検索に使える）
+  public void loadTenant(String userId, List<Guest> guests) {
+    TenantIndex tenant = tenant(userId);
+    for (Guest guest : guests) {
+      tenant.put(guest.getId(), guest.getName(), guest.getKanaName(), false);
+    }
+    tenant.loaded = true;
+  }
+
+  // 宿泊者の登録・更新を索引に反映する
+  public void put(String userId, Guest guest) {
+    if (userId == null || guest.getId() == null) {
+      return;
+    }
+    tenant(userId).put(guest.getId(), guest.getName(), guest.getKanaName(), true);
+  }
+
+  // 名前・かな名に部分一致する宿泊者IDを返す（索引の作成前で、ユーザーの宿泊者も未読み込みの場合は空）
+  public Optional<Set<String>> search(String userId, String name, String kanaName) {
+    TenantIndex tenant = tenants.get(userId);
+    if (!ready && (tenant == null || !tenant.loaded)) {
+      return Optional.empty();
+    }
+    if (tenant == null) {
+      return Optional.of(Set.of());
+    }
+    return Optional.of(tenant.search(TextNormalizer.normalize(name),
+        TextNormalizer.normalize(kanaName)));
+  }
+
+  public boolean isReady() {
+    return ready;
+  }
+
+  private TenantIndex tenant(String userId) {
+    return tenants.computeIfAbsent(userId, key -> new TenantIndex());
+  }
+
+  private static List<String> grams(String value) {
+    List<String> grams = new ArrayList<>();
+    if (value.length() == 1) {
+      grams.add(value);
+      return grams;
+    }
+    for (int i = 0; i + 1 < value.length(); i++) {
+      grams.add(value.substring(i, i + 2));
+    }
+    return grams;
+  }
+
+  private static final class TenantIndex {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // 全体の索引の作成前に、このユーザーの宿泊者だけを読み込み済みか
+    private volatile boolean loaded = false;
+
+    // 宿泊者ID -> 正規化済みの {名前, かな名}
+    private final Map<String, String[]> entries = new HashMap<>();
+
+    // 項目ごとの gram -> 宿泊者ID
+    private final List<Map<String, Set<String>>> postings =
+        List.of(new HashMap<>(), new HashMap<>());
+
+    void put(String guestId, String name, String kanaName, boolean overwrite) {
+      String[] values = {TextNormalizer.normalize(name), TextNormalizer.normalize(kanaName)};
+      lock.writeLock().lock();
+      try {
+        String[] current = entries.get(guestId);
+        if (current != null) {
+          if (!overwrite) {
+            return;
+          }
+          for (int field = NAME; field <= KANA_NAME; field++) {
+            unlink(field, current[field], guestId);
+          }
+        }
+        entries.put(guestId, values);
+        for (int field = NAME; field <= KANA_NAME; field++) {
+          link(field, values[field], guestId);
+        }
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+
+    Set<String> search(String name, String kanaName) {
+      lock.readLock().lock();
+      try {
+        Set<String> result = null;
+        if (!name.isEmpty()) {
+          result = match(NAME, name);
+        }
+        if (!kanaName.isEmpty()) {
+          Set<String> kanaMatched = match(KANA_NAME, kanaName);
+          if (result == null) {
+            result = kanaMatched;
+          } else {
+            result.retainAll(kanaMatched);
+          }
+        }
+        return result == null ? Set.of() : result;
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+
+    // 最も短い転置リストの宿泊者だけを部分一致で確認する
+    private Set<String> match(int field, String query) {
+      Set<String> smallest = null;
+      for (String gram : grams(query)) {
+        Set<String> ids = postings.get(field).get(gram);
+        if (ids == null) {
+          return new HashSet<>();
+        }
+        if (smallest == null || ids.size() < smallest.size()) {
+          smallest = ids;
+        }
+      }
+      Set<String> matched = new HashSet<>();
+      for (String guestId : smallest) {
+        if (entries.get(guestId)[field].contains(query)) {
+          matched.add(guestId);
+        }
+      }
+      return matched;
+    }
+
+    private void link(int field, String value, String guestId) {
+      for (String gram : allGrams(value)) {
+        postings.get(field).computeIfAbsent(gram, key -> new HashSet<>()).add(guestId);
+      }
+    }
+
+    private void unlink(int field, String value, String guestId) {
+      for (String gram : allGrams(value)) {
+        Set<String> ids = postings.get(field).get(gram);
+        if (ids != null) {
+          ids.remove(guestId);
+          if (ids.isEmpty()) {
+            postings.get(field).remove(gram);
+          }
+        }
+      }
+    }
+
+    // 登録時は1文字検索にも使えるようunigramとbigramの両方を索引に入れる
+    private static Set<String> allGrams(String value) {
+      Set<String> grams = new HashSet<>();
+      for (int i = 0; i < value.length(); i++) {
+        grams.add(value.substring(i, i + 1));
+        if (i + 1 < value.length()) {
+          grams.add(value.substring(i, i + 2));
+        }
+      }
+      return grams;
+    }
+  }
+}
@@ -0,0 +1,97 @@
+package com.portfolio.hotel.management.service.report;
+
+import com.portfolio.hotel.management.data.reservation.Reservation;
+import com.portfolio.hotel.management.data.reservation.ReservationStatus;
+import com.portfolio.hotel.management.data.report.DailyStats;
+import com.portfolio.hotel.management.service.index.BookingOccupancyIndex;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 日別・宿泊プラン別の集計表に加える差分。
+ * 宿泊予約の登録・変更のたびに、変更前の宿泊予約の分を差し引き、変更後の宿泊予約の分を加える。
+ * 1泊分の売上は総額を泊数で割って1円未満を切り捨て、端数は初日に加えるため、
+ * 同じ宿泊予約を差し引くと加えた分と同じ額がちょうど戻る。
+ */
+public final class DailyStatsRollup {
+
+  // 集計表の主キーの順に並べ、同時に更新する場合も行ロックを同じ順に取得する
+  private final Map<Key, DailyStats> deltas = new TreeMap<>(
+      Comparator.comparing(Key::stayDate).thenComparing(Key::bookingId));
+
+  // 宿泊予約の分を加える
+  public DailyStatsRollup add(Reservation reservation) {
+    return apply(reservation, reservation.getStatus(), 1);
+  }
+
+  // 宿泊予約の分を差し引く
+  public DailyStatsRollup subtract(Reservation reservation) {
+    return apply(reservation, reservation.getStatus(), -1);
+  }
+
+  // ステータスの変更で販売泊数に数えるかどうかが変わる場合だけ、宿泊予約の分を加える・差し引く
+  public DailyStatsRollup changeStatus(Reservation reservation, ReservationStatus from,
+      ReservationStatus to) {
+    apply(reservation, from, -1);
+    return apply(reservation, to, 1);
+  }
+
+  // 差分が0の日を除いた差分
+  public List<DailyStats> toList() {
+    List<DailyStats> result = new ArrayList<>(deltas.size());
+    for (DailyStats stats : deltas.values()) {
+      if (stats.getRoomsSold() != 0 || stats.getRevenue().signum() != 0) {
+        result.add(stats);
+      }
+    }
+    return result;
+  }
+
+  private DailyStatsRollup apply(Reservation reservation, ReservationStatus status, int sign) {
+    if (status == null || !BookingOccupancyIndex.occupies(status)
+        || reservation.getBookingId() == null || reservation.getCheckInDate() == null) {
+      return this;
+    }
+    LocalDate checkIn = reservation.getCheckInDate();
+    LocalDate checkOut = reservation.getCheckOutDate();
+    if (checkOut == null && reservation.getStayDays() != null) {
+      checkOut = checkIn.plusDays(reservation.getStayDays());
+    }
+    if (checkOut == null || !checkOut.isAfter(checkIn)) {
+      return this;
+    }
+    int nights = (int) (checkOut.toEpochDay() - checkIn.toEpochDay());
+    BigDecimal total = reservation.getTotalPrice() == null
+        ? BigDecimal.ZERO : reservation.getTotalPrice();
+    // 集計表の列に合わせて小数第2位までの表記にそろえる
+    BigDecimal nightly = total.divide(BigDecimal.valueOf(nights), 0, RoundingMode.DOWN)
+        .setScale(2);
+    BigDecimal remainder = total.subtract(nightly.multiply(BigDecimal.valueOf(nights)));
+
+    for (int i = 0; i < nights; i++) {
+      BigDecimal revenue = i == 0 ? nightly.add(remainder) : nightly;
+      Key key = new Key(checkIn.plusDays(i), reservation.getBookingId());
+      DailyStats stats = deltas.computeIfAbsent(key, this::createStats);
+      stats.setRoomsSold(stats.getRoomsSold() + sign);
+      stats.setRevenue(stats.getRevenue().add(sign > 0 ? revenue : revenue.negate()));
+    }
+    return this;
+  }
+
+  private DailyStats createStats(Key key) {
+    DailyStats stats = new DailyStats();
+    stats.setStayDate(key.stayDate());
+    stats.setBookingId(key.bookingId());
+    return stats;
+  }
+
+  private record Key(LocalDate stayDate, String bookingId) {
+
+  }
+}
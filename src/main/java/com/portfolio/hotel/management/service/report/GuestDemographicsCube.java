@@ -0,0 +1,332 @@
+package com.portfolio.hotel.management.service.report;
+
+import com.portfolio.hotel.management.data.guest.Guest;
+import com.portfolio.hotel.management.data.report.DemographicsCell;
+import com.portfolio.hotel.management.data.reservation.Reservation;
+import com.portfolio.hotel.management.data.reservation.ReservationStatus;
+import com.portfolio.hotel.management.service.index.BookingOccupancyIndex;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import org.springframework.stereotype.Component;
+
+/**
+ * チェックイン月・宿泊プラン・地域・年代・性別ごとの宿泊予約数と泊数の集計（ユーザーごと）。
+ * 起動時に全ての宿泊者と宿泊予約を並列に集計し、以降は宿泊者・宿泊予約の登録・変更のたびに差分だけを加減する。
+ * 集計はチェックイン月ごとに持つため、期間の集計は該当する月の集計を足し合わせるだけで求まる。
+ */
+@Component
+public class GuestDemographicsCube {
+
+  private static final Comparator<DemographicsCell> CELL_ORDER =
+      Comparator.comparing(DemographicsCell::getMonth)
+          .thenComparing(DemographicsCell::getRegion,
+              Comparator.nullsLast(Comparator.naturalOrder()))
+          .thenComparing(DemographicsCell::getAgeBand,
+              Comparator.nullsLast(Comparator.naturalOrder()))
+          .thenComparing(DemographicsCell::getGender,
+              Comparator.nullsLast(Comparator.naturalOrder()));
+
+  private final Map<String, TenantCube> tenants = new ConcurrentHashMap<>();
+  private volatile boolean ready = false;
+
+  // DBから読み込んだ宿泊者と宿泊予約で集計を作成する
+  // 宿泊予約はユーザーごとに分けずに並列に集計し、部分ごとの集計を最後に合わせる
+  // 読み込み中に登録・変更された宿泊者・宿泊予約の方が新しいため、既にあるものは上書きしない
+  public void load(List<Guest> guests, List<Reservation> reservations) {
+    Map<String, Map<String, Profile>> profiles = guests.parallelStream()
+        .filter(guest -> guest.getUserId() != null && guest.getId() != null)
+        .collect(Collectors.groupingByConcurrent(Guest::getUserId,
+            Collectors.toMap(Guest::getId, Profile::of, (first, second) -> second)));
+
+    Map<String, TenantCube> loaded = reservations.parallelStream()
+        .filter(reservation -> reservation.getUserId() != null && reservation.getId() != null)
+        .collect(Collector.of(
+            HashMap<String, TenantCube>::new,
+            // 同じユーザーの部分ごとの集計は宿泊者の属性を共有する（読み込み中は読むだけ）
+            (partial, reservation) -> partial.computeIfAbsent(reservation.getUserId(),
+                    userId -> new TenantCube(
+                        profiles.computeIfAbsent(userId, key -> new HashMap<>())))
+                .putStay(reservation.getId(), Stay.of(reservation)),
+            (left, right) -> {
+              right.forEach((userId, cube) -> left.merge(userId, cube, TenantCube::combine));
+              return left;
+            }));
+    profiles.forEach((userId, tenantProfiles) ->
+        loaded.computeIfAbsent(userId, key -> new TenantCube(tenantProfiles)));
+
+    loaded.forEach((userId, cube) -> {
+      TenantCube live = tenants.putIfAbsent(userId, cube);
+      if (live != null) {
+        live.absorb(cube);
+      }
+    });
+    ready = true;
+  }
+
+  // 宿泊者の登録・変更を反映する（属性が変わった場合は、その宿泊者の宿泊予約を集計し直す）
+  public void putGuest(String userId, Guest guest) {
+    if (userId == null || guest.getId() == null) {
+      return;
+    }
+    tenant(userId).putProfile(guest.getId(), Profile.of(guest), true);
+  }
+
+  // 宿泊予約の登録・変更を反映する
+  public void putReservation(String userId, Reservation reservation) {
+    if (userId == null || reservation.getId() == null) {
+      return;
+    }
+    tenant(userId).put(reservation.getId(), Stay.of(reservation), true);
+  }
+
+  // 宿泊予約のステータスの変更を反映する（集計にない宿泊予約は何もしない）
+  public void changeStatus(String userId, String reservationId, ReservationStatus status) {
+    TenantCube tenant = tenants.get(userId);
+    if (tenant != null) {
+      tenant.changeStatus(reservationId, status);
+    }
+  }
+
+  // fromからtoまでのチェックイン月の集計を返す（bookingIdがnullの場合は全宿泊プランの合計、作成前は空）
+  public List<DemographicsCell> query(String userId, YearMonth from, YearMonth to,
+      String bookingId) {
+    TenantCube tenant = tenants.get(userId);
+    if (!ready || tenant == null) {
+      return List.of();
+    }
+    List<DemographicsCell> cells = tenant.query(from, to, bookingId);
+    cells.sort(CELL_ORDER);
+    return cells;
+  }
+
+  public boolean isReady() {
+    return ready;
+  }
+
+  private TenantCube tenant(String userId) {
+    return tenants.computeIfAbsent(userId, key -> new TenantCube(new HashMap<>()));
+  }
+
+  // 集計に使う宿泊者の属性
+  private record Profile(String region, Integer ageBand, String gender) {
+
+    static Profile of(Guest guest) {
+      Integer age = guest.getAge();
+      return new Profile(guest.getRegion(), age == null ? null : age / 10 * 10,
+          guest.getGender());
+    }
+  }
+
+  // 宿泊予約のうち集計に使う項目（宿泊期間が分からない宿泊予約はnull）
+  private record Stay(String guestId, String bookingId, YearMonth month, int nights,
+      ReservationStatus status) {
+
+    static Stay of(Reservation reservation) {
+      if (reservation.getGuestId() == null || reservation.getCheckInDate() == null) {
+        return null;
+      }
+      LocalDate checkIn = reservation.getCheckInDate();
+      LocalDate checkOut = reservation.getCheckOutDate();
+      if (checkOut == null && reservation.getStayDays() != null) {
+        checkOut = checkIn.plusDays(reservation.getStayDays());
+      }
+      if (checkOut == null || !checkOut.isAfter(checkIn)) {
+        return null;
+      }
+      return new Stay(reservation.getGuestId(), reservation.getBookingId(),
+          YearMonth.from(checkIn), (int) (checkOut.toEpochDay() - checkIn.toEpochDay()),
+          reservation.getStatus());
+    }
+
+    Stay withStatus(ReservationStatus status) {
+      return new Stay(guestId, bookingId, month, nights, status);
+    }
+  }
+
+  // 1か月分の集計の軸（チェックイン月は月ごとのMapのキー）
+  private record Cell(String bookingId, String region, Integer ageBand, String gender) {
+
+  }
+
+  private static final class Measure {
+
+    private int reservations;
+    private int nights;
+  }
+
+  private static final class TenantCube {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // 宿泊者ID -> 属性
+    private final Map<String, Profile> profiles;
+
+    // 宿泊予約ID -> 集計に反映した宿泊予約
+    private final Map<String, Stay> stays = new HashMap<>();
+
+    // 宿泊者ID -> 宿泊予約ID（宿泊者の属性の変更時に集計し直す宿泊予約）
+    private final Map<String, Set<String>> stayIdsByGuest = new HashMap<>();
+
+    // チェックイン月 -> 軸 -> 宿泊予約数と泊数
+    private final NavigableMap<YearMonth, Map<Cell, Measure>> months = new TreeMap<>();
+
+    TenantCube(Map<String, Profile> profiles) {
+      this.profiles = profiles;
+    }
+
+    void put(String reservationId, Stay stay, boolean overwrite) {
+      lock.writeLock().lock();
+      try {
+        if (stays.containsKey(reservationId) && !overwrite) {
+          return;
+        }
+        putStay(reservationId, stay);
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+
+    void putProfile(String guestId, Profile profile, boolean overwrite) {
+      lock.writeLock().lock();
+      try {
+        if (profiles.containsKey(guestId) && !overwrite) {
+          return;
+        }
+        Profile current = profiles.put(guestId, profile);
+        if (Objects.equals(current, profile)) {
+          return;
+        }
+        for (String reservationId : stayIdsByGuest.getOrDefault(guestId, Set.of())) {
+          Stay stay = stays.get(reservationId);
+          add(stay, current, -1);
+          add(stay, profile, 1);
+        }
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+
+    void changeStatus(String reservationId, ReservationStatus status) {
+      lock.writeLock().lock();
+      try {
+        Stay current = stays.get(reservationId);
+        if (current != null) {
+          putStay(reservationId, current.withStatus(status));
+        }
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+
+    List<DemographicsCell> query(YearMonth from, YearMonth to, String bookingId) {
+      lock.readLock().lock();
+      try {
+        List<DemographicsCell> result = new ArrayList<>();
+        months.subMap(from, true, to, true).forEach((month, cells) -> {
+          Map<Cell, DemographicsCell> merged = new HashMap<>();
+          cells.forEach((cell, measure) -> {
+            if (bookingId != null && !bookingId.equals(cell.bookingId())) {
+              return;
+            }
+            DemographicsCell target = merged.computeIfAbsent(
+                new Cell(null, cell.region(), cell.ageBand(), cell.gender()),
+                key -> createCell(month, key));
+            target.setReservations(target.getReservations() + measure.reservations);
+            target.setNights(target.getNights() + measure.nights);
+          });
+          result.addAll(merged.values());
+        });
+        return result;
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+
+    // 並列の集計で作成した部分ごとの集計を合わせる（宿泊予約は部分ごとに重ならない）
+    // 宿泊予約はそのまま合わせ、集計は軸ごとの宿泊予約数と泊数を足し合わせる
+    TenantCube combine(TenantCube other) {
+      stays.putAll(other.stays);
+      other.stayIdsByGuest.forEach((guestId, ids) -> stayIdsByGuest.merge(guestId, ids,
+          (left, right) -> {
+            left.addAll(right);
+            return left;
+          }));
+      other.months.forEach((month, cells) -> {
+        Map<Cell, Measure> target = months.computeIfAbsent(month, key -> new HashMap<>());
+        cells.forEach((cell, measure) -> target.merge(cell, measure, (left, right) -> {
+          left.reservations += right.reservations;
+          left.nights += right.nights;
+          return left;
+        }));
+      });
+      return this;
+    }
+
+    // 起動時に読み込んだ集計のうち、まだ反映されていない宿泊者・宿泊予約だけを加える
+    TenantCube absorb(TenantCube loaded) {
+      loaded.profiles.forEach((guestId, profile) -> putProfile(guestId, profile, false));
+      loaded.stays.forEach((reservationId, stay) -> put(reservationId, stay, false));
+      return this;
+    }
+
+    // 変更前の宿泊予約を差し引いてから変更後の宿泊予約を加える
+    private void putStay(String reservationId, Stay stay) {
+      Stay current = stay == null ? stays.remove(reservationId) : stays.put(reservationId, stay);
+      if (current != null) {
+        Set<String> ids = stayIdsByGuest.get(current.guestId());
+        ids.remove(reservationId);
+        if (ids.isEmpty()) {
+          stayIdsByGuest.remove(current.guestId());
+        }
+        add(current, profiles.get(current.guestId()), -1);
+      }
+      if (stay != null) {
+        stayIdsByGuest.computeIfAbsent(stay.guestId(), key -> new HashSet<>()).add(reservationId);
+        add(stay, profiles.get(stay.guestId()), 1);
+      }
+    }
+
+    // 属性が分からない宿泊者とキャンセル・ノーショーの宿泊予約は数えない
+    private void add(Stay stay, Profile profile, int sign) {
+      if (profile == null || !BookingOccupancyIndex.occupies(stay.status())) {
+        return;
+      }
+      Map<Cell, Measure> cells = months.computeIfAbsent(stay.month(), key -> new HashMap<>());
+      Cell cell = new Cell(stay.bookingId(), profile.region(), profile.ageBand(),
+          profile.gender());
+      Measure measure = cells.computeIfAbsent(cell, key -> new Measure());
+      measure.reservations += sign;
+      measure.nights += sign * stay.nights();
+      if (measure.reservations == 0) {
+        cells.remove(cell);
+        if (cells.isEmpty()) {
+          months.remove(stay.month());
+        }
+      }
+    }
+
+    private static DemographicsCell createCell(YearMonth month, Cell cell) {
+      DemographicsCell result = new DemographicsCell();
+      result.setMonth(month);
+      result.setRegion(cell.region());
+      result.setAgeBand(cell.ageBand());
+      result.setGender(cell.gender());
+      return result;
+    }
+  }
+}
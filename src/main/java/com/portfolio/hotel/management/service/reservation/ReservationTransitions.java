@@ -0,0 +1,113 @@
+package com.portfolio.hotel.management.service.reservation;
+
+import static com.portfolio.hotel.management.data.reservation.ReservationStatus.CANCELLED;
+import static com.portfolio.hotel.management.data.reservation.ReservationStatus.CHECKED_IN;
+import static com.portfolio.hotel.management.data.reservation.ReservationStatus.CHECKED_OUT;
+import static com.portfolio.hotel.management.data.reservation.ReservationStatus.NOT_CHECKED_IN;
+import static com.portfolio.hotel.management.data.reservation.ReservationStatus.NO_SHOW;
+import static com.portfolio.hotel.management.data.reservation.ReservationStatus.TEMPORARY;
+
+import com.portfolio.hotel.management.data.reservation.ReservationAction;
+import com.portfolio.hotel.management.data.reservation.ReservationStatus;
+import com.portfolio.hotel.management.data.reservation.ReservationTransitionResult;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 宿泊予約のステータスの遷移表。
+ * 操作ごとに変更前と変更後のステータスの組を持ち、表にない組み合わせは変更できない。
+ * 変更できない場合も例外にはせず、理由を持った結果を返す。
+ */
+public final class ReservationTransitions {
+
+  private static final Map<ReservationAction, Map<ReservationStatus, ReservationStatus>> TABLE =
+      new EnumMap<>(ReservationAction.class);
+
+  static {
+    add(ReservationAction.CONFIRM, TEMPORARY, NOT_CHECKED_IN);
+    add(ReservationAction.CHECK_IN, NOT_CHECKED_IN, CHECKED_IN);
+    add(ReservationAction.CHECK_OUT, CHECKED_IN, CHECKED_OUT);
+    add(ReservationAction.CANCEL, TEMPORARY, CANCELLED);
+    add(ReservationAction.CANCEL, NOT_CHECKED_IN, CANCELLED);
+    add(ReservationAction.NO_SHOW, NOT_CHECKED_IN, NO_SHOW);
+    // 取り消しは直前の操作を1つ戻す（キャンセルした仮予約は未チェックインに戻る）
+    add(ReservationAction.REVERT, CHECKED_IN, NOT_CHECKED_IN);
+    add(ReservationAction.REVERT, CHECKED_OUT, CHECKED_IN);
+    add(ReservationAction.REVERT, CANCELLED, NOT_CHECKED_IN);
+    add(ReservationAction.REVERT, NO_SHOW, NOT_CHECKED_IN);
+  }
+
+  private ReservationTransitions() {
+  }
+
+  private static void add(ReservationAction action, ReservationStatus from,
+      ReservationStatus to) {
+    TABLE.computeIfAbsent(action, key -> new EnumMap<>(ReservationStatus.class)).put(from, to);
+  }
+
+  // 操作で変更できる変更前のステータスと変更後のステータスの組
+  public static Map<ReservationStatus, ReservationStatus> of(ReservationAction action) {
+    return Collections.unmodifiableMap(TABLE.get(action));
+  }
+
+  // 宿泊予約の現在のステータスから、各宿泊予約を変更できるかを1回の走査で判定する
+  public static List<ReservationTransitionResult> plan(ReservationAction action,
+      Collection<String> reservationIds, Map<String, ReservationStatus> current) {
+    Map<ReservationStatus, ReservationStatus> transitions = TABLE.get(action);
+    List<ReservationTransitionResult> results = new ArrayList<>(reservationIds.size());
+    for (String reservationId : reservationIds) {
+      ReservationStatus from = current.get(reservationId);
+      if (from == null) {
+        results.add(rejected(reservationId, action, null, "宿泊予約が見つかりません"));
+        continue;
+      }
+      ReservationStatus to = transitions.get(from);
+      if (to == null) {
+        results.add(rejected(reservationId, action, from,
+            from.getLabel() + "の予約は" + action.getLabel() + "できません"));
+      } else {
+        results.add(succeeded(reservationId, action, from, to));
+      }
+    }
+    return results;
+  }
+
+  public static ReservationTransitionResult succeeded(String reservationId,
+      ReservationAction action, ReservationStatus from, ReservationStatus to) {
+    ReservationTransitionResult result = create(reservationId, action, from);
+    result.setTo(to);
+    result.setSuccess(true);
+    return result;
+  }
+
+  // 現在のステータスが分からない場合は、変更できるステータスを理由にする
+  public static ReservationTransitionResult rejected(String reservationId,
+      ReservationAction action) {
+    String sources = TABLE.get(action).keySet().stream()
+        .map(ReservationStatus::getLabel)
+        .collect(Collectors.joining("・"));
+    return rejected(reservationId, action, null,
+        sources + "の予約のみ" + action.getLabel() + "可能です");
+  }
+
+  public static ReservationTransitionResult rejected(String reservationId,
+      ReservationAction action, ReservationStatus from, String message) {
+    ReservationTransitionResult result = create(reservationId, action, from);
+    result.setMessage(message);
+    return result;
+  }
+
+  private static ReservationTransitionResult create(String reservationId,
+      ReservationAction action, ReservationStatus from) {
+    ReservationTransitionResult result = new ReservationTransitionResult();
+    result.setReservationId(reservationId);
+    result.setAction(action);
+    result.setFrom(from);
+    return result;
+  }
+}
@@ -0,0 +1,122 @@
+package com.portfolio.hotel.management.service.room;
+
+import com.portfolio.hotel.management.data.reservation.Reservation;
+import com.portfolio.hotel.management.data.room.Room;
+import com.portfolio.hotel.management.data.room.RoomAssignment;
+import com.portfolio.hotel.management.data.room.RoomAssignmentResult;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * チェックイン日の宿泊予約への部屋の自動割り当て。
+ * 宿泊期間の最後まで空いている部屋だけに割り当てるため、宿泊中に部屋を移ることはない。
+ * 宿泊プランごとにチェックアウトの遅い宿泊予約から順に、次の宿泊予約までの空きが最も短くなる部屋を
+ * 優先度付きキューで選び、長い空きのある部屋を後の長い宿泊に残す。
+ */
+public final class RoomAssigner {
+
+  // 後に割り当て済みの宿泊予約がない部屋の空き終了日（エポック日）
+  private static final long OPEN_END = Long.MAX_VALUE;
+
+  private RoomAssigner() {
+  }
+
+  // rooms: ユーザーの部屋, occupied: dateより後にチェックアウトする割り当て済みの宿泊予約,
+  // arrivals: dateにチェックインする宿泊予約（割り当て済みのものは割り当て直さない）
+  public static RoomAssignmentResult assign(LocalDate date, List<Room> rooms,
+      List<Reservation> occupied, List<Reservation> arrivals) {
+    long day = date.toEpochDay();
+
+    // 部屋ごとに、dateの泊が空いていれば次の宿泊予約のチェックイン日までを空きとする
+    Map<String, Long> freeUntil = new HashMap<>();
+    Set<String> busy = new HashSet<>();
+    for (Reservation reservation : occupied) {
+      String roomId = reservation.getRoomId();
+      if (roomId == null || checkOut(reservation) <= day) {
+        continue;
+      }
+      long checkIn = reservation.getCheckInDate().toEpochDay();
+      if (checkIn <= day) {
+        busy.add(roomId);
+      } else {
+        freeUntil.merge(roomId, checkIn, Math::min);
+      }
+    }
+
+    Map<String, List<Vacancy>> vacanciesByBooking = new HashMap<>();
+    for (Room room : rooms) {
+      if (!busy.contains(room.getId())) {
+        vacanciesByBooking.computeIfAbsent(room.getBookingId(), key -> new ArrayList<>())
+            .add(new Vacancy(room, freeUntil.getOrDefault(room.getId(), OPEN_END)));
+      }
+    }
+    Map<String, List<Stay>> staysByBooking = new LinkedHashMap<>();
+    for (Reservation reservation : arrivals) {
+      if (reservation.getRoomId() == null) {
+        staysByBooking.computeIfAbsent(reservation.getBookingId(), key -> new ArrayList<>())
+            .add(new Stay(reservation.getId(), checkOut(reservation)));
+      }
+    }
+
+    RoomAssignmentResult result = new RoomAssignmentResult();
+    result.setDate(date);
+    staysByBooking.forEach((bookingId, stays) ->
+        assign(stays, vacanciesByBooking.getOrDefault(bookingId, List.of()), result));
+    return result;
+  }
+
+  // チェックアウトの遅い順に、そのチェックアウト日まで空いている部屋をキューに加えていき、
+  // キューの中で空きの終わりが最も早い部屋を割り当てる
+  private static void assign(List<Stay> stays, List<Vacancy> vacancies,
+      RoomAssignmentResult result) {
+    stays.sort(Comparator.comparingLong(Stay::checkOut).reversed()
+        .thenComparing(Stay::reservationId));
+    List<Vacancy> candidates = new ArrayList<>(vacancies);
+    candidates.sort(Comparator.comparingLong(Vacancy::freeUntil).reversed());
+    PriorityQueue<Vacancy> queue = new PriorityQueue<>(
+        Comparator.comparingLong(Vacancy::freeUntil)
+            .thenComparing(vacancy -> vacancy.room().getName()));
+
+    int next = 0;
+    for (Stay stay : stays) {
+      while (next < candidates.size() && candidates.get(next).freeUntil() >= stay.checkOut()) {
+        queue.add(candidates.get(next++));
+      }
+      Vacancy vacancy = queue.poll();
+      if (vacancy == null) {
+        result.getUnassignedIds().add(stay.reservationId());
+        continue;
+      }
+      RoomAssignment assignment = new RoomAssignment();
+      assignment.setReservationId(stay.reservationId());
+      assignment.setRoomId(vacancy.room().getId());
+      assignment.setRoomName(vacancy.room().getName());
+      result.getAssigned().add(assignment);
+    }
+  }
+
+  private static long checkOut(Reservation reservation) {
+    if (reservation.getCheckOutDate() != null) {
+      return reservation.getCheckOutDate().toEpochDay();
+    }
+    return reservation.getCheckInDate().plusDays(reservation.getStayDays()).toEpochDay();
+  }
+
+  // 部屋と、次の宿泊予約のチェックイン日（エポック日）
+  private record Vacancy(Room room, long freeUntil) {
+
+  }
+
+  // 割り当てる宿泊予約とチェックアウト日（エポック日）
+  private record Stay(String reservationId, long checkOut) {
+
+  }
+}
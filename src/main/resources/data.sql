@@ -1,29 +1,52 @@
 -- =========================
 -- guests
 -- =========================
-INSERT INTO guest (id, name, kana_name, gender, age, region, email, phone, deleted, user_id)
+INSERT INTO guest (id, name, kana_name, gender, age, region, email, phone, deleted, user_id, match_key)
 VALUES
-  ('11111111-1111-1111-1111-111111111111', '佐藤花子', 'サトウハナコ', '女性', 28, '東京', 'hanako@example.com', '08098765432', 0, 'testuser01'),
-  ('22222222-2222-2222-2222-222222222222', '田中太郎', 'タナカタロウ', '男性', 35, '大阪', 'taro@example.com', '08011112222', 1, 'testuser01'),
-  ('22222222-3333-3333-3333-222222222222', '山田毅', 'ヤマダタケシ', '男性', 40, '宮城', 'takeshi@example.com', '08033332222', 0, 'testuser01'),
-  ('33333333-3333-3333-3333-333333333333', '中村葵',   'ナカムラアオイ', '女性', 26, '愛知', 'aoi@example.com',   '08044445555', 0, 'testuser01'),
-  ('44444444-4444-4444-4444-444444444444', '鈴木健',   'スズキケン',     '男性', 31, '北海道', 'ken@example.com',   '08066667777', 0, 'testuser01'),
-  ('55555555-5555-5555-5555-555555555555', '高橋桜',   'タカハシサクラ', '女性', 29, '福岡', 'sakura@example.com', '08088889999', 0, 'testuser01'),
-  ('66666666-6666-6666-6666-666666666666', '小林翔',   'コバヤシショウ', '男性', 37, '京都', 'sho@example.com',    '08000001111', 0, 'testuser01'),
-  ('77777777-7777-7777-7777-777777777777', '渡辺美咲', 'ワタナベミサキ', '女性', 33, '神奈川', 'misaki@example.com','08022223333', 0, 'testuser01'),
-  ('88888888-8888-8888-8888-888888888888', '松本大輝', 'マツモトダイキ', '男性', 42, '広島', 'daiki@example.com', '08055556666', 0, 'testuser01'),
-  ('99999999-9999-9999-9999-999999999999', '石井舞',   'イシイマイ',     '女性', 24, '千葉', 'mai@example.com',   '08012121212', 0, 'testuser01'),
-  ('aaaa1111-aaaa-aaaa-aaaa-aaaaaaaaaaaa', '加藤亮',   'カトウリョウ',   '男性', 50, '新潟', 'ryo@example.com',   '08034343434', 0, 'testuser01'),
-  ('bbbb2222-bbbb-bbbb-bbbb-bbbbbbbbbbbb', '佐々木優子','ササキユウコ',  '女性', 27, '群馬', 'yuko@example.com',  '08056565656', 0, 'testuser01'),
-  ('cccc3333-cccc-cccc-cccc-cccccccccccc', '森田悠斗', 'モリタユウト',   '男性', 30, '福島', 'yuto@example.com',  '08078787878', 0, 'testuser01');
+  ('11111111-1111-1111-1111-111111111111', '佐藤花子', 'サトウハナコ', '女性', 28, '東京', 'hanako@example.com', '08098765432', 0, 'testuser01',
+   '8bc758f34bb34e800516348744395a2ff362ccee5c7cdb25100610237431eca7'),
+  ('22222222-2222-2222-2222-222222222222', '田中太郎', 'タナカタロウ', '男性', 35, '大阪', 'taro@example.com', '08011112222', 1, 'testuser01',
+   'c0f1c2b78174d6687c1b2db7ecb28dac6e9ddbae8ecb7385a2ca51d9ed30418f'),
+  ('22222222-3333-3333-3333-222222222222', '山田毅', 'ヤマダタケシ', '男性', 40, '宮城', 'takeshi@example.com', '08033332222', 0, 'testuser01',
+   '07d32c08f04586f72c6b16cecd35010cb9cde0749dfdf06f01b54418b9ef1384'),
+  ('33333333-3333-3333-3333-333333333333', '中村葵',   'ナカムラアオイ', '女性', 26, '愛知', 'aoi@example.com',   '08044445555', 0, 'testuser01',
+   '5c8a72836a8c17e1fc41574f36d4e1afe361417ba486a4561c1851063251e4b7'),
+  ('44444444-4444-4444-4444-444444444444', '鈴木健',   'スズキケン',     '男性', 31, '北海道', 'ken@example.com',   '08066667777', 0, 'testuser01',
+   '2a76f3438ff4e8a3b5073de8497349cf6c02ef43d7bb7766f5805a402c84f44f'),
+  ('55555555-5555-5555-5555-555555555555', '高橋桜',   'タカハシサクラ', '女性', 29, '福岡', 'sakura@example.com', '08088889999', 0, 'testuser01',
+   'fcb58e310e9c756be8262fbecf97e335ba9a1375d0e924a391a27858b6fa9d59'),
+  ('66666666-6666-6666-6666-666666666666', '小林翔',   'コバヤシショウ', '男性', 37, '京都', 'sho@example.com',    '08000001111', 0, 'testuser01',
+   '686a65a28e47971a7f23be08580de9bda6dcf2cd5100c55446178b030a4b1c6e'),
+  ('77777777-7777-7777-7777-777777777777', '渡辺美咲', 'ワタナベミサキ', '女性', 33, '神奈川', 'misaki@example.com','08022223333', 0, 'testuser01',
+   '7b742489e89051afe096a52053373311c2f2c19b511d101fb9285c404366bb75'),
+  ('88888888-8888-8888-8888-888888888888', '松本大輝', 'マツモトダイキ', '男性', 42, '広島', 'daiki@example.com', '08055556666', 0, 'testuser01',
+   '2ac7d4c0da418646a44251222c09e0348be26496c2ed4c9f918aabc4185b3566'),
+  ('99999999-9999-9999-9999-999999999999', '石井舞',   'イシイマイ',     '女性', 24, '千葉', 'mai@example.com',   '08012121212', 0, 'testuser01',
+   '8ca0748d2d646b898d5e9d7b137f17cee1f8efabcece224e3902ba6ceb65bb01'),
+  ('aaaa1111-aaaa-aaaa-aaaa-aaaaaaaaaaaa', '加藤亮',   'カトウリョウ',   '男性', 50, '新潟', 'ryo@example.com',   '08034343434', 0, 'testuser01',
+   'b63cd8c1413d145386021447200b8fd0b0eb271117c9d526b6be035936d5b5d1'),
+  ('bbbb2222-bbbb-bbbb-bbbb-bbbbbbbbbbbb', '佐々木優子','ササキユウコ',  '女性', 27, '群馬', 'yuko@example.com',  '08056565656', 0, 'testuser01',
+   '278eda971a7b0a87376e2636cb2816e1b2b067f30b3e206701d09fc162f64190'),
+  ('cccc3333-cccc-cccc-cccc-cccccccccccc', '森田悠斗', 'モリタユウト',   '男性', 30, '福島', 'yuto@example.com',  '08078787878', 0, 'testuser01',
+   'ece59c115e28fdf24a6e736b793b5bc88022c485bf455f7290714f50497bd62e');
 
 -- =========================
 -- bookings
 -- =========================
-INSERT INTO booking (id, name, description, price, is_available, user_id)
+INSERT INTO booking (id, name, description, price, is_available, capacity, user_id)
 VALUES
-  ('aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa', '朝食付きプラン', '和洋朝食が選べるプラン', 10000.00, 0, 'testuser01'),
-  ('bbbbbbbb-bbbb-4bbb-8bbb-bbbbbbbbbbbb', '素泊まりプラン', '食事なし・シンプルステイ', 7000.00, 1, 'testuser01');
+  ('aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa', '朝食付きプラン', '和洋朝食が選べるプラン', 10000.00, 0, 5, 'testuser01'),
+  ('bbbbbbbb-bbbb-4bbb-8bbb-bbbbbbbbbbbb', '素泊まりプラン', '食事なし・シンプルステイ', 7000.00, 1, 10, 'testuser01');
+
+-- =========================
+-- rooms
+-- =========================
+INSERT INTO room (id, booking_id, name, user_id)
+VALUES
+  ('a0000101-aaaa-4aaa-8aaa-aaaaaaaa0101', 'aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa', '101', 'testuser01'),
+  ('a0000102-aaaa-4aaa-8aaa-aaaaaaaa0102', 'aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa', '102', 'testuser01'),
+  ('b0000201-bbbb-4bbb-8bbb-bbbbbbbb0201', 'bbbbbbbb-bbbb-4bbb-8bbb-bbbbbbbbbbbb', '201', 'testuser01'),
+  ('b0000202-bbbb-4bbb-8bbb-bbbbbbbb0202', 'bbbbbbbb-bbbb-4bbb-8bbb-bbbbbbbbbbbb', '202', 'testuser01');
 
 -- =========================
 -- reservations（booking_id は上の UUID）
@@ -51,7 +74,10 @@ INSERT INTO reservation (
    'NOT_CHECKED_IN', '出張で利用', '2025-07-02 15:30:00', 'testuser01');
 
 -- 11) 本日チェックイン予定（夕方IN）
-INSERT INTO reservation VALUES
+INSERT INTO reservation (
+  id, guest_id, booking_id, check_in_date, check_out_date,
+  stay_days, total_price, status, memo, created_at, user_id
+) VALUES
 ('aaaa0001-aaaa-4aaa-8aaa-aaaa00000001',
  '88888888-8888-8888-8888-888888888888',
  'aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa',
@@ -59,7 +85,10 @@ INSERT INTO reservation VALUES
  'NOT_CHECKED_IN','仕事仲間と利用','2025-09-21 18:00:00','testuser01');
 
 -- 12) 本日チェックイン（深夜IN予定）
-INSERT INTO reservation VALUES
+INSERT INTO reservation (
+  id, guest_id, booking_id, check_in_date, check_out_date,
+  stay_days, total_price, status, memo, created_at, user_id
+) VALUES
 ('aaaa0002-aaaa-4aaa-8aaa-aaaa00000002',
  '99999999-9999-9999-9999-999999999999',
  'bbbbbbbb-bbbb-4bbb-8bbb-bbbbbbbbbbbb',
@@ -67,7 +96,10 @@ INSERT INTO reservation VALUES
  'NOT_CHECKED_IN','ライブ帰りで深夜IN','2025-09-21 23:10:00','testuser01');
 
 -- 13)
-INSERT INTO reservation VALUES
+INSERT INTO reservation (
+  id, guest_id, booking_id, check_in_date, check_out_date,
+  stay_days, total_price, status, memo, created_at, user_id
+) VALUES
 ('aaaa0003-aaaa-4aaa-8aaa-aaaa00000003',
  'aaaa1111-aaaa-aaaa-aaaa-aaaaaaaaaaaa',
  'aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa',
@@ -75,7 +107,10 @@ INSERT INTO reservation VALUES
  'CHECKED_IN','連泊の最終日','2025-09-17 12:00:00','testuser01');
 
 -- 14)
-INSERT INTO reservation VALUES
+INSERT INTO reservation (
+  id, guest_id, booking_id, check_in_date, check_out_date,
+  stay_days, total_price, status, memo, created_at, user_id
+) VALUES
 ('aaaa0004-aaaa-4aaa-8aaa-aaaa00000004',
  'bbbb2222-bbbb-bbbb-bbbb-bbbbbbbbbbbb',
  'bbbbbbbb-bbbb-4bbb-8bbb-bbbbbbbbbbbb',
@@ -83,7 +118,10 @@ INSERT INTO reservation VALUES
  'CHECKED_IN','観光旅行2日目','2025-09-19 09:30:00','testuser01');
 
 -- 15)
-INSERT INTO reservation VALUES
+INSERT INTO reservation (
+  id, guest_id, booking_id, check_in_date, check_out_date,
+  stay_days, total_price, status, memo, created_at, user_id
+) VALUES
 ('aaaa0005-aaaa-4aaa-8aaa-aaaa00000005',
  'cccc3333-cccc-cccc-cccc-cccccccccccc',
  'aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa',
@@ -91,7 +129,10 @@ INSERT INTO reservation VALUES
  'CHECKED_IN','大型連休滞在','2025-09-15 10:20:00','testuser01');
 
 -- 16)
-INSERT INTO reservation VALUES
+INSERT INTO reservation (
+  id, guest_id, booking_id, check_in_date, check_out_date,
+  stay_days, total_price, status, memo, created_at, user_id
+) VALUES
 ('aaaa0006-aaaa-4aaa-8aaa-aaaa00000006',
  '33333333-3333-3333-3333-333333333333',
  'bbbbbbbb-bbbb-4bbb-8bbb-bbbbbbbbbbbb',
@@ -99,7 +140,10 @@ INSERT INTO reservation VALUES
  'CHECKED_OUT','早朝退室','2025-09-20 08:00:00','testuser01');
 
 -- 17)
-INSERT INTO reservation VALUES
+INSERT INTO reservation (
+  id, guest_id, booking_id, check_in_date, check_out_date,
+  stay_days, total_price, status, memo, created_at, user_id
+) VALUES
 ('aaaa0007-aaaa-4aaa-8aaa-aaaa00000007',
  '44444444-4444-4444-4444-444444444444',
  'aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa',
@@ -107,7 +151,10 @@ INSERT INTO reservation VALUES
  'CANCELLED','体調不良で前日キャンセル','2025-09-21 19:00:00','testuser01');
 
 -- 18)
-INSERT INTO reservation VALUES
+INSERT INTO reservation (
+  id, guest_id, booking_id, check_in_date, check_out_date,
+  stay_days, total_price, status, memo, created_at, user_id
+) VALUES
 ('aaaa0008-aaaa-4aaa-8aaa-aaaa00000008',
  '55555555-5555-5555-5555-555555555555',
  'bbbbbbbb-bbbb-4bbb-8bbb-bbbbbbbbbbbb',
@@ -115,7 +162,10 @@ INSERT INTO reservation VALUES
  'NOT_CHECKED_IN','未到着（ノーショー）','2025-09-20 15:00:00','testuser01');
 
 -- 19)
-INSERT INTO reservation VALUES
+INSERT INTO reservation (
+  id, guest_id, booking_id, check_in_date, check_out_date,
+  stay_days, total_price, status, memo, created_at, user_id
+) VALUES
 ('aaaa0009-aaaa-4aaa-8aaa-aaaa00000009',
  '66666666-6666-6666-6666-666666666666',
  'aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa',
@@ -123,7 +173,10 @@ INSERT INTO reservation VALUES
  'NOT_CHECKED_IN','来週の出張予約','2025-09-10 09:00:00','testuser01');
 
 -- 20)
-INSERT INTO reservation VALUES
+INSERT INTO reservation (
+  id, guest_id, booking_id, check_in_date, check_out_date,
+  stay_days, total_price, status, memo, created_at, user_id
+) VALUES
 ('aaaa0010-aaaa-4aaa-8aaa-aaaa00000010',
  '77777777-7777-7777-7777-777777777777',
  'bbbbbbbb-bbbb-4bbb-8bbb-bbbbbbbbbbbb',
@@ -131,7 +184,10 @@ INSERT INTO reservation VALUES
  'NOT_CHECKED_IN','秋旅行','2025-09-15 17:00:00','testuser01');
 
 -- 21)
-INSERT INTO reservation VALUES
+INSERT INTO reservation (
+  id, guest_id, booking_id, check_in_date, check_out_date,
+  stay_days, total_price, status, memo, created_at, user_id
+) VALUES
 ('aaaa0011-aaaa-4aaa-8aaa-aaaa00000011',
  '11111111-1111-1111-1111-111111111111',
  'aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa',
@@ -139,13 +195,52 @@ INSERT INTO reservation VALUES
  'CHECKED_OUT','夏休み利用','2025-08-01 12:00:00','testuser01');
 
 -- 22)
-INSERT INTO reservation VALUES
+INSERT INTO reservation (
+  id, guest_id, booking_id, check_in_date, check_out_date,
+  stay_days, total_price, status, memo, created_at, user_id
+) VALUES
 ('aaaa0012-aaaa-4aaa-8aaa-aaaa00000012',
  '88888888-8888-8888-8888-888888888888',
  'aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa',
  '2025-09-22','2025-09-23',1,10000.00,
  'NOT_CHECKED_IN','団体旅行（代表者）','2025-09-10 18:00:00','testuser01');
 
+-- =========================
+-- daily_stats（上の宿泊予約から求めた日別・宿泊プラン別の集計。宿泊予約を変更した場合は合わせて変更する）
+-- =========================
+INSERT INTO daily_stats (user_id, stay_date, booking_id, rooms_sold, revenue)
+VALUES
+  ('testuser01', '2025-07-20', 'bbbbbbbb-bbbb-4bbb-8bbb-bbbbbbbbbbbb', 1, 700.00),
+  ('testuser01', '2025-07-21', 'bbbbbbbb-bbbb-4bbb-8bbb-bbbbbbbbbbbb', 1, 700.00),
+  ('testuser01', '2025-07-22', 'bbbbbbbb-bbbb-4bbb-8bbb-bbbbbbbbbbbb', 1, 700.00),
+  ('testuser01', '2025-07-23', 'aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa', 1, 5000.00),
+  ('testuser01', '2025-07-23', 'bbbbbbbb-bbbb-4bbb-8bbb-bbbbbbbbbbbb', 1, 700.00),
+  ('testuser01', '2025-07-24', 'aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa', 1, 5000.00),
+  ('testuser01', '2025-07-24', 'bbbbbbbb-bbbb-4bbb-8bbb-bbbbbbbbbbbb', 2, 7700.00),
+  ('testuser01', '2025-07-25', 'aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa', 1, 5000.00),
+  ('testuser01', '2025-07-25', 'bbbbbbbb-bbbb-4bbb-8bbb-bbbbbbbbbbbb', 1, 700.00),
+  ('testuser01', '2025-07-26', 'aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa', 1, 5000.00),
+  ('testuser01', '2025-07-26', 'bbbbbbbb-bbbb-4bbb-8bbb-bbbbbbbbbbbb', 1, 700.00),
+  ('testuser01', '2025-07-27', 'bbbbbbbb-bbbb-4bbb-8bbb-bbbbbbbbbbbb', 1, 700.00),
+  ('testuser01', '2025-07-28', 'bbbbbbbb-bbbb-4bbb-8bbb-bbbbbbbbbbbb', 1, 700.00),
+  ('testuser01', '2025-07-29', 'bbbbbbbb-bbbb-4bbb-8bbb-bbbbbbbbbbbb', 1, 700.00),
+  ('testuser01', '2025-08-15', 'aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa', 1, 10000.00),
+  ('testuser01', '2025-08-16', 'aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa', 1, 10000.00),
+  ('testuser01', '2025-09-19', 'aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa', 1, 10000.00),
+  ('testuser01', '2025-09-20', 'aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa', 2, 20000.00),
+  ('testuser01', '2025-09-21', 'aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa', 2, 20000.00),
+  ('testuser01', '2025-09-21', 'bbbbbbbb-bbbb-4bbb-8bbb-bbbbbbbbbbbb', 3, 21000.00),
+  ('testuser01', '2025-09-22', 'aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa', 3, 30000.00),
+  ('testuser01', '2025-09-22', 'bbbbbbbb-bbbb-4bbb-8bbb-bbbbbbbbbbbb', 2, 14000.00),
+  ('testuser01', '2025-09-23', 'aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa', 2, 20000.00),
+  ('testuser01', '2025-09-23', 'bbbbbbbb-bbbb-4bbb-8bbb-bbbbbbbbbbbb', 1, 7000.00),
+  ('testuser01', '2025-09-24', 'aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa', 2, 20000.00),
+  ('testuser01', '2025-09-25', 'aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa', 2, 20000.00),
+  ('testuser01', '2025-09-26', 'aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa', 1, 10000.00),
+  ('testuser01', '2025-10-05', 'bbbbbbbb-bbbb-4bbb-8bbb-bbbbbbbbbbbb', 1, 7000.00),
+  ('testuser01', '2025-10-06', 'bbbbbbbb-bbbb-4bbb-8bbb-bbbbbbbbbbbb', 1, 7000.00),
+  ('testuser01', '2025-10-07', 'bbbbbbbb-bbbb-4bbb-8bbb-bbbbbbbbbbbb', 1, 7000.00);
+
 -- =========================
 -- users
 -- =========================
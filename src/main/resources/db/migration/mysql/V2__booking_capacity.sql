@@ -0,0 +1,30 @@
+-- 宿泊プランの受け入れ可能数を追加する（MySQL用・デプロイ前に1回だけ実行する）
+-- H2はschema.sqlで起動のたびに作り直すため不要
+
+ALTER TABLE booking ADD COLUMN capacity INT NOT NULL DEFAULT 1;
+
+-- 既存の宿泊プランは、登録済みの宿泊予約で最も多く埋まっている泊の予約数を受け入れ可能数とする
+-- （既存の宿泊予約が満室扱いで編集できなくならないようにする。実際の部屋数より少ない場合は画面から変更する）
+-- キャンセル・ノーショーの宿泊予約は数えない
+UPDATE booking b
+JOIN (
+  WITH RECURSIVE nights (booking_id, stay_date, check_out_date) AS (
+    SELECT booking_id, check_in_date,
+      COALESCE(check_out_date, check_in_date + INTERVAL stay_days DAY)
+    FROM reservation
+    WHERE status NOT IN ('CANCELLED', 'NO_SHOW')
+    AND COALESCE(check_out_date, check_in_date + INTERVAL stay_days DAY) > check_in_date
+    UNION ALL
+    SELECT booking_id, stay_date + INTERVAL 1 DAY, check_out_date
+    FROM nights
+    WHERE stay_date + INTERVAL 1 DAY < check_out_date
+  )
+  SELECT booking_id, MAX(reserved) AS peak
+  FROM (
+    SELECT booking_id, stay_date, COUNT(*) AS reserved
+    FROM nights
+    GROUP BY booking_id, stay_date
+  ) per_night
+  GROUP BY booking_id
+) occupancy ON occupancy.booking_id = b.id
+SET b.capacity = GREATEST(b.capacity, occupancy.peak);
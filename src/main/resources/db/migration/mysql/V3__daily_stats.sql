@@ -0,0 +1,47 @@
+-- 日別・宿泊プラン別の集計表を追加し、登録済みの宿泊予約から作成する（MySQL用・デプロイ前に1回だけ実行する）
+-- 集計表は宿泊予約の登録・変更のたびに差分を加えるため、アプリケーションを停止した状態で実行する
+-- H2はschema.sqlとdata.sqlで起動のたびに作り直すため不要
+
+CREATE TABLE IF NOT EXISTS daily_stats (
+  user_id CHAR(36) NOT NULL,
+  stay_date DATE NOT NULL,
+  booking_id CHAR(36) NOT NULL,
+  rooms_sold INT NOT NULL DEFAULT 0,
+  revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+
+  PRIMARY KEY (user_id, stay_date, booking_id)
+);
+
+START TRANSACTION;
+
+-- 作成し直すため、既存の行は差分を加えず置き換える
+DELETE FROM daily_stats;
+
+-- DailyStatsRollupと同じく、1泊分の売上は総額を泊数で割って1円未満を切り捨て、端数は初日に加える
+-- キャンセル・ノーショーの宿泊予約は数えない
+INSERT INTO daily_stats (user_id, stay_date, booking_id, rooms_sold, revenue)
+WITH RECURSIVE nights (user_id, booking_id, stay_date, check_in_date, stay_nights, nightly,
+  total_price) AS (
+  SELECT user_id, booking_id, check_in_date, check_in_date, stay_nights,
+    TRUNCATE(total_price / stay_nights, 0), total_price
+  FROM (
+    SELECT user_id, booking_id, check_in_date, total_price,
+      DATEDIFF(COALESCE(check_out_date, check_in_date + INTERVAL stay_days DAY),
+        check_in_date) AS stay_nights
+    FROM reservation
+    WHERE status NOT IN ('CANCELLED', 'NO_SHOW')
+  ) stays
+  WHERE stay_nights > 0
+  UNION ALL
+  SELECT user_id, booking_id, stay_date + INTERVAL 1 DAY, check_in_date, stay_nights, nightly,
+    total_price
+  FROM nights
+  WHERE stay_date + INTERVAL 1 DAY < check_in_date + INTERVAL stay_nights DAY
+)
+SELECT user_id, stay_date, booking_id, COUNT(*),
+  SUM(CASE WHEN stay_date = check_in_date
+    THEN total_price - nightly * (stay_nights - 1) ELSE nightly END)
+FROM nights
+GROUP BY user_id, stay_date, booking_id;
+
+COMMIT;
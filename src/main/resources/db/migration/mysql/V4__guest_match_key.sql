@@ -0,0 +1,8 @@
+-- 宿泊者の完全一致検索用のキーを追加する（MySQL用・デプロイ前に1回だけ実行する）
+-- H2はschema.sqlで起動のたびに作り直すため不要
+-- キーは名前・かな名・電話番号を正規化したSHA-256で、SQLでは求められないため、
+-- 既存の宿泊者のキーは起動時にアプリケーションがキーのない行にだけ設定する
+
+ALTER TABLE guest ADD COLUMN match_key CHAR(64);
+
+CREATE INDEX idx_guest_user_match_key ON guest (user_id, match_key);
@@ -0,0 +1,20 @@
+-- 部屋の表と宿泊予約の部屋の割り当てを追加する（MySQL用・デプロイ前に1回だけ実行する）
+-- H2はschema.sqlで起動のたびに作り直すため不要
+-- 既存の宿泊予約は未割り当て（room_idがNULL）のままとし、部屋は登録後に画面から割り当てる
+
+CREATE TABLE IF NOT EXISTS room (
+  id CHAR(36) NOT NULL PRIMARY KEY,
+  booking_id CHAR(36) NOT NULL,
+  name VARCHAR(50) NOT NULL,
+  user_id CHAR(36) NOT NULL,
+
+  CONSTRAINT fk_room_booking FOREIGN KEY (booking_id) REFERENCES booking(id)
+);
+
+ALTER TABLE reservation ADD COLUMN room_id CHAR(36);
+ALTER TABLE reservation ADD CONSTRAINT fk_room FOREIGN KEY (room_id) REFERENCES room(id);
+
+-- 宿泊予約：部屋の割り当て状況の検索
+CREATE INDEX idx_reservation_user_room ON reservation (user_id, room_id, check_out_date);
+-- 部屋：全件検索
+CREATE INDEX idx_room_user ON room (user_id, name);
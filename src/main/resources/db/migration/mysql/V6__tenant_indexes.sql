@@ -0,0 +1,20 @@
+-- 検索用の複合インデックスを追加する（MySQL用・デプロイ前に1回だけ実行する）
+-- H2はschema.sqlで起動のたびに作り直すため不要
+-- 宿泊者の完全一致検索用（idx_guest_user_match_key）はV4、部屋の割り当て用はV5で追加済み
+
+-- 宿泊者：全件検索・かな名順のページング
+CREATE INDEX idx_guest_user_kana ON guest (user_id, kana_name, id);
+-- 宿泊者：電話番号による検索
+CREATE INDEX idx_guest_user_phone ON guest (user_id, phone);
+-- 宿泊プラン：全件検索
+CREATE INDEX idx_booking_user ON booking (user_id);
+-- 宿泊予約：全件検索・宿泊中の検索
+CREATE INDEX idx_reservation_user_status ON reservation (user_id, status);
+-- 宿泊予約：本日チェックイン予定の検索
+CREATE INDEX idx_reservation_user_check_in ON reservation (user_id, check_in_date, status);
+-- 宿泊予約：本日チェックアウト予定の検索
+CREATE INDEX idx_reservation_user_check_out ON reservation (user_id, check_out_date, status);
+-- 宿泊予約：宿泊者との結合・宿泊者IDの一覧による検索
+CREATE INDEX idx_reservation_guest ON reservation (guest_id, user_id);
+-- 宿泊予約：宿泊プランとの結合
+CREATE INDEX idx_reservation_booking ON reservation (booking_id);
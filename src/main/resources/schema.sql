@@ -1,4 +1,6 @@
+DROP TABLE IF EXISTS daily_stats;
 DROP TABLE IF EXISTS reservation;
+DROP TABLE IF EXISTS room;
 DROP TABLE IF EXISTS booking;
 DROP TABLE IF EXISTS guest;
 DROP TABLE IF EXISTS users;
@@ -14,7 +16,9 @@ CREATE TABLE guest (
   email VARCHAR(100),
   phone VARCHAR(20),
   deleted BOOLEAN DEFAULT FALSE,
-  user_id CHAR(36) NOT NULL
+  user_id CHAR(36) NOT NULL,
+  -- 完全一致検索用のキー（名前・かな名・電話番号を正規化したSHA-256）
+  match_key CHAR(64)
 );
 
 -- bookings テーブル
@@ -24,9 +28,21 @@ CREATE TABLE booking (
   description TEXT,
   price DECIMAL(10, 2) NOT NULL,
   is_available BOOLEAN DEFAULT TRUE,
+  -- 1泊あたりに受け入れ可能な予約数
+  capacity INT NOT NULL DEFAULT 1,
   user_id CHAR(36) NOT NULL
 );
 
+-- rooms テーブル（部屋は宿泊プランごとに用意する）
+CREATE TABLE room (
+  id CHAR(36) NOT NULL PRIMARY KEY,
+  booking_id CHAR(36) NOT NULL,
+  name VARCHAR(50) NOT NULL,
+  user_id CHAR(36) NOT NULL,
+
+  CONSTRAINT fk_room_booking FOREIGN KEY (booking_id) REFERENCES booking(id)
+);
+
 -- reservations テーブル
 CREATE TABLE reservation (
   id CHAR(36) NOT NULL PRIMARY KEY,
@@ -40,12 +56,53 @@ CREATE TABLE reservation (
   memo TEXT,
   created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
   user_id CHAR(36) NOT NULL,
+  -- 割り当てた部屋（未割り当てはNULL）
+  room_id CHAR(36),
 
   -- 外部キー制約（任意）
   CONSTRAINT fk_guest FOREIGN KEY (guest_id) REFERENCES guest(id),
-  CONSTRAINT fk_booking FOREIGN KEY (booking_id) REFERENCES booking(id)
+  CONSTRAINT fk_booking FOREIGN KEY (booking_id) REFERENCES booking(id),
+  CONSTRAINT fk_room FOREIGN KEY (room_id) REFERENCES room(id)
 );
 
+-- 日別・宿泊プラン別の販売泊数と売上（宿泊予約の登録・変更のたびに差分を加える）
+-- 主キーの順に並ぶため、期間の集計は主キーの範囲の読み込み1回で済む
+CREATE TABLE daily_stats (
+  user_id CHAR(36) NOT NULL,
+  stay_date DATE NOT NULL,
+  booking_id CHAR(36) NOT NULL,
+  -- 販売した泊数（キャンセル・ノーショーを除く）
+  rooms_sold INT NOT NULL DEFAULT 0,
+  -- 宿泊予約の総額を泊数で割った1泊分の売上の合計
+  revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+
+  PRIMARY KEY (user_id, stay_date, booking_id)
+);
+
+-- 検索用インデックス（H2・MySQL共通の構文）
+-- 宿泊者：全件検索・かな名順のページング
+CREATE INDEX idx_guest_user_kana ON guest (user_id, kana_name, id);
+-- 宿泊者：完全一致検索
+CREATE INDEX idx_guest_user_match_key ON guest (user_id, match_key);
+-- 宿泊者：電話番号による検索
+CREATE INDEX idx_guest_user_phone ON guest (user_id, phone);
+-- 宿泊プラン：全件検索
+CREATE INDEX idx_booking_user ON booking (user_id);
+-- 宿泊予約：全件検索・宿泊中の検索
+CREATE INDEX idx_reservation_user_status ON reservation (user_id, status);
+-- 宿泊予約：本日チェックイン予定の検索
+CREATE INDEX idx_reservation_user_check_in ON reservation (user_id, check_in_date, status);
+-- 宿泊予約：本日チェックアウト予定の検索
+CREATE INDEX idx_reservation_user_check_out ON reservation (user_id, check_out_date, status);
+-- 宿泊予約：宿泊者との結合・宿泊者IDの一覧による検索
+CREATE INDEX idx_reservation_guest ON reservation (guest_id, user_id);
+-- 宿泊予約：宿泊プランとの結合
+CREATE INDEX idx_reservation_booking ON reservation (booking_id);
+-- 宿泊予約：部屋の割り当て状況の検索
+CREATE INDEX idx_reservation_user_room ON reservation (user_id, room_id, check_out_date);
+-- 部屋：全件検索
+CREATE INDEX idx_room_user ON room (user_id, name);
+
 CREATE TABLE IF NOT EXISTS users (
   id VARCHAR(36) PRIMARY KEY,
   password VARCHAR(255) NOT NULL
@@ -0,0 +1,132 @@
+package com.portfolio.hotel.management.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.pool.HikariPool;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class ConnectionLimitingDataSourceTest {
+
+  private final DataSource target = mock(DataSource.class);
+  private final Connection connection = mock(Connection.class);
+
+  @Test
+  void 上限まで取得した後は_接続を閉じるまで次の取得を待たせること() throws Exception {
+    when(target.getConnection()).thenReturn(connection);
+    ConnectionLimitingDataSource sut = new ConnectionLimitingDataSource(target, 2, 10_000);
+    Connection first = sut.getConnection();
+    sut.getConnection();
+    assertThat(sut.getAvailableConnections()).isZero();
+
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      Future<Connection> waiting = executor.submit(() -> sut.getConnection());
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+      while (sut.getWaitingThreads() == 0 && System.nanoTime() < deadline) {
+        Thread.sleep(10);
+      }
+      assertThat(waiting).isNotDone();
+
+      first.close();
+
+      assertThat(waiting.get(10, TimeUnit.SECONDS)).isNotNull();
+    }
+    verify(connection, times(1)).close();
+    assertThat(sut.getAvailableConnections()).isZero();
+  }
+
+  @Test
+  void 同じ接続を2回閉じても空きは1つだけ戻ること() throws Exception {
+    when(target.getConnection()).thenReturn(connection);
+    ConnectionLimitingDataSource sut = new ConnectionLimitingDataSource(target, 2, 10_000);
+
+    Connection actual = sut.getConnection();
+    actual.close();
+    actual.close();
+
+    assertThat(sut.getAvailableConnections()).isEqualTo(2);
+  }
+
+  @Test
+  void 待ち時間の上限を超えた場合_例外が発生すること() throws Exception {
+    when(target.getConnection()).thenReturn(connection);
+    ConnectionLimitingDataSource sut = new ConnectionLimitingDataSource(target, 1, 50);
+    sut.getConnection();
+
+    assertThatThrownBy(sut::getConnection)
+        .isInstanceOf(SQLTransientConnectionException.class);
+    verify(target, times(1)).getConnection();
+  }
+
+  @Test
+  void 接続プールからの取得に失敗した場合_空きを戻すこと() throws Exception {
+    when(target.getConnection()).thenThrow(new SQLException("接続エラー"));
+    ConnectionLimitingDataSource sut = new ConnectionLimitingDataSource(target, 1, 50);
+
+    assertThatThrownBy(sut::getConnection).hasMessage("接続エラー");
+    assertThat(sut.getAvailableConnections()).isEqualTo(1);
+  }
+
+  @Test
+  void 閉じる以外の操作は接続プールの接続にそのまま渡すこと() throws Exception {
+    when(target.getConnection()).thenReturn(connection);
+    when(connection.getAutoCommit()).thenReturn(false);
+    ConnectionLimitingDataSource sut = new ConnectionLimitingDataSource(target, 1, 50);
+
+    Connection actual = sut.getConnection();
+
+    assertThat(actual.getAutoCommit()).isFalse();
+    assertThat(actual).isEqualTo(actual).isNotEqualTo(connection);
+  }
+
+  @Test
+  void HikariCPの接続プールでは_空きを待った残りの時間だけ接続プールで待つこと() throws Exception {
+    HikariDataSource hikari = mock(HikariDataSource.class);
+    HikariPool pool = mock(HikariPool.class);
+    when(hikari.getHikariPoolMXBean()).thenReturn(pool);
+    when(pool.getConnection(anyLong())).thenReturn(connection);
+    ConnectionLimitingDataSource sut = new ConnectionLimitingDataSource(hikari, 1, 10_000);
+    Connection first = sut.getConnection();
+
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      executor.submit(() -> {
+        Thread.sleep(500);
+        first.close();
+        return null;
+      });
+      sut.getConnection();
+    }
+
+    ArgumentCaptor<Long> timeouts = ArgumentCaptor.forClass(Long.class);
+    verify(pool, times(2)).getConnection(timeouts.capture());
+    assertThat(timeouts.getAllValues().get(1)).isPositive().isLessThanOrEqualTo(9_500L);
+    verify(hikari, times(0)).getConnection();
+  }
+
+  @Test
+  void 閉じると包んでいる接続プールも閉じること() throws Exception {
+    DataSource closeable = mock(DataSource.class,
+        withSettings().extraInterfaces(AutoCloseable.class));
+    ConnectionLimitingDataSource sut = new ConnectionLimitingDataSource(closeable, 1, 50);
+
+    sut.close();
+
+    verify((AutoCloseable) closeable, times(1)).close();
+  }
+}
@@ -0,0 +1,171 @@
+package com.portfolio.hotel.management.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.portfolio.hotel.management.HotelmanagementApplication;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// 性能測定（./gradlew benchmark で実行）
+// 同じデータ・同じ負荷で、プラットフォームスレッドと仮想スレッドでリクエストを処理した場合を比べる
+@Tag("benchmark")
+class DashboardLoadBenchmarkTest {
+
+  // 同時にホーム画面を読み込む端末の数（Tomcatのスレッド数の既定値200を超える）
+  private static final int CLIENTS = 400;
+
+  private static final int REQUESTS_PER_CLIENT = 25;
+
+  private static final int WARMUP_REQUESTS_PER_CLIENT = 5;
+
+  private static final int GUESTS = 3_000;
+
+  private static final int POOL_SIZE = 10;
+
+  private static final String USER_ID = "benchmark";
+
+  private static final String BOOKING_ID = "bbbbbbbb-0000-4000-8000-000000000001";
+
+  private static final List<String> PATHS = List.of("/guests/stay",
+      "/guests/check-in-today", "/guests/check-out-today", "/bookings", "/board");
+
+  @Test
+  void ホーム画面の読み込みをプラットフォームスレッドと仮想スレッドで比べる() throws Exception {
+    Result platform = measure(false);
+    Result virtual = measure(true);
+
+    System.out.println(platform.format("プラットフォームスレッド"));
+    System.out.println(virtual.format("仮想スレッド"));
+
+    assertThat(platform.errors()).isZero();
+    assertThat(virtual.errors()).isZero();
+  }
+
+  private Result measure(boolean virtualThreads) throws Exception {
+    String mode = virtualThreads ? "virtual" : "platform";
+    try (ConfigurableApplicationContext context =
+        new SpringApplicationBuilder(HotelmanagementApplication.class)
+            .properties("server.port=0",
+                "spring.threads.virtual.enabled=" + virtualThreads,
+                "spring.datasource.url=jdbc:h2:mem:load-benchmark-" + mode
+                    + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE)
+            .run();
+        ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+      insertGuests(context.getBean(JdbcTemplate.class));
+      String baseUrl = "http://localhost:"
+          + ((WebServerApplicationContext) context).getWebServer().getPort();
+      HttpClient client = HttpClient.newBuilder()
+          .cookieHandler(new CookieManager())
+          .executor(clients)
+          .build();
+      login(client, baseUrl);
+
+      run(client, baseUrl, clients, WARMUP_REQUESTS_PER_CLIENT);
+      return run(client, baseUrl, clients, REQUESTS_PER_CLIENT);
+    }
+  }
+
+  // 宿泊中・本日チェックイン・本日チェックアウトの宿泊者を3分の1ずつ登録する
+  private void insertGuests(JdbcTemplate jdbcTemplate) {
+    jdbcTemplate.update("INSERT INTO users (id, password) VALUES (?, ?)", USER_ID, USER_ID);
+    jdbcTemplate.update("""
+        INSERT INTO booking (id, name, price, capacity, user_id)
+        VALUES (?, 'ベンチマーク', 10000, ?, ?)
+        """, BOOKING_ID, GUESTS, USER_ID);
+    jdbcTemplate.update("""
+        INSERT INTO guest (id, name, kana_name, gender, age, region, email, phone, user_id)
+        SELECT CONCAT('guest-', LPAD(X, 30, '0')), CONCAT('宿泊者', X), CONCAT('シュクハクシャ', X),
+        '女性', 30, '東京', CONCAT('guest', X, '@example.com'), '09000000000', ?
+        FROM SYSTEM_RANGE(1, ?)
+        """, USER_ID, GUESTS);
+    jdbcTemplate.update("""
+        INSERT INTO reservation (id, guest_id, booking_id, check_in_date, check_out_date,
+        stay_days, total_price, status, user_id)
+        SELECT CONCAT('rsv-', LPAD(X, 32, '0')), CONCAT('guest-', LPAD(X, 30, '0')), ?,
+        CASE MOD(X, 3) WHEN 0 THEN CURRENT_DATE ELSE DATEADD('DAY', -1, CURRENT_DATE) END,
+        CASE MOD(X, 3) WHEN 2 THEN CURRENT_DATE ELSE DATEADD('DAY', 1, CURRENT_DATE) END,
+        CASE MOD(X, 3) WHEN 1 THEN 2 ELSE 1 END, 10000,
+        CASE MOD(X, 3) WHEN 0 THEN 'NOT_CHECKED_IN' ELSE 'CHECKED_IN' END, ?
+        FROM SYSTEM_RANGE(1, ?)
+        """, BOOKING_ID, USER_ID, GUESTS);
+  }
+
+  private void login(HttpClient client, String baseUrl) throws Exception {
+    HttpResponse<Void> response = client.send(HttpRequest.newBuilder()
+            .uri(URI.create(baseUrl + "/login"))
+            .header("Content-Type", "application/x-www-form-urlencoded")
+            .POST(HttpRequest.BodyPublishers.ofString("id=" + USER_ID + "&password=" + USER_ID))
+            .build(),
+        HttpResponse.BodyHandlers.discarding());
+    assertThat(response.statusCode()).isEqualTo(200);
+  }
+
+  // 各端末が画面の一覧を順に読み込む（全端末が同時に始める）
+  private Result run(HttpClient client, String baseUrl, ExecutorService clients,
+      int requestsPerClient) throws Exception {
+    AtomicInteger errors = new AtomicInteger();
+    List<Future<long[]>> futures = new ArrayList<>();
+    long start = System.nanoTime();
+    for (int i = 0; i < CLIENTS; i++) {
+      int offset = i;
+      futures.add(clients.submit(() -> {
+        long[] latencies = new long[requestsPerClient];
+        for (int j = 0; j < requestsPerClient; j++) {
+          String path = PATHS.get((offset + j) % PATHS.size());
+          long requested = System.nanoTime();
+          HttpResponse<Void> response = client.send(HttpRequest.newBuilder()
+              .uri(URI.create(baseUrl + path))
+              .build(), HttpResponse.BodyHandlers.discarding());
+          latencies[j] = System.nanoTime() - requested;
+          if (response.statusCode() != 200) {
+            errors.incrementAndGet();
+          }
+        }
+        return latencies;
+      }));
+    }
+    long[] latencies = new long[CLIENTS * requestsPerClient];
+    int index = 0;
+    for (Future<long[]> future : futures) {
+      for (long latency : future.get()) {
+        latencies[index++] = latency;
+      }
+    }
+    double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+    Arrays.sort(latencies);
+    return new Result(latencies, seconds, errors.get());
+  }
+
+  private record Result(long[] latencies, double seconds, int errors) {
+
+    String format(String mode) {
+      return String.format("%s: 同時端末数: %d, リクエスト数: %d, 処理時間: %.1f秒, "
+              + "スループット: %.0f件/秒, 応答時間 p50: %.1fms, p95: %.1fms, p99: %.1fms, "
+              + "最大: %.1fms, エラー: %d件",
+          mode, CLIENTS, latencies.length, seconds, latencies.length / seconds,
+          percentile(0.50), percentile(0.95), percentile(0.99),
+          latencies[latencies.length - 1] / 1_000_000.0, errors);
+    }
+
+    private double percentile(double ratio) {
+      return latencies[(int) Math.ceil(ratio * latencies.length) - 1] / 1_000_000.0;
+    }
+  }
+}
@@ -2,32 +2,69 @@ package com.portfolio.hotel.management.controller;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.portfolio.hotel.management.data.board.FrontDeskBoard;
+import com.portfolio.hotel.management.data.booking.BookingAvailability;
+import com.portfolio.hotel.management.data.booking.DailyAvailability;
+import com.portfolio.hotel.management.data.cache.CacheStats;
 import com.portfolio.hotel.management.data.guest.Guest;
+import com.portfolio.hotel.management.data.guest.GuestPage;
 import com.portfolio.hotel.management.data.guest.GuestRegistration;
+import com.portfolio.hotel.management.data.guest.GuestSuggestion;
+import com.portfolio.hotel.management.data.guest.GuestSummary;
+import com.portfolio.hotel.management.data.reservation.ReservationAction;
+import com.portfolio.hotel.management.data.reservation.ReservationBulkStatusResult;
+import com.portfolio.hotel.management.data.report.DailyReport;
+import com.portfolio.hotel.management.data.report.DemographicsCell;
+import com.portfolio.hotel.management.data.report.PlanDailyReport;
+import com.portfolio.hotel.management.data.reservation.ReservationStatus;
+import com.portfolio.hotel.management.data.room.RoomAssignment;
+import com.portfolio.hotel.management.data.room.RoomAssignmentResult;
 import com.portfolio.hotel.management.service.HotelService;
+import com.portfolio.hotel.management.service.exporter.GuestExportFormat;
+import com.portfolio.hotel.management.service.exporter.GuestExporter;
+import com.portfolio.hotel.management.service.importer.GuestImportFormat;
+import com.portfolio.hotel.management.service.importer.GuestImporter;
+import com.portfolio.hotel.management.service.reservation.ReservationTransitions;
 import com.portfolio.hotel.management.data.guest.GuestDetail;
+import com.portfolio.hotel.management.data.guest.GuestImportResult;
+import com.portfolio.hotel.management.exception.BookingFullException;
+import com.portfolio.hotel.management.exception.BookingNotFoundException;
+import com.portfolio.hotel.management.exception.InvalidDateRangeException;
 import com.portfolio.hotel.management.repository.HotelRepository;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 @WebMvcTest(HotelController.class)
@@ -40,6 +77,14 @@ class HotelControllerTest {
   @SuppressWarnings("removal")
   @MockBean
   private HotelService service;
+
+  @SuppressWarnings("removal")
+  @MockBean
+  private GuestImporter importer;
+
+  @SuppressWarnings("removal")
+  @MockBean
+  private GuestExporter exporter;
   private HotelRepository repository;
 
   @Test
@@ -60,6 +105,158 @@ class HotelControllerTest {
     verify(service, times(1)).getAllBooking(any(Authentication.class));
   }
 
+  @Test
+  @WithMockUser(username = "TEST", roles = "USER")
+  void 宿泊プランの空き状況_1泊ごとの予約数と残り数が帰ってくること() throws Exception {
+    BookingAvailability availability = new BookingAvailability();
+    availability.setBookingId("b1");
+    availability.setCapacity(5);
+    DailyAvailability day = new DailyAvailability();
+    day.setDate(LocalDate.of(2025, 8, 1));
+    day.setReserved(2);
+    day.setRemaining(3);
+    availability.getDays().add(day);
+    when(service.getAvailability(any(Authentication.class), eq("b1"),
+        eq(LocalDate.of(2025, 8, 1)), eq(LocalDate.of(2025, 8, 31)))).thenReturn(availability);
+
+    mockMvc.perform(get("/booking/availability")
+            .param("bookingId", "b1")
+            .param("from", "2025-08-01")
+            .param("to", "2025-08-31"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.capacity").value(5))
+        .andExpect(jsonPath("$.days[0].date").value("2025-08-01"))
+        .andExpect(jsonPath("$.days[0].reserved").value(2))
+        .andExpect(jsonPath("$.days[0].remaining").value(3));
+  }
+
+  @Test
+  @WithMockUser(username = "TEST", roles = "USER")
+  void 宿泊プランの空き状況_宿泊プランがない場合404が帰ってくること() throws Exception {
+    mockMvc.perform(get("/booking/availability")
+            .param("bookingId", "not-exist")
+            .param("from", "2025-08-01")
+            .param("to", "2025-08-31"))
+        .andExpect(status().isNotFound());
+  }
+
+  @Test
+  @WithMockUser(username = "TEST", roles = "USER")
+  void 宿泊プランの空き状況_期間が不正な場合400が帰ってくること() throws Exception {
+    when(service.getAvailability(any(Authentication.class), eq("b1"), any(LocalDate.class),
+        any(LocalDate.class)))
+        .thenThrow(new InvalidDateRangeException("終了日は開始日以降の日付を指定してください"));
+
+    mockMvc.perform(get("/booking/availability")
+            .param("bookingId", "b1")
+            .param("from", "2025-08-31")
+            .param("to", "2025-08-01"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.period").value("終了日は開始日以降の日付を指定してください"));
+  }
+
+  @Test
+  @WithMockUser(username = "TEST", roles = "USER")
+  void 日別の稼働率と売上_日ごとの集計と宿泊プラン別の集計が帰ってくること() throws Exception {
+    DailyReport report = new DailyReport();
+    report.setDate(LocalDate.of(2025, 8, 1));
+    report.setRoomsSold(2);
+    report.setCapacity(5);
+    report.setOccupancyRate(new BigDecimal("0.4000"));
+    report.setAdr(new BigDecimal("12500.00"));
+    report.setRevenue(new BigDecimal("25000.00"));
+    PlanDailyReport plan = new PlanDailyReport();
+    plan.setBookingId("b1");
+    plan.setRoomsSold(2);
+    report.getPlans().add(plan);
+    when(service.getDailyReport(any(Authentication.class), eq(LocalDate.of(2025, 8, 1)),
+        eq(LocalDate.of(2025, 8, 31)))).thenReturn(List.of(report));
+
+    mockMvc.perform(get("/report/daily")
+            .param("from", "2025-08-01")
+            .param("to", "2025-08-31"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].date").value("2025-08-01"))
+        .andExpect(jsonPath("$[0].occupancyRate").value(0.4))
+        .andExpect(jsonPath("$[0].adr").value(12500.00))
+        .andExpect(jsonPath("$[0].plans[0].bookingId").value("b1"))
+        .andExpect(jsonPath("$[0].plans[0].roomsSold").value(2));
+  }
+
+  @Test
+  @WithMockUser(username = "TEST", roles = "USER")
+  void 日別の稼働率と売上_期間が不正な場合400が帰ってくること() throws Exception {
+    when(service.getDailyReport(any(Authentication.class), any(LocalDate.class),
+        any(LocalDate.class)))
+        .thenThrow(new InvalidDateRangeException("一度に取得できる期間は366日までです"));
+
+    mockMvc.perform(get("/report/daily")
+            .param("from", "2025-01-01")
+            .param("to", "2026-12-31"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.period").value("一度に取得できる期間は366日までです"));
+  }
+
+  @Test
+  @WithMockUser(username = "TEST", roles = "USER")
+  void 宿泊者の属性別の集計_月ごとの宿泊予約数と泊数が帰ってくること() throws Exception {
+    DemographicsCell cell = new DemographicsCell();
+    cell.setMonth(YearMonth.of(2025, 8));
+    cell.setRegion("東京");
+    cell.setAgeBand(20);
+    cell.setGender("女性");
+    cell.setReservations(2);
+    cell.setNights(5);
+    when(service.getDemographics(any(Authentication.class), eq(YearMonth.of(2025, 8)),
+        eq(YearMonth.of(2025, 9)), eq("b1"))).thenReturn(List.of(cell));
+
+    mockMvc.perform(get("/report/demographics")
+            .param("from", "2025-08")
+            .param("to", "2025-09")
+            .param("bookingId", "b1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].month").value("2025-08"))
+        .andExpect(jsonPath("$[0].ageBand").value(20))
+        .andExpect(jsonPath("$[0].reservations").value(2))
+        .andExpect(jsonPath("$[0].nights").value(5));
+  }
+
+  @Test
+  @WithMockUser(username = "TEST", roles = "USER")
+  void キャッシュの統計_キャッシュごとのヒット数とミス数が返ること() throws Exception {
+    CacheStats stats = new CacheStats();
+    stats.setName("bookingPlans");
+    stats.setHits(3);
+    stats.setMisses(1);
+    stats.setHitRate(0.75);
+    when(service.getCacheStats(any(Authentication.class))).thenReturn(List.of(stats));
+
+    mockMvc.perform(get("/cache/stats"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].name").value("bookingPlans"))
+        .andExpect(jsonPath("$[0].hits").value(3))
+        .andExpect(jsonPath("$[0].hitRate").value(0.75));
+  }
+
+  @Test
+  @WithMockUser(username = "TEST", roles = "USER")
+  void ホーム画面の一覧取得_宿泊者と宿泊プランの一覧と件数が返ること() throws Exception {
+    FrontDeskBoard board = new FrontDeskBoard();
+    board.setStayNow(List.of(new GuestDetail()));
+    board.setCheckInToday(List.of());
+    board.setCheckOutToday(List.of());
+    board.setBookings(List.of());
+    board.setStayNowCount(1);
+    when(service.getFrontDeskBoard(any(Authentication.class), any(LocalDate.class)))
+        .thenReturn(board);
+
+    mockMvc.perform(get("/board"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.stayNow.length()").value(1))
+        .andExpect(jsonPath("$.stayNowCount").value(1))
+        .andExpect(jsonPath("$.checkInTodayCount").value(0));
+  }
+
   @Test
   @WithMockUser(username = "TEST", roles = "USER")
   void 本日チェックイン予定の宿泊者情報検索_空のリストが帰ってくること() throws Exception {
@@ -87,6 +284,79 @@ class HotelControllerTest {
     verify(service, times(1)).getCheckOutToday(any(Authentication.class), any(LocalDate.class));
   }
 
+  @Test
+  @WithMockUser(username = "TEST", roles = "USER")
+  void 一覧画面用の宿泊者取得_一覧に必要な項目だけが帰ってくること() throws Exception {
+    GuestSummary summary = new GuestSummary();
+    summary.setGuestId("11111111-1111-1111-1111-111111111111");
+    summary.setName("佐藤花子");
+    summary.setStatus(ReservationStatus.CHECKED_IN);
+    summary.setBookingName("朝食付きプラン");
+    when(service.getAllGuestSummary(any(Authentication.class), any(LocalDate.class)))
+        .thenReturn(List.of(summary));
+
+    mockMvc.perform(get("/guests/summary"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].name").value("佐藤花子"))
+        .andExpect(jsonPath("$[0].status").value("CHECKED_IN"))
+        .andExpect(jsonPath("$[0].bookingName").value("朝食付きプラン"))
+        .andExpect(jsonPath("$[0].memo").doesNotExist());
+  }
+
+  @Test
+  @WithMockUser(username = "TEST", roles = "USER")
+  void 現在宿泊中の一覧取得_空のリストが帰ってくること() throws Exception {
+    mockMvc.perform(get("/guests/stay/summary"))
+        .andExpect(status().isOk())
+        .andExpect(content().json("[]"));
+    verify(service, times(1)).getStayNowSummary(any(Authentication.class));
+  }
+
+  @Test
+  @WithMockUser(username = "TEST", roles = "USER")
+  void 宿泊者情報のページ取得_宿泊者情報と次ページのトークンが帰ってくること() throws Exception {
+    GuestPage guestPage = new GuestPage();
+    guestPage.setGuests(List.of());
+    guestPage.setNextPageToken("next-token");
+    when(service.getGuestPage(any(Authentication.class), any())).thenReturn(guestPage);
+
+    mockMvc.perform(get("/guests/page").param("limit", "20"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.guests").isEmpty())
+        .andExpect(jsonPath("$.nextPageToken").value("next-token"));
+
+    verify(service, times(1)).getGuestPage(any(Authentication.class), any());
+  }
+
+  @Test
+  @WithMockUser(username = "TEST", roles = "USER")
+  void 宿泊者情報のページ取得_ページトークンが不正な場合400が帰ってくること() throws Exception {
+    mockMvc.perform(get("/guests/page").param("pageToken", "%%invalid%%"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.pageToken").value("ページトークンが不正です"));
+
+    verify(service, times(0)).getGuestPage(any(Authentication.class), any());
+  }
+
+  @Test
+  @WithMockUser(username = "TEST", roles = "USER")
+  void 宿泊者の入力補完_前方一致した宿泊者の候補が帰ってくること() throws Exception {
+    GuestSuggestion suggestion = new GuestSuggestion();
+    suggestion.setId("11111111-1111-1111-1111-111111111111");
+    suggestion.setName("佐藤花子");
+    suggestion.setKanaName("サトウハナコ");
+    suggestion.setPhoneTail("5678");
+    when(service.suggestGuest(any(Authentication.class), eq("さと"), eq(5)))
+        .thenReturn(List.of(suggestion));
+
+    mockMvc.perform(get("/guest/suggest").param("prefix", "さと").param("limit", "5"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].kanaName").value("サトウハナコ"))
+        .andExpect(jsonPath("$[0].phoneTail").value("5678"));
+
+    verify(service, times(1)).suggestGuest(any(Authentication.class), eq("さと"), eq(5));
+  }
+
   @Test
   @WithMockUser(username = "TEST", roles = "USER")
   void 宿泊者情報の単一検索_宿泊者から宿泊者情報を検索できること() throws Exception {
@@ -180,6 +450,164 @@ class HotelControllerTest {
         .registerGuest(any(Authentication.class), any());
   }
 
+  @Test
+  @WithMockUser(username = "TEST", roles = "USER")
+  void 宿泊者情報の登録_満室の場合409が帰ってくること() throws Exception {
+    doThrow(new BookingFullException("朝食付きプランの2030-09-30の宿泊は満室です"))
+        .when(service).registerGuest(any(Authentication.class), any());
+
+    mockMvc.perform(put("/guest/register")
+            .with(csrf())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("""
+                {
+                  "guest": {
+                    "name": "佐藤花子",
+                    "kanaName": "サトウハナコ",
+                    "gender": "女性",
+                    "age": 28,
+                    "region": "東京",
+                    "email": "hanako@example.com",
+                    "phone": "08098765432"
+                  },
+                  "bookingId": "123e4567-e89b-12d3-a456-426614174000",
+                  "stayDays": 2,
+                  "checkInDate": "2030-09-30"
+                }
+                """))
+        .andExpect(status().isConflict())
+        .andExpect(jsonPath("$.bookingId").value("朝食付きプランの2030-09-30の宿泊は満室です"));
+  }
+
+  @Test
+  @WithMockUser(username = "TEST", roles = "USER")
+  void 宿泊者情報の一括登録_登録した件数が帰ってくること() throws Exception {
+    when(service.registerGuests(any(Authentication.class), any())).thenReturn(2);
+
+    mockMvc.perform(put("/guest/register/bulk")
+            .with(csrf())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("""
+                {
+                  "registrations": [
+                    {
+                      "guest": {"name": "佐藤花子", "kanaName": "サトウハナコ", "phone": "08098765432"},
+                      "bookingId": "123e4567-e89b-12d3-a456-426614174000",
+                      "stayDays": 2,
+                      "checkInDate": "2099-09-30"
+                    },
+                    {
+                      "guest": {"name": "田中太郎", "kanaName": "タナカタロウ", "phone": "08011112222"},
+                      "bookingId": "123e4567-e89b-12d3-a456-426614174000",
+                      "stayDays": 1,
+                      "checkInDate": "2099-09-30"
+                    }
+                  ]
+                }
+                """))
+        .andExpect(status().isOk())
+        .andExpect(content().string("2件の宿泊者情報の登録が完了しました。"));
+
+    verify(service, times(1)).registerGuests(any(Authentication.class), any());
+  }
+
+  @Test
+  @WithMockUser(username = "TEST", roles = "USER")
+  void 宿泊者情報の一括登録_空の場合400が帰ってくること() throws Exception {
+    mockMvc.perform(put("/guest/register/bulk")
+            .with(csrf())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("""
+                {"registrations": []}
+                """))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.registrations").value("登録する宿泊者は1件以上必要です"));
+
+    verify(service, times(0)).registerGuests(any(Authentication.class), any());
+  }
+
+  @Test
+  @WithMockUser(username = "TEST", roles = "USER")
+  void 宿泊者情報の取り込み_CSVを取り込んだ結果が帰ってくること() throws Exception {
+    GuestImportResult result = new GuestImportResult();
+    result.setTotalRows(1);
+    result.setImportedRows(1);
+    when(importer.importGuests(any(Authentication.class), eq(GuestImportFormat.CSV), any(),
+        any(LocalDate.class)))
+        .thenReturn(result);
+
+    mockMvc.perform(post("/guest/import")
+            .with(csrf())
+            .contentType("text/csv")
+            .content("name,kanaName\n佐藤花子,サトウハナコ\n"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.totalRows").value(1))
+        .andExpect(jsonPath("$.importedRows").value(1));
+
+    verify(importer, times(1))
+        .importGuests(any(Authentication.class), eq(GuestImportFormat.CSV), any(),
+            any(LocalDate.class));
+  }
+
+  @Test
+  @WithMockUser(username = "TEST", roles = "USER")
+  void 宿泊者情報の取り込み_対応していない形式の場合415が帰ってくること() throws Exception {
+    mockMvc.perform(post("/guest/import")
+            .with(csrf())
+            .contentType(MediaType.APPLICATION_XML)
+            .content("<guests/>"))
+        .andExpect(status().isUnsupportedMediaType());
+
+    verify(importer, times(0)).importGuests(any(Authentication.class), any(), any(), any());
+  }
+
+  @Test
+  @WithMockUser(username = "TEST", roles = "USER")
+  void 宿泊者の出力_CSVが添付ファイルとして書き出されること() throws Exception {
+    doAnswer(invocation -> {
+      OutputStream out = invocation.getArgument(2);
+      out.write("id,name\r\n1,佐藤花子\r\n".getBytes(StandardCharsets.UTF_8));
+      return null;
+    }).when(exporter).exportGuests(any(Authentication.class), eq(GuestExportFormat.CSV), any());
+
+    MvcResult result = mockMvc.perform(get("/export/guests"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType("text/csv;charset=UTF-8"))
+        .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"guests.csv\""))
+        .andExpect(content().string("id,name\r\n1,佐藤花子\r\n"));
+  }
+
+  @Test
+  @WithMockUser(username = "TEST", roles = "USER")
+  void 宿泊予約の出力_NDJSONを指定した場合NDJSONで書き出されること() throws Exception {
+    MvcResult result = mockMvc.perform(get("/export/reservations").param("format", "NDJSON"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType("application/x-ndjson;charset=UTF-8"))
+        .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"reservations.ndjson\""));
+
+    verify(exporter, times(1))
+        .exportReservations(any(Authentication.class), eq(GuestExportFormat.NDJSON), any());
+  }
+
+  @Test
+  @WithMockUser(username = "TEST", roles = "USER")
+  void 宿泊者の出力_対応していない形式の場合400が帰ってくること() throws Exception {
+    mockMvc.perform(get("/export/guests").param("format", "XML"))
+        .andExpect(status().isBadRequest());
+
+    verify(exporter, times(0)).exportGuests(any(Authentication.class), any(), any());
+  }
+
   @Test
   @WithMockUser(username = "TEST", roles = "USER")
   void 宿泊プランの登録_宿泊プランが登録できること() throws Exception {
@@ -191,7 +619,8 @@ class HotelControllerTest {
                     "name": "朝食付きプラン",
                     "description": "和洋朝食が選べるプラン",
                     "price": 10000,
-                    "available": true
+                    "available": true,
+                    "capacity": 5
                 }
                 """))
         .andExpect(status().isOk())
@@ -201,6 +630,96 @@ class HotelControllerTest {
         .registerBooking(any(Authentication.class), any());
   }
 
+  @Test
+  @WithMockUser(username = "TEST", roles = "USER")
+  void 宿泊プランの登録_受け入れ可能数がない場合400が帰ってくること() throws Exception {
+    mockMvc.perform(put(("/booking/register"))
+            .with(csrf())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("""
+                {
+                    "name": "朝食付きプラン",
+                    "price": 10000
+                }
+                """))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.capacity").value("受け入れ可能数は必須です"));
+
+    verify(service, times(0))
+        .registerBooking(any(Authentication.class), any());
+  }
+
+  @Test
+  @WithMockUser(username = "TEST", roles = "USER")
+  void 部屋の登録_部屋が登録できること() throws Exception {
+    mockMvc.perform(put("/room/register")
+            .with(csrf())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("""
+                {
+                    "bookingId": "aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa",
+                    "name": "101"
+                }
+                """))
+        .andExpect(status().isOk())
+        .andExpect(content().string("部屋の登録が完了しました。"));
+
+    verify(service, times(1))
+        .registerRoom(any(Authentication.class), any());
+  }
+
+  @Test
+  @WithMockUser(username = "TEST", roles = "USER")
+  void 部屋の登録_宿泊プランが見つからない場合404が帰ってくること() throws Exception {
+    doThrow(new BookingNotFoundException("宿泊プランが見つかりません"))
+        .when(service).registerRoom(any(Authentication.class), any());
+
+    mockMvc.perform(put("/room/register")
+            .with(csrf())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("""
+                {
+                    "bookingId": "aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa",
+                    "name": "101"
+                }
+                """))
+        .andExpect(status().isNotFound())
+        .andExpect(jsonPath("$.bookingId").value("宿泊プランが見つかりません"));
+  }
+
+  @Test
+  @WithMockUser(username = "TEST", roles = "USER")
+  void 部屋の登録_部屋名がない場合400が帰ってくること() throws Exception {
+    mockMvc.perform(put("/room/register")
+            .with(csrf())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("""
+                {"bookingId": "aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa"}
+                """))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.name").value("部屋名は必須です"));
+  }
+
+  @Test
+  @WithMockUser(username = "TEST", roles = "USER")
+  void 部屋の自動割り当て_割り当てた部屋と割り当てなかった予約が帰ってくること() throws Exception {
+    RoomAssignmentResult result = new RoomAssignmentResult();
+    RoomAssignment assignment = new RoomAssignment();
+    assignment.setReservationId("r1");
+    assignment.setRoomId("a0000101-aaaa-4aaa-8aaa-aaaaaaaa0101");
+    assignment.setRoomName("101");
+    result.getAssigned().add(assignment);
+    result.getUnassignedIds().add("r2");
+    when(service.assignRooms(any(Authentication.class), any(LocalDate.class)))
+        .thenReturn(result);
+
+    mockMvc.perform(put("/room/assign").with(csrf()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.assigned[0].reservationId").value("r1"))
+        .andExpect(jsonPath("$.assigned[0].roomName").value("101"))
+        .andExpect(jsonPath("$.unassignedIds[0]").value("r2"));
+  }
+
   @Test
   @WithMockUser(username = "TEST", roles = "USER")
   void 宿泊者の変更_宿泊者が変更できているかの確認() throws Exception {
@@ -275,6 +794,9 @@ class HotelControllerTest {
   void チェックイン処理_チェックイン完了のメッセージが返ってくること() throws Exception {
     String id = "dummy-id-123";
     String name = "山田";
+    when(service.checkIn(any(Authentication.class), eq(id))).thenReturn(
+        ReservationTransitions.succeeded(id, ReservationAction.CHECK_IN,
+            ReservationStatus.NOT_CHECKED_IN, ReservationStatus.CHECKED_IN));
 
     mockMvc.perform(
             put("/guest/checkIn")
@@ -288,11 +810,63 @@ class HotelControllerTest {
         .checkIn(any(Authentication.class), anyString());
   }
 
+  @Test
+  @WithMockUser(username = "TEST", roles = "USER")
+  void チェックイン処理_既にチェックイン済みの場合409が帰ってくること() throws Exception {
+    when(service.checkIn(any(Authentication.class), eq("dummy-id-123")))
+        .thenReturn(ReservationTransitions.rejected("dummy-id-123", ReservationAction.CHECK_IN));
+
+    mockMvc.perform(
+            put("/guest/checkIn")
+                .with(csrf())
+                .param("id", "dummy-id-123")
+                .param("name", "山田"))
+        .andExpect(status().isConflict())
+        .andExpect(content().string("未チェックインの予約のみチェックイン可能です"));
+  }
+
+  @Test
+  @WithMockUser(username = "TEST", roles = "USER")
+  void 一括チェックイン処理_更新した予約と更新しなかった予約が帰ってくること() throws Exception {
+    ReservationBulkStatusResult result = new ReservationBulkStatusResult();
+    result.getMovedIds().add("r1");
+    result.getSkippedIds().add("r2");
+    when(service.checkInAll(any(Authentication.class), eq(List.of("r1", "r2"))))
+        .thenReturn(result);
+
+    mockMvc.perform(put("/guest/checkIn/bulk")
+            .with(csrf())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("""
+                {"reservationIds": ["r1", "r2"]}
+                """))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.movedIds[0]").value("r1"))
+        .andExpect(jsonPath("$.skippedIds[0]").value("r2"));
+  }
+
+  @Test
+  @WithMockUser(username = "TEST", roles = "USER")
+  void 一括チェックアウト処理_宿泊予約IDが空の場合400が帰ってくること() throws Exception {
+    mockMvc.perform(put("/guest/checkOut/bulk")
+            .with(csrf())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("""
+                {"reservationIds": []}
+                """))
+        .andExpect(status().isBadRequest());
+
+    verify(service, times(0)).checkOutAll(any(Authentication.class), any());
+  }
+
   @Test
   @WithMockUser(username = "TEST", roles = "USER")
   void チェックアウト処理_チェックアウト完了のメッセージが帰ってくること() throws Exception {
     String id = "dummy-id-123";
     String name = "山田";
+    when(service.checkOut(any(Authentication.class), eq(id))).thenReturn(
+        ReservationTransitions.succeeded(id, ReservationAction.CHECK_OUT,
+            ReservationStatus.CHECKED_IN, ReservationStatus.CHECKED_OUT));
 
     mockMvc.perform(
             put("/guest/checkOut")
@@ -306,6 +880,40 @@ class HotelControllerTest {
         .checkOut(any(Authentication.class), anyString());
   }
 
+  @Test
+  @WithMockUser(username = "TEST", roles = "USER")
+  void 宿泊予約のステータス変更_予約ごとの結果が帰ってくること() throws Exception {
+    when(service.changeStatusAll(any(Authentication.class), eq(List.of("r1")),
+        eq(ReservationAction.CANCEL))).thenReturn(List.of(
+        ReservationTransitions.succeeded("r1", ReservationAction.CANCEL,
+            ReservationStatus.NOT_CHECKED_IN, ReservationStatus.CANCELLED)));
+
+    mockMvc.perform(put("/reservation/status")
+            .with(csrf())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("""
+                {"action": "CANCEL", "reservationIds": ["r1"]}
+                """))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].reservationId").value("r1"))
+        .andExpect(jsonPath("$[0].success").value(true))
+        .andExpect(jsonPath("$[0].to").value("CANCELLED"));
+  }
+
+  @Test
+  @WithMockUser(username = "TEST", roles = "USER")
+  void 宿泊予約のステータス変更_操作がない場合400が帰ってくること() throws Exception {
+    mockMvc.perform(put("/reservation/status")
+            .with(csrf())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("""
+                {"reservationIds": ["r1"]}
+                """))
+        .andExpect(status().isBadRequest());
+
+    verify(service, times(0)).changeStatusAll(any(Authentication.class), any(), any());
+  }
+
   @Test
   @WithMockUser(username = "TEST", roles = "USER")
   void ユーザーの登録処理_登録完了のメッセージが返ってくるか確認() throws Exception {
@@ -2,17 +2,40 @@ package com.portfolio.hotel.management.repository;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 
 import com.portfolio.hotel.management.data.booking.Booking;
 import com.portfolio.hotel.management.data.guest.Guest;
+import com.portfolio.hotel.management.data.guest.GuestDetail;
 import com.portfolio.hotel.management.data.guest.GuestMatch;
+import com.portfolio.hotel.management.data.guest.GuestPageCursor;
 import com.portfolio.hotel.management.data.guest.GuestSearchCondition;
+import com.portfolio.hotel.management.data.guest.GuestSummary;
+import com.portfolio.hotel.management.data.report.DailyStats;
 import com.portfolio.hotel.management.data.reservation.Reservation;
 import com.portfolio.hotel.management.data.reservation.ReservationStatus;
+import com.portfolio.hotel.management.data.room.Room;
 import com.portfolio.hotel.management.data.user.User;
+import com.portfolio.hotel.management.service.converter.GuestMatchKey;
 import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import javax.sql.DataSource;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.scripting.defaults.DefaultParameterHandler;
+import org.apache.ibatis.session.SqlSessionFactory;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -27,6 +50,12 @@ class HotelRepositoryTest {
   @Autowired
   HotelRepository sut;
 
+  @Autowired
+  SqlSessionFactory sqlSessionFactory;
+
+  @Autowired
+  DataSource dataSource;
+
 
   @Nested
   @DisplayName("宿泊者の全件検索")
@@ -49,6 +78,85 @@ class HotelRepositoryTest {
   }
 
 
+  @Nested
+  @DisplayName("全ユーザーの宿泊者名の検索")
+  class findAllGuestName {
+
+    @Test
+    void 索引の作成に必要な項目が取得できる() {
+      List<Guest> actual = sut.findAllGuestName();
+
+      assertThat(actual).hasSize(13);
+      assertThat(actual)
+          .allSatisfy(guest -> {
+            assertThat(guest.getId()).isNotNull();
+            assertThat(guest.getKanaName()).isNotNull();
+            assertThat(guest.getPhone()).isNotNull();
+            assertThat(guest.getUserId()).isEqualTo("testuser01");
+          });
+    }
+  }
+
+  @Nested
+  @DisplayName("ユーザーの宿泊者名の検索")
+  class findGuestName {
+
+    @Test
+    void ユーザーの宿泊者の名前とかな名が取得できる() {
+      List<Guest> actual = sut.findGuestName("testuser01");
+
+      assertThat(actual).hasSize(13);
+      assertThat(actual)
+          .allSatisfy(guest -> {
+            assertThat(guest.getId()).isNotNull();
+            assertThat(guest.getName()).isNotNull();
+            assertThat(guest.getKanaName()).isNotNull();
+            assertThat(guest.getUserId()).isEqualTo("testuser01");
+          });
+    }
+
+    @Test
+    void ユーザー名が一致しない場合_空のリストが返る() {
+      List<Guest> actual = sut.findGuestName("not-exist");
+
+      assertThat(actual).isEmpty();
+    }
+  }
+
+
+  @Nested
+  @DisplayName("宿泊者の属性別の集計用の検索")
+  class findAllGuestProfile {
+
+    @Test
+    void 全ての宿泊者の性別_年齢_地域が取得できる() {
+      List<Guest> actual = sut.findAllGuestProfile();
+
+      assertThat(actual).hasSize(13);
+      assertThat(actual)
+          .filteredOn(guest -> guest.getId().equals("11111111-1111-1111-1111-111111111111"))
+          .extracting(Guest::getGender, Guest::getAge, Guest::getRegion, Guest::getUserId)
+          .containsExactly(tuple("女性", 28, "東京", "testuser01"));
+    }
+
+    @Test
+    void キャンセルを含む全ての宿泊予約が宿泊者IDとともに取得できる() {
+      List<Reservation> actual = sut.findAllReservationGuest();
+
+      assertThat(actual)
+          .filteredOn(reservation -> reservation.getId()
+              .equals("aaaa0007-aaaa-4aaa-8aaa-aaaa00000007"))
+          .extracting(Reservation::getGuestId, Reservation::getStatus)
+          .containsExactly(
+              tuple("44444444-4444-4444-4444-444444444444", ReservationStatus.CANCELLED));
+      assertThat(actual).allSatisfy(reservation -> {
+        assertThat(reservation.getGuestId()).isNotNull();
+        assertThat(reservation.getCheckInDate()).isNotNull();
+      });
+    }
+  }
+
+
   @Nested
   @DisplayName("宿泊プランの全件検索")
   class findAllBooking {
@@ -69,6 +177,178 @@ class HotelRepositoryTest {
     }
   }
 
+  @Nested
+  @DisplayName("空き状況用の宿泊期間の検索")
+  class findReservationStay {
+
+    @Test
+    void 全ユーザーのキャンセルを含む全ての宿泊予約の宿泊期間が取得できる() {
+      List<Reservation> actual = sut.findAllReservationStay();
+
+      // キャンセルの宿泊予約も取り消しに備えて取得される
+      assertThat(actual)
+          .extracting(Reservation::getId)
+          .contains("11111111-aaaa-4bbb-8ccc-111111111111", "aaaa0011-aaaa-4aaa-8aaa-aaaa00000011",
+              "aaaa0007-aaaa-4aaa-8aaa-aaaa00000007");
+      Reservation stay = actual.stream()
+          .filter(reservation -> reservation.getId()
+              .equals("11111111-aaaa-4bbb-8ccc-111111111111"))
+          .findFirst()
+          .orElseThrow();
+      assertThat(stay.getBookingId()).isEqualTo("aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa");
+      assertThat(stay.getCheckInDate()).isEqualTo(LocalDate.of(2025, 7, 23));
+      assertThat(stay.getCheckOutDate()).isEqualTo(LocalDate.of(2025, 7, 27));
+      assertThat(stay.getUserId()).isEqualTo("testuser01");
+    }
+
+    @Test
+    void 宿泊プランの期間にかかる宿泊予約だけが取得できる() {
+      List<Reservation> actual = sut.findReservationStayByBooking("testuser01",
+          "aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa", LocalDate.of(2025, 9, 22),
+          LocalDate.of(2025, 9, 22));
+
+      assertThat(actual)
+          .extracting(Reservation::getId)
+          .containsExactlyInAnyOrder("aaaa0001-aaaa-4aaa-8aaa-aaaa00000001",
+              "aaaa0005-aaaa-4aaa-8aaa-aaaa00000005", "aaaa0012-aaaa-4aaa-8aaa-aaaa00000012");
+    }
+
+    @Test
+    void ユーザーIDが一致しない場合_空のリストが返る() {
+      List<Reservation> actual = sut.findReservationStayByBooking("not-exist",
+          "aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa", LocalDate.of(2025, 9, 22),
+          LocalDate.of(2025, 9, 22));
+
+      assertThat(actual).isEmpty();
+    }
+  }
+
+  @Nested
+  @DisplayName("部屋の検索と割り当て")
+  class room {
+
+    private static final String RESERVATION_ID = "11111111-aaaa-4bbb-8ccc-111111111111";
+    private static final String ROOM_ID = "a0000101-aaaa-4aaa-8aaa-aaaaaaaa0101";
+
+    @Test
+    void ユーザーの部屋が部屋名順に取得できる() {
+      assertThat(sut.findAllRoom("testuser01"))
+          .extracting(Room::getName, Room::getBookingId)
+          .containsExactly(
+              tuple("101", "aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa"),
+              tuple("102", "aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa"),
+              tuple("201", "bbbbbbbb-bbbb-4bbb-8bbb-bbbbbbbbbbbb"),
+              tuple("202", "bbbbbbbb-bbbb-4bbb-8bbb-bbbbbbbbbbbb"));
+      assertThat(sut.lockAllRoom("testuser01")).hasSize(4);
+      assertThat(sut.findAllRoom("not-exist")).isEmpty();
+    }
+
+    @Test
+    void 部屋が登録できる() {
+      Room room = new Room();
+      room.setId("a0000103-aaaa-4aaa-8aaa-aaaaaaaa0103");
+      room.setBookingId("aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa");
+      room.setName("103");
+      room.setUserId("testuser01");
+
+      sut.insertRoom(room);
+
+      assertThat(sut.findAllRoom("testuser01"))
+          .extracting(Room::getId)
+          .contains("a0000103-aaaa-4aaa-8aaa-aaaaaaaa0103");
+    }
+
+    @Test
+    void 割り当てた部屋が宿泊期間中の割り当て状況として取得できる() {
+      sut.updateReservationRoom(RESERVATION_ID, "testuser01", ROOM_ID);
+
+      assertThat(sut.findReservationById(RESERVATION_ID, "testuser01").getRoomId())
+          .isEqualTo(ROOM_ID);
+      assertThat(sut.findRoomOccupancy("testuser01", LocalDate.of(2025, 7, 24)))
+          .extracting(Reservation::getId, Reservation::getRoomId)
+          .containsExactly(tuple(RESERVATION_ID, ROOM_ID));
+      // チェックアウト日には部屋は空いている
+      assertThat(sut.findRoomOccupancy("testuser01", LocalDate.of(2025, 7, 27))).isEmpty();
+    }
+
+    @Test
+    void ユーザーIDが一致しない場合_割り当てられない() {
+      sut.updateReservationRoom(RESERVATION_ID, "not-exist", ROOM_ID);
+
+      assertThat(sut.findRoomOccupancy("testuser01", LocalDate.of(2025, 7, 24))).isEmpty();
+    }
+  }
+
+
+  @Nested
+  @DisplayName("日別・宿泊プラン別の集計")
+  class dailyStats {
+
+    private static final String PLAN_A = "aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa";
+    private static final String PLAN_B = "bbbbbbbb-bbbb-4bbb-8bbb-bbbbbbbbbbbb";
+
+    @Test
+    void 登録済みの宿泊予約の分の集計が作成されている() {
+      LocalDate date = LocalDate.of(2025, 9, 22);
+
+      assertThat(sut.findDailyStats("testuser01", date, date))
+          .extracting(DailyStats::getBookingId, DailyStats::getRoomsSold, DailyStats::getRevenue)
+          .containsExactly(
+              tuple(PLAN_A, 3, new BigDecimal("30000.00")),
+              tuple(PLAN_B, 2, new BigDecimal("14000.00")));
+    }
+
+    @Test
+    void 同じ日と宿泊プランの差分は既存の行に加えられる() {
+      LocalDate date = LocalDate.of(2025, 8, 1);
+
+      sut.addDailyStats("testuser01", List.of(createStats(date, PLAN_A, 2, "20000.00")));
+      sut.addDailyStats("testuser01", List.of(createStats(date, PLAN_A, -1, "-7500.50")));
+
+      assertThat(sut.findDailyStats("testuser01", date, date))
+          .extracting(DailyStats::getBookingId, DailyStats::getRoomsSold, DailyStats::getRevenue)
+          .containsExactly(tuple(PLAN_A, 1, new BigDecimal("12499.50")));
+    }
+
+    @Test
+    void 期間内のユーザーの集計が日付と宿泊プランID順に取得できる() {
+      LocalDate date = LocalDate.of(2025, 8, 1);
+      sut.addDailyStats("testuser01", List.of(
+          createStats(date.plusDays(1), PLAN_A, 1, "10000.00"),
+          createStats(date, PLAN_B, 1, "8000.00"),
+          createStats(date, PLAN_A, 1, "10000.00"),
+          createStats(date.plusDays(2), PLAN_A, 1, "10000.00")));
+      sut.addDailyStats("testuser02", List.of(createStats(date, PLAN_A, 5, "50000.00")));
+
+      assertThat(sut.findDailyStats("testuser01", date, date.plusDays(1)))
+          .extracting(DailyStats::getStayDate, DailyStats::getBookingId, DailyStats::getRoomsSold)
+          .containsExactly(
+              tuple(date, PLAN_A, 1),
+              tuple(date, PLAN_B, 1),
+              tuple(date.plusDays(1), PLAN_A, 1));
+    }
+
+    @Test
+    void 行ロック付きで宿泊予約が取得でき_ユーザーIDが一致しない場合はnullになる() {
+      Reservation actual = sut.lockReservationById("11111111-aaaa-4bbb-8ccc-111111111111",
+          "testuser01");
+
+      assertThat(actual.getBookingId()).isEqualTo(PLAN_A);
+      assertThat(actual.getTotalPrice()).isEqualByComparingTo("20000.00");
+      assertThat(sut.lockReservationById("11111111-aaaa-4bbb-8ccc-111111111111", "not-exist"))
+          .isNull();
+    }
+
+    private DailyStats createStats(LocalDate stayDate, String bookingId, int roomsSold,
+        String revenue) {
+      DailyStats stats = new DailyStats();
+      stats.setStayDate(stayDate);
+      stats.setBookingId(bookingId);
+      stats.setRoomsSold(roomsSold);
+      stats.setRevenue(new BigDecimal(revenue));
+      return stats;
+    }
+  }
 
   @Nested
   @DisplayName("宿泊予約の全件検索")
@@ -92,6 +372,59 @@ class HotelRepositoryTest {
   }
 
 
+  @Nested
+  @DisplayName("宿泊者の出力")
+  class exportGuest {
+
+    @Test
+    void ユーザーの宿泊者をかな名順に1件ずつ読み込める() throws Exception {
+      List<Guest> actual = new ArrayList<>();
+      try (Cursor<Guest> cursor = sut.exportGuest("testuser01")) {
+        cursor.forEach(actual::add);
+      }
+
+      assertThat(actual).hasSize(13);
+      assertThat(actual)
+          .extracting(Guest::getName)
+          .startsWith("石井舞", "加藤亮", "小林翔", "佐々木優子");
+      assertThat(actual)
+          .allSatisfy(guest -> assertThat(guest.getEmail()).isNotNull());
+    }
+
+    @Test
+    void ユーザーIDが一致しなかった場合_1件も読み込まれない() throws Exception {
+      try (Cursor<Guest> cursor = sut.exportGuest("not-exist")) {
+        assertThat(cursor.iterator().hasNext()).isFalse();
+      }
+    }
+  }
+
+
+  @Nested
+  @DisplayName("宿泊予約の出力")
+  class exportReservation {
+
+    @Test
+    void ユーザーの宿泊予約をチェックイン日順に1件ずつ読み込める() throws Exception {
+      List<Reservation> actual = new ArrayList<>();
+      try (Cursor<Reservation> cursor = sut.exportReservation("testuser01")) {
+        cursor.forEach(actual::add);
+      }
+
+      assertThat(actual)
+          .extracting(Reservation::getId)
+          .containsExactlyInAnyOrderElementsOf(sut.findAllReservation("testuser01").stream()
+              .map(Reservation::getId)
+              .toList());
+      assertThat(actual)
+          .extracting(Reservation::getCheckInDate)
+          .isSorted();
+      assertThat(actual)
+          .allSatisfy(reservation -> assertThat(reservation.getStatus()).isNotNull());
+    }
+  }
+
+
   @Nested
   @DisplayName("本日チェックイン予定の宿泊者を検索")
   class findGuestsTodayCheckIn {
@@ -264,21 +597,288 @@ class HotelRepositoryTest {
   }
 
 
+  @Nested
+  @DisplayName("宿泊者情報の全件検索")
+  class findAllGuestDetail {
+
+    @Test
+    void 宿泊予約と宿泊プランを含む宿泊者情報が1回の検索で取得できる() {
+      List<GuestDetail> actual = sut.findAllGuestDetail("testuser01");
+
+      assertThat(actual).hasSize(13);
+      GuestDetail hanako = actual.stream()
+          .filter(detail -> detail.getGuest().getName().equals("佐藤花子"))
+          .findFirst()
+          .orElseThrow();
+      assertThat(hanako.getReservations())
+          .extracting(Reservation::getId)
+          .containsExactlyInAnyOrder("11111111-aaaa-4bbb-8ccc-111111111111",
+              "aaaa0011-aaaa-4aaa-8aaa-aaaa00000011");
+      assertThat(hanako.getBookings())
+          .extracting(Booking::getName)
+          .containsExactly("朝食付きプラン");
+    }
+
+    @Test
+    void ユーザーIDが一致しなかった場合_空のリストが返る() {
+      List<GuestDetail> actual = sut.findAllGuestDetail("not-exist");
+      assertThat(actual).isEmpty();
+    }
+  }
+
+
+  @Nested
+  @DisplayName("本日チェックイン予定の宿泊者情報を検索")
+  class findGuestDetailTodayCheckIn {
+
+    @Test
+    void 本日チェックイン予定の宿泊予約だけを含む宿泊者情報が取得できる() {
+      List<GuestDetail> actual = sut.findGuestDetailTodayCheckIn(
+          "testuser01", LocalDate.of(2025, 7, 24));
+
+      assertThat(actual)
+          .extracting(detail -> detail.getGuest().getName())
+          .containsExactly("田中太郎");
+      assertThat(actual.getFirst().getReservations())
+          .extracting(Reservation::getId)
+          .containsExactly("22222222-bbbb-4ccc-8ddd-222222222222");
+      assertThat(actual.getFirst().getBookings())
+          .extracting(Booking::getName)
+          .containsExactly("素泊まりプラン");
+    }
+
+    @Test
+    void 日付が一致しない場合_空のリストが返る() {
+      List<GuestDetail> actual = sut.findGuestDetailTodayCheckIn(
+          "testuser01", LocalDate.of(2020, 1, 1));
+
+      assertThat(actual).isEmpty();
+    }
+  }
+
+
+  @Nested
+  @DisplayName("現在宿泊中の宿泊者情報を検索")
+  class findGuestDetailStayNow {
+
+    @Test
+    void チェックイン中の宿泊予約を持つ宿泊者情報が取得できる() {
+      List<GuestDetail> actual = sut.findGuestDetailStayNow("testuser01");
+
+      assertThat(actual)
+          .extracting(detail -> detail.getGuest().getName())
+          .containsExactlyInAnyOrder("佐藤花子", "加藤亮", "佐々木優子", "森田悠斗");
+      assertThat(actual)
+          .flatExtracting(GuestDetail::getReservations)
+          .extracting(Reservation::getStatus)
+          .containsOnly(ReservationStatus.CHECKED_IN);
+    }
+
+    @Test
+    void ユーザ名が一致しない場合_空のリストが返る() {
+      List<GuestDetail> actual = sut.findGuestDetailStayNow("not-exist");
+      assertThat(actual).isEmpty();
+    }
+  }
+
+
+  @Nested
+  @DisplayName("本日チェックアウト予定の宿泊者情報を検索")
+  class findGuestDetailTodayCheckOut {
+
+    @Test
+    void 本日チェックアウト予定の宿泊者情報が取得できる() {
+      List<GuestDetail> actual = sut.findGuestDetailTodayCheckOut(
+          "testuser01", LocalDate.of(2025, 7, 27));
+
+      assertThat(actual)
+          .extracting(detail -> detail.getGuest().getName())
+          .containsExactly("佐藤花子");
+      assertThat(actual.getFirst().getReservations())
+          .extracting(Reservation::getId)
+          .containsExactly("11111111-aaaa-4bbb-8ccc-111111111111");
+    }
+
+    @Test
+    void ユーザ名が一致しない場合_空のリストが返る() {
+      List<GuestDetail> actual = sut.findGuestDetailTodayCheckOut(
+          "not-exist", LocalDate.of(2025, 7, 27));
+
+      assertThat(actual).isEmpty();
+    }
+  }
+
+
+  @Nested
+  @DisplayName("一覧画面用の宿泊者の検索")
+  class findGuestSummary {
+
+    @Test
+    void 全宿泊者がかな名順に取得でき_本日にかかる宿泊予約の状況と宿泊プラン名が含まれる() {
+      List<GuestSummary> actual = sut.findAllGuestSummary("testuser01", LocalDate.of(2025, 7, 24));
+
+      assertThat(actual)
+          .extracting(GuestSummary::getKanaName)
+          .isSorted();
+      assertThat(actual)
+          .filteredOn(summary -> summary.getName().equals("田中太郎"))
+          .extracting(GuestSummary::getReservationId, GuestSummary::getStatus,
+              GuestSummary::getBookingName)
+          .containsExactly(tuple("22222222-bbbb-4ccc-8ddd-222222222222",
+              ReservationStatus.NOT_CHECKED_IN, "素泊まりプラン"));
+      assertThat(actual)
+          .filteredOn(summary -> summary.getReservationId() == null)
+          .allSatisfy(summary -> assertThat(summary.getBookingName()).isNull());
+    }
+
+    @Test
+    void 本日チェックイン予定の宿泊予約が宿泊プラン名付きで取得できる() {
+      List<GuestSummary> actual = sut.findGuestSummaryTodayCheckIn(
+          "testuser01", LocalDate.of(2025, 7, 24));
+
+      assertThat(actual)
+          .extracting(GuestSummary::getName, GuestSummary::getReservationId,
+              GuestSummary::getBookingName)
+          .containsExactly(tuple("田中太郎", "22222222-bbbb-4ccc-8ddd-222222222222",
+              "素泊まりプラン"));
+    }
+
+    @Test
+    void 現在宿泊中の宿泊予約だけが取得できる() {
+      List<GuestSummary> actual = sut.findGuestSummaryStayNow("testuser01");
+
+      assertThat(actual)
+          .extracting(GuestSummary::getName)
+          .containsExactlyInAnyOrder("佐藤花子", "加藤亮", "佐々木優子", "森田悠斗");
+      assertThat(actual)
+          .extracting(GuestSummary::getStatus)
+          .containsOnly(ReservationStatus.CHECKED_IN);
+    }
+
+    @Test
+    void 本日チェックアウト予定の宿泊予約が取得できる() {
+      List<GuestSummary> actual = sut.findGuestSummaryTodayCheckOut(
+          "testuser01", LocalDate.of(2025, 7, 27));
+
+      assertThat(actual)
+          .extracting(GuestSummary::getReservationId)
+          .containsExactly("11111111-aaaa-4bbb-8ccc-111111111111");
+    }
+
+    @Test
+    void ユーザ名が一致しない場合_空のリストが返る() {
+      assertThat(sut.findAllGuestSummary("not-exist", LocalDate.of(2025, 7, 24))).isEmpty();
+      assertThat(sut.findGuestSummaryStayNow("not-exist")).isEmpty();
+    }
+  }
+
+
+  @Nested
+  @DisplayName("宿泊者のページ取得")
+  class findGuestPage {
+
+    @Test
+    void 先頭ページはかな名順に件数より1件多く取得できる() {
+      List<Guest> actual = sut.findGuestPage("testuser01", GuestPageCursor.of(null, 3));
+
+      assertThat(actual)
+          .extracting(Guest::getName)
+          .containsExactly("石井舞", "加藤亮", "小林翔", "佐々木優子");
+    }
+
+    @Test
+    void ページトークンの宿泊者より後ろから取得できる() {
+      Guest last = sut.findGuestById("66666666-6666-6666-6666-666666666666", "testuser01");
+
+      List<Guest> actual = sut.findGuestPage("testuser01",
+          GuestPageCursor.of(GuestPageCursor.toPageToken(last), 3));
+
+      assertThat(actual)
+          .extracting(Guest::getName)
+          .containsExactly("佐々木優子", "佐藤花子", "鈴木健", "高橋桜");
+    }
+
+    @Test
+    void ユーザーIDが一致しなかった場合_空のリストが返る() {
+      List<Guest> actual = sut.findGuestPage("not-exist", GuestPageCursor.of(null, 3));
+      assertThat(actual).isEmpty();
+    }
+  }
+
+
+  @Nested
+  @DisplayName("現在宿泊中の宿泊者情報のページ取得")
+  class findGuestDetailPageStayNow {
+
+    @Test
+    void かな名順に件数より1件多く取得できる() {
+      List<GuestDetail> actual = sut.findGuestDetailPageStayNow("testuser01",
+          GuestPageCursor.of(null, 2));
+
+      assertThat(actual)
+          .extracting(detail -> detail.getGuest().getName())
+          .containsExactly("加藤亮", "佐々木優子", "佐藤花子");
+      assertThat(actual)
+          .flatExtracting(GuestDetail::getReservations)
+          .extracting(Reservation::getStatus)
+          .containsOnly(ReservationStatus.CHECKED_IN);
+    }
+  }
+
+
+  @Nested
+  @DisplayName("宿泊者の検索結果のページ取得")
+  class searchGuestPage {
+
+    @Test
+    void 検索条件に一致する宿泊者をかな名順に取得できる() {
+      GuestSearchCondition guestSearchCondition = new GuestSearchCondition();
+      guestSearchCondition.setKanaName("タ");
+      guestSearchCondition.setUserId("testuser01");
+
+      List<Guest> actual = sut.searchGuestPage(guestSearchCondition,
+          GuestPageCursor.of(null, 10));
+
+      assertThat(actual)
+          .extracting(Guest::getName)
+          .containsExactly("高橋桜", "森田悠斗", "山田毅", "渡辺美咲");
+    }
+  }
+
+
   @Nested
   @DisplayName("宿泊者の単一検索")
-  class searchGuest {
+  class searchGuestDetail {
 
     @Test
-    void 名前の部分一致で宿泊者が取得できる() {
+    void 名前の部分一致で宿泊者情報と全ての宿泊予約が取得できる() {
       GuestSearchCondition guestSearchCondition = new GuestSearchCondition();
       guestSearchCondition.setName("花子");
       guestSearchCondition.setUserId("testuser01");
 
-      List<Guest> actual = sut.searchGuest(guestSearchCondition);
+      List<GuestDetail> actual = sut.searchGuestDetail(guestSearchCondition);
 
       assertThat(actual)
-          .extracting(Guest::getName)
+          .extracting(detail -> detail.getGuest().getName())
           .containsExactlyInAnyOrder("佐藤花子");
+      assertThat(actual.getFirst().getReservations()).hasSize(2);
+    }
+
+    @Test
+    void 宿泊者IDの候補が指定された場合_候補の中から宿泊者が取得できる() {
+      GuestSearchCondition guestSearchCondition = new GuestSearchCondition();
+      guestSearchCondition.setName("一致しない名前");
+      guestSearchCondition.setGuestIdChunks(List.of(
+          List.of("11111111-1111-1111-1111-111111111111"),
+          List.of("22222222-2222-2222-2222-222222222222")));
+      guestSearchCondition.setUserId("testuser01");
+
+      List<GuestDetail> actual = sut.searchGuestDetail(guestSearchCondition);
+
+      // 削除済みの宿泊者は候補にあっても取得されない
+      assertThat(actual)
+          .extracting(detail -> detail.getGuest().getName())
+          .containsExactly("佐藤花子");
     }
 
     @Test
@@ -287,7 +887,7 @@ class HotelRepositoryTest {
       guestSearchCondition.setName("花子");
       guestSearchCondition.setUserId("not-exist");
 
-      List<Guest> actual = sut.searchGuest(guestSearchCondition);
+      List<GuestDetail> actual = sut.searchGuestDetail(guestSearchCondition);
 
       assertThat(actual).isEmpty();
     }
@@ -299,25 +899,26 @@ class HotelRepositoryTest {
       guestSearchCondition.setPhone("08098765432");
       guestSearchCondition.setUserId("testuser01");
 
-      List<Guest> actual = sut.searchGuest(guestSearchCondition);
+      List<GuestDetail> actual = sut.searchGuestDetail(guestSearchCondition);
 
       assertThat(actual)
-          .extracting(Guest::getName)
+          .extracting(detail -> detail.getGuest().getName())
           .containsExactlyInAnyOrder("佐藤花子");
     }
 
     @Test
-    void チェックイン日から一件の宿泊者が取得できる() {
+    void チェックイン日から一件の宿泊者情報が取得でき_他の日の宿泊予約も含まれる() {
       GuestSearchCondition guestSearchCondition = new GuestSearchCondition();
       guestSearchCondition.setName("佐藤花子");
       guestSearchCondition.setCheckInDate(LocalDate.of(2025, 7, 23));
       guestSearchCondition.setUserId("testuser01");
 
-      List<Guest> actual = sut.searchGuest(guestSearchCondition);
+      List<GuestDetail> actual = sut.searchGuestDetail(guestSearchCondition);
 
       assertThat(actual)
-          .extracting(Guest::getName)
+          .extracting(detail -> detail.getGuest().getName())
           .containsExactlyInAnyOrder("佐藤花子");
+      assertThat(actual.getFirst().getReservations()).hasSize(2);
     }
 
     @Test
@@ -327,7 +928,33 @@ class HotelRepositoryTest {
       guestSearchCondition.setCheckInDate(LocalDate.of(2025, 7, 24));
       guestSearchCondition.setUserId("TEST");
 
-      List<Guest> actual = sut.searchGuest(guestSearchCondition);
+      List<GuestDetail> actual = sut.searchGuestDetail(guestSearchCondition);
+
+      assertThat(actual).isEmpty();
+    }
+  }
+
+  @Nested
+  @DisplayName("宿泊者IDの一覧から宿泊予約を検索")
+  class findReservationByGuestIds {
+
+    @Test
+    void 指定した宿泊者の宿泊予約だけが取得できる() {
+      List<Reservation> actual = sut.findReservationByGuestIds("testuser01",
+          List.of("11111111-1111-1111-1111-111111111111",
+              "22222222-2222-2222-2222-222222222222"));
+
+      assertThat(actual)
+          .extracting(Reservation::getId)
+          .containsExactlyInAnyOrder("11111111-aaaa-4bbb-8ccc-111111111111",
+              "aaaa0011-aaaa-4aaa-8aaa-aaaa00000011",
+              "22222222-bbbb-4ccc-8ddd-222222222222");
+    }
+
+    @Test
+    void ユーザー名が一致しない場合_空のリストが返る() {
+      List<Reservation> actual = sut.findReservationByGuestIds("not-exist",
+          List.of("11111111-1111-1111-1111-111111111111"));
 
       assertThat(actual).isEmpty();
     }
@@ -344,6 +971,7 @@ class HotelRepositoryTest {
       guestMatch.setKanaName("サトウハナコ");
       guestMatch.setPhone("08098765432");
       guestMatch.setUserId("testuser01");
+      guestMatch.setMatchKey(GuestMatchKey.of("佐藤花子", "サトウハナコ", "08098765432"));
 
       Guest actual = sut.matchGuest(guestMatch);
 
@@ -351,6 +979,17 @@ class HotelRepositoryTest {
       assertThat(actual.getGender()).isEqualTo("女性");
     }
 
+    @Test
+    void ひらがな_全角数字_ハイフンの違いがあっても宿泊者を取得() {
+      GuestMatch guestMatch = new GuestMatch();
+      guestMatch.setUserId("testuser01");
+      guestMatch.setMatchKey(GuestMatchKey.of("佐藤 花子", "さとうはなこ", "０８０-９８７６-５４３２"));
+
+      Guest actual = sut.matchGuest(guestMatch);
+
+      assertThat(actual.getId()).isEqualTo("11111111-1111-1111-1111-111111111111");
+    }
+
     @Test
     void 完全一致しない場合_nullが帰ってくる() {
       GuestMatch guestMatch = new GuestMatch();
@@ -358,6 +997,7 @@ class HotelRepositoryTest {
       guestMatch.setKanaName("サトウハナコ");
       guestMatch.setPhone("08098765432");
       guestMatch.setUserId("testuser01");
+      guestMatch.setMatchKey(GuestMatchKey.of("佐藤華子", "サトウハナコ", "08098765432"));
 
       Guest actual = sut.matchGuest(guestMatch);
 
@@ -371,11 +1011,98 @@ class HotelRepositoryTest {
       guestMatch.setKanaName("サトウハナコ");
       guestMatch.setPhone("08098765432");
       guestMatch.setUserId("not-exist");
+      guestMatch.setMatchKey(GuestMatchKey.of("佐藤花子", "サトウハナコ", "08098765432"));
 
       Guest actual = sut.matchGuest(guestMatch);
 
       assertThat(actual).isNull();
     }
+
+    @Test
+    void 登録した宿泊者が完全一致検索用のキーで取得できる() {
+      Guest guest = getGuest();
+      guest.setId("dddd4444-dddd-4ddd-8ddd-dddddddddddd");
+      guest.setUserId("testuser01");
+      guest.setMatchKey(GuestMatchKey.of(guest.getName(), guest.getKanaName(), guest.getPhone()));
+      sut.insertGuest(guest);
+
+      GuestMatch guestMatch = new GuestMatch();
+      guestMatch.setUserId(guest.getUserId());
+      guestMatch.setMatchKey(guest.getMatchKey());
+
+      Guest actual = sut.matchGuest(guestMatch);
+
+      assertThat(actual.getId()).isEqualTo(guest.getId());
+    }
+
+    @Test
+    void 削除済みの宿泊者は取得されない() {
+      GuestMatch guestMatch = new GuestMatch();
+      guestMatch.setUserId("testuser01");
+      guestMatch.setMatchKey(GuestMatchKey.of("田中太郎", "タナカタロウ", "08011112222"));
+
+      assertThat(sut.matchGuest(guestMatch)).isNull();
+      assertThat(sut.matchGuestByKeys("testuser01", List.of(guestMatch.getMatchKey())))
+          .isEmpty();
+    }
+
+    @Test
+    void 同じキーの宿泊者が複数いる場合_ID順の最初の宿泊者が取得される() {
+      Guest guest = getGuest();
+      guest.setId("00000000-dddd-4ddd-8ddd-dddddddddddd");
+      guest.setName("佐藤花子");
+      guest.setKanaName("サトウハナコ");
+      guest.setUserId("testuser01");
+      guest.setMatchKey(GuestMatchKey.of("佐藤花子", "サトウハナコ", "08098765432"));
+      sut.insertGuest(guest);
+
+      GuestMatch guestMatch = new GuestMatch();
+      guestMatch.setUserId("testuser01");
+      guestMatch.setMatchKey(guest.getMatchKey());
+
+      assertThat(sut.matchGuest(guestMatch).getId()).isEqualTo(guest.getId());
+      assertThat(sut.matchGuestByKeys("testuser01", List.of(guest.getMatchKey())))
+          .extracting(Guest::getId)
+          .containsExactly(guest.getId(), "11111111-1111-1111-1111-111111111111");
+    }
+  }
+
+  @Nested
+  @DisplayName("完全一致検索用のキーの設定")
+  class updateGuestMatchKey {
+
+    @Test
+    void キーがない宿泊者にだけキーが設定される() {
+      Guest guest = getGuest();
+      guest.setId("dddd5555-dddd-4ddd-8ddd-dddddddddddd");
+      guest.setUserId("testuser01");
+      sut.insertGuest(guest);
+      String matchKey = GuestMatchKey.of(guest.getName(), guest.getKanaName(), guest.getPhone());
+
+      assertThat(sut.updateGuestMatchKey(guest.getId(), "testuser01", matchKey)).isEqualTo(1);
+      assertThat(sut.updateGuestMatchKey(guest.getId(), "testuser01", "other")).isZero();
+
+      assertThat(sut.findGuestById(guest.getId(), "testuser01").getMatchKey())
+          .isEqualTo(matchKey);
+    }
+  }
+
+  @Nested
+  @DisplayName("完全一致検索用のキーの一覧から宿泊者を検索")
+  class matchGuestByKeys {
+
+    @Test
+    void 指定したキーに一致する宿泊者だけが取得できる() {
+      List<Guest> actual = sut.matchGuestByKeys("testuser01",
+          List.of(GuestMatchKey.of("佐藤花子", "サトウハナコ", "08098765432"),
+              GuestMatchKey.of("高橋桜", "タカハシサクラ", "08088889999"),
+              GuestMatchKey.of("存在しない", "ソンザイシナイ", "00000000000")));
+
+      assertThat(actual)
+          .extracting(Guest::getId)
+          .containsExactlyInAnyOrder("11111111-1111-1111-1111-111111111111",
+              "55555555-5555-5555-5555-555555555555");
+    }
   }
 
   @Nested
@@ -455,58 +1182,6 @@ class HotelRepositoryTest {
     }
   }
 
-  @Nested
-  @DisplayName("宿泊プランIDから金額を検索")
-  class findTotalPriceById {
-
-    @Test
-    void IDから合計金額が取得できる() {
-      BigDecimal actual = sut.findTotalPriceById(
-          "aaaaaaa1-aaaa-aaaa-aaaa-aaaaaaaaaaaa", "testuser01");
-      assertThat(actual).isEqualTo(new BigDecimal("10000.00"));
-    }
-
-    @Test
-    void IDが一致しない場合_nullが帰ってくる() {
-      BigDecimal actual = sut.findTotalPriceById(
-          "aaaaaaa0-aaaa-aaaa-aaaa-aaaaaaaaaaaa", "testuser01");
-      assertThat(actual).isNull();
-    }
-
-    @Test
-    void ユーザー名が一致しない場合_nullが帰ってくる() {
-      BigDecimal actual = sut.findTotalPriceById(
-          "aaaaaaa1-aaaa-aaaa-aaaa-aaaaaaaaaaaa", "not-exist");
-      assertThat(actual).isNull();
-    }
-  }
-
-  @Nested
-  @DisplayName("宿泊予約IDから宿泊状態を検索")
-  class findStatusById {
-
-    @Test
-    void IDから宿泊状態が取得できる() {
-      ReservationStatus actual = sut.findStatusById("rsv00001-aaaa-bbbb-cccc-000000000001",
-          "testuser01");
-      assertThat(actual).isEqualTo(ReservationStatus.CHECKED_IN);
-    }
-
-    @Test
-    void IDが一致しない場合_nullが帰ってくる() {
-      ReservationStatus actual = sut.findStatusById("rsv00001-aaaa-bbbb-cccc-000000000000",
-          "testuser01");
-      assertThat(actual).isNull();
-    }
-
-    @Test
-    void ユーザー名が一致しない場合_nullが帰ってくる() {
-      ReservationStatus actual = sut.findStatusById("rsv00001-aaaa-bbbb-cccc-000000000001",
-          "not-exist");
-      assertThat(actual).isNull();
-    }
-  }
-
   @Nested
   @DisplayName("ユーザーIDからユーザー情報を検索")
   class findUserById {
@@ -570,6 +1245,18 @@ class HotelRepositoryTest {
           .containsExactlyInAnyOrder("朝食付きプラン", "素泊まりプラン", "夕食付きプラン");
     }
 
+    @Test
+    void 受け入れ可能数が登録されているか確認() {
+      Booking booking = getBooking();
+      booking.setId("aaaaaa11-aaaa-aaaa-aaaa-aaaaaaaaaaaa");
+      booking.setUserId("testuser01");
+      booking.setCapacity(8);
+      sut.insertBooking(booking);
+
+      Booking actual = sut.findBookingById("aaaaaa11-aaaa-aaaa-aaaa-aaaaaaaaaaaa", "testuser01");
+      assertThat(actual.getCapacity()).isEqualTo(8);
+    }
+
     @Test
     void すでに登録されたUUIDを登録しようとした場合_登録に失敗() {
       Booking booking = getBooking();
@@ -627,10 +1314,11 @@ class HotelRepositoryTest {
       update.setRegion("東京");
       update.setEmail("hanako@example.com");
       update.setPhone("07098765432");
-      sut.updateGuest(update, "testuser01");
+      int updated = sut.updateGuest(update, "testuser01");
 
       Guest actual = sut.findGuestById("11111111-1111-1111-1111-111111111111", "testuser01");
 
+      assertThat(updated).isEqualTo(1);
       assertThat(actual.getPhone()).isEqualTo("07098765432");
       assertThat(actual.getPhone()).isNotEqualTo(beforePhone);
     }
@@ -651,14 +1339,54 @@ class HotelRepositoryTest {
       update.setEmail("hanako@example.com");
       update.setPhone("07098765432");
 
-      sut.updateGuest(update, "not-exist");
+      int updated = sut.updateGuest(update, "not-exist");
 
       Guest actual = sut.findGuestById("11111111-1111-1111-1111-111111111111", "testuser01");
+      assertThat(updated).isZero();
       assertThat(actual).isNotNull();
       assertThat(actual.getPhone()).isEqualTo(beforePhone);
     }
   }
 
+  @Nested
+  @DisplayName("宿泊プランの変更")
+  class updateBooking {
+
+    private static final String PLAN_A = "aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa";
+
+    @Test
+    void 受け入れ可能数が更新されている() {
+      Booking update = sut.findBookingById(PLAN_A, "testuser01");
+      update.setCapacity(3);
+      sut.updateBooking(update, "testuser01");
+
+      assertThat(sut.findBookingById(PLAN_A, "testuser01").getCapacity()).isEqualTo(3);
+    }
+
+    @Test
+    void 受け入れ可能数が未指定の場合_登録済みの受け入れ可能数が変わらない() {
+      Booking update = sut.findBookingById(PLAN_A, "testuser01");
+      update.setName("朝食付きプラン（改定）");
+      update.setCapacity(null);
+      sut.updateBooking(update, "testuser01");
+
+      Booking actual = sut.findBookingById(PLAN_A, "testuser01");
+      assertThat(actual.getName()).isEqualTo("朝食付きプラン（改定）");
+      assertThat(actual.getCapacity()).isEqualTo(5);
+    }
+
+    @Test
+    void 他のユーザーの宿泊プランは更新されず_所有者も変わらない() {
+      Booking update = sut.findBookingById(PLAN_A, "testuser01");
+      update.setName("書き換え");
+      sut.updateBooking(update, "other-user");
+
+      Booking actual = sut.findBookingById(PLAN_A, "testuser01");
+      assertThat(actual.getName()).isNotEqualTo("書き換え");
+      assertThat(sut.findBookingById(PLAN_A, "other-user")).isNull();
+    }
+  }
+
   @Nested
   @DisplayName("宿泊予約の変更")
   class updateReservation {
@@ -681,6 +1409,21 @@ class HotelRepositoryTest {
       assertThat(actual.getMemo()).isNotEqualTo(beforeMemo);
     }
 
+    @Test
+    void ステータスは更新されない() {
+      Reservation before = sut.findReservationById("11111111-aaaa-4bbb-8ccc-111111111111",
+          "testuser01");
+      before.setMemo("更新");
+      before.setStatus(ReservationStatus.CANCELLED);
+      sut.updateReservation(before, "testuser01");
+
+      Reservation actual = sut.findReservationById("11111111-aaaa-4bbb-8ccc-111111111111",
+          "testuser01");
+
+      assertThat(actual.getMemo()).isEqualTo("更新");
+      assertThat(actual.getStatus()).isEqualTo(ReservationStatus.CHECKED_IN);
+    }
+
     @Test
     void IDが一致しない場合_備考欄が更新されない() {
       Reservation before = sut.findReservationById("rsv00001-aaaa-bbbb-cccc-000000000001",
@@ -775,48 +1518,58 @@ class HotelRepositoryTest {
   }
 
   @Nested
-  @DisplayName("チェックイン処理")
-  class checkIn {
+  @DisplayName("宿泊予約のステータスの一括更新")
+  class updateReservationStatusByIds {
 
     @Test
-    void ステータスがチェックインに変更されている() {
-      sut.checkIn("rsv00002-bbbb-cccc-dddd-000000000002", "testuser01");
-      Reservation actual = sut.findReservationById("rsv00002-bbbb-cccc-dddd-000000000002",
-          "testuser01");
+    void 存在する予約のIDとステータスだけが取得できる() {
+      List<Reservation> actual = sut.lockReservationStatusByIds("testuser01",
+          List.of("11111111-aaaa-4bbb-8ccc-111111111111", "22222222-bbbb-4ccc-8ddd-222222222222",
+              "not-exist"));
 
-      assertThat(actual.getStatus()).isEqualTo(ReservationStatus.CHECKED_IN);
+      assertThat(actual)
+          .extracting(Reservation::getId, Reservation::getStatus)
+          .containsExactlyInAnyOrder(
+              tuple("11111111-aaaa-4bbb-8ccc-111111111111", ReservationStatus.CHECKED_IN),
+              tuple("22222222-bbbb-4ccc-8ddd-222222222222", ReservationStatus.NOT_CHECKED_IN));
     }
 
     @Test
-    void ユーザーIDが一致しない場合_ステータスが変更されない() {
-      sut.checkIn("rsv00002-bbbb-cccc-dddd-000000000002", "not-exist");
-      Reservation actual = sut.findReservationById("rsv00002-bbbb-cccc-dddd-000000000002",
-          "testuser01");
+    void 更新前のステータスが一致する場合だけ1件更新される() {
+      assertThat(sut.updateReservationStatus("22222222-bbbb-4ccc-8ddd-222222222222",
+          "testuser01", ReservationStatus.CHECKED_IN, ReservationStatus.CHECKED_OUT)).isZero();
+      assertThat(sut.updateReservationStatus("22222222-bbbb-4ccc-8ddd-222222222222",
+          "testuser01", ReservationStatus.NOT_CHECKED_IN, ReservationStatus.NO_SHOW))
+          .isEqualTo(1);
 
-      assertThat(actual.getStatus()).isNotEqualTo(ReservationStatus.CHECKED_IN);
+      assertThat(sut.findReservationById("22222222-bbbb-4ccc-8ddd-222222222222", "testuser01")
+          .getStatus())
+          .isEqualTo(ReservationStatus.NO_SHOW);
     }
-  }
-
-  @Nested
-  @DisplayName("チェックアウト処理")
-  class checkOut {
 
     @Test
-    void ステータスがチェックアウトに変更されている() {
-      sut.checkOut("rsv00001-aaaa-bbbb-cccc-000000000001", "testuser01");
-      Reservation actual = sut.findReservationById("rsv00001-aaaa-bbbb-cccc-000000000001",
-          "testuser01");
+    void 更新前のステータスが一致する予約だけがまとめて更新される() {
+      int actual = sut.updateReservationStatusByIds("testuser01",
+          List.of("22222222-bbbb-4ccc-8ddd-222222222222", "33333333-bbbb-4ccc-8ddd-333333333333",
+              "11111111-aaaa-4bbb-8ccc-111111111111"),
+          ReservationStatus.NOT_CHECKED_IN, ReservationStatus.CHECKED_IN);
 
-      assertThat(actual.getStatus()).isEqualTo(ReservationStatus.CHECKED_OUT);
+      assertThat(actual).isEqualTo(2);
+      assertThat(sut.findReservationById("33333333-bbbb-4ccc-8ddd-333333333333", "testuser01")
+          .getStatus())
+          .isEqualTo(ReservationStatus.CHECKED_IN);
+      assertThat(sut.findReservationById("11111111-aaaa-4bbb-8ccc-111111111111", "testuser01")
+          .getStatus())
+          .isEqualTo(ReservationStatus.CHECKED_IN);
     }
 
     @Test
-    void ユーザーIDが一致しない場合_ステータスが変更されない() {
-      sut.checkOut("rsv00001-aaaa-bbbb-cccc-000000000001", "not-exist");
-      Reservation actual = sut.findReservationById("rsv00001-aaaa-bbbb-cccc-000000000001",
-          "testuser01");
+    void ユーザーIDが一致しない場合_更新されない() {
+      int actual = sut.updateReservationStatusByIds("not-exist",
+          List.of("22222222-bbbb-4ccc-8ddd-222222222222"),
+          ReservationStatus.NOT_CHECKED_IN, ReservationStatus.CHECKED_IN);
 
-      assertThat(actual.getStatus()).isNotEqualTo(ReservationStatus.CHECKED_OUT);
+      assertThat(actual).isZero();
     }
   }
 
@@ -837,6 +1590,104 @@ class HotelRepositoryTest {
     }
   }
 
+  @Nested
+  @DisplayName("検索SQLの実行計画")
+  class explainSelect {
+
+    // 起動時の索引作成のように全件を読むことが目的の検索
+    private final Set<String> fullScanAllowed = Set.of(
+        HotelRepository.class.getName() + ".findAllGuestName",
+        HotelRepository.class.getName() + ".findAllGuestProfile",
+        HotelRepository.class.getName() + ".findAllReservationGuest",
+        HotelRepository.class.getName() + ".findAllReservationStay");
+
+    @Test
+    void 全ての検索でテーブルのフルスキャンが発生しない() throws Exception {
+      Map<String, Object> parameter = getExplainParameter();
+      Map<String, String> fullScans = new TreeMap<>();
+
+      try (Connection connection = dataSource.getConnection()) {
+        for (MappedStatement statement : getSelectStatements()) {
+          if (fullScanAllowed.contains(statement.getId())) {
+            continue;
+          }
+          BoundSql boundSql = statement.getBoundSql(parameter);
+          try (PreparedStatement ps = connection.prepareStatement(
+              "EXPLAIN " + boundSql.getSql())) {
+            new DefaultParameterHandler(statement, parameter, boundSql).setParameters(ps);
+            try (ResultSet rs = ps.executeQuery()) {
+              rs.next();
+              String plan = rs.getString(1);
+              if (plan.contains("tableScan")) {
+                fullScans.put(statement.getId(), plan);
+              }
+            }
+          }
+        }
+      }
+
+      assertThat(fullScans).isEmpty();
+    }
+
+    @Test
+    void 検証対象にリポジトリの検索が全て含まれている() {
+      assertThat(getSelectStatements())
+          .extracting(MappedStatement::getId)
+          .contains(HotelRepository.class.getName() + ".searchGuestDetail",
+              HotelRepository.class.getName() + ".findGuestDetailPageStayNow",
+              HotelRepository.class.getName() + ".matchGuest");
+    }
+
+    private Set<MappedStatement> getSelectStatements() {
+      Set<MappedStatement> statements = new LinkedHashSet<>();
+      for (MappedStatement statement : sqlSessionFactory.getConfiguration()
+          .getMappedStatements()) {
+        if (statement.getSqlCommandType() == SqlCommandType.SELECT
+            && statement.getId().startsWith(HotelRepository.class.getName() + ".")) {
+          statements.add(statement);
+        }
+      }
+      return statements;
+    }
+
+    // 全ての動的条件が有効になるように検索条件を設定する
+    private Map<String, Object> getExplainParameter() {
+      GuestSearchCondition condition = new GuestSearchCondition();
+      condition.setName("花子");
+      condition.setKanaName("ハナコ");
+      condition.setPhone("08098765432");
+      condition.setCheckInDate(LocalDate.of(2025, 7, 23));
+      condition.setCheckOutDate(LocalDate.of(2025, 7, 27));
+      condition.setUserId("testuser01");
+
+      Guest last = new Guest();
+      last.setId("11111111-1111-1111-1111-111111111111");
+      last.setKanaName("サトウハナコ");
+
+      Map<String, Object> parameter = new HashMap<>();
+      parameter.put("id", "11111111-1111-1111-1111-111111111111");
+      parameter.put("userId", "testuser01");
+      parameter.put("today", LocalDate.of(2025, 7, 24));
+      parameter.put("name", condition.getName());
+      parameter.put("kanaName", condition.getKanaName());
+      parameter.put("phone", condition.getPhone());
+      parameter.put("checkInDate", condition.getCheckInDate());
+      parameter.put("checkOutDate", condition.getCheckOutDate());
+      parameter.put("guestIds", List.of("11111111-1111-1111-1111-111111111111"));
+      parameter.put("guestIdChunks", List.of(parameter.get("guestIds")));
+      parameter.put("matchKey", GuestMatchKey.of("佐藤花子", "サトウハナコ", "08098765432"));
+      parameter.put("matchKeys", List.of(parameter.get("matchKey")));
+      parameter.put("bookingIds", List.of("aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa"));
+      parameter.put("reservationIds", List.of("11111111-aaaa-4bbb-8ccc-111111111111"));
+      parameter.put("bookingId", "aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa");
+      parameter.put("from", LocalDate.of(2025, 7, 1));
+      parameter.put("to", LocalDate.of(2025, 7, 31));
+      parameter.put("condition", condition);
+      parameter.put("cursor", GuestPageCursor.of(GuestPageCursor.toPageToken(last), 10));
+      return parameter;
+    }
+  }
+
   // 生成用
   private Guest getGuest() {
     Guest guest = new Guest();
@@ -855,6 +1706,7 @@ class HotelRepositoryTest {
     booking.setName("夕食付きプラン");
     booking.setPrice(BigDecimal.valueOf(1000));
     booking.setDescription("");
+    booking.setCapacity(3);
 
     return booking;
   }
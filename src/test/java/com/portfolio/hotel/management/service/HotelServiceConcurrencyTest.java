@@ -0,0 +1,176 @@
+package com.portfolio.hotel.management.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.portfolio.hotel.management.data.guest.Guest;
+import com.portfolio.hotel.management.data.guest.GuestRegistration;
+import com.portfolio.hotel.management.data.reservation.ReservationStatus;
+import com.portfolio.hotel.management.exception.BookingFullException;
+import com.portfolio.hotel.management.repository.HotelRepository;
+import com.portfolio.hotel.management.service.index.BookingOccupancyIndex;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntPredicate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+// 複数の端末から同じ宿泊予約・宿泊プランを同時に操作した場合の確認（実際のDBに並列で更新を行う）
+@SpringBootTest(properties = "spring.datasource.url="
+    + "jdbc:h2:mem:concurrency-test;MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=30000")
+class HotelServiceConcurrencyTest {
+
+  private static final int ATTEMPTS = 300;
+
+  private static final String USER_ID = "testuser01";
+  private static final String RESERVATION_ID = "22222222-bbbb-4ccc-8ddd-222222222222";
+
+  @Autowired
+  private HotelService sut;
+
+  @Autowired
+  private HotelRepository repository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private final Authentication auth = new UsernamePasswordAuthenticationToken(USER_ID, "pass",
+      List.of(new SimpleGrantedAuthority("ROLE_USER")));
+
+  @BeforeEach
+  void before() {
+    jdbcTemplate.update("UPDATE reservation SET status = 'NOT_CHECKED_IN' WHERE id = ?",
+        RESERVATION_ID);
+  }
+
+  @Test
+  void 同じ予約に同時にチェックインした場合_1件だけが成功する() throws Exception {
+    assertThat(runConcurrently(i -> sut.checkIn(auth, RESERVATION_ID).isSuccess()))
+        .isEqualTo(1);
+    assertThat(repository.findReservationById(RESERVATION_ID, USER_ID).getStatus())
+        .isEqualTo(ReservationStatus.CHECKED_IN);
+  }
+
+  @Test
+  void 同じ予約に同時にチェックアウトした場合_1件だけが成功する() throws Exception {
+    sut.checkIn(auth, RESERVATION_ID);
+
+    assertThat(runConcurrently(i -> sut.checkOut(auth, RESERVATION_ID).isSuccess()))
+        .isEqualTo(1);
+    assertThat(repository.findReservationById(RESERVATION_ID, USER_ID).getStatus())
+        .isEqualTo(ReservationStatus.CHECKED_OUT);
+  }
+
+  @Test
+  void 同じ宿泊プランの同じ泊に同時に登録した場合_受け入れ可能数までだけが成功する()
+      throws Exception {
+    String bookingId = createBooking(5);
+    LocalDate checkInDate = LocalDate.of(2030, 1, 1);
+
+    int succeeded = runConcurrently(i -> register(bookingId, i, checkInDate, 2));
+
+    assertThat(succeeded).isEqualTo(5);
+    assertThat(countReservedNights(bookingId, checkInDate, checkInDate.plusDays(1)))
+        .containsExactly(5, 5);
+  }
+
+  @Test
+  void 宿泊期間が異なる登録を同時に行っても_どの泊も受け入れ可能数を超えない() throws Exception {
+    String bookingId = createBooking(7);
+    LocalDate first = LocalDate.of(2030, 2, 1);
+    Random random = new Random(20300201L);
+    int[] offsets = new int[ATTEMPTS];
+    int[] stayDays = new int[ATTEMPTS];
+    for (int i = 0; i < ATTEMPTS; i++) {
+      offsets[i] = random.nextInt(20);
+      stayDays[i] = 1 + random.nextInt(4);
+    }
+
+    int succeeded = runConcurrently(
+        i -> register(bookingId, i, first.plusDays(offsets[i]), stayDays[i]));
+
+    int[] reserved = countReservedNights(bookingId, first, first.plusDays(23));
+    assertThat(reserved).allSatisfy(count -> assertThat(count).isLessThanOrEqualTo(7));
+    assertThat(reserved).contains(7);
+    assertThat(repository.findReservationStayByBooking(USER_ID, bookingId, first,
+        first.plusDays(23))).hasSize(succeeded);
+  }
+
+  // 宿泊者と宿泊予約を登録し、満室の場合はfalseを返す
+  private boolean register(String bookingId, int i, LocalDate checkInDate, int stayDays) {
+    Guest guest = new Guest();
+    guest.setName("同時登録" + i);
+    guest.setKanaName("ドウジトウロク");
+    guest.setGender("女性");
+    guest.setAge(30);
+    guest.setRegion("東京");
+    guest.setEmail("guest" + i + "@example.com");
+    guest.setPhone(String.format("090%08d", i));
+    GuestRegistration registration = new GuestRegistration();
+    registration.setGuest(guest);
+    registration.setBookingId(bookingId);
+    registration.setCheckInDate(checkInDate);
+    registration.setStayDays(stayDays);
+    try {
+      sut.registerGuest(auth, registration);
+      return true;
+    } catch (BookingFullException e) {
+      return false;
+    }
+  }
+
+  private String createBooking(int capacity) {
+    String bookingId = UUID.randomUUID().toString();
+    jdbcTemplate.update("INSERT INTO booking (id, name, description, price, is_available, "
+            + "capacity, user_id) VALUES (?, '同時登録プラン', '', 10000, TRUE, ?, ?)",
+        bookingId, capacity, USER_ID);
+    return bookingId;
+  }
+
+  private int[] countReservedNights(String bookingId, LocalDate from, LocalDate to) {
+    return BookingOccupancyIndex.count(
+        repository.findReservationStayByBooking(USER_ID, bookingId, from, to), from, to);
+  }
+
+  // 全スレッドの準備ができてから一斉に実行し、成功した件数を返す
+  private int runConcurrently(IntPredicate operation) throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(ATTEMPTS);
+    CountDownLatch ready = new CountDownLatch(ATTEMPTS);
+    CountDownLatch start = new CountDownLatch(1);
+    try {
+      List<Future<Boolean>> results = new ArrayList<>();
+      for (int i = 0; i < ATTEMPTS; i++) {
+        int attempt = i;
+        results.add(executor.submit(() -> {
+          ready.countDown();
+          start.await();
+          return operation.test(attempt);
+        }));
+      }
+      ready.await();
+      start.countDown();
+
+      int succeeded = 0;
+      for (Future<Boolean> result : results) {
+        if (result.get()) {
+          succeeded++;
+        }
+      }
+      return succeeded;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
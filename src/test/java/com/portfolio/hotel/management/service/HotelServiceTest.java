@@ -2,34 +2,76 @@ package com.portfolio.hotel.management.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.portfolio.hotel.management.data.board.FrontDeskBoard;
+import com.portfolio.hotel.management.data.cache.CacheStats;
 import com.portfolio.hotel.management.data.guest.GuestMatch;
+import com.portfolio.hotel.management.data.guest.GuestPage;
+import com.portfolio.hotel.management.data.guest.GuestPageCursor;
 import com.portfolio.hotel.management.data.guest.GuestRegistration;
 import com.portfolio.hotel.management.data.guest.GuestSearchCondition;
+import com.portfolio.hotel.management.data.guest.GuestSuggestion;
+import com.portfolio.hotel.management.data.guest.GuestSummary;
+import com.portfolio.hotel.management.data.report.DailyReport;
+import com.portfolio.hotel.management.data.report.DailyStats;
+import com.portfolio.hotel.management.data.report.DemographicsCell;
+import com.portfolio.hotel.management.data.report.PlanDailyReport;
 import com.portfolio.hotel.management.data.reservation.ReservationStatus;
+import com.portfolio.hotel.management.data.reservation.ReservationTransitionResult;
 import com.portfolio.hotel.management.data.user.User;
+import com.portfolio.hotel.management.service.cache.BookingPlanCache;
+import com.portfolio.hotel.management.service.cache.GuestSearchCache;
+import com.portfolio.hotel.management.service.cache.SingleFlight;
+import com.portfolio.hotel.management.service.converter.GuestMatchKey;
 import com.portfolio.hotel.management.service.converter.HotelConverter;
+import com.portfolio.hotel.management.service.index.BookingOccupancyIndex;
+import com.portfolio.hotel.management.service.index.GuestKanaTrie;
+import com.portfolio.hotel.management.service.index.GuestNameIndex;
+import com.portfolio.hotel.management.service.report.GuestDemographicsCube;
 import com.portfolio.hotel.management.data.booking.Booking;
+import com.portfolio.hotel.management.data.booking.BookingAvailability;
+import com.portfolio.hotel.management.data.booking.DailyAvailability;
 import com.portfolio.hotel.management.data.guest.Guest;
 import com.portfolio.hotel.management.data.guest.GuestDetail;
 import com.portfolio.hotel.management.data.reservation.Reservation;
+import com.portfolio.hotel.management.data.reservation.ReservationAction;
+import com.portfolio.hotel.management.data.reservation.ReservationBulkStatusResult;
+import com.portfolio.hotel.management.data.room.Room;
+import com.portfolio.hotel.management.data.room.RoomAssignment;
+import com.portfolio.hotel.management.data.room.RoomAssignmentResult;
+import com.portfolio.hotel.management.exception.BookingFullException;
+import com.portfolio.hotel.management.exception.BookingNotFoundException;
+import com.portfolio.hotel.management.exception.InvalidDateRangeException;
+import com.portfolio.hotel.management.repository.HotelBatchSession;
 import com.portfolio.hotel.management.repository.HotelRepository;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -39,6 +81,9 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
 
 @ExtendWith(MockitoExtension.class)
 class HotelServiceTest {
@@ -49,39 +94,50 @@ class HotelServiceTest {
   @Mock
   private HotelConverter converter;
 
+  @Mock
+  private HotelBatchSession batchSession;
+
+  @Mock
+  private HotelRepository batchRepository;
+
+  private final GuestNameIndex guestNameIndex = new GuestNameIndex();
+
+  private final GuestKanaTrie guestKanaTrie = new GuestKanaTrie();
+
+  private final BookingOccupancyIndex bookingOccupancyIndex = new BookingOccupancyIndex();
+
+  private final GuestDemographicsCube guestDemographicsCube = new GuestDemographicsCube();
+
+  private final BookingPlanCache bookingPlanCache = new BookingPlanCache();
+  private final GuestSearchCache guestSearchCache = new GuestSearchCache();
+  private final SingleFlight singleFlight = new SingleFlight();
+
   @Test
-  void 宿泊者情報の全件検索_リポジトリとコンバーターが呼び出せている() {
-    HotelService sut = new HotelService(repository, converter);
+  void 宿泊者情報の全件検索_リポジトリが一度だけ呼び出せている() {
+    HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+        batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+        guestSearchCache, singleFlight);
     Authentication auth = getAuthentication();
     String userId = getUserId(auth);
 
-    List<Guest> guest = new ArrayList<>();
-    List<Booking> booking = new ArrayList<>();
-    List<Reservation> reservation = new ArrayList<>();
-    List<GuestDetail> converted = new ArrayList<>();
-
-    when(repository.findAllGuest(userId)).thenReturn(guest);
-    when(repository.findAllBooking(userId)).thenReturn(booking);
-    when(repository.findAllReservation(userId)).thenReturn(reservation);
-    when(converter.convertGuestDetail(guest, booking, reservation))
-        .thenReturn(converted);
+    List<GuestDetail> guestDetails = new ArrayList<>();
+    when(repository.findAllGuestDetail(userId)).thenReturn(guestDetails);
 
     List<GuestDetail> actual = sut.getAllGuest(auth);
 
-    verify(repository, times(1)).findAllGuest(userId);
-    verify(repository, times(1)).findAllBooking(userId);
-    verify(repository, times(1)).findAllReservation(userId);
-
-    verify(converter, times(1))
-        .convertGuestDetail(guest, booking, reservation);
+    verify(repository, times(1)).findAllGuestDetail(userId);
+    verify(repository, Mockito.never()).findAllBooking(anyString());
+    verify(repository, Mockito.never()).findAllReservation(anyString());
 
     assertNotNull(actual);
-    assertEquals(actual, converted);
+    assertEquals(guestDetails, actual);
   }
 
   @Test
   void 宿泊コースの全件検索_リポジトリが呼び出せている() {
-    HotelService sut = new HotelService(repository, converter);
+    HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+        batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+        guestSearchCache, singleFlight);
     Authentication auth = getAuthentication();
     String userId = getUserId(auth);
 
@@ -95,126 +151,490 @@ class HotelServiceTest {
   }
 
   @Test
-  void 本日チェックインの宿泊者の検索_リポジトリとコンバーターが呼び出せている() {
-    HotelService sut = new HotelService(repository, converter);
+  void 本日チェックインの宿泊者の検索_リポジトリが一度だけ呼び出せている() {
+    HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+        batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+        guestSearchCache, singleFlight);
     Authentication auth = getAuthentication();
     String userId = getUserId(auth);
 
     LocalDate today = LocalDate.of(2025, 7, 23);
 
-    List<Guest> guest = new ArrayList<>();
-    List<Booking> booking = new ArrayList<>();
-    List<Reservation> reservation = new ArrayList<>();
-    List<GuestDetail> converted = new ArrayList<>();
-
-    when(repository.findGuestsTodayCheckIn(userId, today)).thenReturn(guest);
-    when(repository.findAllBooking(userId)).thenReturn(booking);
-    when(repository.findReservationTodayCheckIn(userId, today)).thenReturn(reservation);
-    when(converter.convertGuestDetail(guest, booking, reservation))
-        .thenReturn(converted);
+    List<GuestDetail> guestDetails = new ArrayList<>();
+    when(repository.findGuestDetailTodayCheckIn(userId, today)).thenReturn(guestDetails);
 
     List<GuestDetail> actual = sut.getCheckInToday(auth, today);
 
-    verify(repository, times(1)).findGuestsTodayCheckIn(userId, today);
-    verify(repository, times(1)).findAllBooking(userId);
-    verify(repository, times(1)).findReservationTodayCheckIn(userId, today);
-    verify(converter, times(1))
-        .convertGuestDetail(guest, booking, reservation);
+    verify(repository, times(1)).findGuestDetailTodayCheckIn(userId, today);
+    verify(repository, Mockito.never()).findAllBooking(anyString());
 
     assertNotNull(actual);
-    assertEquals(actual, converted);
+    assertEquals(guestDetails, actual);
   }
 
   @Test
-  void 現在宿泊中の宿泊者情報の検索_リポジトリとコンバーターが呼び出せている() {
-    HotelService sut = new HotelService(repository, converter);
+  void 現在宿泊中の宿泊者情報の検索_リポジトリが一度だけ呼び出せている() {
+    HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+        batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+        guestSearchCache, singleFlight);
     Authentication auth = getAuthentication();
     String userId = getUserId(auth);
 
-    List<Guest> guest = new ArrayList<>();
-    List<Booking> booking = new ArrayList<>();
-    List<Reservation> reservation = new ArrayList<>();
-    List<GuestDetail> converted = new ArrayList<>();
-
-    when(repository.findGuestStayNow(userId)).thenReturn(guest);
-    when(repository.findAllBooking(userId)).thenReturn(booking);
-    when(repository.findReservationStayNow(userId)).thenReturn(reservation);
-    when(converter.convertGuestDetail(guest, booking, reservation))
-        .thenReturn(converted);
+    List<GuestDetail> guestDetails = new ArrayList<>();
+    when(repository.findGuestDetailStayNow(userId)).thenReturn(guestDetails);
 
     List<GuestDetail> actual = sut.getStayNow(auth);
 
-    verify(repository, times(1)).findGuestStayNow(userId);
-    verify(repository, times(1)).findAllBooking(userId);
-    verify(repository, times(1)).findReservationStayNow(userId);
-    verify(converter, times(1))
-        .convertGuestDetail(guest, booking, reservation);
+    verify(repository, times(1)).findGuestDetailStayNow(userId);
+    verify(repository, Mockito.never()).findAllBooking(anyString());
 
     assertNotNull(actual);
-    assertEquals(actual, converted);
+    assertEquals(guestDetails, actual);
   }
 
   @Test
-  void 本日チェックアウトの宿泊者の検索_リポジトリとコンバーターが呼び出せている() {
-    HotelService sut = new HotelService(repository, converter);
+  void 本日チェックアウトの宿泊者の検索_リポジトリが一度だけ呼び出せている() {
+    HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+        batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+        guestSearchCache, singleFlight);
     Authentication auth = getAuthentication();
     String userId = getUserId(auth);
     LocalDate today = LocalDate.of(2025, 7, 23);
 
-    List<Guest> guest = new ArrayList<>();
-    List<Booking> booking = new ArrayList<>();
-    List<Reservation> reservation = new ArrayList<>();
-    List<GuestDetail> converted = new ArrayList<>();
-
-    when(repository.findGuestsTodayCheckOut(userId, today)).thenReturn(guest);
-    when(repository.findAllBooking(userId)).thenReturn(booking);
-    when(repository.findReservationTodayCheckOut(userId, today)).thenReturn(reservation);
-    when(converter.convertGuestDetail(guest, booking, reservation))
-        .thenReturn(converted);
+    List<GuestDetail> guestDetails = new ArrayList<>();
+    when(repository.findGuestDetailTodayCheckOut(userId, today)).thenReturn(guestDetails);
 
     List<GuestDetail> actual = sut.getCheckOutToday(auth, today);
 
-    verify(repository, times(1)).findGuestsTodayCheckOut(userId, today);
-    verify(repository, times(1)).findAllBooking(userId);
-    verify(repository, times(1)).findReservationTodayCheckOut(userId, today);
-    verify(converter, times(1))
-        .convertGuestDetail(guest, booking, reservation);
+    verify(repository, times(1)).findGuestDetailTodayCheckOut(userId, today);
+    verify(repository, Mockito.never()).findAllBooking(anyString());
 
     assertNotNull(actual);
-    assertEquals(actual, converted);
+    assertEquals(guestDetails, actual);
+  }
+
+  @Nested
+  @DisplayName("ホーム画面の一覧")
+  class frontDeskBoard {
+
+    @Test
+    void 宿泊者と宿泊プランの一覧と件数を_4つの検索を同時に実行して取得すること() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+      LocalDate today = LocalDate.of(2025, 7, 23);
+      List<GuestDetail> stayNow = List.of(new GuestDetail(), new GuestDetail());
+      List<GuestDetail> checkIn = List.of(new GuestDetail());
+      Booking booking = createBooking();
+      // 4つの検索がすべて始まるまで待つ（順に実行された場合は待ちきれずに失敗する）
+      CyclicBarrier started = new CyclicBarrier(4);
+      when(repository.findGuestDetailStayNow("TEST"))
+          .thenAnswer(invocation -> awaitAll(started, stayNow));
+      when(repository.findGuestDetailTodayCheckIn("TEST", today))
+          .thenAnswer(invocation -> awaitAll(started, checkIn));
+      when(repository.findGuestDetailTodayCheckOut("TEST", today))
+          .thenAnswer(invocation -> awaitAll(started, List.of()));
+      when(repository.findAllBooking("TEST"))
+          .thenAnswer(invocation -> awaitAll(started, List.of(booking)));
+
+      FrontDeskBoard actual = sut.getFrontDeskBoard(auth, today);
+
+      assertThat(actual.getStayNow()).isSameAs(stayNow);
+      assertThat(actual.getCheckInToday()).isSameAs(checkIn);
+      assertThat(actual.getCheckOutToday()).isEmpty();
+      assertThat(actual.getBookings()).containsExactly(booking);
+      assertThat(actual.getStayNowCount()).isEqualTo(2);
+      assertThat(actual.getCheckInTodayCount()).isEqualTo(1);
+      assertThat(actual.getCheckOutTodayCount()).isZero();
+      assertThat(actual.getBookingCount()).isEqualTo(1);
+      verify(repository, times(1)).findAllBooking("TEST");
+    }
+
+    @Test
+    void 宿泊プランはキャッシュから取り出し_DBを検索しないこと() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+      when(repository.findAllBooking("TEST")).thenReturn(List.of(createBooking()));
+      sut.getAllBooking(auth);
+
+      FrontDeskBoard actual = sut.getFrontDeskBoard(auth, LocalDate.of(2025, 7, 23));
+
+      assertThat(actual.getBookingCount()).isEqualTo(1);
+      verify(repository, times(1)).findAllBooking("TEST");
+    }
+
+    @Test
+    void 検索の1つが失敗した場合_その例外が投げられること() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+      when(repository.findGuestDetailStayNow("TEST"))
+          .thenThrow(new IllegalStateException("DBエラー"));
+
+      assertThatThrownBy(() -> sut.getFrontDeskBoard(auth, LocalDate.of(2025, 7, 23)))
+          .isInstanceOf(IllegalStateException.class)
+          .hasMessage("DBエラー");
+    }
+
+    private static <T> T awaitAll(CyclicBarrier started, T result) throws Exception {
+      started.await(10, TimeUnit.SECONDS);
+      return result;
+    }
+  }
+
+  @Nested
+  @DisplayName("始業時の同時読み込み")
+  class concurrentDashboardReads {
+
+    private static final int CALLERS = 8;
+
+    @Test
+    void 同じユーザー_日付の同時の読み込みは1回の検索の結果を共有すること() throws Exception {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+      LocalDate today = LocalDate.of(2025, 7, 23);
+      List<GuestDetail> guestDetails = List.of(new GuestDetail());
+      CountDownLatch release = new CountDownLatch(1);
+      when(repository.findGuestDetailTodayCheckIn("TEST", today)).thenAnswer(invocation -> {
+        release.await();
+        return guestDetails;
+      });
+
+      List<List<GuestDetail>> actual =
+          readConcurrently(() -> sut.getCheckInToday(auth, today), release);
+
+      verify(repository, times(1)).findGuestDetailTodayCheckIn("TEST", today);
+      assertThat(actual).hasSize(CALLERS)
+          .allSatisfy(result -> assertThat(result).isSameAs(guestDetails));
+    }
+
+    @Test
+    void 読み込みが終わった後の呼び出しと日付が異なる呼び出しは改めて検索すること() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+      LocalDate today = LocalDate.of(2025, 7, 23);
+
+      sut.getCheckOutToday(auth, today);
+      sut.getCheckOutToday(auth, today);
+      sut.getCheckOutToday(auth, today.plusDays(1));
+
+      verify(repository, times(2)).findGuestDetailTodayCheckOut("TEST", today);
+      verify(repository, times(1)).findGuestDetailTodayCheckOut("TEST", today.plusDays(1));
+    }
+
+    // 全員が検索の終わりを待つ状態になってから検索を終わらせ、各スレッドの結果を返す
+    private List<List<GuestDetail>> readConcurrently(Supplier<List<GuestDetail>> read,
+        CountDownLatch release) throws InterruptedException {
+      List<List<GuestDetail>> results = new CopyOnWriteArrayList<>();
+      List<Thread> threads = new ArrayList<>();
+      for (int i = 0; i < CALLERS; i++) {
+        Thread thread = new Thread(() -> results.add(read.get()));
+        threads.add(thread);
+        thread.start();
+      }
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+      while (threads.stream().anyMatch(thread -> thread.getState() != Thread.State.WAITING)
+          && System.nanoTime() < deadline) {
+        Thread.sleep(10);
+      }
+      release.countDown();
+      for (Thread thread : threads) {
+        thread.join();
+      }
+      return results;
+    }
   }
 
   @Test
-  void 宿泊者情報の単一検索機能_リポジトリとコンバーターが呼び出せている() {
-    HotelService sut = new HotelService(repository, converter);
+  void 一覧画面用の宿泊者の取得_宿泊者情報を組み立てずに一覧用の検索だけを呼び出せている() {
+    HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+        batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+        guestSearchCache, singleFlight);
     Authentication auth = getAuthentication();
     String userId = getUserId(auth);
+    LocalDate today = LocalDate.of(2025, 7, 23);
 
-    GuestSearchCondition guestSearchCondition = new GuestSearchCondition();
-    List<Guest> guestList = new ArrayList<>();
-    List<Booking> bookingList = new ArrayList<>();
-    List<Reservation> reservationList = new ArrayList<>();
-    List<GuestDetail> converted = new ArrayList<>();
+    List<GuestSummary> summaries = List.of(new GuestSummary());
+    when(repository.findAllGuestSummary(userId, today)).thenReturn(summaries);
 
-    guestSearchCondition.setPhone("08098765432");
-    guestSearchCondition.setName("佐藤花子");
+    List<GuestSummary> actual = sut.getAllGuestSummary(auth, today);
 
-    when(repository.searchGuest(guestSearchCondition)).thenReturn(guestList);
-    when(repository.findAllBooking(userId)).thenReturn(bookingList);
-    when(repository.findAllReservation(userId)).thenReturn(reservationList);
-    when(converter.convertGuestDetail(guestList, bookingList, reservationList))
-        .thenReturn(converted);
+    verify(repository, times(1)).findAllGuestSummary(userId, today);
+    verify(repository, Mockito.never()).findAllGuestDetail(anyString());
+    verify(repository, Mockito.never()).findReservationByGuestIds(anyString(), any());
 
-    List<GuestDetail> actual = sut.searchGuest(auth, guestSearchCondition);
+    assertEquals(summaries, actual);
+  }
 
-    verify(repository, Mockito.times(1)).searchGuest(guestSearchCondition);
-    verify(repository, Mockito.times(1)).findAllBooking(userId);
-    verify(repository, Mockito.times(1)).findAllReservation(userId);
-    verify(converter, Mockito.times(1))
-        .convertGuestDetail(guestList, bookingList, reservationList);
+  @Nested
+  @DisplayName("宿泊者情報の単一検索")
+  class searchGuest {
 
-    assertNotNull(actual);
-    assertEquals(converted, actual);
+    @Test
+    void 一致した宿泊者の宿泊予約と宿泊プランを1回の検索で取得していること() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+
+      GuestSearchCondition guestSearchCondition = new GuestSearchCondition();
+      guestSearchCondition.setPhone("08098765432");
+      guestSearchCondition.setName("佐藤花子");
+
+      GuestDetail guestDetail = new GuestDetail();
+      guestDetail.setGuest(createGuest());
+      List<GuestDetail> guestDetails = List.of(guestDetail);
+      when(repository.searchGuestDetail(guestSearchCondition)).thenReturn(guestDetails);
+
+      List<GuestDetail> actual = sut.searchGuest(auth, guestSearchCondition);
+
+      verify(repository, times(1)).searchGuestDetail(guestSearchCondition);
+      verify(repository, Mockito.never()).findReservationByGuestIds(anyString(), any());
+      verify(repository, Mockito.never()).findAllBooking(anyString());
+      verify(repository, Mockito.never()).findAllReservation(anyString());
+
+      assertEquals(guestDetails, actual);
+      assertEquals("TEST", guestSearchCondition.getUserId());
+    }
+
+    @Test
+    void 同じ条件の検索は_空文字と未指定を同じ条件として2回目からDBを検索しないこと() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+      List<GuestDetail> converted = List.of(new GuestDetail());
+      when(repository.searchGuestDetail(any())).thenReturn(converted);
+
+      GuestSearchCondition first = new GuestSearchCondition();
+      first.setPhone("08098765432");
+      first.setName("");
+      GuestSearchCondition second = new GuestSearchCondition();
+      second.setPhone("08098765432");
+      second.setUserId("other");
+
+      sut.searchGuest(auth, first);
+      List<GuestDetail> actual = sut.searchGuest(auth, second);
+
+      assertThat(actual).isEqualTo(converted);
+      verify(repository, times(1)).searchGuestDetail(any());
+      assertThat(sut.getCacheStats(auth))
+          .filteredOn(stats -> stats.getName().equals("guestSearch"))
+          .extracting(CacheStats::getHits, CacheStats::getMisses)
+          .containsExactly(tuple(1L, 1L));
+    }
+
+    @Test
+    void 宿泊者_宿泊予約の更新後は同じ条件でもDBを検索し直すこと() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+      GuestSearchCondition guestSearchCondition = new GuestSearchCondition();
+      guestSearchCondition.setPhone("08098765432");
+      when(repository.searchGuestDetail(guestSearchCondition)).thenReturn(List.of());
+      when(repository.updateGuest(any(), anyString())).thenReturn(1);
+
+      sut.searchGuest(auth, guestSearchCondition);
+      sut.updateGuest(auth, createGuest());
+      sut.searchGuest(auth, guestSearchCondition);
+      sut.updateReservation(auth, new Reservation());
+      sut.searchGuest(auth, guestSearchCondition);
+      sut.searchGuest(auth, guestSearchCondition);
+
+      verify(repository, times(3)).searchGuestDetail(guestSearchCondition);
+    }
+
+    @Test
+    void 索引の作成後は名前の部分一致を宿泊者IDの候補に置き換えて検索すること() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+
+      Guest guest = createGuest();
+      guest.setId("11111111-1111-1111-1111-111111111111");
+      guest.setUserId(getUserId(auth));
+      when(repository.findAllGuestName()).thenReturn(List.of(guest));
+      sut.buildGuestNameIndex();
+
+      GuestSearchCondition guestSearchCondition = new GuestSearchCondition();
+      guestSearchCondition.setKanaName("やまだ");
+
+      sut.searchGuest(auth, guestSearchCondition);
+
+      verify(repository, times(1)).searchGuestDetail(guestSearchCondition);
+      assertThat(guestSearchCondition.getGuestIdChunks())
+          .containsExactly(List.of(guest.getId()));
+    }
+
+    @Test
+    void 索引の作成前はユーザーの宿泊者だけを索引に読み込んで検索すること() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+
+      Guest guest = createGuest();
+      guest.setId("11111111-1111-1111-1111-111111111111");
+      guest.setUserId(getUserId(auth));
+      when(repository.findGuestName(getUserId(auth))).thenReturn(List.of(guest));
+
+      GuestSearchCondition guestSearchCondition = new GuestSearchCondition();
+      guestSearchCondition.setKanaName("やまだ");
+
+      sut.searchGuest(auth, guestSearchCondition);
+      sut.searchGuestPage(auth, guestSearchCondition, GuestPageCursor.of(null, 10));
+
+      verify(repository, times(1)).findGuestName(getUserId(auth));
+      verify(repository, times(1)).searchGuestDetail(guestSearchCondition);
+      assertThat(guestSearchCondition.getGuestIdChunks())
+          .containsExactly(List.of(guest.getId()));
+    }
+
+    @Test
+    void 候補が多い場合_IN句の上限ごとに分けて索引の候補のまま検索すること() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+
+      List<Guest> guests = new ArrayList<>();
+      for (int i = 0; i < HotelService.IN_CLAUSE_CHUNK_SIZE * 2 + 1; i++) {
+        Guest guest = createGuest();
+        guest.setId(String.format("guest-%04d", i));
+        guest.setUserId(getUserId(auth));
+        guests.add(guest);
+      }
+      when(repository.findAllGuestName()).thenReturn(guests);
+      sut.buildGuestNameIndex();
+
+      GuestSearchCondition guestSearchCondition = new GuestSearchCondition();
+      guestSearchCondition.setKanaName("やまだ");
+
+      sut.searchGuest(auth, guestSearchCondition);
+
+      assertThat(guestSearchCondition.getGuestIdChunks())
+          .extracting(List::size)
+          .containsExactly(HotelService.IN_CLAUSE_CHUNK_SIZE, HotelService.IN_CLAUSE_CHUNK_SIZE,
+              1);
+      assertThat(guestSearchCondition.getGuestIdChunks().getFirst().getFirst())
+          .isEqualTo("guest-0000");
+    }
+
+    @Test
+    void 索引に一致する宿泊者がいない場合_DBを検索しないこと() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+      when(repository.findAllGuestName()).thenReturn(List.of());
+      sut.buildGuestNameIndex();
+
+      GuestSearchCondition guestSearchCondition = new GuestSearchCondition();
+      guestSearchCondition.setName("存在しない名前");
+
+      List<GuestDetail> actual = sut.searchGuest(auth, guestSearchCondition);
+
+      assertThat(actual).isEmpty();
+      verify(repository, Mockito.never()).searchGuestDetail(any());
+    }
+
+    @Test
+    void 登録した宿泊者が索引に反映されていること() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+      when(repository.findAllGuestName()).thenReturn(List.of());
+      when(repository.lockBookingById(anyString(), anyString())).thenReturn(createBooking());
+      sut.buildGuestNameIndex();
+
+      GuestRegistration registration = crateRegistration();
+      sut.registerGuest(auth, registration);
+
+      assertThat(guestNameIndex.search(getUserId(auth), "山田", null))
+          .hasValue(Set.of(registration.getGuest().getId()));
+    }
+
+    @Test
+    void ページ取得で一致する宿泊者がいない場合_宿泊予約を取得しないこと() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+
+      GuestSearchCondition guestSearchCondition = new GuestSearchCondition();
+      GuestPageCursor cursor = GuestPageCursor.of(null, 10);
+      when(repository.searchGuestPage(guestSearchCondition, cursor)).thenReturn(List.of());
+
+      GuestPage actual = sut.searchGuestPage(auth, guestSearchCondition, cursor);
+
+      assertThat(actual.getGuests()).isEmpty();
+      verify(repository, Mockito.never()).findReservationByGuestIds(anyString(), any());
+    }
+  }
+
+  @Nested
+  @DisplayName("宿泊者情報のページ取得")
+  class getGuestPage {
+
+    @Test
+    void 件数より多く取得できた場合_次ページのトークンが返ること() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+      String userId = getUserId(auth);
+      GuestPageCursor cursor = GuestPageCursor.of(null, 2);
+
+      List<Guest> guests = new ArrayList<>();
+      for (int i = 0; i < 3; i++) {
+        Guest guest = createGuest();
+        guest.setId("guest-" + i);
+        guests.add(guest);
+      }
+      when(repository.findGuestPage(userId, cursor)).thenReturn(guests);
+
+      GuestPage actual = sut.getGuestPage(auth, cursor);
+
+      verify(repository, times(1)).findReservationByGuestIds(userId, List.of("guest-0", "guest-1"));
+      verify(converter, times(1))
+          .convertGuestDetail(guests.subList(0, 2), List.of(), List.of());
+      assertEquals(GuestPageCursor.toPageToken(guests.get(1)), actual.getNextPageToken());
+
+      GuestPageCursor next = GuestPageCursor.of(actual.getNextPageToken(), 2);
+      assertEquals("ヤマダタロウ", next.getKanaName());
+      assertEquals("guest-1", next.getId());
+    }
+
+    @Test
+    void 最終ページの場合_次ページのトークンがnullになること() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+      String userId = getUserId(auth);
+      GuestPageCursor cursor = GuestPageCursor.of(null, 2);
+
+      GuestDetail guestDetail = new GuestDetail();
+      guestDetail.setGuest(createGuest());
+      when(repository.findGuestDetailPageStayNow(userId, cursor))
+          .thenReturn(List.of(guestDetail));
+
+      GuestPage actual = sut.getStayNowPage(auth, cursor);
+
+      assertThat(actual.getGuests()).containsExactly(guestDetail);
+      assertThat(actual.getNextPageToken()).isNull();
+    }
   }
 
   @Nested
@@ -223,7 +643,9 @@ class HotelServiceTest {
 
     @Test
     void リポジトリとコンバーターが呼び出せている() {
-      HotelService sut = new HotelService(repository, converter);
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
       Authentication auth = getAuthentication();
 
       GuestMatch guestMatch = new GuestMatch();
@@ -244,7 +666,9 @@ class HotelServiceTest {
 
     @Test
     void 宿泊者情報の完全一致致検索_完全一致するものがなく条件分岐していること() {
-      HotelService sut = new HotelService(repository, converter);
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
       Authentication auth = getAuthentication();
 
       GuestMatch guestMatch = new GuestMatch();
@@ -264,6 +688,50 @@ class HotelServiceTest {
       assertNotNull(actual);
       assertEquals(guest, actual.getGuest());
     }
+
+    @Test
+    void 登録時と同じ正規化済みのキーで検索していること() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+      when(repository.lockBookingById(anyString(), anyString())).thenReturn(createBooking());
+
+      GuestRegistration registration = crateRegistration();
+      sut.registerGuest(auth, registration);
+
+      GuestMatch guestMatch = new GuestMatch();
+      guestMatch.setName("山田 太郎");
+      guestMatch.setKanaName("やまだたろう");
+      guestMatch.setPhone("０１０１２３４５６７８");
+      sut.matchGuest(auth, guestMatch);
+
+      assertNotNull(guestMatch.getMatchKey());
+      assertEquals(registration.getGuest().getMatchKey(), guestMatch.getMatchKey());
+    }
+
+    @Test
+    void 起動時に完全一致検索用のキーがない宿泊者だけにキーを設定すること() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Guest withoutKey = createGuest();
+      withoutKey.setId("11111111-1111-1111-1111-111111111111");
+      withoutKey.setUserId("TEST");
+      Guest withKey = createGuest();
+      withKey.setId("22222222-2222-2222-2222-222222222222");
+      withKey.setUserId("TEST");
+      withKey.setMatchKey("registered");
+      when(repository.findAllGuestName()).thenReturn(List.of(withoutKey, withKey));
+
+      sut.buildGuestNameIndex();
+
+      verify(repository, times(1)).updateGuestMatchKey(withoutKey.getId(), "TEST",
+          GuestMatchKey.of(withoutKey.getName(), withoutKey.getKanaName(),
+              withoutKey.getPhone()));
+      verify(repository, Mockito.never())
+          .updateGuestMatchKey(Mockito.eq(withKey.getId()), anyString(), any());
+    }
   }
 
   @Nested
@@ -272,43 +740,277 @@ class HotelServiceTest {
 
     @Test
     void リポジトリとコンバーターが呼び出せている() {
-      HotelService sut = new HotelService(repository, converter);
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
       Authentication auth = getAuthentication();
       String userId = getUserId(auth);
       String id = "aaaaaaa1-aaaa-aaaa-aaaa-aaaaaaaaaaaa";
 
-      when(repository.findTotalPriceById(id, userId))
-          .thenReturn(new BigDecimal(10000));
+      when(repository.lockBookingById(id, userId)).thenReturn(createBooking());
 
       GuestRegistration registration = crateRegistration();
       sut.registerGuest(auth, registration);
 
       verify(repository, times(1)).insertGuest(any(Guest.class));
       verify(repository, times(1)).insertReservation(any(Reservation.class));
-      verify(repository, times(1)).findTotalPriceById(id, userId);
+      verify(repository, times(1)).lockBookingById(id, userId);
+    }
+
+    @Test
+    void トランザクション中は_コミットされるまで索引に反映しないこと() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+      when(repository.findAllGuestName()).thenReturn(List.of());
+      when(repository.lockBookingById("aaaaaaa1-aaaa-aaaa-aaaa-aaaaaaaaaaaa", "TEST"))
+          .thenReturn(createBooking());
+      sut.buildGuestNameIndex();
+      GuestRegistration rolledBack = crateRegistration();
+      GuestRegistration committed = crateRegistration();
+
+      TransactionSynchronizationManager.initSynchronization();
+      try {
+        sut.registerGuest(auth, rolledBack);
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+            TransactionSynchronizationManager.getSynchronizations(),
+            TransactionSynchronization.STATUS_ROLLED_BACK);
+      } finally {
+        TransactionSynchronizationManager.clearSynchronization();
+      }
+      assertThat(guestNameIndex.search("TEST", "山田", null)).hasValue(Set.of());
+
+      TransactionSynchronizationManager.initSynchronization();
+      try {
+        sut.registerGuest(auth, committed);
+        assertThat(guestNameIndex.search("TEST", "山田", null)).hasValue(Set.of());
+        TransactionSynchronizationUtils.triggerAfterCommit();
+      } finally {
+        TransactionSynchronizationManager.clearSynchronization();
+      }
+      assertThat(guestNameIndex.search("TEST", "山田", null))
+          .hasValue(Set.of(committed.getGuest().getId()));
     }
 
     @Test
     void ゲスト情報登録_IDが登録済みの場合登録が行われないこと() {
-      HotelService sut = new HotelService(repository, converter);
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
       Authentication auth = getAuthentication();
       GuestRegistration registration = crateRegistration();
       registration.getGuest().setId("11111111-1111-1111-1111-111111111120");
 
-      when(repository.findTotalPriceById("aaaaaaa1-aaaa-aaaa-aaaa-aaaaaaaaaaaa", "TEST"))
-          .thenReturn(new BigDecimal(10000));
+      when(repository.lockBookingById("aaaaaaa1-aaaa-aaaa-aaaa-aaaaaaaaaaaa", "TEST"))
+          .thenReturn(createBooking());
       sut.registerGuest(auth, registration);
 
       verify(repository, times(0)).insertGuest(any(Guest.class));
       verify(repository, times(1)).insertReservation(any(Reservation.class));
-      verify(repository, times(1)).findTotalPriceById("aaaaaaa1-aaaa-aaaa-aaaa-aaaaaaaaaaaa",
+      verify(repository, times(1)).lockBookingById("aaaaaaa1-aaaa-aaaa-aaaa-aaaaaaaaaaaa",
           "TEST");
     }
+
+    @Test
+    void 宿泊期間のいずれかの泊が満室の場合_例外が発生し宿泊者も宿泊予約も登録しないこと() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+      GuestRegistration registration = crateRegistration();
+      registration.setStayDays(3);
+      LocalDate lastNight = registration.getCheckInDate().plusDays(2);
+      Reservation existing = new Reservation();
+      existing.setId("r1");
+      existing.setBookingId("aaaaaaa1-aaaa-aaaa-aaaa-aaaaaaaaaaaa");
+      existing.setCheckInDate(lastNight);
+      existing.setCheckOutDate(lastNight.plusDays(1));
+      existing.setStatus(ReservationStatus.NOT_CHECKED_IN);
+
+      Booking booking = createBooking();
+      booking.setId("aaaaaaa1-aaaa-aaaa-aaaa-aaaaaaaaaaaa");
+      when(repository.lockBookingById("aaaaaaa1-aaaa-aaaa-aaaa-aaaaaaaaaaaa", "TEST"))
+          .thenReturn(booking);
+      when(repository.findReservationStayByBooking("TEST", "aaaaaaa1-aaaa-aaaa-aaaa-aaaaaaaaaaaa",
+          registration.getCheckInDate(), lastNight)).thenReturn(List.of(existing));
+
+      assertThatThrownBy(() -> sut.registerGuest(auth, registration))
+          .isInstanceOf(BookingFullException.class)
+          .hasMessage("朝食付きプランの" + lastNight + "の宿泊は満室です");
+      verify(repository, Mockito.never()).insertGuest(any());
+      verify(repository, Mockito.never()).insertReservation(any());
+    }
+
+    @Test
+    void 宿泊プランが見つからない場合_例外が発生し登録しないこと() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+
+      assertThrows(BookingNotFoundException.class,
+          () -> sut.registerGuest(auth, crateRegistration()));
+      verify(repository, Mockito.never()).insertGuest(any());
+      verify(repository, Mockito.never()).insertReservation(any());
+    }
+  }
+
+  @Nested
+  @DisplayName("宿泊者情報の一括登録")
+  class registerGuests {
+
+    private static final String BOOKING_ID = "aaaaaaa1-aaaa-aaaa-aaaa-aaaaaaaaaaaa";
+
+    @Test
+    void 完全一致検索と宿泊プランの検索を1回ずつ行い_バッチで登録すること() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+      when(batchSession.getRepository()).thenReturn(batchRepository);
+
+      GuestRegistration registered = crateRegistration();
+      Guest existing = createGuest();
+      existing.setId("11111111-1111-1111-1111-111111111111");
+      existing.setMatchKey(GuestMatchKey.of(existing.getName(), existing.getKanaName(),
+          existing.getPhone()));
+      GuestRegistration newGuest = crateRegistration();
+      newGuest.getGuest().setName("佐藤花子");
+      newGuest.getGuest().setKanaName("サトウハナコ");
+      GuestRegistration sameNewGuest = crateRegistration();
+      sameNewGuest.getGuest().setName("佐藤 花子");
+      sameNewGuest.getGuest().setKanaName("さとうはなこ");
+
+      when(batchRepository.matchGuestByKeys(anyString(), any())).thenReturn(List.of(existing));
+      when(batchRepository.lockBookingByIds(anyString(), any()))
+          .thenReturn(List.of(createBookingPrice(BOOKING_ID, 10000)));
+
+      int actual = sut.registerGuests(auth, List.of(registered, newGuest, sameNewGuest));
+
+      assertEquals(3, actual);
+      verify(batchRepository, times(1)).matchGuestByKeys(anyString(), any());
+      verify(batchRepository, times(1)).lockBookingByIds(anyString(), any());
+      verify(batchRepository, times(1)).insertGuest(newGuest.getGuest());
+      verify(batchRepository, times(3)).insertReservation(any(Reservation.class));
+      verify(batchSession, times(1)).flush();
+      verify(repository, Mockito.never()).insertGuest(any());
+      verify(repository, Mockito.never()).lockBookingById(anyString(), anyString());
+
+      assertEquals(existing.getId(), registered.getGuest().getId());
+      assertEquals(newGuest.getGuest().getId(), sameNewGuest.getGuest().getId());
+      assertThat(guestKanaTrie.suggest("TEST", "サトウ", GuestKanaTrie.DEFAULT_LIMIT))
+          .extracting(GuestSuggestion::getId)
+          .containsExactly(newGuest.getGuest().getId());
+    }
+
+    @Test
+    void 宿泊者IDが指定済みの場合_完全一致検索を行わないこと() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+      when(batchSession.getRepository()).thenReturn(batchRepository);
+
+      GuestRegistration registration = crateRegistration();
+      registration.getGuest().setId("11111111-1111-1111-1111-111111111111");
+      registration.setStayDays(3);
+      when(batchRepository.lockBookingByIds(anyString(), any()))
+          .thenReturn(List.of(createBookingPrice(BOOKING_ID, 10000)));
+
+      sut.registerGuests(auth, List.of(registration));
+
+      verify(batchRepository, Mockito.never()).matchGuestByKeys(anyString(), any());
+      verify(batchRepository, Mockito.never()).insertGuest(any());
+      verify(batchRepository, times(1)).insertReservation(Mockito.argThat(reservation ->
+          reservation.getTotalPrice().compareTo(BigDecimal.valueOf(30000)) == 0
+              && "11111111-1111-1111-1111-111111111111".equals(reservation.getGuestId())));
+    }
+
+    @Test
+    void 宿泊プランが見つからない場合_例外が発生し登録しないこと() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+      when(batchSession.getRepository()).thenReturn(batchRepository);
+      when(batchRepository.matchGuestByKeys(anyString(), any())).thenReturn(List.of());
+      when(batchRepository.lockBookingByIds(anyString(), any())).thenReturn(List.of());
+
+      assertThrows(BookingNotFoundException.class,
+          () -> sut.registerGuests(auth, List.of(crateRegistration())));
+
+      verify(batchRepository, Mockito.never()).insertGuest(any());
+      verify(batchRepository, Mockito.never()).insertReservation(any());
+      verify(batchSession, Mockito.never()).flush();
+    }
+
+    @Test
+    void 一括登録内の宿泊予約だけで満室を超える場合_例外が発生し登録しないこと() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+      when(batchSession.getRepository()).thenReturn(batchRepository);
+      when(batchRepository.matchGuestByKeys(anyString(), any())).thenReturn(List.of());
+      when(batchRepository.lockBookingByIds(anyString(), any()))
+          .thenReturn(List.of(createBookingPrice(BOOKING_ID, 10000)));
+      List<GuestRegistration> registrations = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        GuestRegistration registration = crateRegistration();
+        registration.getGuest().setName("宿泊者" + i);
+        registrations.add(registration);
+      }
+
+      assertThrows(BookingFullException.class, () -> sut.registerGuests(auth, registrations));
+
+      verify(batchRepository, Mockito.never()).insertGuest(any());
+      verify(batchRepository, Mockito.never()).insertReservation(any());
+      verify(batchSession, Mockito.never()).flush();
+    }
+
+    @Test
+    void 取り込んだ過去の宿泊予約は空きを確認せず_指定したステータスで登録すること() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+      when(batchSession.getRepository()).thenReturn(batchRepository);
+      when(batchRepository.matchGuestByKeys(anyString(), any())).thenReturn(List.of());
+      when(batchRepository.lockBookingByIds(anyString(), any()))
+          .thenReturn(List.of(createBookingPrice(BOOKING_ID, 10000)));
+      List<GuestRegistration> registrations = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        GuestRegistration registration = crateRegistration();
+        registration.getGuest().setName("宿泊者" + i);
+        registration.setStatus(ReservationStatus.CHECKED_OUT);
+        registrations.add(registration);
+      }
+
+      int actual = sut.registerGuests(auth, registrations);
+
+      assertEquals(4, actual);
+      verify(batchRepository, Mockito.never())
+          .findReservationStayByBooking(anyString(), anyString(), any(), any());
+      verify(batchRepository, times(4)).insertReservation(Mockito.argThat(reservation ->
+          reservation.getStatus() == ReservationStatus.CHECKED_OUT));
+    }
+
+    private Booking createBookingPrice(String id, int price) {
+      Booking booking = new Booking();
+      booking.setId(id);
+      booking.setName("朝食付きプラン");
+      booking.setPrice(BigDecimal.valueOf(price));
+      booking.setCapacity(3);
+      return booking;
+    }
   }
 
   @Test
   void 宿泊プランの登録_リポジトリが呼ばれること() {
-    HotelService sut = new HotelService(repository, converter);
+    HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+        batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+        guestSearchCache, singleFlight);
     Booking booking = createBooking();
 
     sut.registerBooking(any(Authentication.class), booking);
@@ -318,7 +1020,9 @@ class HotelServiceTest {
 
   @Test
   void 宿泊者情報の更新_リポジトリが呼ばれること() {
-    HotelService sut = new HotelService(repository, converter);
+    HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+        batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+        guestSearchCache, singleFlight);
     Authentication auth = getAuthentication();
     Guest guest = new Guest();
     guest.setName("山田太郎");
@@ -327,9 +1031,29 @@ class HotelServiceTest {
     verify(repository, times(1)).updateGuest(guest, "TEST");
   }
 
+  @Test
+  void 宿泊者情報の更新_更新されなかった場合は索引に加えないこと() {
+    HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+        batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+        guestSearchCache, singleFlight);
+    Authentication auth = getAuthentication();
+    when(repository.findAllGuestName()).thenReturn(List.of());
+    sut.buildGuestNameIndex();
+    Guest guest = createGuest();
+    guest.setId("11111111-1111-1111-1111-111111111111");
+    when(repository.updateGuest(guest, "TEST")).thenReturn(0);
+
+    sut.updateGuest(auth, guest);
+
+    assertThat(guestNameIndex.search("TEST", "山田", null)).hasValue(Set.of());
+    assertThat(guestKanaTrie.suggest("TEST", "ヤマダ", GuestKanaTrie.DEFAULT_LIMIT)).isEmpty();
+  }
+
   @Test
   void 宿泊プランの変更_リポジトリが呼ばれること() {
-    HotelService sut = new HotelService(repository, converter);
+    HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+        batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+        guestSearchCache, singleFlight);
     Authentication auth = getAuthentication();
     Reservation reservation = new Reservation();
 
@@ -339,7 +1063,9 @@ class HotelServiceTest {
 
   @Test
   void 宿泊者の論理削除_リポジトリが呼び呼び出せていること() {
-    HotelService sut = new HotelService(repository, converter);
+    HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+        batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+        guestSearchCache, singleFlight);
     Authentication auth = getAuthentication();
 
     sut.logicalDeleteGuest(auth, "11111111-1111-1111-1111-111111111111");
@@ -347,9 +1073,54 @@ class HotelServiceTest {
         .toggleGuestDeletedFlag("11111111-1111-1111-1111-111111111111", "TEST");
   }
 
+  @Test
+  void 宿泊者の論理削除_削除した宿泊者が入力補完に出なくなること() {
+    HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+        batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+        guestSearchCache, singleFlight);
+    Authentication auth = getAuthentication();
+    Guest guest = createGuest();
+    guest.setId("11111111-1111-1111-1111-111111111111");
+    guest.setUserId(getUserId(auth));
+    when(repository.findAllGuestName()).thenReturn(List.of(guest));
+    sut.buildGuestNameIndex();
+
+    Guest deleted = createGuest();
+    deleted.setId(guest.getId());
+    deleted.setDeleted(true);
+    when(repository.findGuestById(guest.getId(), "TEST")).thenReturn(deleted);
+
+    sut.logicalDeleteGuest(auth, guest.getId());
+
+    assertThat(sut.suggestGuest(auth, "ヤマダ", GuestKanaTrie.DEFAULT_LIMIT)).isEmpty();
+  }
+
+  @Test
+  void 宿泊者の入力補完_登録した宿泊者が前方一致で取得できること() {
+    HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+        batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+        guestSearchCache, singleFlight);
+    Authentication auth = getAuthentication();
+    when(repository.findAllGuestName()).thenReturn(List.of());
+    when(repository.lockBookingById(anyString(), anyString())).thenReturn(createBooking());
+    sut.buildGuestNameIndex();
+
+    GuestRegistration registration = crateRegistration();
+    sut.registerGuest(auth, registration);
+
+    List<GuestSuggestion> actual = sut.suggestGuest(auth, "やま", GuestKanaTrie.DEFAULT_LIMIT);
+
+    assertThat(actual)
+        .extracting(GuestSuggestion::getId)
+        .containsExactly(registration.getGuest().getId());
+    verify(repository, Mockito.never()).searchGuestDetail(any());
+  }
+
   @Test
   void 宿泊プランの論理削除_リポジトリが呼び出せていること() {
-    HotelService sut = new HotelService(repository, converter);
+    HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+        batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+        guestSearchCache, singleFlight);
     Authentication auth = getAuthentication();
 
     sut.logicalDeleteBooking(auth, "aaaaaaa1-aaaa-aaaa-aaaa-aaaaaaaaaaaa");
@@ -357,36 +1128,125 @@ class HotelServiceTest {
         "aaaaaaa1-aaaa-aaaa-aaaa-aaaaaaaaaaaa", "TEST");
   }
 
+  @Test
+  void 部屋の登録_IDとユーザーIDを設定してリポジトリが呼ばれること() {
+    HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+        batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+        guestSearchCache, singleFlight);
+    Authentication auth = getAuthentication();
+    Room room = createRoom(null, "101");
+    Booking booking = createBooking();
+    booking.setId(room.getBookingId());
+    when(repository.findAllBooking("TEST")).thenReturn(List.of(booking));
+
+    sut.registerRoom(auth, room);
+
+    verify(repository, times(1)).insertRoom(room);
+    assertNotNull(room.getId());
+    assertEquals("TEST", room.getUserId());
+  }
+
+  @Test
+  void 部屋の登録_宿泊プランが見つからない場合は登録しないこと() {
+    HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+        batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+        guestSearchCache, singleFlight);
+    Authentication auth = getAuthentication();
+    Room room = createRoom(null, "101");
+    when(repository.findAllBooking("TEST")).thenReturn(List.of());
+
+    assertThatThrownBy(() -> sut.registerRoom(auth, room))
+        .isInstanceOf(BookingNotFoundException.class)
+        .hasMessage("宿泊プランが見つかりません");
+    verify(repository, Mockito.never()).insertRoom(any());
+  }
+
+  @Nested
+  @DisplayName("部屋の自動割り当て")
+  class assignRooms {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 9, 22);
+
+    @Test
+    void 部屋の行ロックを最初に取得し_割り当てた宿泊予約だけをバッチで更新すること() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+      when(batchSession.getRepository()).thenReturn(batchRepository);
+      when(batchRepository.lockAllRoom("TEST")).thenReturn(
+          List.of(createRoom("a0000101-aaaa-4aaa-8aaa-aaaaaaaa0101", "101")));
+      when(batchRepository.findRoomOccupancy("TEST", TODAY)).thenReturn(List.of());
+      when(batchRepository.findReservationTodayCheckIn("TEST", TODAY)).thenReturn(List.of(
+          createArrival("11111111-aaaa-4bbb-8ccc-111111111111", 2),
+          createArrival("22222222-bbbb-4ccc-8ddd-222222222222", 1)));
+
+      RoomAssignmentResult actual = sut.assignRooms(auth, TODAY);
+
+      assertThat(actual.getAssigned())
+          .extracting(RoomAssignment::getReservationId, RoomAssignment::getRoomName)
+          .containsExactly(tuple("11111111-aaaa-4bbb-8ccc-111111111111", "101"));
+      assertThat(actual.getUnassignedIds())
+          .containsExactly("22222222-bbbb-4ccc-8ddd-222222222222");
+      InOrder inOrder = Mockito.inOrder(batchRepository, batchSession);
+      inOrder.verify(batchRepository).lockAllRoom("TEST");
+      inOrder.verify(batchRepository).updateReservationRoom(
+          "11111111-aaaa-4bbb-8ccc-111111111111", "TEST", "a0000101-aaaa-4aaa-8aaa-aaaaaaaa0101");
+      inOrder.verify(batchSession).flush();
+      verify(batchRepository, times(1)).updateReservationRoom(anyString(), anyString(),
+          anyString());
+    }
+
+    private Reservation createArrival(String id, int stayDays) {
+      Reservation reservation = new Reservation();
+      reservation.setId(id);
+      reservation.setBookingId("aaaaaaa1-aaaa-aaaa-aaaa-aaaaaaaaaaaa");
+      reservation.setCheckInDate(TODAY);
+      reservation.setCheckOutDate(TODAY.plusDays(stayDays));
+      reservation.setStayDays(stayDays);
+      reservation.setStatus(ReservationStatus.NOT_CHECKED_IN);
+      return reservation;
+    }
+  }
+
   @Nested
   @DisplayName("チェックイン処理の作成")
   class checkIn {
 
     @Test
     void チェックインが行われていること() {
-      HotelService sut = new HotelService(repository, converter);
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
       Authentication auth = getAuthentication();
 
-      when(repository.findStatusById("22222222-2222-2222-2222-222222222222", "TEST"))
-          .thenReturn(ReservationStatus.NOT_CHECKED_IN);
+      when(repository.updateReservationStatus("22222222-2222-2222-2222-222222222222", "TEST",
+          ReservationStatus.NOT_CHECKED_IN, ReservationStatus.CHECKED_IN)).thenReturn(1);
 
-      sut.checkIn(auth, "22222222-2222-2222-2222-222222222222");
-      verify(repository, times(1)).checkIn(anyString(), anyString());
+      ReservationTransitionResult actual =
+          sut.checkIn(auth, "22222222-2222-2222-2222-222222222222");
 
+      assertTrue(actual.isSuccess());
+      assertEquals(ReservationStatus.CHECKED_IN, actual.getTo());
+      verify(repository, Mockito.never()).findReservationById(anyString(), anyString());
+      verify(repository, Mockito.never()).lockReservationStatusByIds(anyString(), any());
     }
 
     @Test
     void ステータスが未チェックインではない場合_エラーメッセージが表示される() {
-      HotelService sut = new HotelService(repository, converter);
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
       Authentication auth = getAuthentication();
 
-      when(repository.findStatusById("22222222-2222-2222-2222-222222222222", "TEST"))
-          .thenReturn(ReservationStatus.CHECKED_IN);
+      when(repository.updateReservationStatus("22222222-2222-2222-2222-222222222222", "TEST",
+          ReservationStatus.NOT_CHECKED_IN, ReservationStatus.CHECKED_IN)).thenReturn(0);
 
-      IllegalStateException ex = assertThrows(IllegalStateException.class,
-          () -> sut.checkIn(auth, "22222222-2222-2222-2222-222222222222"));
+      ReservationTransitionResult actual =
+          sut.checkIn(auth, "22222222-2222-2222-2222-222222222222");
 
-      verify(repository, times(0)).checkIn("22222222-2222-2222-2222-222222222222", "TEST");
-      verify(repository, times(1)).findStatusById("22222222-2222-2222-2222-222222222222", "TEST");
+      assertFalse(actual.isSuccess());
+      assertEquals("未チェックインの予約のみチェックイン可能です", actual.getMessage());
     }
   }
 
@@ -396,36 +1256,702 @@ class HotelServiceTest {
 
     @Test
     void チェックアウトが行われていること() {
-      HotelService sut = new HotelService(repository, converter);
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
       Authentication auth = getAuthentication();
 
-      when(repository.findStatusById("22222222-2222-2222-2222-222222222222", "TEST"))
-          .thenReturn(ReservationStatus.CHECKED_IN);
+      when(repository.updateReservationStatus("22222222-2222-2222-2222-222222222222", "TEST",
+          ReservationStatus.CHECKED_IN, ReservationStatus.CHECKED_OUT)).thenReturn(1);
 
-      sut.checkOut(auth, "22222222-2222-2222-2222-222222222222");
-      verify(repository, times(1)).checkOut(anyString(), anyString());
+      ReservationTransitionResult actual =
+          sut.checkOut(auth, "22222222-2222-2222-2222-222222222222");
+
+      assertTrue(actual.isSuccess());
+      assertEquals(ReservationStatus.CHECKED_OUT, actual.getTo());
     }
 
     @Test
     void ステータスがチェックイン済みではない場合_エラーが発生する() {
-      HotelService sut = new HotelService(repository, converter);
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
       Authentication auth = getAuthentication();
 
-      when(repository.findStatusById("22222222-2222-2222-2222-222222222222", "TEST"))
-          .thenReturn(ReservationStatus.CHECKED_OUT);
+      when(repository.updateReservationStatus("22222222-2222-2222-2222-222222222222", "TEST",
+          ReservationStatus.CHECKED_IN, ReservationStatus.CHECKED_OUT)).thenReturn(0);
 
-      IllegalStateException ex = assertThrows(IllegalStateException.class,
-          () -> sut.checkOut(auth, "22222222-2222-2222-2222-222222222222"));
+      ReservationTransitionResult actual =
+          sut.checkOut(auth, "22222222-2222-2222-2222-222222222222");
 
-      assertEquals("チェックイン済みの予約のみチェックアウト可能です", ex.getMessage());
-      verify(repository, times(0)).checkOut(anyString(), anyString());
-      verify(repository, times(1)).findStatusById("22222222-2222-2222-2222-222222222222", "TEST");
+      assertFalse(actual.isSuccess());
+      assertEquals("チェックインの予約のみチェックアウト可能です", actual.getMessage());
+    }
+  }
+
+  @Nested
+  @DisplayName("一括チェックイン・チェックアウト処理")
+  class changeStatusAll {
+
+    private static final String BOOKING_ID = "aaaaaaa1-aaaa-aaaa-aaaa-aaaaaaaaaaaa";
+
+    private static final LocalDate CHECK_IN = LocalDate.of(2025, 8, 1);
+
+    @Test
+    void 更新できる予約だけを1回で更新し_更新した予約とそれ以外を分けて返すこと() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+
+      when(repository.lockReservationStatusByIds("TEST", Set.of("r1", "r2", "r3", "r4")))
+          .thenReturn(List.of(
+              createReservation("r3", ReservationStatus.NOT_CHECKED_IN),
+              createReservation("r2", ReservationStatus.CHECKED_OUT),
+              createReservation("r1", ReservationStatus.NOT_CHECKED_IN)));
+
+      ReservationBulkStatusResult actual =
+          sut.checkInAll(auth, List.of("r1", "r2", "r3", "r1", "r4"));
+
+      assertEquals(List.of("r1", "r3"), actual.getMovedIds());
+      assertEquals(List.of("r2", "r4"), actual.getSkippedIds());
+      verify(repository, times(1)).updateReservationStatusByIds("TEST", List.of("r1", "r3"),
+          ReservationStatus.NOT_CHECKED_IN, ReservationStatus.CHECKED_IN);
+    }
+
+    @Test
+    void 更新できる予約がない場合_更新を行わないこと() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+
+      when(repository.lockReservationStatusByIds("TEST", Set.of("r1")))
+          .thenReturn(List.of(createReservation("r1", ReservationStatus.NOT_CHECKED_IN)));
+
+      ReservationBulkStatusResult actual = sut.checkOutAll(auth, List.of("r1"));
+
+      assertEquals(List.of(), actual.getMovedIds());
+      assertEquals(List.of("r1"), actual.getSkippedIds());
+      verify(repository, Mockito.never())
+          .updateReservationStatusByIds(anyString(), any(), any(), any());
+    }
+
+    @Test
+    void 取り消しの場合_変更前のステータスごとにまとめて更新し_予約ごとの結果を返すこと() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+
+      when(repository.lockReservationStatusByIds("TEST", Set.of("r1", "r2", "r3", "r4")))
+          .thenReturn(List.of(
+              createReservation("r1", ReservationStatus.CHECKED_OUT),
+              createReservation("r2", ReservationStatus.CANCELLED),
+              createReservation("r3", ReservationStatus.NO_SHOW),
+              createReservation("r4", ReservationStatus.TEMPORARY)));
+      when(repository.lockBookingByIds("TEST", Set.of(BOOKING_ID)))
+          .thenReturn(List.of(createCapacityBooking(2)));
+
+      List<ReservationTransitionResult> actual = sut.changeStatusAll(auth,
+          List.of("r1", "r2", "r3", "r4"), ReservationAction.REVERT);
+
+      assertEquals(List.of(true, true, true, false),
+          actual.stream().map(ReservationTransitionResult::isSuccess).toList());
+      assertEquals("仮予約の予約は取り消しできません", actual.get(3).getMessage());
+      verify(repository, times(1)).updateReservationStatusByIds("TEST", List.of("r1"),
+          ReservationStatus.CHECKED_OUT, ReservationStatus.CHECKED_IN);
+      verify(repository, times(1)).updateReservationStatusByIds("TEST", List.of("r2"),
+          ReservationStatus.CANCELLED, ReservationStatus.NOT_CHECKED_IN);
+      verify(repository, times(1)).updateReservationStatusByIds("TEST", List.of("r3"),
+          ReservationStatus.NO_SHOW, ReservationStatus.NOT_CHECKED_IN);
+    }
+
+    @Test
+    void 変更前のステータスが複数ある操作は1件でも行ロック付きで確認してから更新すること() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+
+      when(repository.lockReservationStatusByIds("TEST", Set.of("r1")))
+          .thenReturn(List.of(createReservation("r1", ReservationStatus.TEMPORARY)));
+
+      ReservationTransitionResult actual =
+          sut.changeStatus(auth, "r1", ReservationAction.CANCEL);
+
+      assertTrue(actual.isSuccess());
+      assertEquals(ReservationStatus.CANCELLED, actual.getTo());
+      verify(repository, Mockito.never())
+          .updateReservationStatus(anyString(), anyString(), any(), any());
+      verify(repository, times(1)).updateReservationStatusByIds("TEST", List.of("r1"),
+          ReservationStatus.TEMPORARY, ReservationStatus.CANCELLED);
+    }
+
+    @Test
+    void キャンセルの取り消しで宿泊プランに空きがない場合_変更せず満室の結果を返すこと() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+      when(repository.lockReservationStatusByIds("TEST", Set.of("r1")))
+          .thenReturn(List.of(createReservation("r1", ReservationStatus.CANCELLED)));
+      when(repository.lockBookingByIds("TEST", Set.of(BOOKING_ID)))
+          .thenReturn(List.of(createCapacityBooking(1)));
+      when(repository.findReservationStayByBooking("TEST", BOOKING_ID, CHECK_IN, CHECK_IN))
+          .thenReturn(List.of(createReservation("r2", ReservationStatus.NOT_CHECKED_IN)));
+
+      ReservationTransitionResult actual =
+          sut.changeStatus(auth, "r1", ReservationAction.REVERT);
+
+      assertFalse(actual.isSuccess());
+      assertEquals(ReservationStatus.CANCELLED, actual.getFrom());
+      assertThat(actual.getMessage()).endsWith("の宿泊は満室です");
+      InOrder inOrder = Mockito.inOrder(repository);
+      inOrder.verify(repository).lockReservationStatusByIds("TEST", Set.of("r1"));
+      inOrder.verify(repository).lockBookingByIds("TEST", Set.of(BOOKING_ID));
+      verify(repository, Mockito.never())
+          .updateReservationStatusByIds(anyString(), any(), any(), any());
+    }
+
+    @Test
+    void 同じ宿泊プランに戻す予約は_先に戻せた予約を加えて空きを確認すること() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+      when(repository.lockReservationStatusByIds("TEST", Set.of("r1", "r2")))
+          .thenReturn(List.of(
+              createReservation("r1", ReservationStatus.CANCELLED),
+              createReservation("r2", ReservationStatus.NO_SHOW)));
+      when(repository.lockBookingByIds("TEST", Set.of(BOOKING_ID)))
+          .thenReturn(List.of(createCapacityBooking(1)));
+
+      List<ReservationTransitionResult> actual = sut.changeStatusAll(auth,
+          List.of("r1", "r2"), ReservationAction.REVERT);
+
+      assertEquals(List.of(true, false),
+          actual.stream().map(ReservationTransitionResult::isSuccess).toList());
+      verify(repository, times(1)).updateReservationStatusByIds("TEST", List.of("r1"),
+          ReservationStatus.CANCELLED, ReservationStatus.NOT_CHECKED_IN);
+      verify(repository, Mockito.never()).updateReservationStatusByIds("TEST", List.of("r2"),
+          ReservationStatus.NO_SHOW, ReservationStatus.NOT_CHECKED_IN);
+    }
+
+    private Reservation createReservation(String id, ReservationStatus status) {
+      Reservation reservation = new Reservation();
+      reservation.setId(id);
+      reservation.setBookingId(BOOKING_ID);
+      reservation.setCheckInDate(CHECK_IN);
+      reservation.setCheckOutDate(CHECK_IN.plusDays(1));
+      reservation.setStayDays(1);
+      reservation.setStatus(status);
+      return reservation;
+    }
+
+    private Booking createCapacityBooking(int capacity) {
+      Booking booking = createBooking();
+      booking.setId(BOOKING_ID);
+      booking.setCapacity(capacity);
+      return booking;
+    }
+  }
+
+  @Nested
+  @DisplayName("宿泊プランの空き状況")
+  class getAvailability {
+
+    private static final String BOOKING_ID = "aaaaaaa1-aaaa-aaaa-aaaa-aaaaaaaaaaaa";
+
+    @Test
+    void 索引の作成後は宿泊予約を検索せず_索引の予約数から残り数を求めること() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+      when(repository.findAllReservationStay()).thenReturn(List.of(
+          createStay("r1", LocalDate.of(2025, 8, 1), LocalDate.of(2025, 8, 3)),
+          createStay("r2", LocalDate.of(2025, 8, 2), LocalDate.of(2025, 8, 4))));
+      when(repository.findAllBooking("TEST")).thenReturn(List.of(createCapacityBooking(2)));
+      sut.buildBookingOccupancyIndex();
+
+      BookingAvailability actual = sut.getAvailability(auth, BOOKING_ID,
+          LocalDate.of(2025, 7, 31), LocalDate.of(2025, 8, 3));
+
+      assertThat(actual.getCapacity()).isEqualTo(2);
+      assertThat(actual.getDays())
+          .extracting(DailyAvailability::getDate, DailyAvailability::getReserved,
+              DailyAvailability::getRemaining)
+          .containsExactly(
+              tuple(LocalDate.of(2025, 7, 31), 0, 2),
+              tuple(LocalDate.of(2025, 8, 1), 1, 1),
+              tuple(LocalDate.of(2025, 8, 2), 2, 0),
+              tuple(LocalDate.of(2025, 8, 3), 1, 1));
+      verify(repository, Mockito.never())
+          .findReservationStayByBooking(anyString(), anyString(), any(), any());
+    }
+
+    @Test
+    void 索引の作成前は期間にかかる宿泊予約から数えること() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+      LocalDate from = LocalDate.of(2025, 8, 1);
+      LocalDate to = LocalDate.of(2025, 8, 2);
+      when(repository.findAllBooking("TEST")).thenReturn(List.of(createCapacityBooking(1)));
+      when(repository.findReservationStayByBooking("TEST", BOOKING_ID, from, to))
+          .thenReturn(List.of(createStay("r1", from, LocalDate.of(2025, 8, 5))));
+
+      BookingAvailability actual = sut.getAvailability(auth, BOOKING_ID, from, to);
+
+      assertThat(actual.getDays())
+          .extracting(DailyAvailability::getReserved)
+          .containsExactly(1, 1);
+    }
+
+    @Test
+    void 登録とステータスの変更が空き状況に反映されること() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+      sut.buildBookingOccupancyIndex();
+      GuestRegistration registration = crateRegistration();
+      when(repository.lockBookingById(BOOKING_ID, "TEST")).thenReturn(createCapacityBooking(3));
+      when(repository.findAllBooking("TEST")).thenReturn(List.of(createCapacityBooking(3)));
+      LocalDate today = registration.getCheckInDate();
+
+      sut.registerGuest(auth, registration);
+      assertThat(sut.getAvailability(auth, BOOKING_ID, today, today).getDays().getFirst()
+          .getReserved()).isEqualTo(1);
+
+      String reservationId = insertedReservationId();
+      when(repository.lockReservationStatusByIds("TEST", Set.of(reservationId)))
+          .thenReturn(List.of(createStay(reservationId, today, today.plusDays(1))));
+      sut.changeStatus(auth, reservationId, ReservationAction.CANCEL);
+
+      assertThat(sut.getAvailability(auth, BOOKING_ID, today, today).getDays().getFirst()
+          .getReserved()).isZero();
+    }
+
+    @Test
+    void 終了日が開始日より前の場合と期間が長すぎる場合_InvalidDateRangeExceptionになること() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+      LocalDate from = LocalDate.of(2025, 8, 1);
+
+      assertThatThrownBy(() -> sut.getAvailability(auth, BOOKING_ID, from, from.minusDays(1)))
+          .isInstanceOf(InvalidDateRangeException.class);
+      assertThatThrownBy(() -> sut.getAvailability(auth, BOOKING_ID, from,
+          from.plusDays(BookingAvailability.MAX_DAYS)))
+          .isInstanceOf(InvalidDateRangeException.class);
+      verify(repository, Mockito.never()).findAllBooking(anyString());
+    }
+
+    @Test
+    void 宿泊予約の編集で空きのない泊まで延ばす場合_BookingFullExceptionになり更新しないこと() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+      LocalDate checkIn = LocalDate.of(2025, 8, 1);
+      Reservation current = createStay("r1", checkIn, checkIn.plusDays(1));
+      when(repository.lockReservationById("r1", "TEST")).thenReturn(current);
+      when(repository.lockBookingById(BOOKING_ID, "TEST")).thenReturn(createCapacityBooking(1));
+      when(repository.findReservationStayByBooking("TEST", BOOKING_ID, checkIn,
+          checkIn.plusDays(1)))
+          .thenReturn(List.of(current, createStay("r2", checkIn.plusDays(1), checkIn.plusDays(2))));
+
+      assertThatThrownBy(() -> sut.updateReservation(auth,
+          createStay("r1", checkIn, checkIn.plusDays(2))))
+          .isInstanceOf(BookingFullException.class);
+      InOrder inOrder = Mockito.inOrder(repository);
+      inOrder.verify(repository).lockReservationById("r1", "TEST");
+      inOrder.verify(repository).lockBookingById(BOOKING_ID, "TEST");
+      verify(repository, Mockito.never()).updateReservation(any(), anyString());
+    }
+
+    @Test
+    void 宿泊予約の編集は変更前の行を除いて変更後の宿泊期間で数えること() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+      LocalDate checkIn = LocalDate.of(2025, 8, 1);
+      Reservation current = createStay("r1", checkIn, checkIn.plusDays(1));
+      Reservation edited = createStay("r1", checkIn, checkIn.plusDays(2));
+      when(repository.lockReservationById("r1", "TEST")).thenReturn(current);
+      when(repository.lockBookingById(BOOKING_ID, "TEST")).thenReturn(createCapacityBooking(1));
+      when(repository.findReservationStayByBooking("TEST", BOOKING_ID, checkIn,
+          checkIn.plusDays(1)))
+          .thenReturn(List.of(current));
+
+      sut.updateReservation(auth, edited);
+
+      verify(repository).updateReservation(edited, "TEST");
+    }
+
+    @Test
+    void 宿泊プランがない場合_nullが返ること() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+      LocalDate from = LocalDate.of(2025, 8, 1);
+
+      assertThat(sut.getAvailability(auth, "not-exist", from, from)).isNull();
+    }
+
+    // 登録した宿泊予約のIDをリポジトリに渡された宿泊予約から取り出す
+    private String insertedReservationId() {
+      ArgumentCaptor<Reservation> captor = ArgumentCaptor.forClass(Reservation.class);
+      verify(repository).insertReservation(captor.capture());
+      return captor.getValue().getId();
+    }
+
+    private Reservation createStay(String id, LocalDate checkIn, LocalDate checkOut) {
+      Reservation reservation = new Reservation();
+      reservation.setId(id);
+      reservation.setUserId("TEST");
+      reservation.setBookingId(BOOKING_ID);
+      reservation.setCheckInDate(checkIn);
+      reservation.setCheckOutDate(checkOut);
+      reservation.setStatus(ReservationStatus.NOT_CHECKED_IN);
+      return reservation;
+    }
+
+    private Booking createCapacityBooking(int capacity) {
+      Booking booking = createBooking();
+      booking.setId(BOOKING_ID);
+      booking.setCapacity(capacity);
+      return booking;
+    }
+  }
+
+  @Nested
+  @DisplayName("宿泊プランのキャッシュ")
+  class bookingPlanCaching {
+
+    @Test
+    void 宿泊プランの一覧はユーザーごとに1回だけDBから読み込まれること() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+      Booking booking = createBooking();
+      when(repository.findAllBooking("TEST")).thenReturn(List.of(booking));
+
+      sut.getAllBooking(auth);
+      List<Booking> actual = sut.getAllBooking(auth);
+
+      assertThat(actual).containsExactly(booking);
+      verify(repository, times(1)).findAllBooking("TEST");
+      assertThat(sut.getCacheStats(auth))
+          .extracting(CacheStats::getName, CacheStats::getHits, CacheStats::getMisses)
+          .containsExactly(tuple("bookingPlans", 1L, 1L), tuple("guestSearch", 0L, 0L));
+    }
+
+    @Test
+    void 宿泊プランの登録_変更_削除のたびに次の取得でDBから読み込み直されること() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+      Booking booking = createBooking();
+      when(repository.findAllBooking("TEST")).thenReturn(List.of(booking));
+
+      sut.getAllBooking(auth);
+      sut.registerBooking(auth, createBooking());
+      sut.getAllBooking(auth);
+      sut.updateBooking(auth, booking);
+      sut.getAllBooking(auth);
+      sut.logicalDeleteBooking(auth, booking.getId());
+      sut.getAllBooking(auth);
+
+      verify(repository, times(4)).findAllBooking("TEST");
+      assertThat(sut.getCacheStats(auth))
+          .extracting(CacheStats::getName, CacheStats::getInvalidations)
+          .containsExactly(tuple("bookingPlans", 3L), tuple("guestSearch", 2L));
+    }
+  }
+
+  @Nested
+  @DisplayName("日別の集計")
+  class dailyStats {
+
+    private static final String BOOKING_ID = "aaaaaaa1-aaaa-aaaa-aaaa-aaaaaaaaaaaa";
+
+    @Test
+    void 集計表の行から日別_宿泊プラン別の稼働率とADRを求め_行のない日と宿泊プランは0になること() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+      LocalDate from = LocalDate.of(2025, 8, 1);
+      Booking other = createBooking();
+      other.setCapacity(2);
+      when(repository.findAllBooking("TEST")).thenReturn(List.of(createReportBooking(3), other));
+      when(repository.findDailyStats("TEST", from, from.plusDays(1)))
+          .thenReturn(List.of(createStats(from, 2, "25000.00")));
+
+      List<DailyReport> actual = sut.getDailyReport(auth, from, from.plusDays(1));
+
+      assertThat(actual)
+          .extracting(DailyReport::getDate, DailyReport::getRoomsSold, DailyReport::getCapacity,
+              DailyReport::getOccupancyRate, DailyReport::getAdr, DailyReport::getRevenue)
+          .containsExactly(
+              tuple(from, 2, 5, new BigDecimal("0.4000"), new BigDecimal("12500.00"),
+                  new BigDecimal("25000.00")),
+              tuple(from.plusDays(1), 0, 5, new BigDecimal("0.0000"), BigDecimal.ZERO,
+                  BigDecimal.ZERO));
+      assertThat(actual.getFirst().getPlans())
+          .extracting(PlanDailyReport::getBookingId, PlanDailyReport::getRoomsSold,
+              PlanDailyReport::getOccupancyRate, PlanDailyReport::getAdr)
+          .containsExactly(
+              tuple(BOOKING_ID, 2, new BigDecimal("0.6667"), new BigDecimal("12500.00")),
+              tuple(other.getId(), 0, new BigDecimal("0.0000"), BigDecimal.ZERO));
+    }
+
+    @Test
+    void 終了日が開始日より前の場合と期間が長すぎる場合_InvalidDateRangeExceptionになること() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+      LocalDate from = LocalDate.of(2025, 8, 1);
+
+      assertThatThrownBy(() -> sut.getDailyReport(auth, from, from.minusDays(1)))
+          .isInstanceOf(InvalidDateRangeException.class);
+      assertThatThrownBy(() -> sut.getDailyReport(auth, from,
+          from.plusDays(DailyReport.MAX_DAYS)))
+          .isInstanceOf(InvalidDateRangeException.class);
+      verify(repository, Mockito.never()).findDailyStats(anyString(), any(), any());
+    }
+
+    @Test
+    void 宿泊者の登録で宿泊期間の泊ごとの差分が加えられること() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+      GuestRegistration registration = crateRegistration();
+      registration.setStayDays(2);
+      when(repository.lockBookingById(BOOKING_ID, "TEST")).thenReturn(createReportBooking(3));
+
+      sut.registerGuest(auth, registration);
+
+      LocalDate checkIn = registration.getCheckInDate();
+      assertThat(captureDailyStats())
+          .extracting(DailyStats::getStayDate, DailyStats::getBookingId, DailyStats::getRoomsSold)
+          .containsExactly(
+              tuple(checkIn, BOOKING_ID, 1),
+              tuple(checkIn.plusDays(1), BOOKING_ID, 1));
+    }
+
+    @Test
+    void 宿泊予約の編集は変更前を行ロック付きで読み_変更前を差し引いて変更後を加えること() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+      LocalDate checkIn = LocalDate.of(2025, 8, 1);
+      Reservation reservation = createReportReservation(checkIn, 1, "10000.00");
+      when(repository.lockReservationById("r1", "TEST")).thenReturn(reservation);
+      when(repository.lockBookingById(BOOKING_ID, "TEST")).thenReturn(createReportBooking(3));
+      when(repository.findReservationById("r1", "TEST"))
+          .thenReturn(createReportReservation(checkIn, 2, "18000.00"));
+
+      sut.updateReservation(auth, reservation);
+
+      InOrder inOrder = Mockito.inOrder(repository);
+      inOrder.verify(repository).lockReservationById("r1", "TEST");
+      inOrder.verify(repository).lockBookingById(BOOKING_ID, "TEST");
+      inOrder.verify(repository).updateReservation(reservation, "TEST");
+      assertThat(captureDailyStats())
+          .extracting(DailyStats::getStayDate, DailyStats::getRoomsSold, DailyStats::getRevenue)
+          .containsExactly(
+              tuple(checkIn, 0, new BigDecimal("-1000.00")),
+              tuple(checkIn.plusDays(1), 1, new BigDecimal("9000.00")));
+    }
+
+    @Test
+    void ノーショーにした場合_宿泊予約を読んで差し引き_チェックインでは集計表を更新しないこと() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+      LocalDate checkIn = LocalDate.of(2025, 8, 1);
+      when(repository.updateReservationStatus(anyString(), anyString(), any(), any()))
+          .thenReturn(1);
+      when(repository.findReservationById("r1", "TEST"))
+          .thenReturn(createReportReservation(checkIn, 1, "10000.00"));
+
+      sut.changeStatus(auth, "r1", ReservationAction.CHECK_IN);
+      verify(repository, Mockito.never()).addDailyStats(anyString(), any());
+
+      sut.changeStatus(auth, "r1", ReservationAction.NO_SHOW);
+      assertThat(captureDailyStats())
+          .extracting(DailyStats::getStayDate, DailyStats::getRoomsSold, DailyStats::getRevenue)
+          .containsExactly(tuple(checkIn, -1, new BigDecimal("-10000.00")));
+    }
+
+    @Test
+    void 起動時は空き状況の索引だけを作成し_集計表には加えないこと() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      LocalDate checkIn = LocalDate.of(2025, 8, 1);
+      when(repository.findAllReservationStay())
+          .thenReturn(List.of(createReportReservation(checkIn, 1, "10000.00")));
+
+      sut.buildBookingOccupancyIndex();
+
+      verify(repository, Mockito.never()).addDailyStats(anyString(), any());
+    }
+
+    // 日別の集計に加えた差分をリポジトリに渡された引数から取り出す
+    @SuppressWarnings("unchecked")
+    private List<DailyStats> captureDailyStats() {
+      ArgumentCaptor<List<DailyStats>> captor = ArgumentCaptor.forClass(List.class);
+      verify(repository).addDailyStats(Mockito.eq("TEST"), captor.capture());
+      return captor.getValue();
+    }
+
+    private Reservation createReportReservation(LocalDate checkIn, int stayDays,
+        String totalPrice) {
+      Reservation reservation = new Reservation();
+      reservation.setId("r1");
+      reservation.setUserId("TEST");
+      reservation.setBookingId(BOOKING_ID);
+      reservation.setCheckInDate(checkIn);
+      reservation.setCheckOutDate(checkIn.plusDays(stayDays));
+      reservation.setStayDays(stayDays);
+      reservation.setTotalPrice(new BigDecimal(totalPrice));
+      reservation.setStatus(ReservationStatus.NOT_CHECKED_IN);
+      return reservation;
+    }
+
+    private DailyStats createStats(LocalDate stayDate, int roomsSold, String revenue) {
+      DailyStats stats = new DailyStats();
+      stats.setStayDate(stayDate);
+      stats.setBookingId(BOOKING_ID);
+      stats.setRoomsSold(roomsSold);
+      stats.setRevenue(new BigDecimal(revenue));
+      return stats;
+    }
+
+    private Booking createReportBooking(int capacity) {
+      Booking booking = createBooking();
+      booking.setId(BOOKING_ID);
+      booking.setCapacity(capacity);
+      return booking;
+    }
+  }
+
+  @Nested
+  @DisplayName("宿泊者の属性別の集計")
+  class getDemographics {
+
+    private static final String BOOKING_ID = "aaaaaaa1-aaaa-aaaa-aaaa-aaaaaaaaaaaa";
+
+    @Test
+    void 起動時に作成した集計から_宿泊者と宿泊予約を検索せずに求めること() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+      Guest guest = createGuest();
+      guest.setId("g1");
+      guest.setUserId("TEST");
+      when(repository.findAllGuestProfile()).thenReturn(List.of(guest));
+      when(repository.findAllReservationGuest()).thenReturn(List.of(
+          createGuestStay("r1", LocalDate.of(2025, 8, 30), 3, ReservationStatus.CHECKED_OUT),
+          createGuestStay("r2", LocalDate.of(2025, 8, 1), 1, ReservationStatus.CANCELLED)));
+      sut.buildGuestDemographicsCube();
+
+      List<DemographicsCell> actual = sut.getDemographics(auth, YearMonth.of(2025, 8),
+          YearMonth.of(2025, 9), null);
+
+      assertThat(actual)
+          .extracting(DemographicsCell::getMonth, DemographicsCell::getRegion,
+              DemographicsCell::getAgeBand, DemographicsCell::getGender,
+              DemographicsCell::getReservations, DemographicsCell::getNights)
+          .containsExactly(tuple(YearMonth.of(2025, 8), "青森県", 30, "MALE", 1, 3));
+      assertThat(sut.getDemographics(auth, YearMonth.of(2025, 8), YearMonth.of(2025, 8),
+          "not-exist")).isEmpty();
+      verify(repository, times(1)).findAllReservationGuest();
+    }
+
+    @Test
+    void 宿泊者の登録と属性の変更_ステータスの変更が集計に反映されること() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+      sut.buildGuestDemographicsCube();
+      GuestRegistration registration = crateRegistration();
+      when(repository.lockBookingById(BOOKING_ID, "TEST")).thenReturn(createBooking());
+      YearMonth month = YearMonth.from(registration.getCheckInDate());
+
+      sut.registerGuest(auth, registration);
+      assertThat(sut.getDemographics(auth, month, month, BOOKING_ID))
+          .extracting(DemographicsCell::getRegion, DemographicsCell::getReservations)
+          .containsExactly(tuple("青森県", 1));
+
+      Guest guest = registration.getGuest();
+      guest.setRegion("東京都");
+      when(repository.updateGuest(guest, "TEST")).thenReturn(1);
+      sut.updateGuest(auth, guest);
+      assertThat(sut.getDemographics(auth, month, month, null))
+          .extracting(DemographicsCell::getRegion, DemographicsCell::getReservations)
+          .containsExactly(tuple("東京都", 1));
+
+      ArgumentCaptor<Reservation> captor = ArgumentCaptor.forClass(Reservation.class);
+      verify(repository).insertReservation(captor.capture());
+      when(repository.updateReservationStatus(anyString(), anyString(), any(), any()))
+          .thenReturn(1);
+      sut.changeStatus(auth, captor.getValue().getId(), ReservationAction.NO_SHOW);
+      assertThat(sut.getDemographics(auth, month, month, null)).isEmpty();
+    }
+
+    @Test
+    void 終了月が開始月より前の場合と期間が長すぎる場合_InvalidDateRangeExceptionになること() {
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
+      Authentication auth = getAuthentication();
+      YearMonth from = YearMonth.of(2025, 8);
+
+      assertThatThrownBy(() -> sut.getDemographics(auth, from, from.minusMonths(1), null))
+          .isInstanceOf(InvalidDateRangeException.class);
+      assertThatThrownBy(() -> sut.getDemographics(auth, from,
+          from.plusMonths(DemographicsCell.MAX_MONTHS), null))
+          .isInstanceOf(InvalidDateRangeException.class);
+    }
+
+    private Reservation createGuestStay(String id, LocalDate checkIn, int stayDays,
+        ReservationStatus status) {
+      Reservation reservation = new Reservation();
+      reservation.setId(id);
+      reservation.setUserId("TEST");
+      reservation.setGuestId("g1");
+      reservation.setBookingId(BOOKING_ID);
+      reservation.setCheckInDate(checkIn);
+      reservation.setCheckOutDate(checkIn.plusDays(stayDays));
+      reservation.setStayDays(stayDays);
+      reservation.setStatus(status);
+      return reservation;
     }
   }
 
   @Test
   void ユーザーの登録処理_リポジトリが呼び出せていること() {
-    HotelService sut = new HotelService(repository, converter);
+    HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+        batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+        guestSearchCache, singleFlight);
     User user = new User();
     user.setId("TEST");
     user.setPassword("HASHED");
@@ -440,7 +1966,9 @@ class HotelServiceTest {
 
     @Test
     void ユーザーが存在するとUserDetailsを返す() {
-      HotelService sut = new HotelService(repository, converter);
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
       User user = new User();
       user.setId("TEST");
       user.setPassword("HASHED");
@@ -460,7 +1988,9 @@ class HotelServiceTest {
 
     @Test
     void 見つからない場合はUsernameNotFoundException() {
-      HotelService sut = new HotelService(repository, converter);
+      HotelService sut = new HotelService(repository, converter, guestNameIndex, guestKanaTrie,
+          batchSession, bookingOccupancyIndex, guestDemographicsCube, bookingPlanCache,
+          guestSearchCache, singleFlight);
       when(repository.findUserById("UNKNOWN")).thenReturn(null);
 
       assertThatThrownBy(() -> sut.loadUserByUsername("UNKNOWN"))
@@ -485,6 +2015,14 @@ class HotelServiceTest {
     return guest;
   }
 
+  private Room createRoom(String id, String name) {
+    Room room = new Room();
+    room.setId(id);
+    room.setBookingId("aaaaaaa1-aaaa-aaaa-aaaa-aaaaaaaaaaaa");
+    room.setName(name);
+    return room;
+  }
+
   private static Booking createBooking() {
     Booking booking = new Booking();
 
@@ -0,0 +1,116 @@
+package com.portfolio.hotel.management.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.portfolio.hotel.management.data.booking.Booking;
+import com.portfolio.hotel.management.data.cache.CacheStats;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class BookingPlanCacheTest {
+
+  private final AtomicLong now = new AtomicLong();
+  private final List<String> loaded = new ArrayList<>();
+  private final BookingPlanCache sut = new BookingPlanCache(2, Duration.ofMinutes(10),
+      now::get);
+
+  @Test
+  void 二回目以降の取得はDBを検索せずにキャッシュから返る() {
+    List<Booking> first = sut.getAll("testuser01", this::load);
+    List<Booking> second = sut.getAll("testuser01", this::load);
+    Booking booking = sut.get("testuser01", "testuser01-plan", this::load);
+
+    assertThat(loaded).containsExactly("testuser01");
+    assertThat(second).isSameAs(first);
+    assertThat(booking.getName()).isEqualTo("testuser01のプラン");
+    assertThat(sut.get("testuser01", "unknown", this::load)).isNull();
+  }
+
+  @Test
+  void 無効化したユーザーの宿泊プランだけが読み込み直される() {
+    sut.getAll("testuser01", this::load);
+    sut.getAll("testuser02", this::load);
+
+    sut.invalidate("testuser01");
+    sut.getAll("testuser01", this::load);
+    sut.getAll("testuser02", this::load);
+
+    assertThat(loaded).containsExactly("testuser01", "testuser02", "testuser01");
+  }
+
+  @Test
+  void 有効期限を過ぎた宿泊プランは読み込み直される() {
+    sut.getAll("testuser01", this::load);
+    now.addAndGet(Duration.ofMinutes(10).toNanos() - 1);
+    sut.getAll("testuser01", this::load);
+    now.addAndGet(1);
+    sut.getAll("testuser01", this::load);
+
+    assertThat(loaded).containsExactly("testuser01", "testuser01");
+    assertThat(sut.stats("testuser01").getEvictions()).isEqualTo(1);
+  }
+
+  @Test
+  void ユーザー数の上限を超えると最も長く使われていないユーザーから追い出される() {
+    sut.getAll("testuser01", this::load);
+    sut.getAll("testuser02", this::load);
+    sut.getAll("testuser01", this::load);
+    sut.getAll("testuser03", this::load);
+
+    sut.getAll("testuser01", this::load);
+    sut.getAll("testuser02", this::load);
+
+    assertThat(loaded).containsExactly("testuser01", "testuser02", "testuser03", "testuser02");
+  }
+
+  @Test
+  void 読み込み中に無効化された場合_読み込んだ宿泊プランはキャッシュされない() {
+    sut.getAll("testuser01", userId -> {
+      List<Booking> bookings = load(userId);
+      sut.invalidate(userId);
+      return bookings;
+    });
+    sut.getAll("testuser01", this::load);
+
+    assertThat(loaded).containsExactly("testuser01", "testuser01");
+  }
+
+  @Test
+  void ヒット_ミス_追い出し_無効化の回数がユーザーごとに数えられる() {
+    sut.getAll("testuser01", this::load);
+    sut.getAll("testuser01", this::load);
+    sut.getAll("testuser01", this::load);
+    sut.getAll("testuser02", this::load);
+    sut.getAll("testuser03", this::load);
+    sut.invalidate("testuser03");
+    sut.invalidate("testuser03");
+
+    CacheStats actual = sut.stats("testuser01");
+
+    assertThat(actual.getName()).isEqualTo("bookingPlans");
+    assertThat(actual.getSize()).isZero();
+    assertThat(actual.getHits()).isEqualTo(2);
+    assertThat(actual.getMisses()).isEqualTo(1);
+    assertThat(actual.getEvictions()).isEqualTo(1);
+    assertThat(actual.getInvalidations()).isZero();
+    assertThat(actual.getHitRate()).isEqualTo(2.0 / 3);
+
+    CacheStats other = sut.stats("testuser02");
+    assertThat(other.getSize()).isEqualTo(1);
+    assertThat(other.getHits()).isZero();
+    assertThat(other.getMisses()).isEqualTo(1);
+    assertThat(sut.stats("testuser03").getInvalidations()).isEqualTo(1);
+  }
+
+  private List<Booking> load(String userId) {
+    loaded.add(userId);
+    Booking booking = new Booking();
+    booking.setId(userId + "-plan");
+    booking.setName(userId + "のプラン");
+    booking.setUserId(userId);
+    return List.of(booking);
+  }
+}
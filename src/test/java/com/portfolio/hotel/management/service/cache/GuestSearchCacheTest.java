@@ -0,0 +1,148 @@
+package com.portfolio.hotel.management.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.portfolio.hotel.management.data.cache.CacheStats;
+import com.portfolio.hotel.management.data.guest.Guest;
+import com.portfolio.hotel.management.data.guest.GuestDetail;
+import com.portfolio.hotel.management.data.guest.GuestSearchCondition;
+import com.portfolio.hotel.management.data.reservation.Reservation;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class GuestSearchCacheTest {
+
+  private final AtomicLong now = new AtomicLong();
+  private final AtomicInteger searched = new AtomicInteger();
+  private final GuestSearchCache sut = new GuestSearchCache(GuestSearchCache.MAX_BYTES,
+      Duration.ofSeconds(30), now::get);
+
+  @Test
+  void 同じ条件の検索は2回目からキャッシュした結果が返ること() {
+    List<GuestDetail> first = sut.get("testuser01", condition("08098765432", null),
+        this::search);
+    GuestSearchCondition same = condition("08098765432", null);
+    same.setName("");
+    same.setUserId("testuser02");
+    List<GuestDetail> second = sut.get("testuser01", same, this::search);
+
+    assertThat(searched).hasValue(1);
+    assertThat(second).isSameAs(first);
+  }
+
+  @Test
+  void 条件やユーザーが異なる検索はキャッシュした結果を使わないこと() {
+    sut.get("testuser01", condition("08098765432", null), this::search);
+    sut.get("testuser01", condition("08098765432", LocalDate.of(2025, 8, 1)), this::search);
+    sut.get("testuser02", condition("08098765432", null), this::search);
+
+    assertThat(searched).hasValue(3);
+  }
+
+  @Test
+  void 無効化したユーザーの検索だけがDBを検索し直すこと() {
+    sut.get("testuser01", condition("08098765432", null), this::search);
+    sut.get("testuser02", condition("08098765432", null), this::search);
+
+    sut.invalidate("testuser01");
+    sut.get("testuser01", condition("08098765432", null), this::search);
+    sut.get("testuser02", condition("08098765432", null), this::search);
+
+    assertThat(searched).hasValue(3);
+  }
+
+  @Test
+  void 検索中に無効化された場合_検索結果はキャッシュされないこと() {
+    sut.get("testuser01", condition("08098765432", null), () -> {
+      sut.invalidate("testuser01");
+      return search();
+    });
+    sut.get("testuser01", condition("08098765432", null), this::search);
+
+    assertThat(searched).hasValue(2);
+  }
+
+  @Test
+  void 保持する時間を過ぎた検索結果は使わないこと() {
+    sut.get("testuser01", condition("08098765432", null), this::search);
+    now.addAndGet(Duration.ofSeconds(30).toNanos());
+    sut.get("testuser01", condition("08098765432", null), this::search);
+
+    assertThat(searched).hasValue(2);
+    assertThat(sut.stats("testuser01").getEvictions()).isEqualTo(1);
+  }
+
+  @Test
+  void 推定メモリ使用量の上限を超えると最も長く使われていない検索結果から追い出されること() {
+    long oneResult = GuestSearchCache.estimateBytes(search());
+    searched.set(0);
+    GuestSearchCache cache = new GuestSearchCache(oneResult * 2, Duration.ofSeconds(30),
+        now::get);
+
+    cache.get("testuser01", condition("1", null), this::search);
+    cache.get("testuser01", condition("2", null), this::search);
+    cache.get("testuser01", condition("1", null), this::search);
+    cache.get("testuser01", condition("3", null), this::search);
+    cache.get("testuser01", condition("1", null), this::search);
+    cache.get("testuser01", condition("2", null), this::search);
+
+    assertThat(searched).hasValue(4);
+    CacheStats stats = cache.stats("testuser01");
+    assertThat(stats.getSize()).isEqualTo(2);
+    assertThat(stats.getEstimatedBytes()).isEqualTo(oneResult * 2);
+    assertThat(stats.getEvictions()).isEqualTo(2);
+  }
+
+  @Test
+  void ヒット率と推定メモリ使用量がユーザーごとに数えられること() {
+    sut.get("testuser01", condition("08098765432", null), this::search);
+    sut.get("testuser01", condition("08098765432", null), this::search);
+    sut.get("testuser01", condition("08098765432", null), this::search);
+    sut.get("testuser01", condition("08012345678", null), this::search);
+    sut.get("testuser02", condition("08098765432", null), this::search);
+    sut.invalidate("testuser01");
+
+    CacheStats actual = sut.stats("testuser01");
+
+    assertThat(actual.getName()).isEqualTo("guestSearch");
+    assertThat(actual.getHits()).isEqualTo(2);
+    assertThat(actual.getMisses()).isEqualTo(2);
+    assertThat(actual.getHitRate()).isEqualTo(0.5);
+    assertThat(actual.getInvalidations()).isEqualTo(1);
+    assertThat(actual.getEstimatedBytes())
+        .isEqualTo(GuestSearchCache.estimateBytes(search()) * 2);
+
+    CacheStats other = sut.stats("testuser02");
+    assertThat(other.getSize()).isEqualTo(1);
+    assertThat(other.getHits()).isZero();
+    assertThat(other.getMisses()).isEqualTo(1);
+    assertThat(other.getInvalidations()).isZero();
+  }
+
+  private GuestSearchCondition condition(String phone, LocalDate checkInDate) {
+    GuestSearchCondition condition = new GuestSearchCondition();
+    condition.setPhone(phone);
+    condition.setCheckInDate(checkInDate);
+    return condition;
+  }
+
+  private List<GuestDetail> search() {
+    searched.incrementAndGet();
+    Guest guest = new Guest();
+    guest.setId("11111111-1111-1111-1111-111111111111");
+    guest.setName("山田太郎");
+    guest.setPhone("08098765432");
+    Reservation reservation = new Reservation();
+    reservation.setId("22222222-2222-2222-2222-222222222222");
+    reservation.setGuestId(guest.getId());
+    GuestDetail guestDetail = new GuestDetail();
+    guestDetail.setGuest(guest);
+    guestDetail.setBookings(List.of());
+    guestDetail.setReservations(List.of(reservation));
+    return List.of(guestDetail);
+  }
+}
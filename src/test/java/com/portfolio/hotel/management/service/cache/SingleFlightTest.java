@@ -0,0 +1,99 @@
+package com.portfolio.hotel.management.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+  private static final int CALLERS = 8;
+
+  private final SingleFlight sut = new SingleFlight();
+  private final AtomicInteger loaded = new AtomicInteger();
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  @Test
+  void 同じキーの同時の呼び出しは1回だけ読み込み_結果を共有すること() throws Exception {
+    List<Object> actual = callConcurrently(() -> sut.execute("key", () -> {
+      loaded.incrementAndGet();
+      awaitRelease();
+      return List.of("result");
+    }));
+
+    assertThat(loaded).hasValue(1);
+    assertThat(actual).hasSize(CALLERS).containsOnly(List.of("result"));
+  }
+
+  @Test
+  void 読み込みで発生した例外は待っていた呼び出しにも投げられること() throws Exception {
+    List<Object> actual = callConcurrently(() -> {
+      try {
+        return sut.execute("key", () -> {
+          loaded.incrementAndGet();
+          awaitRelease();
+          throw new IllegalStateException("DBエラー");
+        });
+      } catch (IllegalStateException e) {
+        return e.getMessage();
+      }
+    });
+
+    assertThat(loaded).hasValue(1);
+    assertThat(actual).hasSize(CALLERS).containsOnly("DBエラー");
+  }
+
+  @Test
+  void 読み込みが終わった後の呼び出しとキーが異なる呼び出しは改めて読み込むこと() {
+    sut.execute("key", loaded::incrementAndGet);
+    sut.execute("key", loaded::incrementAndGet);
+    sut.execute("other", loaded::incrementAndGet);
+
+    assertThat(loaded).hasValue(3);
+  }
+
+  @Test
+  void 読み込みに失敗した後の呼び出しは改めて読み込むこと() {
+    assertThatThrownBy(() -> sut.execute("key", () -> {
+      throw new IllegalStateException("DBエラー");
+    })).isInstanceOf(IllegalStateException.class);
+
+    assertThat(sut.execute("key", () -> "result")).isEqualTo("result");
+  }
+
+  private void awaitRelease() {
+    try {
+      release.await();
+    } catch (InterruptedException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  // 全員が読み込みの終わりを待つ状態になってから読み込みを終わらせ、各スレッドの結果を返す
+  private List<Object> callConcurrently(Supplier<Object> call) throws InterruptedException {
+    List<Object> results = new CopyOnWriteArrayList<>();
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < CALLERS; i++) {
+      Thread thread = new Thread(() -> results.add(call.get()));
+      threads.add(thread);
+      thread.start();
+    }
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (threads.stream().anyMatch(thread -> thread.getState() != Thread.State.WAITING)
+        && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    release.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    return results;
+  }
+}
@@ -0,0 +1,39 @@
+package com.portfolio.hotel.management.service.converter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class GuestMatchKeyTest {
+
+  @Test
+  void 全角半角_ひらがなカタカナ_空白_電話番号の記号の違いがあっても同じキーになる() {
+    String expected = GuestMatchKey.of("佐藤花子", "サトウハナコ", "08098765432");
+
+    assertThat(GuestMatchKey.of("佐藤 花子", "さとうはなこ", "080-9876-5432")).isEqualTo(expected);
+    assertThat(GuestMatchKey.of("佐藤　花子", "ｻﾄｳﾊﾅｺ", "０８０（９８７６）５４３２"))
+        .isEqualTo(expected);
+  }
+
+  @Test
+  void 名前_かな名_電話番号のいずれかが異なる場合は別のキーになる() {
+    String expected = GuestMatchKey.of("佐藤花子", "サトウハナコ", "08098765432");
+
+    assertThat(GuestMatchKey.of("佐藤華子", "サトウハナコ", "08098765432")).isNotEqualTo(expected);
+    assertThat(GuestMatchKey.of("佐藤花子", "サトウハナ", "08098765432")).isNotEqualTo(expected);
+    assertThat(GuestMatchKey.of("佐藤花子", "サトウハナコ", "08098765433")).isNotEqualTo(expected);
+  }
+
+  @Test
+  void 項目の区切りがずれた入力は別のキーになる() {
+    assertThat(GuestMatchKey.of("ab", "c", "1"))
+        .isNotEqualTo(GuestMatchKey.of("a", "bc", "1"));
+  }
+
+  @Test
+  void キーは64文字の16進文字列になる() {
+    assertThat(GuestMatchKey.of("佐藤花子", "サトウハナコ", "08098765432"))
+        .hasSize(64)
+        .matches("[0-9a-f]{64}");
+  }
+}
@@ -11,7 +11,9 @@ import com.portfolio.hotel.management.data.reservation.ReservationStatus;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -51,6 +53,46 @@ class HotelConverterTest {
 
   }
 
+  @Test
+  void 大量データでも従来の結合処理と同じ順序と内容の宿泊者情報が生成できる() {
+    Random random = new Random(20250722L);
+    List<Guest> guestList = createGuests(3000);
+    List<Booking> bookingList = createBookings(40);
+    // 同一IDの宿泊プランが重複していても元の並び順で返ること
+    bookingList.add(bookingList.get(3));
+    List<Reservation> reservationList = createReservations(random, 20000, guestList, bookingList);
+    // INNER JOIN の結果のように同じ宿泊者が複数回並ぶケース
+    guestList.add(guestList.get(10));
+
+    List<GuestDetail> expected = convertGuestDetailByNestedLoop(guestList, bookingList,
+        reservationList);
+    List<GuestDetail> actual = sut.convertGuestDetail(guestList, bookingList, reservationList);
+
+    assertThat(actual).hasSameSizeAs(expected);
+    for (int i = 0; i < expected.size(); i++) {
+      assertThat(actual.get(i).getGuest()).isSameAs(expected.get(i).getGuest());
+      assertThat(actual.get(i).getReservations())
+          .containsExactlyElementsOf(expected.get(i).getReservations());
+      assertThat(actual.get(i).getBookings())
+          .containsExactlyElementsOf(expected.get(i).getBookings());
+    }
+  }
+
+  @Test
+  void 宿泊予約がない宿泊者の場合_宿泊予約と宿泊プランが空のリストになる() {
+    Guest guest = getGuest();
+    guest.setId("11111111-1111-1111-1111-111111111111");
+
+    Booking booking = getBooking();
+    booking.setId("aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa");
+
+    List<GuestDetail> actual = sut.convertGuestDetail(List.of(guest), List.of(booking),
+        List.of());
+
+    assertThat(actual.getFirst().getReservations()).isEmpty();
+    assertThat(actual.getFirst().getBookings()).isEmpty();
+  }
+
   @Test
   void コンバーターを使用して_宿泊者検索を宿泊者に変換できる() {
     GuestMatch guestMatch = new GuestMatch();
@@ -65,6 +107,66 @@ class HotelConverterTest {
 
   }
 
+  // 変更前の結合処理（比較用）
+  private List<GuestDetail> convertGuestDetailByNestedLoop(List<Guest> guests,
+      List<Booking> bookings, List<Reservation> reservations) {
+    List<GuestDetail> guestDetails = new ArrayList<>();
+    for (Guest guest : guests) {
+      GuestDetail guestDetail = new GuestDetail();
+      guestDetail.setGuest(guest);
+      guestDetail.setReservations(reservations.stream()
+          .filter(s -> s.getGuestId().equals(guest.getId()))
+          .toList());
+      List<String> bookingIds = guestDetail.getReservations().stream()
+          .map(Reservation::getBookingId)
+          .distinct()
+          .toList();
+      guestDetail.setBookings(bookings.stream()
+          .filter(s -> bookingIds.contains(s.getId()))
+          .toList());
+      guestDetails.add(guestDetail);
+    }
+    return guestDetails;
+  }
+
+  private List<Guest> createGuests(int size) {
+    List<Guest> guests = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      Guest guest = getGuest();
+      guest.setId(String.format("guest-%05d", i));
+      guests.add(guest);
+    }
+    return guests;
+  }
+
+  private List<Booking> createBookings(int size) {
+    List<Booking> bookings = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      Booking booking = getBooking();
+      booking.setId(String.format("booking-%03d", i));
+      bookings.add(booking);
+    }
+    return bookings;
+  }
+
+  private List<Reservation> createReservations(Random random, int size, List<Guest> guests,
+      List<Booking> bookings) {
+    List<Reservation> reservations = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      Reservation reservation = getReservation();
+      reservation.setId(String.format("reservation-%06d", i));
+      // 一部は存在しない宿泊者・宿泊プランを参照させる
+      reservation.setGuestId(random.nextInt(20) == 0
+          ? "unknown-guest"
+          : guests.get(random.nextInt(guests.size())).getId());
+      reservation.setBookingId(random.nextInt(20) == 0
+          ? "unknown-booking"
+          : bookings.get(random.nextInt(bookings.size())).getId());
+      reservations.add(reservation);
+    }
+    return reservations;
+  }
+
   private Guest getGuest() {
     Guest guest = new Guest();
 
@@ -0,0 +1,91 @@
+package com.portfolio.hotel.management.service.exporter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.OutputStream;
+import java.util.List;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+// 性能測定（./gradlew benchmark で実行）
+@Tag("benchmark")
+@SpringBootTest(properties =
+    "spring.datasource.url=jdbc:h2:mem:export-benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1")
+class GuestExporterBenchmarkTest {
+
+  private static final int ROWS = 1_000_000;
+
+  private static final String USER_ID = "benchmark";
+
+  @Autowired
+  private GuestExporter exporter;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Test
+  void 百万件の宿泊者をCSVで出力する() throws Exception {
+    jdbcTemplate.update("""
+        INSERT INTO guest (id, name, kana_name, gender, age, region, email, phone, user_id)
+        SELECT CONCAT('guest-', LPAD(X, 30, '0')), CONCAT('宿泊者', X), CONCAT('シュクハクシャ', X),
+        '女性', 30, '東京', CONCAT('guest', X, '@example.com'), '09000000000', ?
+        FROM SYSTEM_RANGE(1, ?)
+        """, USER_ID, ROWS);
+    Authentication auth = new UsernamePasswordAuthenticationToken(USER_ID, "pass",
+        List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    Runtime runtime = Runtime.getRuntime();
+    System.gc();
+    long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+    CountingOutputStream out = new CountingOutputStream();
+
+    long start = System.nanoTime();
+    exporter.exportGuests(auth, GuestExportFormat.CSV, out);
+    double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+    System.out.printf("出力件数: %d件, 出力サイズ: %dMB, 処理時間: %.1f秒, スループット: %.0f件/秒, "
+            + "出力前の使用ヒープ: %dMB, 出力中の最大使用ヒープ: %dMB%n",
+        out.lines - 1, out.bytes / 1024 / 1024, seconds, (out.lines - 1) / seconds,
+        heapBefore / 1024 / 1024, out.maxHeap / 1024 / 1024);
+
+    // ヘッダーの1行を含む
+    assertThat(out.lines).isEqualTo(ROWS + 1);
+  }
+
+  // 書き込まれた行数・バイト数と、送り出すたびの使用ヒープの最大値を記録する（内容は保持しない）
+  private static final class CountingOutputStream extends OutputStream {
+
+    private long lines;
+    private long bytes;
+    private long maxHeap;
+
+    @Override
+    public void write(int b) {
+      bytes++;
+      if (b == '\n') {
+        lines++;
+      }
+    }
+
+    @Override
+    public void write(byte[] buffer, int offset, int length) {
+      bytes += length;
+      for (int i = offset; i < offset + length; i++) {
+        if (buffer[i] == '\n') {
+          lines++;
+        }
+      }
+    }
+
+    @Override
+    public void flush() {
+      Runtime runtime = Runtime.getRuntime();
+      maxHeap = Math.max(maxHeap, runtime.totalMemory() - runtime.freeMemory());
+    }
+  }
+}
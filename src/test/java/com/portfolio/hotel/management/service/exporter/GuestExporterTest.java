@@ -0,0 +1,185 @@
+package com.portfolio.hotel.management.service.exporter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.portfolio.hotel.management.data.guest.Guest;
+import com.portfolio.hotel.management.data.reservation.Reservation;
+import com.portfolio.hotel.management.data.reservation.ReservationStatus;
+import com.portfolio.hotel.management.repository.HotelRepository;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import org.apache.ibatis.cursor.Cursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+@ExtendWith(MockitoExtension.class)
+class GuestExporterTest {
+
+  @Mock
+  private HotelRepository repository;
+
+  private GuestExporter sut;
+
+  private final Authentication auth = new UsernamePasswordAuthenticationToken("TEST", "pass",
+      List.of(new SimpleGrantedAuthority("ROLE_USER")));
+
+  @BeforeEach
+  void before() {
+    sut = new GuestExporter(repository, new ObjectMapper().registerModule(new JavaTimeModule()));
+  }
+
+  @Test
+  void 宿泊者をBOMとヘッダー付きのCSVで書き出せる() throws Exception {
+    ListCursor<Guest> cursor = new ListCursor<>(List.of(
+        createGuest("1", "佐藤花子", "サトウハナコ"),
+        createGuest("2", "田中, \"太郎\"", "タナカタロウ")));
+    when(repository.exportGuest("TEST")).thenReturn(cursor);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    sut.exportGuests(auth, GuestExportFormat.CSV, out);
+
+    assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("\uFEFF"
+        + "id,name,kanaName,gender,age,region,email,phone,deleted\r\n"
+        + "1,佐藤花子,サトウハナコ,女性,28,東京,test@example.com,09012345678,false\r\n"
+        + "2,\"田中, \"\"太郎\"\"\",タナカタロウ,女性,28,東京,test@example.com,09012345678,false\r\n");
+    assertThat(cursor.closed).isTrue();
+  }
+
+  @Test
+  void 宿泊予約を1行ずつのJSONで書き出せる() throws Exception {
+    Reservation reservation = new Reservation();
+    reservation.setId("r1");
+    reservation.setGuestId("1");
+    reservation.setBookingId("b1");
+    reservation.setCheckInDate(LocalDate.of(2025, 8, 1));
+    reservation.setCheckOutDate(LocalDate.of(2025, 8, 3));
+    reservation.setStayDays(2);
+    reservation.setTotalPrice(new BigDecimal("20000"));
+    reservation.setStatus(ReservationStatus.CHECKED_OUT);
+    reservation.setCreatedAt(LocalDateTime.of(2025, 7, 1, 10, 0));
+    reservation.setUserId("TEST");
+    when(repository.exportReservation("TEST"))
+        .thenReturn(new ListCursor<>(List.of(reservation, reservation)));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    sut.exportReservations(auth, GuestExportFormat.NDJSON, out);
+
+    String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+    assertThat(lines).hasSize(2);
+    assertThat(lines[0])
+        .startsWith("{")
+        .contains("\"id\":\"r1\"", "\"status\":\"CHECKED_OUT\"", "\"stayDays\":2");
+  }
+
+  @Test
+  void 一定件数ごとにレスポンスへ送り出し_ストリームは閉じない() throws Exception {
+    int rows = GuestExporter.FLUSH_SIZE * 3;
+    Guest guest = createGuest("1", "佐藤花子", "サトウハナコ");
+    when(repository.exportGuest("TEST"))
+        .thenReturn(new ListCursor<>(Collections.nCopies(rows, guest)));
+    CountingOutputStream out = new CountingOutputStream();
+
+    sut.exportGuests(auth, GuestExportFormat.NDJSON, out);
+
+    assertThat(out.lines).isEqualTo(rows);
+    assertThat(out.flushes).isGreaterThanOrEqualTo(3);
+    assertThat(out.closed).isFalse();
+  }
+
+  @Test
+  void カンマ_引用符_改行を含まない値はそのまま出力される() {
+    assertThat(GuestExporter.escapeCsv("サトウハナコ")).isEqualTo("サトウハナコ");
+    assertThat(GuestExporter.escapeCsv("1行目\n2行目")).isEqualTo("\"1行目\n2行目\"");
+  }
+
+  private Guest createGuest(String id, String name, String kanaName) {
+    Guest guest = new Guest();
+    guest.setId(id);
+    guest.setName(name);
+    guest.setKanaName(kanaName);
+    guest.setGender("女性");
+    guest.setAge(28);
+    guest.setRegion("東京");
+    guest.setEmail("test@example.com");
+    guest.setPhone("09012345678");
+    guest.setUserId("TEST");
+    return guest;
+  }
+
+  // リストの要素を順に返すCursor
+  private static class ListCursor<T> implements Cursor<T> {
+
+    private final List<T> rows;
+    private boolean closed;
+
+    ListCursor(List<T> rows) {
+      this.rows = rows;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return !closed;
+    }
+
+    @Override
+    public boolean isConsumed() {
+      return false;
+    }
+
+    @Override
+    public int getCurrentIndex() {
+      return -1;
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+      return rows.iterator();
+    }
+  }
+
+  // 書き込まれた行数とflushの回数を数える
+  private static class CountingOutputStream extends OutputStream {
+
+    private int lines;
+    private int flushes;
+    private boolean closed;
+
+    @Override
+    public void write(int b) {
+      if (b == '\n') {
+        lines++;
+      }
+    }
+
+    @Override
+    public void flush() {
+      flushes++;
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+  }
+}
@@ -0,0 +1,121 @@
+package com.portfolio.hotel.management.service.importer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.portfolio.hotel.management.data.guest.GuestImportResult;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+// 性能測定（./gradlew benchmark で実行）
+@Tag("benchmark")
+@SpringBootTest(properties =
+    "spring.datasource.url=jdbc:h2:mem:import-benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1")
+class GuestImporterBenchmarkTest {
+
+  private static final int ROWS = 1_000_000;
+
+  // 1人あたり5件の宿泊予約になるよう宿泊者を繰り返す
+  private static final int DISTINCT_GUESTS = 200_000;
+
+  private static final String USER_ID = "testuser01";
+  private static final String BOOKING_ID = "aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa";
+
+  @Autowired
+  private GuestImporter importer;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Test
+  void 百万件のCSVを取り込む() throws Exception {
+    Authentication auth = new UsernamePasswordAuthenticationToken(USER_ID, "pass",
+        List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    Integer guestsBefore = jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM guest WHERE user_id = ?", Integer.class, USER_ID);
+
+    long start = System.nanoTime();
+    GuestImportResult actual = importer.importGuests(auth, GuestImportFormat.CSV,
+        new GeneratedCsv(ROWS), LocalDate.now());
+    double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+    Runtime runtime = Runtime.getRuntime();
+    System.out.printf("取り込み件数: %d件, 処理時間: %.1f秒, スループット: %.0f件/秒, 使用ヒープ: %dMB%n",
+        actual.getImportedRows(), seconds, actual.getImportedRows() / seconds,
+        (runtime.totalMemory() - runtime.freeMemory()) / 1024 / 1024);
+
+    assertThat(actual.getImportedRows()).isEqualTo(ROWS);
+    assertThat(jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM guest WHERE user_id = ?", Integer.class, USER_ID))
+        .isEqualTo(guestsBefore + DISTINCT_GUESTS);
+  }
+
+  // 読み込まれるたびに1行ずつ生成するCSV（ファイル全体をメモリに持たない）
+  private static final class GeneratedCsv extends InputStream {
+
+    private static final String HEADER =
+        "name,kanaName,gender,age,region,email,phone,bookingId,checkInDate,stayDays,memo\n";
+    private static final String KANA = "アイウエオカキクケコ";
+
+    private final int rows;
+    private int next = -1;
+    private byte[] line = new byte[0];
+    private int position = 0;
+
+    GeneratedCsv(int rows) {
+      this.rows = rows;
+    }
+
+    @Override
+    public int read() {
+      if (position == line.length && !nextLine()) {
+        return -1;
+      }
+      return line[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) {
+      if (length == 0) {
+        return 0;
+      }
+      if (position == line.length && !nextLine()) {
+        return -1;
+      }
+      int count = Math.min(length, line.length - position);
+      System.arraycopy(line, position, buffer, offset, count);
+      position += count;
+      return count;
+    }
+
+    private boolean nextLine() {
+      if (next >= rows) {
+        return false;
+      }
+      line = (next < 0 ? HEADER : row(next)).getBytes(StandardCharsets.UTF_8);
+      position = 0;
+      next++;
+      return true;
+    }
+
+    private static String row(int index) {
+      int guest = index % DISTINCT_GUESTS;
+      StringBuilder kana = new StringBuilder();
+      for (char digit : String.valueOf(guest).toCharArray()) {
+        kana.append(KANA.charAt(digit - '0'));
+      }
+      return "宿泊者" + guest + "," + kana + ",女性,30,東京,guest" + guest + "@example.com,"
+          + String.format("090%08d", guest) + "," + BOOKING_ID + ","
+          + String.format("2020-01-%02d", index % 28 + 1) + ",2,\n";
+    }
+  }
+}
@@ -0,0 +1,264 @@
+package com.portfolio.hotel.management.service.importer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.hotel.management.data.booking.Booking;
+import com.portfolio.hotel.management.data.guest.GuestImportResult;
+import com.portfolio.hotel.management.data.guest.GuestRegistration;
+import com.portfolio.hotel.management.data.reservation.ReservationStatus;
+import com.portfolio.hotel.management.exception.BookingFullException;
+import com.portfolio.hotel.management.service.HotelService;
+import jakarta.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+@ExtendWith(MockitoExtension.class)
+class GuestImporterTest {
+
+  private static final String BOOKING_ID = "aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa";
+  private static final LocalDate TODAY = LocalDate.of(2025, 7, 24);
+  private static final String CSV_HEADER =
+      "name,kanaName,gender,age,region,email,phone,bookingId,checkInDate,stayDays,memo\n";
+
+  @Mock
+  private HotelService service;
+
+  private GuestImporter sut;
+
+  private final Authentication auth = new UsernamePasswordAuthenticationToken("TEST", "pass",
+      List.of(new SimpleGrantedAuthority("ROLE_USER")));
+
+  // 一括登録に渡された件数（渡したリストは登録後に再利用されるため件数だけを記録する）
+  private final List<List<GuestRegistration>> registered = new ArrayList<>();
+
+  @BeforeEach
+  void before() {
+    sut = new GuestImporter(service,
+        Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper());
+    Booking booking = new Booking();
+    booking.setId(BOOKING_ID);
+    when(service.getAllBooking(auth)).thenReturn(List.of(booking));
+  }
+
+  @Test
+  void CSVを一定件数ごとに一括登録できる() throws Exception {
+    stubRegisterGuests();
+    StringBuilder csv = new StringBuilder(CSV_HEADER);
+    int rows = GuestImporter.CHUNK_SIZE * 2 + 1;
+    for (int i = 0; i < rows; i++) {
+      csv.append(csvRow("宿泊者" + i, "シュクハクシャ", "080" + String.format("%08d", i)));
+    }
+
+    GuestImportResult actual = sut.importGuests(auth, GuestImportFormat.CSV, toStream(csv), TODAY);
+
+    assertThat(actual.getTotalRows()).isEqualTo(rows);
+    assertThat(actual.getImportedRows()).isEqualTo(rows);
+    assertThat(actual.getSkippedRows()).isZero();
+    assertThat(registered)
+        .extracting(List::size)
+        .containsExactly(GuestImporter.CHUNK_SIZE, GuestImporter.CHUNK_SIZE, 1);
+  }
+
+  @Test
+  void 引用符で囲んだ値と過去のチェックイン日を読み込める() throws Exception {
+    stubRegisterGuests();
+    String csv = CSV_HEADER
+        + "佐藤花子,サトウハナコ,女性,28,東京,hanako@example.com,08098765432,"
+        + BOOKING_ID + ",2019-04-01,2,\"朝食あり, \"\"和食\"\"\n2泊目は外出\"\n";
+
+    GuestImportResult actual = sut.importGuests(auth, GuestImportFormat.CSV, toStream(csv), TODAY);
+
+    assertThat(actual.getImportedRows()).isEqualTo(1);
+    GuestRegistration registration = registered.getFirst().getFirst();
+    assertThat(registration.getGuest().getName()).isEqualTo("佐藤花子");
+    assertThat(registration.getGuest().getUserId()).isEqualTo("TEST");
+    assertThat(registration.getCheckInDate()).isEqualTo(LocalDate.of(2019, 4, 1));
+    assertThat(registration.getStayDays()).isEqualTo(2);
+    assertThat(registration.getMemo()).isEqualTo("朝食あり, \"和食\"\n2泊目は外出");
+    assertThat(registration.getStatus()).isEqualTo(ReservationStatus.CHECKED_OUT);
+  }
+
+  @Test
+  void ステータスの指定がない場合_チェックアウト日が過ぎた宿泊予約だけをチェックアウト済みにする()
+      throws Exception {
+    stubRegisterGuests();
+    String csv = CSV_HEADER
+        + "佐藤花子,サトウハナコ,女性,28,東京,hanako@example.com,08098765432,"
+        + BOOKING_ID + ",2025-07-22,1,\n"
+        + "田中太郎,タナカタロウ,男性,35,大阪,taro@example.com,08011112222,"
+        + BOOKING_ID + ",2025-07-23,1,\n";
+
+    sut.importGuests(auth, GuestImportFormat.CSV, toStream(csv), TODAY);
+
+    assertThat(registered.getFirst())
+        .extracting(GuestRegistration::getStatus)
+        .containsExactly(ReservationStatus.CHECKED_OUT, ReservationStatus.NOT_CHECKED_IN);
+  }
+
+  @Test
+  void status列で宿泊予約のステータスを指定できる() throws Exception {
+    stubRegisterGuests();
+    String csv = CSV_HEADER.replace("memo\n", "memo,status\n")
+        + "佐藤花子,サトウハナコ,女性,28,東京,hanako@example.com,08098765432,"
+        + BOOKING_ID + ",2019-04-01,1,,CANCELLED\n"
+        + "田中太郎,タナカタロウ,男性,35,大阪,taro@example.com,08011112222,"
+        + BOOKING_ID + ",2025-07-24,2,,CHECKED_OUT\n"
+        + "高橋桜,タカハシサクラ,女性,29,福岡,sakura@example.com,08088889999,"
+        + BOOKING_ID + ",2019-04-01,1,,UNKNOWN\n";
+
+    GuestImportResult actual = sut.importGuests(auth, GuestImportFormat.CSV, toStream(csv),
+        TODAY);
+
+    assertThat(registered.getFirst())
+        .extracting(GuestRegistration::getStatus)
+        .containsExactly(ReservationStatus.CANCELLED);
+    assertThat(actual.getErrors()).containsExactly(
+        "2件目: チェックアウト日が過ぎていない宿泊予約はチェックアウト済みにできません",
+        "3件目: ステータスが正しくありません");
+  }
+
+  @Test
+  void 入力内容に誤りがある行は理由とともに読み飛ばす() throws Exception {
+    stubRegisterGuests();
+    String csv = CSV_HEADER
+        + csvRow("佐藤花子", "サトウハナコ", "08098765432")
+        + csvRow("田中太郎", "タナカタロウ", "080-1111")
+        + "高橋桜,タカハシサクラ,女性,29,福岡,sakura@example.com,08088889999,"
+        + "bbbbbbbb-bbbb-4bbb-8bbb-bbbbbbbbbbbb,2019-04-01,1,\n"
+        + "山田毅,ヤマダタケシ,男性,40,宮城,takeshi@example.com,08033332222,"
+        + BOOKING_ID + ",2019/04/01,1,\n"
+        + "項目が足りない行\n";
+
+    GuestImportResult actual = sut.importGuests(auth, GuestImportFormat.CSV, toStream(csv), TODAY);
+
+    assertThat(actual.getTotalRows()).isEqualTo(5);
+    assertThat(actual.getImportedRows()).isEqualTo(1);
+    assertThat(actual.getSkippedRows()).isEqualTo(4);
+    assertThat(actual.getErrors()).containsExactly(
+        "2件目: 電話番号は10〜11桁の数字で入力してください",
+        "3件目: 宿泊プランが見つかりません",
+        "4件目: チェックイン日はyyyy-MM-dd形式で入力してください",
+        "5件目: 項目数が見出し行と一致しません（1/11）");
+  }
+
+  @Test
+  void NDJSONを読み込める() throws Exception {
+    stubRegisterGuests();
+    String ndjson = """
+        {"name":"佐藤花子","kanaName":"サトウハナコ","gender":"女性","age":28,"region":"東京","email":"hanako@example.com","phone":"08098765432","bookingId":"%s","checkInDate":"2019-04-01","stayDays":2}
+
+        {"name":"田中太郎"
+        """.formatted(BOOKING_ID);
+
+    GuestImportResult actual = sut.importGuests(auth, GuestImportFormat.NDJSON,
+        toStream(ndjson), TODAY);
+
+    assertThat(actual.getTotalRows()).isEqualTo(2);
+    assertThat(actual.getImportedRows()).isEqualTo(1);
+    assertThat(actual.getErrors()).containsExactly("2件目: JSONの形式が正しくありません");
+    assertThat(registered.getFirst().getFirst().getGuest().getAge()).isEqualTo(28);
+  }
+
+  @Test
+  void 上限を超える長さの項目を含むCSVの行は件数とともに読み飛ばす() throws Exception {
+    stubRegisterGuests();
+    String longMemo = "あ".repeat(GuestImportReader.MAX_FIELD_LENGTH + 1);
+    String csv = CSV_HEADER
+        + csvRow("佐藤花子", "サトウハナコ", "08098765432").replace(",\n", ",\"" + longMemo + "\"\n")
+        + csvRow("田中太郎", "タナカタロウ", "08011112222");
+
+    GuestImportResult actual = sut.importGuests(auth, GuestImportFormat.CSV, toStream(csv), TODAY);
+
+    assertThat(actual.getTotalRows()).isEqualTo(2);
+    assertThat(actual.getImportedRows()).isEqualTo(1);
+    assertThat(actual.getErrors()).containsExactly(
+        "1件目: 項目が長すぎます（" + GuestImportReader.MAX_FIELD_LENGTH + "文字まで）");
+    assertThat(registered.getFirst().getFirst().getGuest().getName()).isEqualTo("田中太郎");
+  }
+
+  @Test
+  void 上限を超える長さのNDJSONの行は件数とともに読み飛ばす() throws Exception {
+    stubRegisterGuests();
+    String ndjson = "{\"memo\":\"" + "a".repeat(GuestImportReader.MAX_RECORD_LENGTH) + "\"}\n"
+        + """
+        {"name":"佐藤花子","kanaName":"サトウハナコ","gender":"女性","age":28,"region":"東京","email":"hanako@example.com","phone":"08098765432","bookingId":"%s","checkInDate":"2019-04-01","stayDays":2}
+        """.formatted(BOOKING_ID);
+
+    GuestImportResult actual = sut.importGuests(auth, GuestImportFormat.NDJSON,
+        toStream(ndjson), TODAY);
+
+    assertThat(actual.getTotalRows()).isEqualTo(2);
+    assertThat(actual.getImportedRows()).isEqualTo(1);
+    assertThat(actual.getErrors()).containsExactly(
+        "1件目: 1件の長さが上限を超えています（" + GuestImportReader.MAX_RECORD_LENGTH + "文字まで）");
+  }
+
+  @Test
+  void 満室の泊を含む場合は1件ずつ登録し直し_空きのない行だけを読み飛ばす() throws Exception {
+    when(service.registerGuests(any(), any())).thenAnswer(invocation -> {
+      List<GuestRegistration> chunk = invocation.getArgument(1);
+      registered.add(List.copyOf(chunk));
+      if (chunk.size() > 1 || chunk.getFirst().getGuest().getName().equals("田中太郎")) {
+        throw new BookingFullException("朝食付きプランの2019-04-01の宿泊は満室です");
+      }
+      return 1;
+    });
+    String csv = CSV_HEADER
+        + csvRow("佐藤花子", "サトウハナコ", "08098765432")
+        + csvRow("田中太郎", "タナカタロウ", "08011112222")
+        + csvRow("高橋桜", "タカハシサクラ", "08033334444");
+
+    GuestImportResult actual = sut.importGuests(auth, GuestImportFormat.CSV, toStream(csv), TODAY);
+
+    assertThat(actual.getImportedRows()).isEqualTo(2);
+    assertThat(actual.getSkippedRows()).isEqualTo(1);
+    assertThat(actual.getErrors())
+        .containsExactly("2件目: 朝食付きプランの2019-04-01の宿泊は満室です");
+    assertThat(registered)
+        .extracting(List::size)
+        .containsExactly(3, 1, 1, 1);
+  }
+
+  @Test
+  void 登録できる行がない場合_一括登録を呼び出さない() throws Exception {
+    GuestImportResult actual = sut.importGuests(auth, GuestImportFormat.CSV,
+        toStream(CSV_HEADER), TODAY);
+
+    assertThat(actual.getTotalRows()).isZero();
+    verify(service, never()).registerGuests(any(), any());
+  }
+
+  private void stubRegisterGuests() {
+    when(service.registerGuests(any(), any())).thenAnswer(invocation -> {
+      List<GuestRegistration> chunk = invocation.getArgument(1);
+      registered.add(List.copyOf(chunk));
+      return chunk.size();
+    });
+  }
+
+  private static String csvRow(String name, String kanaName, String phone) {
+    return name + "," + kanaName + ",女性,28,東京,guest@example.com," + phone + ","
+        + BOOKING_ID + ",2019-04-01,1,\n";
+  }
+
+  private static InputStream toStream(CharSequence value) {
+    return new ByteArrayInputStream(value.toString().getBytes(StandardCharsets.UTF_8));
+  }
+}
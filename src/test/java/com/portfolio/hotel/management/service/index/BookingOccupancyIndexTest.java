@@ -0,0 +1,154 @@
+package com.portfolio.hotel.management.service.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.portfolio.hotel.management.data.reservation.Reservation;
+import com.portfolio.hotel.management.data.reservation.ReservationStatus;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BookingOccupancyIndexTest {
+
+  private static final String PLAN_A = "aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa";
+  private static final String PLAN_B = "bbbbbbbb-bbbb-4bbb-8bbb-bbbbbbbbbbbb";
+
+  private static final LocalDate AUG_1 = LocalDate.of(2025, 8, 1);
+
+  private BookingOccupancyIndex sut;
+
+  @BeforeEach
+  void before() {
+    sut = new BookingOccupancyIndex();
+    sut.load(List.of(
+        createReservation("1", PLAN_A, AUG_1, 3, ReservationStatus.NOT_CHECKED_IN, "testuser01"),
+        createReservation("2", PLAN_A, AUG_1.plusDays(1), 1, ReservationStatus.CHECKED_IN,
+            "testuser01"),
+        createReservation("3", PLAN_B, AUG_1, 2, ReservationStatus.NOT_CHECKED_IN, "testuser01"),
+        createReservation("4", PLAN_A, AUG_1, 2, ReservationStatus.NOT_CHECKED_IN,
+            "testuser02")));
+  }
+
+  @Test
+  void 宿泊プランごとにチェックアウト日の前日までの泊が数えられる() {
+    assertThat(occupancy("testuser01", PLAN_A, AUG_1.minusDays(1), AUG_1.plusDays(3)))
+        .containsExactly(0, 1, 2, 1, 0);
+    assertThat(occupancy("testuser01", PLAN_B, AUG_1, AUG_1.plusDays(2)))
+        .containsExactly(1, 1, 0);
+  }
+
+  @Test
+  void ユーザーごとに分けて数えられる() {
+    assertThat(occupancy("testuser02", PLAN_A, AUG_1, AUG_1.plusDays(2)))
+        .containsExactly(1, 1, 0);
+    assertThat(occupancy("unknown", PLAN_A, AUG_1, AUG_1.plusDays(2)))
+        .containsExactly(0, 0, 0);
+  }
+
+  @Test
+  void 宿泊期間を変更すると変更前の泊が差し引かれる() {
+    sut.put("testuser01", createReservation("2", PLAN_A, AUG_1.plusDays(10), 2,
+        ReservationStatus.CHECKED_IN, "testuser01"));
+
+    assertThat(occupancy("testuser01", PLAN_A, AUG_1, AUG_1.plusDays(12)))
+        .containsExactly(1, 1, 1, 0, 0, 0, 0, 0, 0, 0, 1, 1, 0);
+  }
+
+  @Test
+  void キャンセルとノーショーは数えられず_取り消すと再び数えられる() {
+    sut.changeStatus("testuser01", "1", ReservationStatus.CANCELLED);
+    sut.changeStatus("testuser01", "3", ReservationStatus.NO_SHOW);
+
+    assertThat(occupancy("testuser01", PLAN_A, AUG_1, AUG_1.plusDays(2)))
+        .containsExactly(0, 1, 0);
+    assertThat(occupancy("testuser01", PLAN_B, AUG_1, AUG_1.plusDays(1)))
+        .containsExactly(0, 0);
+
+    sut.changeStatus("testuser01", "1", ReservationStatus.NOT_CHECKED_IN);
+
+    assertThat(occupancy("testuser01", PLAN_A, AUG_1, AUG_1.plusDays(2)))
+        .containsExactly(1, 2, 1);
+  }
+
+  @Test
+  void 読み込んだキャンセルの宿泊予約は数えられず_取り消すと数えられる() {
+    sut.load(List.of(createReservation("5", PLAN_B, AUG_1, 1, ReservationStatus.CANCELLED,
+        "testuser01")));
+
+    assertThat(occupancy("testuser01", PLAN_B, AUG_1, AUG_1)).containsExactly(1);
+
+    sut.changeStatus("testuser01", "5", ReservationStatus.NOT_CHECKED_IN);
+
+    assertThat(occupancy("testuser01", PLAN_B, AUG_1, AUG_1)).containsExactly(2);
+  }
+
+  @Test
+  void 読み込み中に反映された宿泊予約は読み込み結果で上書きされない() {
+    BookingOccupancyIndex index = new BookingOccupancyIndex();
+    index.put("testuser01", createReservation("1", PLAN_A, AUG_1, 1,
+        ReservationStatus.CANCELLED, "testuser01"));
+    index.load(List.of(createReservation("1", PLAN_A, AUG_1, 1,
+        ReservationStatus.NOT_CHECKED_IN, "testuser01")));
+
+    assertThat(index.occupancy("testuser01", PLAN_A, AUG_1, AUG_1).orElseThrow())
+        .containsExactly(0);
+  }
+
+  @Test
+  void 索引の作成前は空が返る() {
+    assertThat(new BookingOccupancyIndex().occupancy("testuser01", PLAN_A, AUG_1, AUG_1))
+        .isEmpty();
+  }
+
+  @Test
+  void 登録と変更を繰り返しても宿泊予約を数えた結果と同じになる() {
+    Random random = new Random(20250801L);
+    List<Reservation> reservations = new ArrayList<>();
+    for (int i = 0; i < 5000; i++) {
+      reservations.add(randomReservation(random, String.valueOf(i)));
+    }
+    BookingOccupancyIndex index = new BookingOccupancyIndex();
+    index.load(reservations);
+    for (int i = 0; i < 3000; i++) {
+      int target = random.nextInt(reservations.size());
+      Reservation reservation = randomReservation(random, String.valueOf(target));
+      reservations.set(target, reservation);
+      index.put("large", reservation);
+    }
+
+    LocalDate from = LocalDate.of(2024, 12, 1);
+    LocalDate to = LocalDate.of(2026, 2, 1);
+    List<Reservation> planA = reservations.stream()
+        .filter(reservation -> reservation.getBookingId().equals(PLAN_A))
+        .toList();
+    assertThat(index.occupancy("large", PLAN_A, from, to).orElseThrow())
+        .containsExactly(BookingOccupancyIndex.count(planA, from, to));
+  }
+
+  private Reservation randomReservation(Random random, String id) {
+    ReservationStatus[] statuses = ReservationStatus.values();
+    return createReservation(id, random.nextBoolean() ? PLAN_A : PLAN_B,
+        LocalDate.of(2025, 1, 1).plusDays(random.nextInt(365)), 1 + random.nextInt(14),
+        statuses[random.nextInt(statuses.length)], "large");
+  }
+
+  private int[] occupancy(String userId, String bookingId, LocalDate from, LocalDate to) {
+    return sut.occupancy(userId, bookingId, from, to).orElseThrow();
+  }
+
+  private Reservation createReservation(String id, String bookingId, LocalDate checkIn,
+      int stayDays, ReservationStatus status, String userId) {
+    Reservation reservation = new Reservation();
+    reservation.setId(id);
+    reservation.setBookingId(bookingId);
+    reservation.setCheckInDate(checkIn);
+    reservation.setCheckOutDate(checkIn.plusDays(stayDays));
+    reservation.setStayDays(stayDays);
+    reservation.setStatus(status);
+    reservation.setUserId(userId);
+    return reservation;
+  }
+}
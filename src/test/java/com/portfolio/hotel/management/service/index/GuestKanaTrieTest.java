@@ -0,0 +1,142 @@
+package com.portfolio.hotel.management.service.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.portfolio.hotel.management.data.guest.Guest;
+import com.portfolio.hotel.management.data.guest.GuestSuggestion;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class GuestKanaTrieTest {
+
+  private GuestKanaTrie sut;
+
+  @BeforeEach
+  void before() {
+    sut = new GuestKanaTrie();
+    sut.load(List.of(
+        createGuest("1", "佐藤花子", "サトウハナコ", "09012345678", "testuser01"),
+        createGuest("2", "田中太郎", "タナカタロウ", "08098765432", "testuser01"),
+        createGuest("3", "高橋桜", "タカハシサクラ", "07011112222", "testuser01"),
+        createGuest("4", "田中次郎", "タナカジロウ", "07033334444", "testuser01"),
+        createGuest("5", "佐藤花子", "サトウハナコ", "09055556666", "testuser02")));
+  }
+
+  @Test
+  void かな名の前方一致でユーザーの宿泊者が辞書順に取得できる() {
+    List<GuestSuggestion> actual = sut.suggest("testuser01", "タ", 10);
+
+    assertThat(actual)
+        .extracting(GuestSuggestion::getKanaName)
+        .containsExactly("タカハシサクラ", "タナカジロウ", "タナカタロウ");
+  }
+
+  @Test
+  void 名前の前方一致でも取得でき_電話番号は下4桁だけが返る() {
+    List<GuestSuggestion> actual = sut.suggest("testuser01", "田中太", 10);
+
+    assertThat(actual).hasSize(1);
+    assertThat(actual.getFirst().getId()).isEqualTo("2");
+    assertThat(actual.getFirst().getName()).isEqualTo("田中太郎");
+    assertThat(actual.getFirst().getPhoneTail()).isEqualTo("5432");
+  }
+
+  @Test
+  void ひらがな_半角カナの入力でも取得できる() {
+    assertThat(sut.suggest("testuser01", "たなか", 10))
+        .extracting(GuestSuggestion::getId)
+        .containsExactly("4", "2");
+    assertThat(sut.suggest("testuser01", "ﾀｶﾊｼ", 10))
+        .extracting(GuestSuggestion::getId)
+        .containsExactly("3");
+  }
+
+  @Test
+  void 取得件数が上限件数までに制限される() {
+    assertThat(sut.suggest("testuser01", "タ", 2))
+        .extracting(GuestSuggestion::getId)
+        .containsExactly("3", "4");
+  }
+
+  @Test
+  void 一致しない場合と空の入力の場合_空のリストが返る() {
+    assertThat(sut.suggest("testuser01", "ヤマ", 10)).isEmpty();
+    assertThat(sut.suggest("testuser01", " ", 10)).isEmpty();
+    assertThat(sut.suggest("unknown", "タ", 10)).isEmpty();
+  }
+
+  @Test
+  void 更新したかな名で取得でき_更新前のかな名では取得されない() {
+    sut.put("testuser01", createGuest("2", "田中太郎", "ヤマダタロウ", "08098765432", "testuser01"));
+
+    assertThat(sut.suggest("testuser01", "タナカ", 10))
+        .extracting(GuestSuggestion::getId)
+        .containsExactly("4");
+    assertThat(sut.suggest("testuser01", "ヤマ", 10))
+        .extracting(GuestSuggestion::getId)
+        .containsExactly("2");
+  }
+
+  @Test
+  void 削除済みの宿泊者は取得されない() {
+    Guest deleted = createGuest("3", "高橋桜", "タカハシサクラ", "07011112222", "testuser01");
+    deleted.setDeleted(true);
+    sut.put("testuser01", deleted);
+
+    assertThat(sut.suggest("testuser01", "タカ", 10)).isEmpty();
+  }
+
+  @Test
+  void 登録と更新を繰り返しても全件の前方一致と同じ宿泊者が取得できる() {
+    Random random = new Random(20250722L);
+    String letters = "アイウエオカキクケコサシスセソタチツテト";
+    List<Guest> guests = new ArrayList<>();
+    for (int i = 0; i < 20000; i++) {
+      guests.add(createGuest(String.format("guest-%05d", i), "宿泊者" + i,
+          randomKana(random, letters), "09000000000", "large"));
+    }
+    GuestKanaTrie trie = new GuestKanaTrie();
+    trie.load(guests);
+    for (int i = 0; i < 5000; i++) {
+      Guest guest = guests.get(random.nextInt(guests.size()));
+      guest.setKanaName(randomKana(random, letters));
+      trie.put("large", guest);
+    }
+
+    for (String prefix : List.of("ア", "カキ", "サシス", "トトト")) {
+      List<String> expected = guests.stream()
+          .filter(guest -> guest.getKanaName().startsWith(prefix))
+          .sorted(Comparator.comparing(Guest::getKanaName).thenComparing(Guest::getId))
+          .limit(GuestKanaTrie.MAX_LIMIT)
+          .map(Guest::getId)
+          .toList();
+      assertThat(trie.suggest("large", prefix, GuestKanaTrie.MAX_LIMIT))
+          .extracting(GuestSuggestion::getId)
+          .containsExactlyElementsOf(expected);
+    }
+  }
+
+  private String randomKana(Random random, String letters) {
+    StringBuilder kana = new StringBuilder();
+    int length = 2 + random.nextInt(5);
+    for (int j = 0; j < length; j++) {
+      kana.append(letters.charAt(random.nextInt(letters.length())));
+    }
+    return kana.toString();
+  }
+
+  private Guest createGuest(String id, String name, String kanaName, String phone,
+      String userId) {
+    Guest guest = new Guest();
+    guest.setId(id);
+    guest.setName(name);
+    guest.setKanaName(kanaName);
+    guest.setPhone(phone);
+    guest.setUserId(userId);
+    return guest;
+  }
+}
@@ -0,0 +1,116 @@
+package com.portfolio.hotel.management.service.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.portfolio.hotel.management.data.guest.Guest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class GuestNameIndexTest {
+
+  private GuestNameIndex sut;
+
+  @BeforeEach
+  void before() {
+    sut = new GuestNameIndex();
+    sut.load(List.of(
+        createGuest("1", "佐藤花子", "サトウハナコ", "testuser01"),
+        createGuest("2", "田中太郎", "タナカタロウ", "testuser01"),
+        createGuest("3", "高橋桜", "タカハシサクラ", "testuser01"),
+        createGuest("4", "佐藤花子", "サトウハナコ", "testuser02")));
+  }
+
+  @Test
+  void 索引の作成前は検索結果が空になる() {
+    GuestNameIndex notLoaded = new GuestNameIndex();
+    assertThat(notLoaded.search("testuser01", "花子", null)).isEmpty();
+  }
+
+  @Test
+  void 索引の作成前でも読み込んだユーザーの宿泊者は検索できる() {
+    GuestNameIndex notLoaded = new GuestNameIndex();
+    notLoaded.loadTenant("testuser01", List.of(
+        createGuest("1", "佐藤花子", "サトウハナコ", "testuser01")));
+
+    assertThat(notLoaded.search("testuser01", "花子", null)).hasValue(Set.of("1"));
+    assertThat(notLoaded.search("testuser02", "花子", null)).isEmpty();
+  }
+
+  @Test
+  void 名前の部分一致でユーザーの宿泊者IDだけが取得できる() {
+    assertThat(sut.search("testuser01", "花子", null)).hasValue(Set.of("1"));
+  }
+
+  @Test
+  void 一文字のかな名でも部分一致で取得できる() {
+    assertThat(sut.search("testuser01", null, "タ")).hasValue(Set.of("2", "3"));
+  }
+
+  @Test
+  void ひらがな_半角カナ_空白の違いを吸収して検索できる() {
+    assertThat(sut.search("testuser01", null, "たかはし")).hasValue(Set.of("3"));
+    assertThat(sut.search("testuser01", null, "ﾀｶﾊｼ")).hasValue(Set.of("3"));
+    assertThat(sut.search("testuser01", "佐藤 花子", null)).hasValue(Set.of("1"));
+  }
+
+  @Test
+  void 名前とかな名の両方に一致する宿泊者だけが取得できる() {
+    assertThat(sut.search("testuser01", "田中", "サクラ")).hasValue(Set.of());
+    assertThat(sut.search("testuser01", "田中", "タロウ")).hasValue(Set.of("2"));
+  }
+
+  @Test
+  void 更新した名前で検索でき_更新前の名前では検索されない() {
+    sut.put("testuser01", createGuest("1", "佐藤華子", "サトウハナコ", "testuser01"));
+
+    assertThat(sut.search("testuser01", "花子", null)).hasValue(Set.of());
+    assertThat(sut.search("testuser01", "華子", null)).hasValue(Set.of("1"));
+  }
+
+  @Test
+  void 読み込みより先に登録された宿泊者は読み込みで上書きされない() {
+    GuestNameIndex index = new GuestNameIndex();
+    index.put("testuser01", createGuest("1", "佐藤華子", "サトウハナコ", "testuser01"));
+    index.load(List.of(createGuest("1", "佐藤花子", "サトウハナコ", "testuser01")));
+
+    assertThat(index.search("testuser01", "華子", null)).hasValue(Set.of("1"));
+  }
+
+  @Test
+  void 大量の宿泊者でもLIKE検索と同じ宿泊者が取得できる() {
+    Random random = new Random(20250722L);
+    String letters = "アイウエオカキクケコサシスセソタチツテトナニヌネノハヒフヘホマミムメモ";
+    List<Guest> guests = new ArrayList<>();
+    for (int i = 0; i < 20000; i++) {
+      StringBuilder kana = new StringBuilder();
+      for (int j = 0; j < 6; j++) {
+        kana.append(letters.charAt(random.nextInt(letters.length())));
+      }
+      guests.add(createGuest("guest-" + i, "宿泊者" + i, kana.toString(), "large"));
+    }
+    GuestNameIndex index = new GuestNameIndex();
+    index.load(guests);
+
+    for (String query : List.of("カキ", "サシス", "ア", "モモモ")) {
+      Set<String> expected = guests.stream()
+          .filter(guest -> guest.getKanaName().contains(query))
+          .map(Guest::getId)
+          .collect(Collectors.toSet());
+      assertThat(index.search("large", null, query)).hasValue(expected);
+    }
+  }
+
+  private Guest createGuest(String id, String name, String kanaName, String userId) {
+    Guest guest = new Guest();
+    guest.setId(id);
+    guest.setName(name);
+    guest.setKanaName(kanaName);
+    guest.setUserId(userId);
+    return guest;
+  }
+}
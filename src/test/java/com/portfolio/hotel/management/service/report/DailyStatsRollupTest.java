@@ -0,0 +1,173 @@
+package com.portfolio.hotel.management.service.report;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.portfolio.hotel.management.data.report.DailyStats;
+import com.portfolio.hotel.management.data.reservation.Reservation;
+import com.portfolio.hotel.management.data.reservation.ReservationStatus;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class DailyStatsRollupTest {
+
+  private static final String PLAN_A = "aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa";
+  private static final String PLAN_B = "bbbbbbbb-bbbb-4bbb-8bbb-bbbbbbbbbbbb";
+
+  private static final LocalDate SEP_22 = LocalDate.of(2025, 9, 22);
+
+  @Test
+  void 泊ごとに販売泊数と総額を泊数で割った売上が加えられ_端数は初日に入る() {
+    List<DailyStats> actual = new DailyStatsRollup()
+        .add(createReservation(PLAN_A, SEP_22, 3, "10000.00", ReservationStatus.NOT_CHECKED_IN))
+        .toList();
+
+    assertThat(actual)
+        .extracting(DailyStats::getStayDate, DailyStats::getBookingId, DailyStats::getRoomsSold,
+            DailyStats::getRevenue)
+        .containsExactly(
+            tuple(SEP_22, PLAN_A, 1, new BigDecimal("3334.00")),
+            tuple(SEP_22.plusDays(1), PLAN_A, 1, new BigDecimal("3333.00")),
+            tuple(SEP_22.plusDays(2), PLAN_A, 1, new BigDecimal("3333.00")));
+  }
+
+  @Test
+  void 宿泊期間の変更は変更前を差し引いて変更後を加え_差分のない日は含まれない() {
+    Reservation before = createReservation(PLAN_A, SEP_22, 2, "20000.00",
+        ReservationStatus.NOT_CHECKED_IN);
+    Reservation after = createReservation(PLAN_A, SEP_22.plusDays(1), 2, "20000.00",
+        ReservationStatus.NOT_CHECKED_IN);
+
+    List<DailyStats> actual = new DailyStatsRollup().subtract(before).add(after).toList();
+
+    assertThat(actual)
+        .extracting(DailyStats::getStayDate, DailyStats::getRoomsSold, DailyStats::getRevenue)
+        .containsExactly(
+            tuple(SEP_22, -1, new BigDecimal("-10000.00")),
+            tuple(SEP_22.plusDays(2), 1, new BigDecimal("10000.00")));
+  }
+
+  @Test
+  void キャンセル_ノーショーへの変更は差し引かれ_チェックインなどは差分がない() {
+    Reservation reservation = createReservation(PLAN_B, SEP_22, 1, "7000.00",
+        ReservationStatus.NOT_CHECKED_IN);
+
+    assertThat(new DailyStatsRollup()
+        .changeStatus(reservation, ReservationStatus.NOT_CHECKED_IN, ReservationStatus.CHECKED_IN)
+        .toList()).isEmpty();
+    assertThat(new DailyStatsRollup()
+        .changeStatus(reservation, ReservationStatus.NOT_CHECKED_IN, ReservationStatus.NO_SHOW)
+        .toList())
+        .extracting(DailyStats::getRoomsSold, DailyStats::getRevenue)
+        .containsExactly(tuple(-1, new BigDecimal("-7000.00")));
+    assertThat(new DailyStatsRollup()
+        .changeStatus(reservation, ReservationStatus.CANCELLED, ReservationStatus.NOT_CHECKED_IN)
+        .toList())
+        .extracting(DailyStats::getRoomsSold, DailyStats::getRevenue)
+        .containsExactly(tuple(1, new BigDecimal("7000.00")));
+  }
+
+  @Test
+  void キャンセル済みと宿泊期間が分からない宿泊予約は加えられない() {
+    Reservation noDates = new Reservation();
+    noDates.setBookingId(PLAN_A);
+    noDates.setStatus(ReservationStatus.NOT_CHECKED_IN);
+
+    assertThat(new DailyStatsRollup()
+        .add(createReservation(PLAN_A, SEP_22, 1, "1000.00", ReservationStatus.CANCELLED))
+        .add(noDates)
+        .toList()).isEmpty();
+  }
+
+  @Test
+  void 日付と宿泊プランID順に並ぶ() {
+    List<DailyStats> actual = new DailyStatsRollup()
+        .add(createReservation(PLAN_B, SEP_22.plusDays(1), 1, "1000.00",
+            ReservationStatus.NOT_CHECKED_IN))
+        .add(createReservation(PLAN_B, SEP_22, 1, "1000.00", ReservationStatus.NOT_CHECKED_IN))
+        .add(createReservation(PLAN_A, SEP_22.plusDays(1), 1, "1000.00",
+            ReservationStatus.NOT_CHECKED_IN))
+        .toList();
+
+    assertThat(actual)
+        .extracting(DailyStats::getStayDate, DailyStats::getBookingId)
+        .containsExactly(
+            tuple(SEP_22, PLAN_B),
+            tuple(SEP_22.plusDays(1), PLAN_A),
+            tuple(SEP_22.plusDays(1), PLAN_B));
+  }
+
+  @Test
+  void 登録と変更の差分を積み上げた結果は最後の宿泊予約から集計した結果と同じになる() {
+    Random random = new Random(20250922L);
+    ReservationStatus[] statuses = ReservationStatus.values();
+    List<Reservation> reservations = new ArrayList<>();
+    Map<String, DailyStats> table = new HashMap<>();
+    for (int i = 0; i < 500; i++) {
+      Reservation reservation = randomReservation(random, statuses);
+      reservations.add(reservation);
+      apply(table, new DailyStatsRollup().add(reservation));
+    }
+    for (int i = 0; i < 2000; i++) {
+      int target = random.nextInt(reservations.size());
+      Reservation before = reservations.get(target);
+      if (random.nextBoolean()) {
+        Reservation after = randomReservation(random, statuses);
+        reservations.set(target, after);
+        apply(table, new DailyStatsRollup().subtract(before).add(after));
+      } else {
+        ReservationStatus to = statuses[random.nextInt(statuses.length)];
+        apply(table, new DailyStatsRollup().changeStatus(before, before.getStatus(), to));
+        before.setStatus(to);
+      }
+    }
+
+    DailyStatsRollup expected = new DailyStatsRollup();
+    reservations.forEach(expected::add);
+    Map<String, DailyStats> rebuilt = new HashMap<>();
+    apply(rebuilt, expected);
+    table.values().removeIf(stats ->
+        stats.getRoomsSold() == 0 && stats.getRevenue().signum() == 0);
+
+    assertThat(table.keySet()).isEqualTo(rebuilt.keySet());
+    rebuilt.forEach((key, stats) -> {
+      assertThat(table.get(key).getRoomsSold()).isEqualTo(stats.getRoomsSold());
+      assertThat(table.get(key).getRevenue()).isEqualByComparingTo(stats.getRevenue());
+    });
+  }
+
+  // 集計表への差分の反映（ON DUPLICATE KEY UPDATE と同じく既存の行に加える）
+  private void apply(Map<String, DailyStats> table, DailyStatsRollup rollup) {
+    for (DailyStats delta : rollup.toList()) {
+      DailyStats stats = table.computeIfAbsent(delta.getStayDate() + "/" + delta.getBookingId(),
+          key -> new DailyStats());
+      stats.setRoomsSold(stats.getRoomsSold() + delta.getRoomsSold());
+      stats.setRevenue(stats.getRevenue().add(delta.getRevenue()));
+    }
+  }
+
+  private Reservation randomReservation(Random random, ReservationStatus[] statuses) {
+    return createReservation(random.nextBoolean() ? PLAN_A : PLAN_B,
+        SEP_22.plusDays(random.nextInt(60)), 1 + random.nextInt(7),
+        BigDecimal.valueOf(1000 + random.nextInt(50000), 2).toPlainString(),
+        statuses[random.nextInt(statuses.length)]);
+  }
+
+  private Reservation createReservation(String bookingId, LocalDate checkIn, int stayDays,
+      String totalPrice, ReservationStatus status) {
+    Reservation reservation = new Reservation();
+    reservation.setBookingId(bookingId);
+    reservation.setCheckInDate(checkIn);
+    reservation.setCheckOutDate(checkIn.plusDays(stayDays));
+    reservation.setStayDays(stayDays);
+    reservation.setTotalPrice(new BigDecimal(totalPrice));
+    reservation.setStatus(status);
+    return reservation;
+  }
+}
@@ -0,0 +1,213 @@
+package com.portfolio.hotel.management.service.report;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.portfolio.hotel.management.data.guest.Guest;
+import com.portfolio.hotel.management.data.report.DemographicsCell;
+import com.portfolio.hotel.management.data.reservation.Reservation;
+import com.portfolio.hotel.management.data.reservation.ReservationStatus;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class GuestDemographicsCubeTest {
+
+  private static final String PLAN_A = "aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa";
+  private static final String PLAN_B = "bbbbbbbb-bbbb-4bbb-8bbb-bbbbbbbbbbbb";
+
+  private static final YearMonth AUG = YearMonth.of(2025, 8);
+
+  private GuestDemographicsCube sut;
+
+  @BeforeEach
+  void before() {
+    sut = new GuestDemographicsCube();
+    sut.load(
+        List.of(createGuest("g1", "女性", 28, "東京", "testuser01"),
+            createGuest("g2", "男性", 35, "大阪", "testuser01"),
+            createGuest("g3", "女性", 24, "東京", "testuser02")),
+        List.of(
+            createReservation("1", "g1", PLAN_A, AUG.atDay(1), 2, ReservationStatus.CHECKED_OUT,
+                "testuser01"),
+            createReservation("2", "g1", PLAN_B, AUG.atDay(31), 3,
+                ReservationStatus.NOT_CHECKED_IN, "testuser01"),
+            createReservation("3", "g2", PLAN_A, AUG.atDay(10), 1, ReservationStatus.CANCELLED,
+                "testuser01"),
+            createReservation("4", "g3", PLAN_A, AUG.atDay(1), 1,
+                ReservationStatus.NOT_CHECKED_IN, "testuser02")));
+  }
+
+  @Test
+  void チェックイン月_地域_年代_性別ごとに宿泊予約数と泊数が数えられ_キャンセルは数えない() {
+    assertThat(sut.query("testuser01", AUG, AUG.plusMonths(1), null))
+        .extracting(DemographicsCell::getMonth, DemographicsCell::getRegion,
+            DemographicsCell::getAgeBand, DemographicsCell::getGender,
+            DemographicsCell::getReservations, DemographicsCell::getNights)
+        .containsExactly(tuple(AUG, "東京", 20, "女性", 2, 5));
+    assertThat(sut.query("testuser02", AUG, AUG, null))
+        .extracting(DemographicsCell::getRegion, DemographicsCell::getReservations)
+        .containsExactly(tuple("東京", 1));
+  }
+
+  @Test
+  void 宿泊プランを指定した場合_その宿泊プランの宿泊予約だけが数えられる() {
+    assertThat(sut.query("testuser01", AUG, AUG, PLAN_B))
+        .extracting(DemographicsCell::getReservations, DemographicsCell::getNights)
+        .containsExactly(tuple(1, 3));
+    assertThat(sut.query("testuser01", AUG.plusMonths(1), AUG.plusMonths(1), null)).isEmpty();
+  }
+
+  @Test
+  void 宿泊者の属性の変更で_その宿泊者の宿泊予約が数え直される() {
+    sut.putGuest("testuser01", createGuest("g1", "女性", 30, "京都", "testuser01"));
+
+    assertThat(sut.query("testuser01", AUG, AUG, null))
+        .extracting(DemographicsCell::getRegion, DemographicsCell::getAgeBand,
+            DemographicsCell::getReservations)
+        .containsExactly(tuple("京都", 30, 2));
+  }
+
+  @Test
+  void キャンセルすると数えられなくなり_取り消すと再び数えられる() {
+    sut.changeStatus("testuser01", "2", ReservationStatus.CANCELLED);
+    sut.changeStatus("testuser01", "3", ReservationStatus.NOT_CHECKED_IN);
+
+    assertThat(sut.query("testuser01", AUG, AUG, null))
+        .extracting(DemographicsCell::getRegion, DemographicsCell::getReservations,
+            DemographicsCell::getNights)
+        .containsExactly(tuple("大阪", 1, 1), tuple("東京", 1, 2));
+  }
+
+  @Test
+  void 宿泊予約の変更でチェックイン月が移る() {
+    sut.putReservation("testuser01", createReservation("2", "g1", PLAN_B, AUG.atDay(31)
+        .plusDays(1), 3, ReservationStatus.NOT_CHECKED_IN, "testuser01"));
+
+    assertThat(sut.query("testuser01", AUG, AUG.plusMonths(1), null))
+        .extracting(DemographicsCell::getMonth, DemographicsCell::getReservations)
+        .containsExactly(tuple(AUG, 1), tuple(AUG.plusMonths(1), 1));
+  }
+
+  @Test
+  void 読み込み前に登録_変更された宿泊者と宿泊予約は読み込みで上書きされない() {
+    GuestDemographicsCube cube = new GuestDemographicsCube();
+    cube.putGuest("testuser01", createGuest("g1", "女性", 29, "東京", "testuser01"));
+    cube.putReservation("testuser01", createReservation("1", "g1", PLAN_A, AUG.atDay(1), 4,
+        ReservationStatus.NOT_CHECKED_IN, "testuser01"));
+    assertThat(cube.query("testuser01", AUG, AUG, null)).isEmpty();
+
+    cube.load(List.of(createGuest("g1", "女性", 28, "大阪", "testuser01")),
+        List.of(createReservation("1", "g1", PLAN_A, AUG.atDay(1), 2,
+            ReservationStatus.NOT_CHECKED_IN, "testuser01")));
+
+    assertThat(cube.query("testuser01", AUG, AUG, null))
+        .extracting(DemographicsCell::getRegion, DemographicsCell::getNights)
+        .containsExactly(tuple("東京", 4));
+  }
+
+  @Test
+  void 並列に作成し差分を反映した集計は_最後の宿泊者と宿泊予約を素朴に数えた結果と同じになる() {
+    Random random = new Random(20250801L);
+    String[] regions = {"東京", "大阪", "北海道", "福岡"};
+    String[] genders = {"男性", "女性"};
+    ReservationStatus[] statuses = ReservationStatus.values();
+    List<Guest> guests = new ArrayList<>();
+    for (int i = 0; i < 300; i++) {
+      guests.add(createGuest("g" + i, genders[random.nextInt(2)], random.nextInt(90),
+          regions[random.nextInt(regions.length)], "testuser01"));
+    }
+    List<Reservation> reservations = new ArrayList<>();
+    for (int i = 0; i < 5000; i++) {
+      reservations.add(randomReservation(random, "r" + i, guests, statuses));
+    }
+    GuestDemographicsCube cube = new GuestDemographicsCube();
+    cube.load(guests, reservations);
+
+    for (int i = 0; i < 3000; i++) {
+      switch (random.nextInt(3)) {
+        case 0 -> {
+          int target = random.nextInt(guests.size());
+          Guest guest = createGuest(guests.get(target).getId(), genders[random.nextInt(2)],
+              random.nextInt(90), regions[random.nextInt(regions.length)], "testuser01");
+          guests.set(target, guest);
+          cube.putGuest("testuser01", guest);
+        }
+        case 1 -> {
+          int target = random.nextInt(reservations.size());
+          Reservation reservation = randomReservation(random,
+              reservations.get(target).getId(), guests, statuses);
+          reservations.set(target, reservation);
+          cube.putReservation("testuser01", reservation);
+        }
+        default -> {
+          Reservation reservation = reservations.get(random.nextInt(reservations.size()));
+          reservation.setStatus(statuses[random.nextInt(statuses.length)]);
+          cube.changeStatus("testuser01", reservation.getId(), reservation.getStatus());
+        }
+      }
+    }
+
+    Map<String, Guest> guestsById = new HashMap<>();
+    guests.forEach(guest -> guestsById.put(guest.getId(), guest));
+    Map<String, int[]> expected = new HashMap<>();
+    for (Reservation reservation : reservations) {
+      if (reservation.getStatus() == ReservationStatus.CANCELLED
+          || reservation.getStatus() == ReservationStatus.NO_SHOW) {
+        continue;
+      }
+      Guest guest = guestsById.get(reservation.getGuestId());
+      int[] measure = expected.computeIfAbsent(YearMonth.from(reservation.getCheckInDate())
+          + "/" + guest.getRegion() + "/" + guest.getAge() / 10 * 10 + "/" + guest.getGender(),
+          key -> new int[2]);
+      measure[0]++;
+      measure[1] += reservation.getStayDays();
+    }
+    Map<String, int[]> actual = new HashMap<>();
+    for (DemographicsCell cell : cube.query("testuser01", AUG.minusYears(1), AUG.plusYears(1),
+        null)) {
+      actual.put(cell.getMonth() + "/" + cell.getRegion() + "/" + cell.getAgeBand() + "/"
+          + cell.getGender(), new int[]{cell.getReservations(), cell.getNights()});
+    }
+
+    assertThat(actual).hasSameSizeAs(expected);
+    expected.forEach((key, measure) -> assertThat(actual.get(key)).containsExactly(measure));
+  }
+
+  private Reservation randomReservation(Random random, String id, List<Guest> guests,
+      ReservationStatus[] statuses) {
+    return createReservation(id, guests.get(random.nextInt(guests.size())).getId(),
+        random.nextBoolean() ? PLAN_A : PLAN_B, AUG.atDay(1).plusDays(random.nextInt(120)),
+        1 + random.nextInt(7), statuses[random.nextInt(statuses.length)], "testuser01");
+  }
+
+  private Guest createGuest(String id, String gender, int age, String region, String userId) {
+    Guest guest = new Guest();
+    guest.setId(id);
+    guest.setGender(gender);
+    guest.setAge(age);
+    guest.setRegion(region);
+    guest.setUserId(userId);
+    return guest;
+  }
+
+  private Reservation createReservation(String id, String guestId, String bookingId,
+      LocalDate checkIn, int stayDays, ReservationStatus status, String userId) {
+    Reservation reservation = new Reservation();
+    reservation.setId(id);
+    reservation.setGuestId(guestId);
+    reservation.setBookingId(bookingId);
+    reservation.setCheckInDate(checkIn);
+    reservation.setCheckOutDate(checkIn.plusDays(stayDays));
+    reservation.setStayDays(stayDays);
+    reservation.setStatus(status);
+    reservation.setUserId(userId);
+    return reservation;
+  }
+}
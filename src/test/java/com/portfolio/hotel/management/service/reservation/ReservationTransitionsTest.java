@@ -0,0 +1,66 @@
+package com.portfolio.hotel.management.service.reservation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.portfolio.hotel.management.data.reservation.ReservationAction;
+import com.portfolio.hotel.management.data.reservation.ReservationStatus;
+import com.portfolio.hotel.management.data.reservation.ReservationTransitionResult;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class ReservationTransitionsTest {
+
+  @Test
+  void 全ての操作に変更できるステータスの組がある() {
+    for (ReservationAction action : ReservationAction.values()) {
+      assertThat(ReservationTransitions.of(action)).isNotEmpty();
+    }
+    assertThat(ReservationTransitions.of(ReservationAction.CANCEL)).containsOnly(
+        entry(ReservationStatus.TEMPORARY, ReservationStatus.CANCELLED),
+        entry(ReservationStatus.NOT_CHECKED_IN, ReservationStatus.CANCELLED));
+    assertThat(ReservationTransitions.of(ReservationAction.REVERT)).containsOnly(
+        entry(ReservationStatus.CHECKED_IN, ReservationStatus.NOT_CHECKED_IN),
+        entry(ReservationStatus.CHECKED_OUT, ReservationStatus.CHECKED_IN),
+        entry(ReservationStatus.CANCELLED, ReservationStatus.NOT_CHECKED_IN),
+        entry(ReservationStatus.NO_SHOW, ReservationStatus.NOT_CHECKED_IN));
+  }
+
+  @Test
+  void 遷移表にない組み合わせは変更できない() {
+    assertThat(ReservationTransitions.of(ReservationAction.CHECK_IN))
+        .doesNotContainKey(ReservationStatus.CHECKED_OUT);
+    assertThat(ReservationTransitions.of(ReservationAction.CHECK_OUT))
+        .doesNotContainKey(ReservationStatus.NOT_CHECKED_IN);
+    assertThat(ReservationTransitions.of(ReservationAction.NO_SHOW))
+        .doesNotContainKey(ReservationStatus.CHECKED_IN);
+  }
+
+  @Test
+  void 予約ごとに変更できるかが判定され_変更できない予約には理由が入る() {
+    List<ReservationTransitionResult> actual = ReservationTransitions.plan(
+        ReservationAction.CHECK_IN, List.of("r1", "r2", "r3"),
+        Map.of("r1", ReservationStatus.NOT_CHECKED_IN, "r2", ReservationStatus.CHECKED_OUT));
+
+    assertThat(actual)
+        .extracting(ReservationTransitionResult::getReservationId,
+            ReservationTransitionResult::isSuccess, ReservationTransitionResult::getFrom,
+            ReservationTransitionResult::getTo, ReservationTransitionResult::getMessage)
+        .containsExactly(
+            tuple("r1", true, ReservationStatus.NOT_CHECKED_IN, ReservationStatus.CHECKED_IN,
+                null),
+            tuple("r2", false, ReservationStatus.CHECKED_OUT, null,
+                "チェックアウトの予約はチェックインできません"),
+            tuple("r3", false, null, null, "宿泊予約が見つかりません"));
+  }
+
+  @Test
+  void 現在のステータスが分からない場合_変更できるステータスが理由になる() {
+    assertThat(ReservationTransitions.rejected("r1", ReservationAction.CHECK_IN).getMessage())
+        .isEqualTo("未チェックインの予約のみチェックイン可能です");
+    assertThat(ReservationTransitions.rejected("r1", ReservationAction.CANCEL).getMessage())
+        .isEqualTo("仮予約・未チェックインの予約のみキャンセル可能です");
+  }
+}
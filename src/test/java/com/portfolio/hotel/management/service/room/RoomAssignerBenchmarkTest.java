@@ -0,0 +1,113 @@
+package com.portfolio.hotel.management.service.room;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.portfolio.hotel.management.data.room.RoomAssignment;
+import com.portfolio.hotel.management.data.room.RoomAssignmentResult;
+import com.portfolio.hotel.management.service.HotelService;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+// 性能測定（./gradlew benchmark で実行）
+@Tag("benchmark")
+@SpringBootTest(properties =
+    "spring.datasource.url=jdbc:h2:mem:room-benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1")
+class RoomAssignerBenchmarkTest {
+
+  private static final int ROOMS = 300;
+
+  // 宿泊中（本日の泊が埋まっている部屋）
+  private static final int STAYING = 60;
+
+  // 明日以降にチェックインし、部屋を割り当て済みの宿泊予約
+  private static final int UPCOMING = 150;
+
+  // 本日チェックイン予定で部屋が未割り当ての宿泊予約
+  private static final int ARRIVALS = ROOMS - STAYING;
+
+  private static final int PLANS = 3;
+
+  private static final String USER_ID = "benchmark";
+
+  private static final LocalDate TODAY = LocalDate.of(2030, 1, 15);
+
+  @Autowired
+  private HotelService service;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Test
+  void 三百室の一日分のチェックインに部屋を割り当てる() {
+    createFixture();
+    Authentication auth = new UsernamePasswordAuthenticationToken(USER_ID, "pass",
+        List.of(new SimpleGrantedAuthority("ROLE_USER")));
+
+    long start = System.nanoTime();
+    RoomAssignmentResult actual = service.assignRooms(auth, TODAY);
+    double millis = (System.nanoTime() - start) / 1_000_000.0;
+
+    System.out.printf("部屋数: %d室, 対象の宿泊予約: %d件, 割り当て: %d件, 割り当てなし: %d件, "
+            + "処理時間: %.1fミリ秒%n",
+        ROOMS, ARRIVALS, actual.getAssigned().size(), actual.getUnassignedIds().size(), millis);
+
+    assertThat(actual.getAssigned().size() + actual.getUnassignedIds().size())
+        .isEqualTo(ARRIVALS);
+    assertThat(actual.getAssigned())
+        .extracting(RoomAssignment::getRoomId)
+        .doesNotHaveDuplicates();
+    assertThat(jdbcTemplate.queryForObject("""
+        SELECT COUNT(*) FROM reservation
+        WHERE user_id = ? AND check_in_date = ? AND room_id IS NOT NULL
+        """, Integer.class, USER_ID, TODAY)).isEqualTo(actual.getAssigned().size());
+    assertThat(millis).isLessThan(1000);
+  }
+
+  // 部屋は宿泊プランに順に割り振り、宿泊中・割り当て済みの宿泊予約は先頭の部屋から順に入れる
+  private void createFixture() {
+    jdbcTemplate.update("""
+        INSERT INTO booking (id, name, price, capacity, user_id)
+        SELECT CONCAT('plan-', X), CONCAT('プラン', X), 10000, ?, ?
+        FROM SYSTEM_RANGE(0, ?)
+        """, ROOMS, USER_ID, PLANS - 1);
+    jdbcTemplate.update("""
+        INSERT INTO room (id, booking_id, name, user_id)
+        SELECT CONCAT('room-', LPAD(X, 4, '0')), CONCAT('plan-', MOD(X, %d)), X, ?
+        FROM SYSTEM_RANGE(1, ?)
+        """.formatted(PLANS), USER_ID, ROOMS);
+    jdbcTemplate.update("""
+        INSERT INTO guest (id, name, kana_name, gender, age, user_id)
+        SELECT CONCAT('guest-', X), CONCAT('宿泊者', X), CONCAT('シュクハクシャ', X), '女性', 30, ?
+        FROM SYSTEM_RANGE(1, ?)
+        """, USER_ID, STAYING + UPCOMING + ARRIVALS);
+    insertReservations("staying", 1, STAYING,
+        "DATEADD(DAY, -2, CAST(? AS DATE))", "MOD(X, 3) + 3", "CHECKED_IN",
+        "CONCAT('room-', LPAD(X, 4, '0'))");
+    insertReservations("upcoming", STAYING + 1, STAYING + UPCOMING,
+        "DATEADD(DAY, MOD(X, 20) + 1, CAST(? AS DATE))", "MOD(X, 4) + 1", "NOT_CHECKED_IN",
+        "CONCAT('room-', LPAD(X, 4, '0'))");
+    insertReservations("arrival", STAYING + UPCOMING + 1, STAYING + UPCOMING + ARRIVALS,
+        "CAST(? AS DATE)", "MOD(X * 7, 14) + 1", "NOT_CHECKED_IN", "NULL");
+  }
+
+  // X番目の宿泊者の宿泊予約を、チェックイン日・泊数・部屋の式から作成する
+  private void insertReservations(String prefix, int from, int to, String checkIn,
+      String stayDays, String status, String roomId) {
+    jdbcTemplate.update("""
+        INSERT INTO reservation (id, guest_id, booking_id, check_in_date, check_out_date,
+        stay_days, total_price, status, user_id, room_id)
+        SELECT CONCAT('%1$s-', X), CONCAT('guest-', X), CONCAT('plan-', MOD(X, %5$d)),
+        %2$s, DATEADD(DAY, %3$s, %2$s), %3$s, 10000, '%4$s', ?, %6$s
+        FROM SYSTEM_RANGE(?, ?)
+        """.formatted(prefix, checkIn, stayDays, status, PLANS, roomId),
+        TODAY, TODAY, USER_ID, from, to);
+  }
+}
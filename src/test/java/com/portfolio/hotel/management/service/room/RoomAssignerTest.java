@@ -0,0 +1,196 @@
+package com.portfolio.hotel.management.service.room;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.portfolio.hotel.management.data.reservation.Reservation;
+import com.portfolio.hotel.management.data.reservation.ReservationStatus;
+import com.portfolio.hotel.management.data.room.Room;
+import com.portfolio.hotel.management.data.room.RoomAssignment;
+import com.portfolio.hotel.management.data.room.RoomAssignmentResult;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class RoomAssignerTest {
+
+  private static final String PLAN_A = "aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa";
+  private static final String PLAN_B = "bbbbbbbb-bbbb-4bbb-8bbb-bbbbbbbbbbbb";
+
+  private static final LocalDate TODAY = LocalDate.of(2025, 9, 22);
+
+  @Test
+  void 同じ宿泊プランの空いている部屋が割り当てられる() {
+    RoomAssignmentResult actual = RoomAssigner.assign(TODAY,
+        List.of(createRoom("a-101", PLAN_A, "101"), createRoom("b-201", PLAN_B, "201")),
+        List.of(),
+        List.of(createReservation("r1", PLAN_A, TODAY, 2, null),
+            createReservation("r2", PLAN_B, TODAY, 1, null)));
+
+    assertThat(actual.getDate()).isEqualTo(TODAY);
+    assertThat(toRoomIds(actual))
+        .containsExactlyInAnyOrderEntriesOf(Map.of("r1", "a-101", "r2", "b-201"));
+    assertThat(actual.getAssigned())
+        .extracting(RoomAssignment::getRoomName)
+        .containsExactlyInAnyOrder("101", "201");
+    assertThat(actual.getUnassignedIds()).isEmpty();
+  }
+
+  @Test
+  void 宿泊中の部屋と本日割り当て済みの部屋は割り当てられない() {
+    RoomAssignmentResult actual = RoomAssigner.assign(TODAY,
+        List.of(createRoom("a-101", PLAN_A, "101"), createRoom("a-102", PLAN_A, "102"),
+            createRoom("a-103", PLAN_A, "103")),
+        List.of(
+            // 宿泊中
+            createReservation("stay", PLAN_A, TODAY.minusDays(2), 3, "a-101"),
+            // 本日チェックアウト（本日の泊は空いている）
+            createReservation("leave", PLAN_A, TODAY.minusDays(1), 1, "a-102"),
+            // 本日チェックインで割り当て済み
+            createReservation("r0", PLAN_A, TODAY, 1, "a-103")),
+        List.of(createReservation("r0", PLAN_A, TODAY, 1, "a-103"),
+            createReservation("r1", PLAN_A, TODAY, 1, null),
+            createReservation("r2", PLAN_A, TODAY, 1, null)));
+
+    assertThat(toRoomIds(actual)).containsExactlyEntriesOf(Map.of("r1", "a-102"));
+    assertThat(actual.getUnassignedIds()).containsExactly("r2");
+  }
+
+  @Test
+  void 宿泊期間の途中で次の宿泊予約が入っている部屋には割り当てず_部屋を移らせない() {
+    RoomAssignmentResult actual = RoomAssigner.assign(TODAY,
+        List.of(createRoom("a-101", PLAN_A, "101")),
+        List.of(createReservation("next", PLAN_A, TODAY.plusDays(2), 1, "a-101")),
+        List.of(createReservation("r1", PLAN_A, TODAY, 3, null)));
+
+    assertThat(actual.getAssigned()).isEmpty();
+    assertThat(actual.getUnassignedIds()).containsExactly("r1");
+  }
+
+  @Test
+  void 次の宿泊予約までの空きが最も短くなる部屋が選ばれる() {
+    RoomAssignmentResult actual = RoomAssigner.assign(TODAY,
+        List.of(createRoom("a-101", PLAN_A, "101"), createRoom("a-102", PLAN_A, "102"),
+            createRoom("a-103", PLAN_A, "103")),
+        List.of(createReservation("next1", PLAN_A, TODAY.plusDays(5), 1, "a-101"),
+            createReservation("next2", PLAN_A, TODAY.plusDays(2), 1, "a-102")),
+        List.of(createReservation("r1", PLAN_A, TODAY, 2, null)));
+
+    // 2泊の宿泊は2日後から次の宿泊予約がある102にちょうど収まる
+    assertThat(toRoomIds(actual)).containsExactlyEntriesOf(Map.of("r1", "a-102"));
+  }
+
+  @Test
+  void 長い宿泊を先に割り当て_後の長い空きを短い宿泊で使い切らない() {
+    RoomAssignmentResult actual = RoomAssigner.assign(TODAY,
+        List.of(createRoom("a-101", PLAN_A, "101"), createRoom("a-102", PLAN_A, "102")),
+        List.of(createReservation("next", PLAN_A, TODAY.plusDays(1), 1, "a-101")),
+        List.of(createReservation("short", PLAN_A, TODAY, 1, null),
+            createReservation("long", PLAN_A, TODAY, 7, null)));
+
+    assertThat(toRoomIds(actual))
+        .containsExactlyInAnyOrderEntriesOf(Map.of("long", "a-102", "short", "a-101"));
+    assertThat(actual.getUnassignedIds()).isEmpty();
+  }
+
+  @Test
+  void 部屋のない宿泊プランの宿泊予約は割り当てられない() {
+    RoomAssignmentResult actual = RoomAssigner.assign(TODAY,
+        List.of(createRoom("a-101", PLAN_A, "101")),
+        List.of(),
+        List.of(createReservation("r1", PLAN_B, TODAY, 1, null)));
+
+    assertThat(actual.getAssigned()).isEmpty();
+    assertThat(actual.getUnassignedIds()).containsExactly("r1");
+  }
+
+  @Test
+  void 部屋が重ならず_割り当て可能な部屋がある宿泊予約は全て割り当てられる() {
+    Random random = new Random(20250922L);
+    List<Room> rooms = new ArrayList<>();
+    List<Reservation> occupied = new ArrayList<>();
+    for (int i = 0; i < 300; i++) {
+      Room room = createRoom("room-" + i, i % 2 == 0 ? PLAN_A : PLAN_B, String.valueOf(i));
+      rooms.add(room);
+      int next = random.nextInt(20);
+      if (next > 0) {
+        occupied.add(createReservation("next-" + i, room.getBookingId(), TODAY.plusDays(next),
+            2, room.getId()));
+      }
+    }
+    List<Reservation> arrivals = new ArrayList<>();
+    for (int i = 0; i < 280; i++) {
+      arrivals.add(createReservation("r" + i, i % 2 == 0 ? PLAN_A : PLAN_B, TODAY,
+          1 + random.nextInt(14), null));
+    }
+
+    RoomAssignmentResult actual = RoomAssigner.assign(TODAY, rooms, occupied, arrivals);
+
+    Map<String, Room> roomsById = new HashMap<>();
+    rooms.forEach(room -> roomsById.put(room.getId(), room));
+    Map<String, Reservation> arrivalsById = new HashMap<>();
+    arrivals.forEach(reservation -> arrivalsById.put(reservation.getId(), reservation));
+    Map<String, LocalDate> nextCheckIn = new HashMap<>();
+    occupied.forEach(reservation ->
+        nextCheckIn.put(reservation.getRoomId(), reservation.getCheckInDate()));
+
+    assertThat(actual.getAssigned().size() + actual.getUnassignedIds().size())
+        .isEqualTo(arrivals.size());
+    assertThat(actual.getAssigned())
+        .extracting(RoomAssignment::getRoomId)
+        .doesNotHaveDuplicates();
+    for (RoomAssignment assignment : actual.getAssigned()) {
+      Reservation reservation = arrivalsById.get(assignment.getReservationId());
+      assertThat(roomsById.get(assignment.getRoomId()).getBookingId())
+          .isEqualTo(reservation.getBookingId());
+      LocalDate next = nextCheckIn.get(assignment.getRoomId());
+      if (next != null) {
+        assertThat(reservation.getCheckOutDate()).isBeforeOrEqualTo(next);
+      }
+    }
+    // 割り当てなかった宿泊予約には、そのチェックアウト日まで空いている部屋が残っていない
+    for (String id : actual.getUnassignedIds()) {
+      Reservation reservation = arrivalsById.get(id);
+      long free = rooms.stream()
+          .filter(room -> room.getBookingId().equals(reservation.getBookingId()))
+          .filter(room -> actual.getAssigned().stream()
+              .noneMatch(assignment -> assignment.getRoomId().equals(room.getId())))
+          .filter(room -> nextCheckIn.get(room.getId()) == null
+              || !reservation.getCheckOutDate().isAfter(nextCheckIn.get(room.getId())))
+          .count();
+      assertThat(free).isZero();
+    }
+  }
+
+  private Map<String, String> toRoomIds(RoomAssignmentResult result) {
+    Map<String, String> roomIds = new HashMap<>();
+    result.getAssigned().forEach(assignment ->
+        roomIds.put(assignment.getReservationId(), assignment.getRoomId()));
+    return roomIds;
+  }
+
+  private Room createRoom(String id, String bookingId, String name) {
+    Room room = new Room();
+    room.setId(id);
+    room.setBookingId(bookingId);
+    room.setName(name);
+    room.setUserId("testuser01");
+    return room;
+  }
+
+  private Reservation createReservation(String id, String bookingId, LocalDate checkIn,
+      int stayDays, String roomId) {
+    Reservation reservation = new Reservation();
+    reservation.setId(id);
+    reservation.setBookingId(bookingId);
+    reservation.setCheckInDate(checkIn);
+    reservation.setCheckOutDate(checkIn.plusDays(stayDays));
+    reservation.setStayDays(stayDays);
+    reservation.setStatus(ReservationStatus.NOT_CHECKED_IN);
+    reservation.setRoomId(roomId);
+    return reservation;
+  }
+}